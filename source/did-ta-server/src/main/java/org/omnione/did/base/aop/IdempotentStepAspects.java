@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.aop;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.idempotency.IdempotentStep;
+import org.omnione.did.tas.v1.service.StepReplayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The IdempotentStepAspects class replays the stored response of a completed protocol step
+ * when the same request is retried for the same transaction.
+ * It runs outside the service's database transaction, so a response is only stored once the step has committed.
+ * Steps returning a CompletableFuture are stored when the future completes successfully.
+ * While a step is running, a concurrent call for the same (txId, step) on this node is rejected
+ * instead of running the step a second time; the client retries and gets the stored response.
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Profile("!sample")
+public class IdempotentStepAspects {
+    private final StepReplayService stepReplayService;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the stored response for an identical retry, or runs the step and stores its response.
+     *
+     * @param joinPoint the ProceedingJoinPoint object
+     * @param idempotentStep the IdempotentStep annotation of the method
+     * @return the result of the step
+     * @throws Throwable the exception
+     */
+    @Around("@annotation(idempotentStep)")
+    public Object replayStep(ProceedingJoinPoint joinPoint, IdempotentStep idempotentStep) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (!stepReplayService.isEnabled() || args.length == 0 || args[0] == null) {
+            return joinPoint.proceed();
+        }
+
+        Object request = args[0];
+        String txId = extractTxId(request);
+        if (txId == null) {
+            return joinPoint.proceed();
+        }
+
+        String requestDigest = stepReplayService.digest(request);
+        if (requestDigest == null) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        boolean async = CompletableFuture.class.isAssignableFrom(method.getReturnType());
+        Class<?> responseType = async ? resolveFutureType(method) : method.getReturnType();
+        if (responseType == null) {
+            return joinPoint.proceed();
+        }
+
+        String stepKey = txId + ':' + idempotentStep.value();
+        if (!inFlight.add(stepKey)) {
+            log.error("\t--> {} for txId {} is already in progress", idempotentStep.value(), txId);
+            throw new OpenDidException(ErrorCode.CONCURRENT_REQUEST_IN_PROGRESS);
+        }
+
+        boolean releaseOnCompletion = false;
+        try {
+            Object replayed = stepReplayService.findResponse(txId, idempotentStep.value(), requestDigest, responseType);
+            if (replayed != null) {
+                log.debug("\t--> Replaying stored response of {} for txId {}", idempotentStep.value(), txId);
+                return async ? CompletableFuture.completedFuture(replayed) : replayed;
+            }
+
+            Object response = joinPoint.proceed();
+            if (async) {
+                // The response is stored once the step completes; the returned future is not altered.
+                ((CompletableFuture<?>) response).whenComplete((result, throwable) -> {
+                    try {
+                        if (throwable == null) {
+                            stepReplayService.saveResponse(txId, idempotentStep.value(), requestDigest, result);
+                        }
+                    } finally {
+                        inFlight.remove(stepKey);
+                    }
+                });
+                releaseOnCompletion = true;
+            } else {
+                stepReplayService.saveResponse(txId, idempotentStep.value(), requestDigest, response);
+            }
+            return response;
+        } finally {
+            if (!releaseOnCompletion) {
+                inFlight.remove(stepKey);
+            }
+        }
+    }
+
+    private Class<?> resolveFutureType(Method method) {
+        if (method.getGenericReturnType() instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> futureType) {
+            return futureType;
+        }
+        return null;
+    }
+
+    private String extractTxId(Object request) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(request);
+        if (!wrapper.isReadableProperty("txId")) {
+            return null;
+        }
+        Object txId = wrapper.getPropertyValue("txId");
+        return (txId != null) ? txId.toString() : null;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.aop;
+
+import org.omnione.did.base.datasource.DataSourceRoutingContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * The ReplicaReadAspects class marks the execution of ReplicaRead methods so that
+ * their queries can be routed to the read replica.
+ * Only active when spring.datasource.replica.enabled is true.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaReadAspects {
+
+    /**
+     * Runs the annotated method with replica reads allowed.
+     *
+     * @param joinPoint the ProceedingJoinPoint object
+     * @return the result of the method
+     * @throws Throwable the exception
+     */
+    @Around("@annotation(org.omnione.did.base.datasource.ReplicaRead) || @within(org.omnione.did.base.datasource.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean previous = DataSourceRoutingContext.enterReplicaRead();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoutingContext.restore(previous);
+        }
+    }
+}
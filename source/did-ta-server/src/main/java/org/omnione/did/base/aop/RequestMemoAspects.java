@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.aop;
+
+import org.omnione.did.base.memo.RequestMemoContext;
+import org.omnione.did.base.property.TasProperty;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The RequestMemoAspects class memoizes RequestMemoized query methods for the current request
+ * and clears the memo whenever the request writes through a Spring Data repository
+ * (save*, delete* or a Modifying query).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestMemoAspects {
+    private static final Object NULL_RESULT = new Object();
+
+    private final TasProperty tasProperty;
+
+    /**
+     * Returns the memoized result of the call, or runs the query and memoizes its result.
+     *
+     * @param joinPoint the ProceedingJoinPoint object
+     * @return the result of the method
+     * @throws Throwable the exception
+     */
+    @Around("@annotation(org.omnione.did.base.memo.RequestMemoized) || @within(org.omnione.did.base.memo.RequestMemoized)")
+    public Object memoize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Map<List<Object>, Object> memo = tasProperty.getRequestMemo().isEnable() ? RequestMemoContext.getMemo() : null;
+        if (memo == null) {
+            return joinPoint.proceed();
+        }
+
+        Object[] args = joinPoint.getArgs();
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(joinPoint.getSignature().toLongString());
+        key.addAll(Arrays.asList(args));
+
+        Object memoized = memo.get(key);
+        if (memoized != null) {
+            return (memoized == NULL_RESULT) ? null : memoized;
+        }
+        Object result = joinPoint.proceed();
+        memo.put(key, (result != null) ? result : NULL_RESULT);
+        return result;
+    }
+
+    /**
+     * Clears the memo after a repository write, so that later reads of the request observe it.
+     */
+    @After("execution(* org.springframework.data.repository.CrudRepository+.save*(..))"
+            + " || execution(* org.springframework.data.repository.CrudRepository+.delete*(..))"
+            + " || @annotation(org.springframework.data.jpa.repository.Modifying)")
+    public void clearOnWrite() {
+        RequestMemoContext.clear();
+    }
+}
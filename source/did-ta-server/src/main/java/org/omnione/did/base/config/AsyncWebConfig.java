@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.config;
+
+import org.omnione.did.tas.v1.helper.VcAsyncHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * The AsyncWebConfig class configures async request processing for the application.
+ * The container-level timeout is kept above every endpoint timeout,
+ * so that endpoint timeouts are reported with their own error code.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncWebConfig implements WebMvcConfigurer {
+    private static final long TIMEOUT_MARGIN_MS = 5000;
+
+    private final VcAsyncHelper vcAsyncHelper;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(vcAsyncHelper.getMaxTimeoutMs() + TIMEOUT_MARGIN_MS);
+    }
+}
@@ -16,29 +16,90 @@
 
 package org.omnione.did.base.config;
 
+import org.omnione.did.base.constants.UrlConstant;
+import org.omnione.did.base.property.AuthProperty;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
 
 /**
  * The SecurityConfig class provides methods for configuring security settings.
  * This class configures the security settings for the application, such as CSRF, form login, HTTP basic authentication,
  * and custom authorization for specific endpoints.
+ * The operations endpoints under /tas/admin/** have their own filter chain that requires HTTP Basic
+ * authentication (auth.admin.*); only the readiness probe is open.
  */
 @RequiredArgsConstructor
 @Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final String ADMIN_ROLE = "ADMIN";
+    private static final String READINESS_URL = UrlConstant.Tas.ADMIN_V1 + "/readiness";
+
+    private final AuthProperty authProperty;
+
     static {
     }
 
+    /**
+     * Configures the security filter chain of the operations endpoints (/tas/admin/**).
+     * They require HTTP Basic authentication with auth.admin.username and auth.admin.password,
+     * except the readiness probe. Without a configured password every other admin endpoint is denied.
+     *
+     * @param httpSecurity the HttpSecurity object used to configure web-based security
+     * @return the configured SecurityFilterChain instance
+     * @throws Exception if an error occurs while configuring security
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain adminSecurityFilterChain(HttpSecurity httpSecurity)
+            throws Exception {
+
+        httpSecurity
+                .securityMatcher(UrlConstant.Tas.ADMIN_V1 + "/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        AuthProperty.Admin admin = authProperty.getAdmin();
+        if (!StringUtils.hasText(admin.getPassword())) {
+            log.warn("auth.admin.password is not set; the admin endpoints other than readiness are closed");
+            return httpSecurity
+                    .httpBasic(AbstractHttpConfigurer::disable)
+                    .authorizeHttpRequests(configurer -> configurer
+                            .requestMatchers(HttpMethod.GET, READINESS_URL).permitAll()
+                            .anyRequest().denyAll())
+                    .build();
+        }
+
+        return httpSecurity
+                .httpBasic(Customizer.withDefaults())
+                .userDetailsService(new InMemoryUserDetailsManager(User.withUsername(admin.getUsername())
+                        .password(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode(admin.getPassword()))
+                        .roles(ADMIN_ROLE)
+                        .build()))
+                .authorizeHttpRequests(configurer -> configurer
+                        .requestMatchers(HttpMethod.GET, READINESS_URL).permitAll()
+                        .anyRequest().hasRole(ADMIN_ROLE))
+                .build();
+    }
+
     /**
      * Configures the security filter chain that applies to all HTTP requests.
      * This method disables CSRF protection, basic authentication, form login, and logout functionalities,
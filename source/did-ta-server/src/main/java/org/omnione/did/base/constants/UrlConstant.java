@@ -27,6 +27,7 @@ public class UrlConstant {
      */
     public static class Tas {
         public static final String V1 = "/tas/api/v1";
+        public static final String ADMIN_V1 = "/tas/admin/v1";
     }
 
     /**
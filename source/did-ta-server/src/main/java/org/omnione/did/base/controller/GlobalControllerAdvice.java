@@ -26,6 +26,7 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.stream.Collectors;
 
@@ -92,4 +93,17 @@ public class GlobalControllerAdvice {
         ErrorResponse errorResponse = new ErrorResponse(ErrorCode.REQUEST_BODY_INVALID);
         return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(500));
     }
+
+    /**
+     * Handles AsyncRequestTimeoutException that occurs when an async request is not completed in time.
+     * It returns an ErrorResponse with the status of ISSUER_RESPONSE_TIMEOUT.
+     *
+     * @param ex the AsyncRequestTimeoutException that was thrown
+     * @return a ResponseEntity containing the error response and a 504 HTTP status code
+     */
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncRequestTimeoutException(AsyncRequestTimeoutException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ErrorCode.ISSUER_RESPONSE_TIMEOUT);
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(ErrorCode.ISSUER_RESPONSE_TIMEOUT.getHttpStatus()));
+    }
 }
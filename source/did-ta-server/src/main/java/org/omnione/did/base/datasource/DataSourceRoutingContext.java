@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Holds the routing state used by {@link ReplicaRoutingDataSource}.
+ *
+ * A read is routed to the replica only while a {@link ReplicaRead} method is executing.
+ * A request is pinned to the primary once it writes or enters a protocol step
+ * (touches an in-flight transaction), so that every later read of that request
+ * observes its own writes and those of the previous steps. The pin is stored as a
+ * request attribute and therefore ends with the request. Work that continues a pinned
+ * request on another thread pins that thread instead (see {@link #enterPinnedToPrimary()}).
+ */
+public class DataSourceRoutingContext {
+    private static final String PRIMARY_PINNED_ATTRIBUTE = DataSourceRoutingContext.class.getName() + ".PRIMARY_PINNED";
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {
+    }
+
+    /**
+     * Marks the current thread as executing a replica-safe read.
+     *
+     * @return The previous state, to be passed to {@link #restore(Boolean)}
+     */
+    public static Boolean enterReplicaRead() {
+        Boolean previous = REPLICA_READ.get();
+        REPLICA_READ.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * Marks the current thread as executing a read that must be served by the primary,
+     * even inside a {@link ReplicaRead} method (e.g. loading a value into a shared cache).
+     *
+     * @return The previous state, to be passed to {@link #restore(Boolean)}
+     */
+    public static Boolean enterPrimaryRead() {
+        Boolean previous = REPLICA_READ.get();
+        REPLICA_READ.set(Boolean.FALSE);
+        return previous;
+    }
+
+    /**
+     * Restores the state saved by {@link #enterReplicaRead()} or {@link #enterPrimaryRead()}.
+     *
+     * @param previous The previous state
+     */
+    public static void restore(Boolean previous) {
+        if (previous == null) {
+            REPLICA_READ.remove();
+        } else {
+            REPLICA_READ.set(previous);
+        }
+    }
+
+    /**
+     * Checks whether the current thread is executing a replica-safe read.
+     *
+     * @return true if inside a {@link ReplicaRead} method
+     */
+    public static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    /**
+     * Pins the current request to the primary datasource for the rest of its lifetime.
+     * Outside of a request this is a no-op.
+     */
+    public static void pinToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Pins the current thread to the primary datasource, for work that continues a pinned request
+     * outside of the request thread (e.g. the completion of an async protocol step).
+     *
+     * @return The previous state, to be passed to {@link #restorePin(Boolean)}
+     */
+    public static Boolean enterPinnedToPrimary() {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * Restores the state saved by {@link #enterPinnedToPrimary()}.
+     *
+     * @param previous The previous state
+     */
+    public static void restorePin(Boolean previous) {
+        if (previous == null) {
+            PRIMARY_PINNED.remove();
+        } else {
+            PRIMARY_PINNED.set(previous);
+        }
+    }
+
+    /**
+     * Checks whether the current request or thread is pinned to the primary datasource.
+     *
+     * @return true if pinned
+     */
+    public static boolean isPinnedToPrimary() {
+        if (Boolean.TRUE.equals(PRIMARY_PINNED.get())) {
+            return true;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && Boolean.TRUE.equals(attributes.getAttribute(PRIMARY_PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource that routes connections between the primary and the read replica.
+ *
+ * A connection is taken from the replica only when all of the following hold:
+ * the caller is a {@link ReplicaRead} method, the current transaction (if any) is read-only,
+ * and the current request has not been pinned to the primary.
+ * Opening a read-write transaction pins the request to the primary.
+ *
+ * This DataSource must be wrapped in a LazyConnectionDataSourceProxy so that the
+ * routing decision is made when the first statement is executed, after the
+ * transaction attributes have been bound.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA,
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return determineRoute();
+    }
+
+    /**
+     * Determines the route for the current thread and request.
+     *
+     * @return The route to use
+     */
+    public static Route determineRoute() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            DataSourceRoutingContext.pinToPrimary();
+            return Route.PRIMARY;
+        }
+        if (!DataSourceRoutingContext.isReplicaRead() || DataSourceRoutingContext.isPinnedToPrimary()) {
+            return Route.PRIMARY;
+        }
+        log.trace("Routing read to replica");
+        return Route.REPLICA;
+    }
+}
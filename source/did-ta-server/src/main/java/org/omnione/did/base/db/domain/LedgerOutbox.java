@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.db.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
+import org.omnione.did.base.db.constant.LedgerOutboxStatus;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Entity class for the ledger_outbox table.
+ * Represents a ledger write recorded in the same database transaction as the business state,
+ * which is submitted to the storage (blockchain or repository server) by the outbox workers.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString(exclude = "payload")
+@Entity
+@Table(name = "ledger_outbox")
+public class LedgerOutbox extends BaseEntity implements Serializable {
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "operation", nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private LedgerOutboxOperation operation;
+
+    @Column(name = "idempotency_key", nullable = false, length = 300)
+    private String idempotencyKey;
+
+    @Column(name = "target_id", nullable = false, length = 200)
+    private String targetId;
+
+    @Column(name = "role_type", length = 50)
+    private String roleType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "complete_transaction", nullable = false)
+    private boolean completeTransaction;
+
+    @Column(name = "status", nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private LedgerOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "committed_at")
+    private Instant committedAt;
+}
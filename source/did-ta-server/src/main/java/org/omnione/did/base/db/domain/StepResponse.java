@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.db.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.omnione.did.base.db.constant.SubTransactionType;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Entity class for the step_response table.
+ * Represents the stored response of a completed protocol step, replayed for identical retries.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString(exclude = "responseBody")
+@Entity
+@Table(name = "\"step_response\"")
+public class StepResponse extends BaseEntity implements Serializable {
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tx_id", nullable = false, length = 40)
+    private String txId;
+
+    @Column(name = "step", nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private SubTransactionType step;
+
+    @Column(name = "request_digest", nullable = false, length = 64)
+    private String requestDigest;
+
+    @Column(name = "response_body", nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "expired_at", nullable = false)
+    private Instant expiredAt;
+}
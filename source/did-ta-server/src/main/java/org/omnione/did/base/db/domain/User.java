@@ -62,4 +62,7 @@ public class User extends BaseEntity implements Serializable {
     @Column(name = "pii", nullable = false, length = 100)
     private String pii;
 
+    @Column(name = "pii_hash", length = 64)
+    private String piiHash;
+
 }
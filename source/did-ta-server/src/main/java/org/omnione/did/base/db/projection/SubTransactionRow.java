@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.projection;
+
+import org.omnione.did.base.db.constant.SubTransactionStatus;
+import org.omnione.did.base.db.constant.SubTransactionType;
+import org.omnione.did.base.db.domain.SubTransaction;
+
+/**
+ * Read-only projection of the sub_transaction table, without the audit columns.
+ */
+public record SubTransactionRow(
+        Long id,
+        Integer step,
+        SubTransactionType type,
+        SubTransactionStatus status,
+        Long transactionId) {
+
+    /**
+     * Converts the row to a detached SubTransaction, which is not tracked by any persistence context.
+     *
+     * @return The detached SubTransaction
+     */
+    public SubTransaction toEntity() {
+        return SubTransaction.builder()
+                .id(id)
+                .step(step)
+                .type(type)
+                .status(status)
+                .transactionId(transactionId)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.projection;
+
+import org.omnione.did.base.db.domain.Token;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the token table, without the audit columns.
+ */
+public record TokenRow(
+        Long id,
+        String purpose,
+        String token,
+        String appId,
+        String walletId,
+        Instant expiredAt,
+        Long transactionId) {
+
+    /**
+     * Converts the row to a detached Token, which is not tracked by any persistence context.
+     *
+     * @return The detached Token
+     */
+    public Token toEntity() {
+        return Token.builder()
+                .id(id)
+                .purpose(purpose)
+                .token(token)
+                .appId(appId)
+                .walletId(walletId)
+                .expiredAt(expiredAt)
+                .transactionId(transactionId)
+                .build();
+    }
+}
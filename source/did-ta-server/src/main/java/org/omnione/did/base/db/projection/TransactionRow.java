@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.projection;
+
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.constant.TransactionType;
+import org.omnione.did.base.db.domain.Transaction;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the transaction table, without the audit columns.
+ */
+public record TransactionRow(
+        Long id,
+        String txId,
+        TransactionType type,
+        TransactionStatus status,
+        String did,
+        String authNonce,
+        String certificateId,
+        String externalTxId,
+        String externalDid,
+        String pii,
+        Instant expiredAt) {
+
+    /**
+     * Converts the row to a detached Transaction, which is not tracked by any persistence context.
+     *
+     * @return The detached Transaction
+     */
+    public Transaction toEntity() {
+        return Transaction.builder()
+                .id(id)
+                .txId(txId)
+                .type(type)
+                .status(status)
+                .did(did)
+                .authNonce(authNonce)
+                .certificateId(certificateId)
+                .externalTxId(externalTxId)
+                .externalDid(externalDid)
+                .pii(pii)
+                .expiredAt(expiredAt)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.projection;
+
+import org.omnione.did.base.db.constant.WalletStatus;
+import org.omnione.did.base.db.domain.Wallet;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the wallet table, without the audit columns.
+ */
+public record WalletRow(
+        Long id,
+        String walletId,
+        String did,
+        WalletStatus status,
+        Instant registeredAt,
+        Instant cancelledAt,
+        Long userId,
+        Long entityId) {
+
+    /**
+     * Converts the row to a detached Wallet, which is not tracked by any persistence context.
+     *
+     * @return The detached Wallet
+     */
+    public Wallet toEntity() {
+        return Wallet.builder()
+                .id(id)
+                .walletId(walletId)
+                .did(did)
+                .status(status)
+                .registeredAt(registeredAt)
+                .cancelledAt(cancelledAt)
+                .userId(userId)
+                .entityId(entityId)
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.repository;
+
+import org.omnione.did.base.db.constant.SubTransactionStatus;
+import org.omnione.did.base.db.constant.SubTransactionType;
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.constant.TransactionType;
+import org.omnione.did.base.db.constant.WalletStatus;
+import org.omnione.did.base.db.projection.EcdhRow;
+import org.omnione.did.base.db.projection.SubTransactionRow;
+import org.omnione.did.base.db.projection.TokenRow;
+import org.omnione.did.base.db.projection.TransactionRow;
+import org.omnione.did.base.db.projection.WalletRow;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Read-only JDBC access for the single-row lookups on the protocol hot path.
+ * Rows are mapped to immutable projections without going through the persistence context,
+ * so they are neither snapshotted for dirty checking nor passed to entity listeners.
+ * All writes still go through the JPA repositories.
+ *
+ * When called inside a read-write transaction, pending JPA changes are flushed first,
+ * so that the lookup observes the writes made earlier in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeanReadRepository {
+    private final JdbcClient jdbcClient;
+    private final EntityManager entityManager;
+
+    /**
+     * Finds a transaction by its transaction ID.
+     *
+     * @param txId The transaction ID
+     * @return The transaction row, if found
+     */
+    public Optional<TransactionRow> findTransactionByTxId(String txId) {
+        flushPendingWrites();
+        return jdbcClient.sql("""
+                        SELECT id, tx_id, type, status, did, auth_nonce, certificate_id,
+                               external_tx_id, external_did, pii, expired_at
+                        FROM "transaction"
+                        WHERE tx_id = ?""")
+                .param(txId)
+                .query((rs, rowNum) -> new TransactionRow(
+                        rs.getLong("id"),
+                        rs.getString("tx_id"),
+                        TransactionType.valueOf(rs.getString("type")),
+                        TransactionStatus.valueOf(rs.getString("status")),
+                        rs.getString("did"),
+                        rs.getString("auth_nonce"),
+                        rs.getString("certificate_id"),
+                        rs.getString("external_tx_id"),
+                        rs.getString("external_did"),
+                        rs.getString("pii"),
+                        getInstant(rs, "expired_at")))
+                .optional();
+    }
+
+    /**
+     * Finds the sub-transaction with the highest step of a transaction.
+     *
+     * @param transactionId The transaction primary key
+     * @return The sub-transaction row, if any
+     */
+    public Optional<SubTransactionRow> findLastSubTransaction(Long transactionId) {
+        flushPendingWrites();
+        return jdbcClient.sql("""
+                        SELECT id, step, type, status, transaction_id
+                        FROM "sub_transaction"
+                        WHERE transaction_id = ?
+                        ORDER BY step DESC
+                        LIMIT 1""")
+                .param(transactionId)
+                .query((rs, rowNum) -> new SubTransactionRow(
+                        rs.getLong("id"),
+                        rs.getInt("step"),
+                        SubTransactionType.valueOf(rs.getString("type")),
+                        SubTransactionStatus.valueOf(rs.getString("status")),
+                        rs.getLong("transaction_id")))
+                .optional();
+    }
+
+    /**
+     * Finds the server token of a transaction.
+     *
+     * @param transactionId The transaction primary key
+     * @return The token row, if found
+     */
+    public Optional<TokenRow> findTokenByTransactionId(Long transactionId) {
+        flushPendingWrites();
+        return jdbcClient.sql("""
+                        SELECT id, purpose, token, app_id, wallet_id, expired_at, transaction_id
+                        FROM "token"
+                        WHERE transaction_id = ?""")
+                .param(transactionId)
+                .query((rs, rowNum) -> new TokenRow(
+                        rs.getLong("id"),
+                        rs.getString("purpose"),
+                        rs.getString("token"),
+                        rs.getString("app_id"),
+                        rs.getString("wallet_id"),
+                        getInstant(rs, "expired_at"),
+                        rs.getLong("transaction_id")))
+                .optional();
+    }
+
+    /**
+     * Finds the ECDH information of a transaction.
+     *
+     * @param transactionId The transaction primary key
+     * @return The ECDH row, if found
+     */
+    public Optional<EcdhRow> findEcdhByTransactionId(Long transactionId) {
+        flushPendingWrites();
+        return jdbcClient.sql("""
+                        SELECT id, client_did, nonce, session_key, cipher, padding, transaction_id
+                        FROM "ecdh"
+                        WHERE transaction_id = ?""")
+                .param(transactionId)
+                .query((rs, rowNum) -> new EcdhRow(
+                        rs.getLong("id"),
+                        rs.getString("client_did"),
+                        rs.getString("nonce"),
+                        rs.getString("session_key"),
+                        rs.getString("cipher"),
+                        rs.getString("padding"),
+                        rs.getLong("transaction_id")))
+                .optional();
+    }
+
+    /**
+     * Finds a wallet by its wallet ID, DID and status.
+     *
+     * @param walletId The wallet ID
+     * @param did The wallet DID
+     * @param status The wallet status
+     * @return The wallet row, if found
+     */
+    public Optional<WalletRow> findWalletByWalletIdAndDidAndStatus(String walletId, String did, WalletStatus status) {
+        flushPendingWrites();
+        return jdbcClient.sql("""
+                        SELECT id, wallet_id, did, status, registered_at, cancelled_at, user_id, entity_id
+                        FROM "wallet"
+                        WHERE wallet_id = ? AND did = ? AND status = ?""")
+                .params(walletId, did, status.name())
+                .query((rs, rowNum) -> new WalletRow(
+                        rs.getLong("id"),
+                        rs.getString("wallet_id"),
+                        rs.getString("did"),
+                        WalletStatus.valueOf(rs.getString("status")),
+                        getInstant(rs, "registered_at"),
+                        getInstant(rs, "cancelled_at"),
+                        rs.getObject("user_id", Long.class),
+                        rs.getObject("entity_id", Long.class)))
+                .optional();
+    }
+
+    private void flushPendingWrites() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            entityManager.flush();
+        }
+    }
+
+    // Read the same way Hibernate reads Instant attributes, so both paths agree on the time zone.
+    private static Instant getInstant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return (value != null) ? value.toInstant() : null;
+    }
+}
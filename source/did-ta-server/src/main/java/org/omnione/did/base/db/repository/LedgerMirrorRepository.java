@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.db.repository;
+
+import org.omnione.did.base.db.constant.LedgerMirrorType;
+import org.omnione.did.base.db.domain.LedgerMirror;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository interface for performing operations on the LedgerMirror entity.
+ * Extends JpaRepository to provide basic CRUD operations and defines custom query methods
+ * for more specific database interactions with LedgerMirror entities.
+ */
+@Repository
+public interface LedgerMirrorRepository extends JpaRepository<LedgerMirror, Long> {
+    Optional<LedgerMirror> findByEntryTypeAndEntryKey(LedgerMirrorType entryType, String entryKey);
+
+    /**
+     * Inserts or replaces the mirrored entry for the given type and key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ledger_mirror (entry_type, entry_key, subject, payload, synced_at, created_at)"
+            + " VALUES (:entryType, :entryKey, :subject, :payload, :syncedAt, NOW())"
+            + " ON CONFLICT (entry_type, entry_key) DO UPDATE"
+            + " SET subject = EXCLUDED.subject, payload = EXCLUDED.payload, synced_at = EXCLUDED.synced_at, updated_at = NOW()",
+            nativeQuery = true)
+    int upsert(@Param("entryType") String entryType, @Param("entryKey") String entryKey, @Param("subject") String subject,
+               @Param("payload") String payload, @Param("syncedAt") Instant syncedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LedgerMirror m WHERE m.subject IN :subjects")
+    int deleteBySubjectIn(@Param("subjects") Collection<String> subjects);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LedgerMirror m")
+    int deleteAllEntries();
+}
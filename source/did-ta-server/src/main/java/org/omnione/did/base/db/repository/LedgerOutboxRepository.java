@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.db.repository;
+
+import org.omnione.did.base.db.constant.LedgerOutboxStatus;
+import org.omnione.did.base.db.domain.LedgerOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for performing operations on the LedgerOutbox entity.
+ * Extends JpaRepository to provide basic CRUD operations and defines custom query methods
+ * for more specific database interactions with LedgerOutbox entities.
+ */
+@Repository
+public interface LedgerOutboxRepository extends JpaRepository<LedgerOutbox, Long> {
+    List<LedgerOutbox> findByTransactionId(Long transactionId);
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    boolean existsByTargetIdAndStatusIn(String targetId, Collection<LedgerOutboxStatus> statuses);
+
+    Optional<LedgerOutbox> findFirstByTargetIdOrderByIdDesc(String targetId);
+
+    long countByStatus(LedgerOutboxStatus status);
+
+    /**
+     * Locks the entries that are due for submission: pending entries whose next attempt is due,
+     * and in-progress entries whose lease has expired (e.g. the claiming node stopped).
+     * Rows locked by another node are skipped, so concurrent pollers claim disjoint batches.
+     *
+     * @param now The current time
+     * @param limit The maximum number of entries to claim
+     * @return The locked entries, oldest first
+     */
+    @Query(value = "SELECT * FROM ledger_outbox"
+            + " WHERE (status = 'PENDING' AND next_attempt_at <= :now)"
+            + " OR (status = 'IN_PROGRESS' AND locked_until < :now)"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<LedgerOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Marks a claimed entry COMMITTED, provided the claim (attempt number and lease) is still current.
+     * An entry re-claimed by another node after the lease expired is left to that node.
+     *
+     * @return 1 if the entry was updated, 0 if the claim is no longer held
+     */
+    @Modifying
+    @Query("UPDATE LedgerOutbox l SET l.status = org.omnione.did.base.db.constant.LedgerOutboxStatus.COMMITTED,"
+            + " l.committedAt = :now, l.lockedUntil = NULL, l.lastError = NULL, l.updatedAt = :now"
+            + " WHERE l.id = :id AND l.status = org.omnione.did.base.db.constant.LedgerOutboxStatus.IN_PROGRESS"
+            + " AND l.attempts = :attempts AND l.lockedUntil = :lockedUntil")
+    int markCommitted(@Param("id") Long id, @Param("attempts") int attempts,
+                      @Param("lockedUntil") Instant lockedUntil, @Param("now") Instant now);
+
+    /**
+     * Releases a claimed entry after a failed attempt, provided the claim is still current:
+     * PENDING with the next attempt time, or FAILED once the retries are exhausted.
+     *
+     * @return 1 if the entry was updated, 0 if the claim is no longer held
+     */
+    @Modifying
+    @Query("UPDATE LedgerOutbox l SET l.status = :status, l.nextAttemptAt = :nextAttemptAt, l.lockedUntil = NULL,"
+            + " l.lastError = :lastError, l.updatedAt = :now"
+            + " WHERE l.id = :id AND l.status = org.omnione.did.base.db.constant.LedgerOutboxStatus.IN_PROGRESS"
+            + " AND l.attempts = :attempts AND l.lockedUntil = :lockedUntil")
+    int markAttemptFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("lockedUntil") Instant lockedUntil,
+                          @Param("status") LedgerOutboxStatus status, @Param("nextAttemptAt") Instant nextAttemptAt,
+                          @Param("lastError") String lastError, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LedgerOutbox l WHERE l.status = org.omnione.did.base.db.constant.LedgerOutboxStatus.COMMITTED AND l.committedAt < :before")
+    int deleteCommittedBefore(@Param("before") Instant before);
+}
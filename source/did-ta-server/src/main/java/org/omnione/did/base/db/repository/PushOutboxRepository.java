@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.db.repository;
+
+import org.omnione.did.base.db.constant.PushOutboxStatus;
+import org.omnione.did.base.db.domain.PushOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for performing operations on the PushOutbox entity.
+ * Extends JpaRepository to provide basic CRUD operations and defines custom query methods
+ * for more specific database interactions with PushOutbox entities.
+ */
+@Repository
+public interface PushOutboxRepository extends JpaRepository<PushOutbox, Long> {
+    List<PushOutbox> findByReferenceIdOrderByIdDesc(String referenceId);
+
+    long countByStatus(PushOutboxStatus status);
+
+    /**
+     * Locks the entries that are due for sending: pending entries whose next attempt is due,
+     * and in-progress entries whose lease has expired (e.g. the claiming node stopped).
+     * Rows locked by another node are skipped, so concurrent pollers claim disjoint batches.
+     *
+     * @param now The current time
+     * @param limit The maximum number of entries to claim
+     * @return The locked entries, oldest first
+     */
+    @Query(value = "SELECT * FROM push_outbox"
+            + " WHERE (status = 'PENDING' AND next_attempt_at <= :now)"
+            + " OR (status = 'IN_PROGRESS' AND locked_until < :now)"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PushOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Records the outcome of a send for a claimed entry, provided the claim (attempt number and lease) is still current.
+     * An entry re-claimed by another node after the lease expired is left to that node.
+     *
+     * @return 1 if the entry was updated, 0 if the claim is no longer held
+     */
+    @Modifying
+    @Query("UPDATE PushOutbox p SET p.status = :status, p.tokens = :tokens, p.successCount = :successCount,"
+            + " p.failureCount = :failureCount, p.lastError = :lastError, p.nextAttemptAt = :nextAttemptAt,"
+            + " p.sentAt = :sentAt, p.lockedUntil = NULL, p.updatedAt = :now"
+            + " WHERE p.id = :id AND p.status = org.omnione.did.base.db.constant.PushOutboxStatus.IN_PROGRESS"
+            + " AND p.attempts = :attempts AND p.lockedUntil = :lockedUntil")
+    int recordDelivery(@Param("id") Long id, @Param("attempts") int attempts, @Param("lockedUntil") Instant lockedUntil,
+                       @Param("status") PushOutboxStatus status, @Param("tokens") String tokens,
+                       @Param("successCount") int successCount, @Param("failureCount") int failureCount,
+                       @Param("lastError") String lastError, @Param("nextAttemptAt") Instant nextAttemptAt,
+                       @Param("sentAt") Instant sentAt, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PushOutbox p WHERE p.status IN (org.omnione.did.base.db.constant.PushOutboxStatus.SENT, org.omnione.did.base.db.constant.PushOutboxStatus.FAILED) AND p.createdAt < :before")
+    int deleteSettledBefore(@Param("before") Instant before);
+}
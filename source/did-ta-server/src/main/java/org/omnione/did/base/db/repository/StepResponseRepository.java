@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.db.repository;
+
+import org.omnione.did.base.db.constant.SubTransactionType;
+import org.omnione.did.base.db.domain.StepResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository interface for performing operations on the StepResponse entity.
+ * Extends JpaRepository to provide basic CRUD operations and defines custom query methods
+ * for more specific database interactions with StepResponse entities.
+ */
+@Repository
+public interface StepResponseRepository extends JpaRepository<StepResponse, Long> {
+    Optional<StepResponse> findByTxIdAndStep(String txId, SubTransactionType step);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StepResponse s WHERE s.expiredAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -18,6 +18,7 @@ package org.omnione.did.base.db.repository;
 
 import org.omnione.did.base.db.constant.UserStatus;
 import org.omnione.did.base.db.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -40,4 +41,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<Long> findIdsByDids(@Param("dids") List<String> dids);
     Optional<User> findTopByOrderByIdDesc();
     Optional<User> findByPiiAndStatus(String pii, UserStatus status);
+    Optional<User> findByPiiHashAndStatus(String piiHash, UserStatus status);
+    Optional<User> findByPiiAndStatusAndPiiHashIsNull(String pii, UserStatus status);
+    List<User> findByPiiHashIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    boolean existsByPiiHashIsNull();
 }
@@ -36,6 +36,8 @@ public enum ErrorCode {
     DID_OFFER_SAVE_FAILED("SSRVTRA11000", "Failed to save DID offer.", 500),
     DID_OFFER_NOT_FOUND("SSRVTRA11001", "Failed to find DID offer.", 400),
     PUSH_TOKEN_UPDATE_FAILED("SSRVTRA11002", "Failed to update push token.", 500),
+    CONCURRENT_REQUEST_IN_PROGRESS("SSRVTRA11003", "Failed to process the request: another request for the same resource is in progress.", 409),
+    STEP_REQUEST_MISMATCH("SSRVTRA11004", "Failed to process the request: the step was already completed with a different request.", 409),
 
 
     // 3. Error during API processing (12000 ~ 12999)
@@ -96,6 +98,9 @@ public enum ErrorCode {
     BLOCKCHAIN_UPDATE_DID_DOC_FAILED("SSRVTRA15003", "Failed to update DID Document on the blockchain.", 500),
     BLOCKCHAIN_VC_META_REGISTRATION_FAILED("SSRVTRA15004", "Failed to register VC meta on the blockchain.", 500),
     BLOCKCHAIN_VC_META_RETRIEVAL_FAILED("SSRVTRA15005", "Failed to retrieve VC meta on the blockchain.", 500),
+    BLOCKCHAIN_UNAVAILABLE("SSRVTRA15006", "Failed to connect to the blockchain: no contract handle is available.", 503),
+    LEDGER_WRITE_PENDING("SSRVTRA15007", "Failed to process the request: the ledger write is not committed yet.", 409),
+    LEDGER_WRITE_FAILED("SSRVTRA15008", "Failed to write to the ledger: all retry attempts have failed.", 500),
     BLOCKCHAIN_VC_STATUS_UPDATE_FAILED("SSRVTRA18507", "Failed to update VC status on the blockchain.", 500),
     BLOCKCHAIN_REMOVE_INDEX_FAILED("SSRVTRA18508", "Failed to remove index on the blockchain", 500),
 
@@ -106,6 +111,9 @@ public enum ErrorCode {
     ISSUER_COMMUNICATION_ERROR("SSRVTRA15502", "Failed to communicate with issuer: unknown error occurred.", 500),
     ISSUER_INVALID_MESSAGE("SSRVTRA15503", "Failed to process message: received an invalid message from the issuer.", 500),
     EMAIL_SEND_FAILED("SSRVTRA15504", "Failed to send email.", 500),
+    ISSUER_RESPONSE_TIMEOUT("SSRVTRA15505", "Failed to communicate with issuer: the issuer did not respond in time.", 504),
+    ISSUER_CIRCUIT_OPEN("SSRVTRA15506", "Failed to communicate with issuer: the issuer is temporarily unavailable.", 503),
+    ISSUER_TOO_MANY_REQUESTS("SSRVTRA15507", "Failed to communicate with issuer: too many concurrent requests to the issuer.", 503),
 
 
     // 08. Transaction-related errors (16000 ~ 16499)
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.idempotency;
+
+import org.omnione.did.base.db.constant.SubTransactionType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a protocol step whose completed response is replayed for identical retries.
+ * The annotated method must take the request DTO (with a txId) as its first argument.
+ * Retries are matched by (txId, step, request digest) within the lifetime of the transaction.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IdempotentStep {
+    /**
+     * The protocol step handled by the annotated method.
+     *
+     * @return the sub-transaction type of the step
+     */
+    SubTransactionType value();
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.lock;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.TasProperty;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process striped lock for check-then-insert critical sections keyed by a business identifier
+ * (e.g. a user DID or a wallet ID).
+ *
+ * A key is mapped to one of a fixed number of stripes (tas.striped-lock.stripes), so writers for the same key
+ * on this node are serialized without a database lock, while readers are not affected at all.
+ * Different keys may share a stripe, which only costs some unnecessary waiting.
+ * The lock is node-local; conflicts between nodes are caught by the unique constraints on the same columns,
+ * which the callers translate into the regular duplicate error.
+ *
+ * When a database transaction is active, the lock is held until the transaction completes,
+ * so that the next writer observes the committed row. Otherwise it is released when the handle is closed.
+ */
+@Component
+@Slf4j
+public class StripedLock {
+    private final TasProperty tasProperty;
+    private final ReentrantLock[] stripes;
+
+    public StripedLock(TasProperty tasProperty) {
+        this.tasProperty = tasProperty;
+        int count = 1;
+        while (count < tasProperty.getStripedLock().getStripes()) {
+            count <<= 1;
+        }
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Handle of an acquired lock. Closing it releases the lock, unless the release was deferred
+     * to the completion of the surrounding database transaction.
+     */
+    public static final class Handle implements AutoCloseable {
+        private final ReentrantLock lock;
+        private boolean released;
+
+        private Handle(ReentrantLock lock, boolean released) {
+            this.lock = lock;
+            this.released = released;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Acquires the lock for the given key, waiting at most tas.striped-lock.wait-timeout-ms.
+     *
+     * @param scope The kind of key (e.g. "user-did"), so that equal keys of different kinds do not collide
+     * @param key The key to lock
+     * @return The handle of the acquired lock
+     * @throws OpenDidException if the lock could not be acquired in time
+     */
+    public Handle lock(String scope, String key) {
+        ReentrantLock lock = stripes[indexOf(scope + ':' + key)];
+        try {
+            if (!lock.tryLock(tasProperty.getStripedLock().getWaitTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                log.error("\t--> Timed out waiting for the {} lock of {}", scope, key);
+                throw new OpenDidException(ErrorCode.CONCURRENT_REQUEST_IN_PROGRESS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenDidException(ErrorCode.CONCURRENT_REQUEST_IN_PROGRESS);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Handle(lock, false);
+        }
+        // afterCompletion runs on the thread that owns the transaction, which is the lock owner.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return new Handle(lock, true);
+    }
+
+    private int indexOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.memo;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the memoized query results of the current request.
+ *
+ * The memo is stored as a request attribute and therefore ends with the request.
+ * Outside of a request nothing is memoized.
+ */
+public class RequestMemoContext {
+    private static final String MEMO_ATTRIBUTE = RequestMemoContext.class.getName() + ".MEMO";
+
+    private RequestMemoContext() {
+    }
+
+    /**
+     * Returns the memo of the current request, creating it if necessary.
+     *
+     * @return The memo keyed by query and arguments, or null outside of a request
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<List<Object>, Object> getMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<List<Object>, Object> memo = (Map<List<Object>, Object>) attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new ConcurrentHashMap<>();
+            attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    /**
+     * Clears the memo of the current request after a write.
+     * Outside of a request this is a no-op.
+     */
+    @SuppressWarnings("unchecked")
+    public static void clear() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Map<List<Object>, Object> memo = (Map<List<Object>, Object>) attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+}
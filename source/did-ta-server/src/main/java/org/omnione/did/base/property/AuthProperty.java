@@ -20,6 +20,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Property class for auth.
  */
@@ -28,9 +31,30 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "auth")
 public class AuthProperty {
     private Token token = new Token();
+    private ServerToken serverToken = new ServerToken();
+    private Admin admin = new Admin();
 
     @Getter @Setter
     public static class Token {
         private boolean enable = true;
     }
+
+    @Getter @Setter
+    public static class ServerToken {
+        // Issue self-verifying MAC server tokens.
+        private boolean stateless = false;
+        // Keep accepting the legacy (token table) format. Disable once all wallets present MAC tokens.
+        private boolean acceptLegacy = true;
+        // Key ID used to issue new tokens; tokens are verified with the key named in the token.
+        private String currentKeyId;
+        // Key ID -> secret. Keep retired keys until the tokens issued with them have expired.
+        private Map<String, String> secrets = new HashMap<>();
+    }
+
+    @Getter @Setter
+    public static class Admin {
+        // HTTP Basic credentials of the /tas/admin/** endpoints. Without a password those endpoints are closed.
+        private String username = "admin";
+        private String password;
+    }
 }
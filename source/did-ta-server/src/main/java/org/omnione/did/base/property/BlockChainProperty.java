@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Property class for the blockchain (Hyperledger Fabric) connection.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blockchain")
+public class BlockChainProperty {
+    private String configFile = "properties/blockchain.properties";
+    private Pool pool = new Pool();
+    private Batch batch = new Batch();
+    private Mirror mirror = new Mirror();
+
+    @Getter @Setter
+    public static class Pool {
+        private int size = 2;
+        private int maxConcurrentCallsPerHandle = 5;
+        private int maxFailedCallsPerHandle = 5;
+        private long acquireTimeoutMs = 5000;
+        private long healthCheckIntervalMs = 30000;
+        private String healthProbeDidKeyUrl;
+        private long reconnectInitialBackoffMs = 1000;
+        private long reconnectMaxBackoffMs = 60000;
+        private boolean warmUp = true;
+    }
+
+    @Getter @Setter
+    public static class Batch {
+        private boolean enable = true;
+        private long windowMs = 10;
+        private int maxSize = 50;
+        private int queueCapacity = 1000;
+        private long awaitTimeoutMs = 30000;
+    }
+
+    @Getter @Setter
+    public static class Mirror {
+        private boolean enable = true;
+        private long maxStalenessSeconds = 300;
+        private String checkpointName = "tas-ledger-mirror";
+        private long reconnectIntervalMs = 30000;
+    }
+}
@@ -30,4 +30,20 @@ public class FcmProperty {
     private boolean enabled;
     private String path;
     private String scope;
+    private Outbox outbox = new Outbox();
+
+    @Getter @Setter
+    public static class Outbox {
+        private boolean enable = true;
+        private int workerThreads = 4;
+        private long pollIntervalMs = 500;
+        private int claimSize = 100;
+        private long leaseMs = 60000;
+        private int maxAttempts = 5;
+        private long initialBackoffMs = 1000;
+        private long maxBackoffMs = 60000;
+        private int rateLimitPerSecond = 500;
+        private long retentionHours = 24;
+        private long purgeIntervalSeconds = 3600;
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Property class for the retries and conditional response cache of the Feign clients.
+ * Connection pooling, timeouts and compression are configured under spring.cloud.openfeign.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "feign-client")
+public class FeignClientProperty {
+    private Map<String, Client> clients = new HashMap<>();
+    private Hedge hedge = new Hedge();
+
+    /**
+     * Returns the settings of the given client, or the defaults if it is not configured.
+     *
+     * @param name The Feign client name
+     * @return The client settings
+     */
+    public Client getClient(String name) {
+        return clients.getOrDefault(name, new Client());
+    }
+
+    @Getter @Setter
+    public static class Client {
+        private int maxAttempts = 1;
+        private long retryPeriodMs = 100;
+        private long maxRetryPeriodMs = 1000;
+        private boolean conditionalCache = false;
+        private int conditionalCacheMaxEntries = 10000;
+    }
+
+    @Getter @Setter
+    public static class Hedge {
+        private boolean enable = false;
+        private double percentile = 95;
+        private long minDelayMs = 20;
+        private long initialDelayMs = 100;
+        private int windowSize = 1000;
+        private double budgetPercent = 5;
+        private int budgetBurst = 10;
+        private int threads = 32;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Property class for the issuer client used to relay requests to issuer servers.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "issuer-client")
+public class IssuerClientProperty {
+    private int connectTimeoutMs = 3000;
+    private int readTimeoutMs = 10000;
+    private boolean http2 = true;
+    private int executorThreads = 16;
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Getter @Setter
+    public static class CircuitBreaker {
+        private boolean enable = true;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 80;
+        private long slowCallDurationMs = 5000;
+        private long openDurationMs = 30000;
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter @Setter
+    public static class Bulkhead {
+        private boolean enable = true;
+        private int maxConcurrentCalls = 20;
+    }
+}
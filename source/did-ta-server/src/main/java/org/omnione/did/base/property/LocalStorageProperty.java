@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Property class for the in-memory storage service of the storage-local profile.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "storage-local")
+public class LocalStorageProperty {
+    private Journal journal = new Journal();
+
+    @Getter @Setter
+    public static class Journal {
+        private boolean enable = false;
+        private String path = "./data/storage-local.journal";
+        private long mapSizeBytes = 64L * 1024 * 1024;
+        private boolean forceOnWrite = false;
+    }
+}
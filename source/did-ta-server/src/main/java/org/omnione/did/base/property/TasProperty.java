@@ -16,6 +16,7 @@
 
 package org.omnione.did.base.property;
 
+import org.omnione.did.base.db.constant.TxIdType;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -35,4 +36,72 @@ public class TasProperty {
     private String paddingType;
     private Integer tokenExpirationTimeHours;
     private String samplePath;
+    private TxIdType txIdType = TxIdType.RANDOM;
+    private TransactionCache transactionCache = new TransactionCache();
+    private StepReplay stepReplay = new StepReplay();
+    private ReferenceCache referenceCache = new ReferenceCache();
+    private RequestMemo requestMemo = new RequestMemo();
+    private LeanRead leanRead = new LeanRead();
+    private StripedLock stripedLock = new StripedLock();
+    private LedgerOutbox ledgerOutbox = new LedgerOutbox();
+    private VcMetaCache vcMetaCache = new VcMetaCache();
+
+    @Getter @Setter
+    public static class TransactionCache {
+        private boolean enable = false;
+        private int maxSize = 10000;
+    }
+
+    @Getter @Setter
+    public static class StepReplay {
+        private boolean enable = true;
+        private long purgeIntervalSeconds = 300;
+    }
+
+    @Getter @Setter
+    public static class ReferenceCache {
+        private boolean enable = true;
+        private long ttlSeconds = 300;
+        private boolean notifyEnable = true;
+        private String notifyChannel = "tas_reference_data";
+        private int notifyPollMs = 1000;
+        private long notifyReconnectMs = 5000;
+    }
+
+    @Getter @Setter
+    public static class RequestMemo {
+        private boolean enable = true;
+    }
+
+    @Getter @Setter
+    public static class LeanRead {
+        private boolean enable = true;
+    }
+
+    @Getter @Setter
+    public static class StripedLock {
+        private int stripes = 1024;
+        private long waitTimeoutMs = 5000;
+    }
+
+    @Getter @Setter
+    public static class LedgerOutbox {
+        private boolean enable = true;
+        private int workerThreads = 8;
+        private long pollIntervalMs = 500;
+        private long leaseMs = 120000;
+        private int maxAttempts = 10;
+        private long initialBackoffMs = 1000;
+        private long maxBackoffMs = 60000;
+        private long retentionHours = 24;
+        private long purgeIntervalSeconds = 3600;
+    }
+
+    @Getter @Setter
+    public static class VcMetaCache {
+        private boolean enable = true;
+        private long activeTtlSeconds = 10;
+        private long revokedTtlSeconds = 3600;
+        private int maxSize = 10000;
+    }
 }
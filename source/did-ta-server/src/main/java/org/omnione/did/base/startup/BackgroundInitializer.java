@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.startup;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the slow parts of the server initialization (credential loading, file scans, connection warm-up)
+ * in the background, so they overlap with each other and with the rest of the context startup.
+ *
+ * A task is either critical or not. While a critical task is pending, or once one has failed, the readiness
+ * state is kept at REFUSING_TRAFFIC; when the application becomes ready and the last critical task completes,
+ * ACCEPTING_TRAFFIC is published. Non-critical tasks never affect readiness; their users wait for them on first use.
+ */
+@Slf4j
+@Component
+public class BackgroundInitializer {
+    private static final int THREADS = 4;
+
+    private final StartupTimeline startupTimeline;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger pendingCritical = new AtomicInteger();
+    private final Set<String> failedCritical = ConcurrentHashMap.newKeySet();
+    // Guarded by this.
+    private boolean applicationReady;
+
+    public BackgroundInitializer(StartupTimeline startupTimeline, ApplicationEventPublisher applicationEventPublisher) {
+        this.startupTimeline = startupTimeline;
+        this.applicationEventPublisher = applicationEventPublisher;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                THREADS, THREADS,
+                30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "startup-init-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // The threads are only needed during startup.
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs an initialization task in the background.
+     *
+     * @param name The task name shown in the startup timeline
+     * @param critical Whether the server must not accept traffic before the task has completed
+     * @param task The task
+     * @return The future completed when the task has finished, exceptionally if it failed
+     */
+    public CompletableFuture<Void> run(String name, boolean critical, Runnable task) {
+        StartupTimeline.Phase phase = startupTimeline.registerTask(name, critical);
+        if (critical) {
+            pendingCritical.incrementAndGet();
+        }
+        return CompletableFuture.runAsync(() -> {
+            phase.start();
+            task.run();
+        }, executor).whenComplete((ignored, throwable) -> {
+            phase.end(throwable);
+            if (throwable != null) {
+                log.error("Background initialization '{}' failed", name, throwable);
+            } else {
+                log.debug("Background initialization '{}' completed", name);
+            }
+            if (critical) {
+                if (throwable != null) {
+                    failedCritical.add(name);
+                }
+                pendingCritical.decrementAndGet();
+                updateReadiness();
+            }
+        });
+    }
+
+    /**
+     * Returns whether the application is ready and all critical tasks have completed successfully.
+     *
+     * @return true if the server may accept traffic
+     */
+    public synchronized boolean isReady() {
+        return applicationReady && pendingCritical.get() == 0 && failedCritical.isEmpty();
+    }
+
+    /**
+     * Holds back the ACCEPTING_TRAFFIC state published once the application is ready
+     * until the critical tasks have completed.
+     */
+    @EventListener
+    public synchronized void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        applicationReady = true;
+        if (isReady()) {
+            startupTimeline.markTrafficReady();
+            return;
+        }
+        log.info("Refusing traffic until the critical initialization has completed (pending: {}, failed: {})",
+                pendingCritical.get(), failedCritical);
+        AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+    }
+
+    private synchronized void updateReadiness() {
+        if (isReady()) {
+            AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+            startupTimeline.markTrafficReady();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
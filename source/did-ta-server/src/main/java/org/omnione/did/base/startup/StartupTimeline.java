@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.startup;
+
+import org.omnione.did.tas.v1.dto.admin.StartupPhaseResDto;
+import org.omnione.did.tas.v1.dto.admin.StartupTimelineResDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records where the startup time of the server goes.
+ *
+ * As a bean post-processor it is created before the regular beans, so it sees the initialization of every
+ * singleton that follows (e.g. liquibase, entityManagerFactory) and records the ones that take at least
+ * BEAN_THRESHOLD_MS. The background initialization tasks and the application milestones are recorded as well.
+ * All times are relative to the JVM start, so the time spent before the context is included.
+ */
+@Slf4j
+@Component
+public class StartupTimeline implements BeanPostProcessor {
+    static final long BEAN_THRESHOLD_MS = 50;
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final ConcurrentHashMap<String, Long> beanInitStarts = new ConcurrentHashMap<>();
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private volatile Long applicationStartedMs;
+    private volatile Long applicationReadyMs;
+    private volatile Long trafficReadyMs;
+
+    public enum PhaseType {
+        BEAN,
+        TASK
+    }
+
+    public enum PhaseStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * One recorded phase. Times are in milliseconds since the JVM start.
+     */
+    public final class Phase {
+        private final String name;
+        private final PhaseType type;
+        private final boolean critical;
+        private volatile PhaseStatus status = PhaseStatus.PENDING;
+        private volatile Long startMs;
+        private volatile Long endMs;
+        private volatile String error;
+
+        private Phase(String name, PhaseType type, boolean critical) {
+            this.name = name;
+            this.type = type;
+            this.critical = critical;
+        }
+
+        public void start() {
+            startMs = sinceJvmStart();
+            status = PhaseStatus.RUNNING;
+        }
+
+        public void end(Throwable throwable) {
+            endMs = sinceJvmStart();
+            if (startMs == null) {
+                startMs = endMs;
+            }
+            if (throwable != null) {
+                error = throwable.getMessage();
+                status = PhaseStatus.FAILED;
+            } else {
+                status = PhaseStatus.COMPLETED;
+            }
+        }
+
+        public PhaseStatus getStatus() {
+            return status;
+        }
+
+        private StartupPhaseResDto snapshot() {
+            Long start = startMs;
+            Long end = endMs;
+            return StartupPhaseResDto.builder()
+                    .name(name)
+                    .type(type.name())
+                    .critical(critical)
+                    .status(status.name())
+                    .startMs(start)
+                    .durationMs((start != null && end != null) ? end - start : null)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        beanInitStarts.put(beanName, System.currentTimeMillis());
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Long start = beanInitStarts.remove(beanName);
+        if (start != null) {
+            long durationMs = System.currentTimeMillis() - start;
+            if (durationMs >= BEAN_THRESHOLD_MS) {
+                Phase phase = new Phase(beanName, PhaseType.BEAN, true);
+                phase.startMs = start - jvmStartMillis;
+                phase.endMs = phase.startMs + durationMs;
+                phase.status = PhaseStatus.COMPLETED;
+                phases.add(phase);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Registers a background task. The task calls {@link Phase#start()} when it begins to run
+     * and {@link Phase#end(Throwable)} when it finishes.
+     *
+     * @param name The task name
+     * @param critical Whether the server is not ready before the task has completed
+     * @return The pending phase
+     */
+    public Phase registerTask(String name, boolean critical) {
+        Phase phase = new Phase(name, PhaseType.TASK, critical);
+        phases.add(phase);
+        return phase;
+    }
+
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        applicationStartedMs = sinceJvmStart();
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        applicationReadyMs = sinceJvmStart();
+        log.info("Application is started in {} ms since the JVM start", applicationReadyMs);
+    }
+
+    /**
+     * Records the moment the server first accepts traffic, i.e. the application is ready
+     * and all critical background tasks have completed.
+     */
+    public void markTrafficReady() {
+        if (trafficReadyMs == null) {
+            trafficReadyMs = sinceJvmStart();
+            log.info("Server is accepting traffic {} ms since the JVM start", trafficReadyMs);
+        }
+    }
+
+    /**
+     * Returns the recorded startup timeline.
+     *
+     * @return The timeline snapshot
+     */
+    public StartupTimelineResDto getSnapshot() {
+        return StartupTimelineResDto.builder()
+                .jvmStartedAt(Instant.ofEpochMilli(jvmStartMillis).toString())
+                .applicationStartedMs(applicationStartedMs)
+                .applicationReadyMs(applicationReadyMs)
+                .trafficReadyMs(trafficReadyMs)
+                .ready(trafficReadyMs != null)
+                .phases(phases.stream().map(Phase::snapshot).toList())
+                .build();
+    }
+
+    private long sinceJvmStart() {
+        return System.currentTimeMillis() - jvmStartMillis;
+    }
+}
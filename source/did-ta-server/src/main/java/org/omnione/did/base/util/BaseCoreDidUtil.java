@@ -116,8 +116,17 @@ public class BaseCoreDidUtil {
      * @throws OpenDidException if the DID document key proof verification fails.
      */
     public static void verifyDidDocKeyProofs(DidDocument didDocument) {
+        verifyDidDocKeyProofs(parseDidDoc(didDocument));
+    }
+
+    /**
+     * Verifies the key proofs within a DID document using a DidManager.
+     *
+     * @param didManager The DidManager object managing the DID document.
+     * @throws OpenDidException if the DID document key proof verification fails.
+     */
+    public static void verifyDidDocKeyProofs(DidManager didManager) {
         try {
-            DidManager didManager = parseDidDoc(didDocument);
             didManager.verifyDocumentSignature();
         } catch (CoreException e) {
             log.error("Failed to verify DID document key proofs: " + e.getMessage());
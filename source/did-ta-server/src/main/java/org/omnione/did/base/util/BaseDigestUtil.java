@@ -23,7 +23,10 @@ import org.omnione.did.crypto.enums.DigestType;
 import org.omnione.did.crypto.exception.CryptoException;
 import org.omnione.did.crypto.util.DigestUtils;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 
 /**
@@ -78,4 +81,23 @@ public class BaseDigestUtil {
             throw new OpenDidException(ErrorCode.HASH_GENERATION_FAILED);
         }
     }
+
+    /**
+     * Generates an HMAC-SHA256 value of the given input under the given key.
+     *
+     * @param key Secret key
+     * @param input Input byte array to authenticate
+     * @return HMAC value as a byte array
+     * @throws OpenDidException if HMAC generation fails
+     */
+    public static byte[] generateHmac(byte[] key, byte[] input) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(input);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.error("Failed to generate HMAC value.", e);
+            throw new OpenDidException(ErrorCode.HASH_GENERATION_FAILED);
+        }
+    }
 }
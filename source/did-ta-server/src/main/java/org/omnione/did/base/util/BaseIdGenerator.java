@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Utility class for generating identifiers.
+ * This class provides time-ordered identifiers in the UUID version 7 layout
+ * (RFC 9562): a 48-bit Unix timestamp in milliseconds followed by 74 random bits.
+ * Identifiers generated close together in time share a common prefix, which keeps
+ * inserts into B-tree indexes localized, while the random part keeps them unguessable.
+ */
+public class BaseIdGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Generates a time-ordered UUID (version 7).
+     *
+     * @return The generated UUID
+     */
+    public static UUID generateTimeOrderedUuid() {
+        return generateTimeOrderedUuid(System.currentTimeMillis());
+    }
+
+    /**
+     * Generates a time-ordered UUID (version 7) for the given timestamp.
+     *
+     * @param epochMillis Unix timestamp in milliseconds
+     * @return The generated UUID
+     */
+    public static UUID generateTimeOrderedUuid(long epochMillis) {
+        byte[] randomBytes = new byte[10];
+        RANDOM.nextBytes(randomBytes);
+
+        long msb = (epochMillis & 0xFFFFFFFFFFFFL) << 16;
+        msb |= 0x7000L;                                                  // version 7
+        msb |= ((randomBytes[0] & 0x0FL) << 8) | (randomBytes[1] & 0xFFL); // rand_a (12 bits)
+
+        long lsb = 0x8000000000000000L;                                  // variant 10
+        lsb |= (randomBytes[2] & 0x3FL) << 56;
+        for (int i = 3; i < 10; i++) {
+            lsb |= (randomBytes[i] & 0xFFL) << (8 * (9 - i));
+        }
+
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Generates a time-ordered identifier in the canonical 36-character UUID format.
+     *
+     * @return The generated identifier
+     */
+    public static String generateTimeOrderedId() {
+        return generateTimeOrderedUuid().toString();
+    }
+}
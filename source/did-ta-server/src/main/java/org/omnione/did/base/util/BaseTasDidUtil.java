@@ -51,6 +51,20 @@ public class BaseTasDidUtil {
      * @throws OpenDidException if the generation of the InvokedDocument signature message fails.
      */
     public static InvokedDidDoc generateInvokedDocumentSignatureMessage(DidDocument tasDidDoc, DidDocument didDoc, ProofType proofType, String certVcRef) {
+        return generateInvokedDocumentSignatureMessage(ParsedDidDoc.of(tasDidDoc), didDoc, proofType, certVcRef);
+    }
+
+    /**
+     * Generates a signature message for an invoked DID document using the parsed TAS DID document.
+     *
+     * @param tasDidDoc The parsed DID document of the TAS.
+     * @param didDoc The target DID document to be invoked.
+     * @param proofType The type of proof.
+     * @param certVcRef The URL of the certificate VC.
+     * @return The generated InvokedDocument signature message.
+     * @throws OpenDidException if the generation of the InvokedDocument signature message fails.
+     */
+    public static InvokedDidDoc generateInvokedDocumentSignatureMessage(ParsedDidDoc tasDidDoc, DidDocument didDoc, ProofType proofType, String certVcRef) {
         try {
             Provider provider = new Provider();
             provider.setDid(tasDidDoc.getId());
@@ -83,8 +97,19 @@ public class BaseTasDidUtil {
      * @return The verification method identifier string.
      */
     public static String getVerificationMethod(DidDocument tasDidDoc, ProofPurpose proofPurpose) {
-        String version = tasDidDoc.getVersionId();
-        VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(tasDidDoc, proofPurpose.toKeyId());
+        return getVerificationMethod(ParsedDidDoc.of(tasDidDoc), proofPurpose);
+    }
+
+    /**
+     * Retrieves the verification method for a given proof purpose within the parsed TAS DID document.
+     *
+     * @param tasDidDoc The parsed DID document of the TAS.
+     * @param proofPurpose The purpose of the proof.
+     * @return The verification method identifier string.
+     */
+    public static String getVerificationMethod(ParsedDidDoc tasDidDoc, ProofPurpose proofPurpose) {
+        String version = tasDidDoc.getDocument().getVersionId();
+        VerificationMethod verificationMethod = tasDidDoc.getVerificationMethod(proofPurpose.toKeyId());
 
         return tasDidDoc.getId() + "?versionId=" + version + "#" + verificationMethod.getId();
     }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.util;
+
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A DID document that has been decoded and parsed once, together with its serialized form
+ * and an index of its verification methods by key ID.
+ *
+ * The handle is passed through validation, key proof verification and signing, so a document
+ * is parsed only once per request instead of being re-serialized and re-parsed by every step.
+ * The document object is shared with the DidManager. The key index is built when parsing,
+ * so only the proofs of the document may be changed afterwards (e.g. removed before signing).
+ */
+public final class ParsedDidDoc {
+    private final DidManager didManager;
+    private final byte[] bytes;
+    private final Map<String, VerificationMethod> keyIndex;
+
+    private ParsedDidDoc(DidManager didManager, byte[] bytes) {
+        this.didManager = didManager;
+        this.bytes = bytes;
+        this.keyIndex = indexKeys(didManager.getDocument().getVerificationMethod());
+    }
+
+    /**
+     * Decodes a multibase-encoded DID document and parses it.
+     *
+     * @param encodedDidDoc The multibase-encoded DID document JSON
+     * @return The parsed DID document
+     * @throws OpenDidException if the document cannot be decoded
+     */
+    public static ParsedDidDoc decode(String encodedDidDoc) {
+        byte[] decodedDidDoc = BaseMultibaseUtil.decode(encodedDidDoc);
+        return new ParsedDidDoc(BaseCoreDidUtil.parseDidDoc(new String(decodedDidDoc, StandardCharsets.UTF_8)), decodedDidDoc);
+    }
+
+    /**
+     * Parses a DID document object.
+     *
+     * @param didDocument The DID document
+     * @return The parsed DID document
+     */
+    public static ParsedDidDoc of(DidDocument didDocument) {
+        String didDocJson = didDocument.toJson();
+        return new ParsedDidDoc(BaseCoreDidUtil.parseDidDoc(didDocJson), didDocJson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, VerificationMethod> indexKeys(List<VerificationMethod> verificationMethods) {
+        if (verificationMethods == null || verificationMethods.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, VerificationMethod> index = new HashMap<>();
+        for (VerificationMethod verificationMethod : verificationMethods) {
+            // Same as DidManager.getVerificationMethodByKeyId: the first method with the key ID wins.
+            index.putIfAbsent(verificationMethod.getId(), verificationMethod);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    public DidManager getDidManager() {
+        return didManager;
+    }
+
+    public DidDocument getDocument() {
+        return didManager.getDocument();
+    }
+
+    public String getId() {
+        return didManager.getDocument().getId();
+    }
+
+    /**
+     * Returns the document as it was received (decoded) or serialized when it was parsed.
+     * The array must not be modified.
+     *
+     * @return The UTF-8 JSON bytes of the document
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Retrieves a verification method by key ID.
+     *
+     * @param keyId The key ID
+     * @return The verification method, or null if the document has no such key
+     */
+    public VerificationMethod getVerificationMethod(String keyId) {
+        return keyIndex.get(keyId);
+    }
+
+    /**
+     * Retrieves the multibase-encoded public key of a verification method.
+     *
+     * @param keyId The key ID
+     * @return The public key
+     */
+    public String getPublicKey(String keyId) {
+        return getVerificationMethod(keyId).getPublicKeyMultibase();
+    }
+}
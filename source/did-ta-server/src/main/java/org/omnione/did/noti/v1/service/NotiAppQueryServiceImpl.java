@@ -16,6 +16,7 @@
 
 package org.omnione.did.noti.v1.service;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.domain.App;
 import org.omnione.did.base.db.repository.AppRepository;
 import org.omnione.did.base.exception.ErrorCode;
@@ -34,6 +35,7 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
 public class NotiAppQueryServiceImpl implements NotiAppQueryService {
     private final AppRepository appRepository;
 
@@ -27,9 +27,11 @@ import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.MulticastMessage;
 import org.omnione.did.base.db.domain.App;
+import org.omnione.did.base.db.domain.PushOutbox;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.base.property.FcmProperty;
+import org.omnione.did.base.startup.BackgroundInitializer;
 import org.omnione.did.noti.v1.dto.push.FcmNotificationDto;
 import org.omnione.did.noti.v1.dto.push.RequestSendPushReqDto;
 import org.omnione.did.noti.v1.dto.push.RequestSendPushResDto;
@@ -41,9 +43,12 @@ import org.springframework.stereotype.Service;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service class for sending push notifications.
@@ -53,39 +58,60 @@ import java.util.Objects;
 @Slf4j
 @RequiredArgsConstructor
 public class NotiPushService {
+    /**
+     * The maximum number of tokens FCM accepts in one multicast message.
+     */
+    public static final int MAX_MULTICAST_TOKENS = 500;
+    private static final String DEFAULT_PROJECT_ID = "default";
+
     private final FcmProperty fcmProperty;
     private final NotiUserQueryService notiUserQueryService;
     private final NotiAppQueryService notiAppQueryService;
     private final Environment environment;
+    private final BackgroundInitializer backgroundInitializer;
+    private final PushOutboxService pushOutboxService;
+
+    private volatile CompletableFuture<Void> firebaseInitialized = CompletableFuture.completedFuture(null);
 
     /**
-     * Initializes the Firebase application.
-     * This method loads the Firebase credentials from a file and initializes the Firebase app
-     * with those credentials if it's not already initialized. It skips the initialization
-     * if the active Spring profile includes "sample".
-     *
-     * @throws IOException If an error occurs while reading the Firebase credentials file.
+     * Starts the initialization of the Firebase application in the background.
+     * Loading the credentials does not delay the startup, but it is a critical task: the server does not
+     * report ready until it has completed, and stays not ready if it fails, since every push would fail
+     * without it. It skips the initialization if the active Spring profile includes "sample".
      */
     @PostConstruct
-    public void init() throws IOException {
+    public void init() {
         if (fcmProperty.isEnabled()) {
             List<String> activeProfiles = Arrays.asList(environment.getActiveProfiles());
             if (!activeProfiles.contains("sample")) {
-                try (FileInputStream fileInputStream = new FileInputStream(fcmProperty.getPath())) {
-                    GoogleCredentials googleCredentials = GoogleCredentials.fromStream(fileInputStream)
-                            .createScoped(List.of(fcmProperty.getScope()));
-
-                    FirebaseOptions options = FirebaseOptions.builder()
-                            .setCredentials(googleCredentials)
-                            .build();
-
-                    if (FirebaseApp.getApps()
-                            .isEmpty()) {
-                        FirebaseApp.initializeApp(options);
-                        log.error("Firebase application has been initialized");
-                    }
-                }
+                firebaseInitialized = backgroundInitializer.run("firebase", true, this::initializeFirebase);
+            }
+        }
+    }
+
+    /**
+     * Initializes the Firebase application.
+     * This method loads the Firebase credentials from a file and initializes the Firebase app
+     * with those credentials if it's not already initialized.
+     *
+     * @throws UncheckedIOException If an error occurs while reading the Firebase credentials file.
+     */
+    private void initializeFirebase() {
+        try (FileInputStream fileInputStream = new FileInputStream(fcmProperty.getPath())) {
+            GoogleCredentials googleCredentials = GoogleCredentials.fromStream(fileInputStream)
+                    .createScoped(List.of(fcmProperty.getScope()));
+
+            FirebaseOptions options = FirebaseOptions.builder()
+                    .setCredentials(googleCredentials)
+                    .build();
+
+            if (FirebaseApp.getApps()
+                    .isEmpty()) {
+                FirebaseApp.initializeApp(options);
+                log.error("Firebase application has been initialized");
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -106,13 +132,9 @@ public class NotiPushService {
             log.debug("\t--> Retrieving Push Token");
             List<String> pushTokenList = findPushTokenList(requestSendPushReqDto);
 
-            // Generate push message
-            log.debug("\t--> Generating Push Message");
-            MulticastMessage multicastMessage = generateMulticastMessage(requestSendPushReqDto, pushTokenList);
-
             // Send push message
             log.debug("\t--> Send FCM");
-            RequestSendPushResDto requestSendPushResDto = sendFcm(multicastMessage);
+            RequestSendPushResDto requestSendPushResDto = sendFcm(requestSendPushReqDto, pushTokenList);
 
             log.debug("*** Finished requestSendPush ***");
 
@@ -126,6 +148,78 @@ public class NotiPushService {
         }
     }
 
+    /**
+     * Queues a push notification to the specified devices in the push outbox.
+     * The push tokens are resolved before the push is queued, so lookup errors are thrown to the caller;
+     * the push is sent by PushOutboxWorker once the entry is saved.
+     * When fcm.outbox.enable is false, the push is sent synchronously as with requestSendPush.
+     *
+     * @param requestSendPushReqDto The request DTO containing the push notification information.
+     * @param referenceId The ID used to look up the delivery results (e.g. the offer ID).
+     * @throws OpenDidException If the push tokens are not found or the push cannot be queued.
+     */
+    public void queueSendPush(RequestSendPushReqDto requestSendPushReqDto, String referenceId) {
+        if (!fcmProperty.getOutbox().isEnable()) {
+            requestSendPush(requestSendPushReqDto);
+            return;
+        }
+
+        try {
+            log.debug("=== Starting queueSendPush ===");
+
+            // Retrieve push token
+            log.debug("\t--> Retrieving Push Token");
+            List<String> pushTokenList = findPushTokenList(requestSendPushReqDto);
+
+            // Queue push message
+            log.debug("\t--> Queueing Push Message");
+            PushOutbox entry = pushOutboxService.enqueue(requestSendPushReqDto, pushTokenList, referenceId);
+
+            log.debug("*** Finished queueSendPush: outbox ID {} ***", entry.getId());
+        } catch (OpenDidException e) {
+            log.error("An error occurred while queueing send push", e);
+            throw e;
+        } catch (Exception e) {
+            log.error("An unknown error occurred while queueing send push", e);
+            throw new OpenDidException(ErrorCode.FAILED_API_SEND_PUSH);
+        }
+    }
+
+    /**
+     * Sends one multicast message to at most MAX_MULTICAST_TOKENS tokens and returns the per-token results.
+     * Used by PushOutboxWorker, which decides per token whether a failure is retried.
+     *
+     * @param content The notification and data of the push.
+     * @param pushTokenList The push tokens to send to.
+     * @return The FCM batch response, in the order of the tokens.
+     * @throws FirebaseMessagingException If the whole request fails.
+     * @throws OpenDidException FCM_SEND_FAILED if FCM is disabled or the Firebase application is not initialized.
+     */
+    public BatchResponse sendMulticast(RequestSendPushReqDto content, List<String> pushTokenList) throws FirebaseMessagingException {
+        if (!fcmProperty.isEnabled()) {
+            throw new OpenDidException(ErrorCode.FCM_SEND_FAILED);
+        }
+        awaitFirebase();
+        if (FirebaseApp.getApps().isEmpty()) {
+            throw new OpenDidException(ErrorCode.FCM_SEND_FAILED);
+        }
+        return FirebaseMessaging.getInstance().sendEachForMulticast(generateMulticastMessage(content, pushTokenList));
+    }
+
+    /**
+     * Returns the ID of the Firebase project that the pushes are sent through.
+     * Used to apply the send rate limit per project.
+     *
+     * @return The project ID, or "default" if it is not known.
+     */
+    public String getProjectId() {
+        if (FirebaseApp.getApps().isEmpty()) {
+            return DEFAULT_PROJECT_ID;
+        }
+        String projectId = FirebaseApp.getInstance().getOptions().getProjectId();
+        return (projectId != null) ? projectId : DEFAULT_PROJECT_ID;
+    }
+
     /**
      * Finds the push tokens for the specified devices.
      * This method retrieves user IDs based on the target DIDs, then queries the associated App entities to extract the push tokens.
@@ -161,19 +255,30 @@ public class NotiPushService {
 
     /**
      * Sends the push notification using Firebase Cloud Messaging (FCM).
-     * This method sends the prepared multicast message to the devices and returns the response from FCM.
+     * The tokens are sent in multicast messages of up to MAX_MULTICAST_TOKENS tokens, and the results are summed.
      *
-     * @param multicastMessage The multicast message to send.
+     * @param requestSendPushReqDto The request DTO containing the push notification information.
+     * @param pushTokenList The list of push tokens to which the notification will be sent.
      * @return The response DTO containing the results of the push notification, including the success and failure counts.
      * @throws OpenDidException If an error occurs while sending the push notification through FCM.
      */
-    private RequestSendPushResDto sendFcm(MulticastMessage multicastMessage) {
+    private RequestSendPushResDto sendFcm(RequestSendPushReqDto requestSendPushReqDto, List<String> pushTokenList) {
+        awaitFirebase();
+
+        int successCount = 0;
+        int failureCount = 0;
         try {
-            BatchResponse batchResponse = FirebaseMessaging.getInstance().sendEachForMulticast(multicastMessage);
+            for (int from = 0; from < pushTokenList.size(); from += MAX_MULTICAST_TOKENS) {
+                List<String> chunk = pushTokenList.subList(from, Math.min(from + MAX_MULTICAST_TOKENS, pushTokenList.size()));
+                BatchResponse batchResponse = FirebaseMessaging.getInstance()
+                        .sendEachForMulticast(generateMulticastMessage(requestSendPushReqDto, chunk));
+                successCount += batchResponse.getSuccessCount();
+                failureCount += batchResponse.getFailureCount();
+            }
 
             return RequestSendPushResDto.builder()
-                    .successCount(batchResponse.getSuccessCount())
-                    .failureCount(batchResponse.getFailureCount())
+                    .successCount(successCount)
+                    .failureCount(failureCount)
                     .build();
         } catch (FirebaseMessagingException e) {
             log.error("An error occurred while sending FCM", e);
@@ -181,6 +286,20 @@ public class NotiPushService {
         }
     }
 
+    /**
+     * Waits until the background initialization of the Firebase application has completed.
+     *
+     * @throws OpenDidException FCM_SEND_FAILED if the initialization failed.
+     */
+    private void awaitFirebase() {
+        try {
+            firebaseInitialized.join();
+        } catch (CompletionException e) {
+            log.error("Firebase application is not initialized", e.getCause());
+            throw new OpenDidException(ErrorCode.FCM_SEND_FAILED);
+        }
+    }
+
     /**
      * Generates a multicast message for sending push notifications.
      * This method prepares the multicast message with the provided push tokens and notification data.
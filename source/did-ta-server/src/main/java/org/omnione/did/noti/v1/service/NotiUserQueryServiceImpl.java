@@ -16,6 +16,7 @@
 
 package org.omnione.did.noti.v1.service;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.constant.UserStatus;
 import org.omnione.did.base.db.domain.User;
 import org.omnione.did.base.db.repository.UserRepository;
@@ -33,6 +34,7 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
 public class NotiUserQueryServiceImpl implements NotiUserQueryService {
     private final UserRepository userRepository;
 
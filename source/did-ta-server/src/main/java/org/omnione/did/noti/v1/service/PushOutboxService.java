@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.noti.v1.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.omnione.did.base.db.constant.PushOutboxStatus;
+import org.omnione.did.base.db.domain.PushOutbox;
+import org.omnione.did.base.db.repository.PushOutboxRepository;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.noti.v1.dto.push.PushOutboxResDto;
+import org.omnione.did.noti.v1.dto.push.RequestSendPushReqDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Service for recording push notifications in the push_outbox table.
+ *
+ * The push tokens are resolved by the caller, so token lookup errors are still returned to the offer request.
+ * The entry holds the notification content and the tokens that remain to be sent;
+ * PushOutboxWorker sends the entries in the background and accumulates the delivery results.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PushOutboxService {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> TOKEN_LIST_TYPE = new TypeReference<>() {};
+
+    private final PushOutboxRepository pushOutboxRepository;
+
+    /**
+     * Records a push notification to be sent to the given tokens.
+     *
+     * @param content The notification and data of the push; the target DIDs are not stored
+     * @param pushTokenList The push tokens to send to
+     * @param referenceId The ID used to look up the delivery results (e.g. the offer ID)
+     * @return The saved entry
+     * @throws OpenDidException PUSH_DATA_GENERATION_FAILED if the content cannot be serialized
+     */
+    public PushOutbox enqueue(RequestSendPushReqDto content, List<String> pushTokenList, String referenceId) {
+        RequestSendPushReqDto stored = RequestSendPushReqDto.builder()
+                .notification(content.getNotification())
+                .data(content.getData())
+                .build();
+
+        PushOutbox entry = pushOutboxRepository.save(PushOutbox.builder()
+                .referenceId(referenceId)
+                .payload(writeContent(stored))
+                .tokens(writeTokens(pushTokenList))
+                .tokenCount(pushTokenList.size())
+                .status(PushOutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(Instant.now())
+                .build());
+        log.debug("\t--> Queued push {} for {} tokens", entry.getId(), pushTokenList.size());
+        return entry;
+    }
+
+    /**
+     * Finds the delivery results of the pushes queued for the given reference ID, newest first.
+     *
+     * @param referenceId The reference ID (e.g. the offer ID)
+     * @return The delivery results
+     */
+    public List<PushOutboxResDto> findDeliveryResults(String referenceId) {
+        return pushOutboxRepository.findByReferenceIdOrderByIdDesc(referenceId).stream()
+                .map(entry -> PushOutboxResDto.builder()
+                        .id(entry.getId())
+                        .referenceId(entry.getReferenceId())
+                        .status(entry.getStatus().name())
+                        .tokenCount(entry.getTokenCount())
+                        .successCount(entry.getSuccessCount())
+                        .failureCount(entry.getFailureCount())
+                        .attempts(entry.getAttempts())
+                        .lastError(entry.getLastError())
+                        .createdAt(entry.getCreatedAt())
+                        .sentAt(entry.getSentAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Reads the notification content stored in an entry.
+     *
+     * @param payload The payload column
+     * @return The notification content
+     * @throws OpenDidException PUSH_DATA_GENERATION_FAILED if the payload cannot be parsed
+     */
+    public static RequestSendPushReqDto readContent(String payload) {
+        try {
+            return OBJECT_MAPPER.readValue(payload, RequestSendPushReqDto.class);
+        } catch (JsonProcessingException e) {
+            throw new OpenDidException(ErrorCode.PUSH_DATA_GENERATION_FAILED);
+        }
+    }
+
+    /**
+     * Reads the push tokens stored in an entry.
+     *
+     * @param tokens The tokens column
+     * @return The push tokens
+     * @throws OpenDidException PUSH_DATA_GENERATION_FAILED if the tokens cannot be parsed
+     */
+    public static List<String> readTokens(String tokens) {
+        try {
+            return OBJECT_MAPPER.readValue(tokens, TOKEN_LIST_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new OpenDidException(ErrorCode.PUSH_DATA_GENERATION_FAILED);
+        }
+    }
+
+    /**
+     * Serializes the notification content for the payload column.
+     *
+     * @param content The notification and data of the push
+     * @return The JSON of the content
+     */
+    public static String writeContent(RequestSendPushReqDto content) {
+        return writeJson(content);
+    }
+
+    /**
+     * Serializes push tokens for the tokens column.
+     *
+     * @param pushTokenList The push tokens
+     * @return The JSON array of the tokens
+     */
+    public static String writeTokens(List<String> pushTokenList) {
+        return writeJson(pushTokenList);
+    }
+
+    private static String writeJson(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new OpenDidException(ErrorCode.PUSH_DATA_GENERATION_FAILED);
+        }
+    }
+}
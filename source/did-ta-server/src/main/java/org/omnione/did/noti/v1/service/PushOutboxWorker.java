@@ -0,0 +1,439 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.noti.v1.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.SendResponse;
+import org.omnione.did.base.db.constant.PushOutboxStatus;
+import org.omnione.did.base.db.domain.PushOutbox;
+import org.omnione.did.base.db.repository.PushOutboxRepository;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.FcmProperty;
+import org.omnione.did.noti.v1.dto.push.FcmNotificationDto;
+import org.omnione.did.noti.v1.dto.push.RequestSendPushReqDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background worker pool that sends the entries of the push_outbox table via FCM.
+ *
+ * Each poll claims at most as many due entries as there are idle workers (and at most fcm.outbox.claim-size),
+ * locking them with FOR UPDATE SKIP LOCKED so that several nodes can poll the same table, and leases them for
+ * fcm.outbox.lease-ms. Outcomes are only recorded while the claim is still held. Claimed entries with the same
+ * notification content are sent together: their tokens are concatenated and sent in multicast messages of up to
+ * 500 tokens. Sends are limited to fcm.outbox.rate-limit-per-second tokens per Firebase project.
+ *
+ * Tokens that fail with UNAVAILABLE, INTERNAL or QUOTA_EXCEEDED are kept in the entry and retried with exponential
+ * backoff until fcm.outbox.max-attempts; other failures (e.g. an unregistered token) are counted as failed at once.
+ * An entry is SENT once every token has a final result and at least one was delivered, and FAILED otherwise.
+ */
+@Component
+@Slf4j
+@Profile("!sample")
+public class PushOutboxWorker {
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final Set<MessagingErrorCode> RETRYABLE_MESSAGING_ERRORS = EnumSet.of(
+            MessagingErrorCode.UNAVAILABLE, MessagingErrorCode.INTERNAL, MessagingErrorCode.QUOTA_EXCEEDED);
+    private static final Set<com.google.firebase.ErrorCode> RETRYABLE_PLATFORM_ERRORS = EnumSet.of(
+            com.google.firebase.ErrorCode.UNAVAILABLE, com.google.firebase.ErrorCode.INTERNAL,
+            com.google.firebase.ErrorCode.RESOURCE_EXHAUSTED, com.google.firebase.ErrorCode.DEADLINE_EXCEEDED);
+
+    private final PushOutboxRepository pushOutboxRepository;
+    private final NotiPushService notiPushService;
+    private final FcmProperty fcmProperty;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workerPool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastPurgedAt = new AtomicLong(System.currentTimeMillis());
+    private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    public PushOutboxWorker(PushOutboxRepository pushOutboxRepository, NotiPushService notiPushService,
+                            FcmProperty fcmProperty, PlatformTransactionManager transactionManager) {
+        this.pushOutboxRepository = pushOutboxRepository;
+        this.notiPushService = notiPushService;
+        this.fcmProperty = fcmProperty;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int workerThreads = fcmProperty.getOutbox().getWorkerThreads();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workerPool = new ThreadPoolExecutor(
+                workerThreads,
+                workerThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "push-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Claims the due entries, groups them by content and hands the groups to the worker pool.
+     * No more entries are claimed than there are idle workers; every claimed entry forms at most one group,
+     * so the groups start at once instead of waiting in the queue past their lease.
+     */
+    @Scheduled(fixedDelayString = "${fcm.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!fcmProperty.getOutbox().isEnable()) {
+            return;
+        }
+        purgeSettledIfDue();
+
+        int idle = fcmProperty.getOutbox().getWorkerThreads() - inFlight.get();
+        if (idle <= 0) {
+            return;
+        }
+
+        List<PushOutbox> claimed;
+        try {
+            claimed = claim(Math.min(idle, fcmProperty.getOutbox().getClaimSize()));
+        } catch (Exception e) {
+            log.warn("Failed to claim push outbox entries: {}", e.getMessage());
+            return;
+        }
+
+        for (List<PushOutbox> group : groupByContent(claimed)) {
+            inFlight.incrementAndGet();
+            workerPool.execute(() -> {
+                try {
+                    process(group);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of entry groups currently being sent by this node.
+     *
+     * @return The number of in-flight groups
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished entries stay IN_PROGRESS and are claimed again once their lease expires.
+        workerPool.shutdown();
+    }
+
+    /**
+     * Locks the due entries and marks them IN_PROGRESS under a lease.
+     *
+     * @param limit The maximum number of entries to claim
+     * @return The claimed entries
+     */
+    public List<PushOutbox> claim(int limit) {
+        Instant now = Instant.now();
+        // Millisecond precision, so that the lease read back from the database compares equal to it.
+        Instant lockedUntil = now.plusMillis(fcmProperty.getOutbox().getLeaseMs()).truncatedTo(ChronoUnit.MILLIS);
+        return transactionTemplate.execute(status -> {
+            List<PushOutbox> entries = pushOutboxRepository.lockDue(now, limit);
+            for (PushOutbox entry : entries) {
+                entry.setStatus(PushOutboxStatus.IN_PROGRESS);
+                entry.setLockedUntil(lockedUntil);
+                entry.setAttempts(entry.getAttempts() + 1);
+            }
+            return pushOutboxRepository.saveAll(entries);
+        });
+    }
+
+    /**
+     * Groups claimed entries whose notification content is identical, keeping the claim order.
+     * Entries whose payload cannot be read are placed in groups of their own and fail when processed.
+     *
+     * @param entries The claimed entries
+     * @return The groups of entries to send together
+     */
+    public static List<List<PushOutbox>> groupByContent(List<PushOutbox> entries) {
+        Map<Object, List<PushOutbox>> groups = new LinkedHashMap<>();
+        for (PushOutbox entry : entries) {
+            Object key;
+            try {
+                key = ContentKey.of(PushOutboxService.readContent(entry.getPayload()));
+            } catch (OpenDidException e) {
+                key = entry.getId();
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Sends a group of claimed entries with the same content and records the outcome of each entry.
+     *
+     * @param group The claimed entries
+     */
+    public void process(List<PushOutbox> group) {
+        Map<Long, Delivery> deliveries = new LinkedHashMap<>();
+        List<TokenTarget> targets = new ArrayList<>();
+        RequestSendPushReqDto content = null;
+        for (PushOutbox entry : group) {
+            Delivery delivery = new Delivery();
+            deliveries.put(entry.getId(), delivery);
+            try {
+                content = PushOutboxService.readContent(entry.getPayload());
+                for (String token : PushOutboxService.readTokens(entry.getTokens())) {
+                    targets.add(new TokenTarget(delivery, token));
+                }
+            } catch (OpenDidException e) {
+                log.error("Push outbox entry {} cannot be read", entry.getId());
+                delivery.failureCount += entry.getTokenCount();
+                delivery.lastError = "Unreadable push outbox entry";
+            }
+        }
+
+        for (int from = 0; from < targets.size(); from += NotiPushService.MAX_MULTICAST_TOKENS) {
+            List<TokenTarget> chunk = targets.subList(from, Math.min(from + NotiPushService.MAX_MULTICAST_TOKENS, targets.size()));
+            send(content, chunk);
+        }
+
+        for (PushOutbox entry : group) {
+            recordDelivery(entry, deliveries.get(entry.getId()));
+        }
+    }
+
+    private void send(RequestSendPushReqDto content, List<TokenTarget> chunk) {
+        List<String> tokens = chunk.stream().map(TokenTarget::token).toList();
+        try {
+            acquire(tokens.size());
+            BatchResponse batchResponse = notiPushService.sendMulticast(content, tokens);
+            List<SendResponse> responses = batchResponse.getResponses();
+            for (int i = 0; i < chunk.size(); i++) {
+                Delivery delivery = chunk.get(i).delivery();
+                SendResponse response = responses.get(i);
+                if (response.isSuccessful()) {
+                    delivery.successCount++;
+                } else if (isRetryable(response.getException())) {
+                    delivery.retryTokens.add(chunk.get(i).token());
+                    delivery.lastError = response.getException().getMessage();
+                } else {
+                    delivery.failureCount++;
+                    delivery.lastError = response.getException().getMessage();
+                }
+            }
+        } catch (FirebaseMessagingException e) {
+            log.warn("FCM multicast to {} tokens failed: {}", tokens.size(), e.getMessage());
+            failChunk(chunk, isRetryable(e), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failChunk(chunk, true, "Interrupted while waiting for the send rate limit");
+        } catch (OpenDidException e) {
+            log.error("FCM multicast to {} tokens failed: {}", tokens.size(), e.getErrorCode());
+            failChunk(chunk, false, e.getMessage());
+        } catch (Exception e) {
+            log.warn("FCM multicast to {} tokens failed: {}", tokens.size(), e.getMessage());
+            failChunk(chunk, true, e.getMessage());
+        }
+    }
+
+    private static void failChunk(List<TokenTarget> chunk, boolean retryable, String error) {
+        for (TokenTarget target : chunk) {
+            if (retryable) {
+                target.delivery().retryTokens.add(target.token());
+            } else {
+                target.delivery().failureCount++;
+            }
+            target.delivery().lastError = error;
+        }
+    }
+
+    /**
+     * Records the outcome of a send for a claimed entry. The update is conditional on the claim (attempt number
+     * and lease), so a worker whose lease has expired does not overwrite the entry of the node that re-claimed it.
+     */
+    private void recordDelivery(PushOutbox entry, Delivery delivery) {
+        FcmProperty.Outbox config = fcmProperty.getOutbox();
+        Instant now = Instant.now();
+        int successCount = entry.getSuccessCount() + delivery.successCount;
+        String lastError = (delivery.lastError != null) ? truncate(delivery.lastError) : entry.getLastError();
+        PushOutboxStatus status;
+        int failureCount;
+        List<String> tokens;
+        Instant nextAttemptAt;
+        Instant sentAt;
+
+        if (delivery.retryTokens.isEmpty()) {
+            // Every token has a final result; the entry is FAILED only if no token was delivered.
+            status = successCount > 0 ? PushOutboxStatus.SENT : PushOutboxStatus.FAILED;
+            failureCount = entry.getFailureCount() + delivery.failureCount;
+            tokens = List.of();
+            nextAttemptAt = entry.getNextAttemptAt();
+            sentAt = now;
+        } else if (entry.getAttempts() >= config.getMaxAttempts()) {
+            log.error("Push {} failed for {} tokens after {} attempts", entry.getId(), delivery.retryTokens.size(), entry.getAttempts());
+            status = PushOutboxStatus.FAILED;
+            failureCount = entry.getFailureCount() + delivery.failureCount + delivery.retryTokens.size();
+            tokens = delivery.retryTokens;
+            nextAttemptAt = entry.getNextAttemptAt();
+            sentAt = entry.getSentAt();
+        } else {
+            status = PushOutboxStatus.PENDING;
+            failureCount = entry.getFailureCount() + delivery.failureCount;
+            tokens = delivery.retryTokens;
+            nextAttemptAt = now.plus(backoff(entry.getAttempts(), config));
+            sentAt = entry.getSentAt();
+        }
+
+        String writtenTokens = PushOutboxService.writeTokens(tokens);
+        Integer updated = transactionTemplate.execute(txStatus -> pushOutboxRepository.recordDelivery(
+                entry.getId(), entry.getAttempts(), entry.getLockedUntil(), status, writtenTokens,
+                successCount, failureCount, lastError, nextAttemptAt, sentAt, now));
+        if (updated == null || updated == 0) {
+            log.warn("Push {} was sent after its lease (attempt {}) expired", entry.getId(), entry.getAttempts());
+            return;
+        }
+        entry.setStatus(status);
+        entry.setTokens(writtenTokens);
+        entry.setSuccessCount(successCount);
+        entry.setFailureCount(failureCount);
+        entry.setLastError(lastError);
+        entry.setNextAttemptAt(nextAttemptAt);
+        entry.setSentAt(sentAt);
+        entry.setLockedUntil(null);
+    }
+
+    /**
+     * Waits until the given number of tokens may be sent through the current Firebase project.
+     */
+    private void acquire(int permits) throws InterruptedException {
+        int rateLimitPerSecond = fcmProperty.getOutbox().getRateLimitPerSecond();
+        if (rateLimitPerSecond <= 0) {
+            return;
+        }
+        RateLimiter rateLimiter = rateLimiters.computeIfAbsent(notiPushService.getProjectId(),
+                projectId -> new RateLimiter(rateLimitPerSecond));
+        long waitNanos = rateLimiter.reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void purgeSettledIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPurgedAt.get();
+        if (now - last < fcmProperty.getOutbox().getPurgeIntervalSeconds() * 1000L
+                || !lastPurgedAt.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            Instant before = Instant.now().minus(Duration.ofHours(fcmProperty.getOutbox().getRetentionHours()));
+            int deleted = pushOutboxRepository.deleteSettledBefore(before);
+            log.debug("\t--> Purged {} settled push outbox entries", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge settled push outbox entries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt: initial-backoff-ms doubled per failed attempt, capped at max-backoff-ms.
+     */
+    public static Duration backoff(int attempts, FcmProperty.Outbox config) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delayMs = Math.min(config.getInitialBackoffMs() << exponent, config.getMaxBackoffMs());
+        return Duration.ofMillis(delayMs);
+    }
+
+    /**
+     * Returns whether a failed send may succeed when retried (the FCM service was unavailable or over quota).
+     */
+    public static boolean isRetryable(FirebaseMessagingException e) {
+        if (e == null) {
+            return false;
+        }
+        if (e.getMessagingErrorCode() != null) {
+            return RETRYABLE_MESSAGING_ERRORS.contains(e.getMessagingErrorCode());
+        }
+        return RETRYABLE_PLATFORM_ERRORS.contains(e.getErrorCode());
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * The delivery results of one entry within a send.
+     */
+    private static class Delivery {
+        private int successCount;
+        private int failureCount;
+        private final List<String> retryTokens = new ArrayList<>();
+        private String lastError;
+    }
+
+    private record TokenTarget(Delivery delivery, String token) {
+    }
+
+    private record ContentKey(String title, String body, Map<String, String> data) {
+        static ContentKey of(RequestSendPushReqDto content) {
+            FcmNotificationDto notification = content.getNotification();
+            return new ContentKey(
+                    (notification != null) ? notification.getTitle() : null,
+                    (notification != null) ? notification.getBody() : null,
+                    content.getData());
+        }
+    }
+
+    /**
+     * Spaces the sends of one Firebase project evenly at the configured rate.
+     * A send reserves its permits at once and waits outside the lock until its reserved slot.
+     */
+    static class RateLimiter {
+        private final long nanosPerPermit;
+        private long nextFreeNanos = System.nanoTime();
+
+        RateLimiter(int permitsPerSecond) {
+            this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        }
+
+        synchronized long reserve(int permits) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            nextFreeNanos = start + permits * nanosPerPermit;
+            return start - now;
+        }
+    }
+}
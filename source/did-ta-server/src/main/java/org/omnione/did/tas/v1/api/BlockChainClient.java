@@ -14,12 +14,13 @@
  * limitations under the License.
  */
 
-package org.omnione.did.base.util;
 
-import org.omnione.did.ContractApi;
-import org.omnione.did.ContractFactory;
+package org.omnione.did.tas.v1.api;
+
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.tas.v1.service.VcMetaCache;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.data.model.did.DidDocAndStatus;
 import org.omnione.did.data.model.did.DidDocument;
@@ -30,45 +31,27 @@ import org.omnione.did.data.model.enums.vc.VcStatus;
 import org.omnione.did.data.model.vc.VcMeta;
 import org.omnione.did.fabric.FabricContractApi;
 import org.omnione.exception.BlockChainException;
+import org.springframework.stereotype.Component;
 
 /**
- * Utility class for blockchain operations.
- * This class provides methods to interact with the blockchain, including
- * initializing the blockchain, registering and retrieving DID documents,
- * and managing VC metadata and status.
+ * Client for blockchain operations.
+ * This class provides methods to register and retrieve DID documents and to manage VC metadata and status.
+ * Queries are evaluated and updates are submitted through the {@link ContractApiPool};
+ * DID document and VC meta registrations pass through the {@link LedgerWriteBatcher} first.
  */
+@Component
+@RequiredArgsConstructor
 @Slf4j
-public class BaseBlockChainUtil {
-
-    private static ContractApi contractApiInstance = getContractApiInstance();
+public class BlockChainClient {
+    private final ContractApiPool contractApiPool;
+    private final LedgerWriteBatcher ledgerWriteBatcher;
+    private final VcMetaCache vcMetaCache;
 
     /**
-     * Initializes the blockchain connection.
-     *
-     * @return a ContractApi instance.
+     * Connects the contract handles ahead of the first blockchain call.
      */
-    public static ContractApi initBlockChain() {
-        return ContractFactory.FABRIC.create("properties/blockchain.properties");
-
-    }
-
-    /**
-     * Resets the ContractApi instance.
-     * Use this method to reinitialize the blockchain connection.
-     */
-    public static ContractApi getContractApiInstance() {
-        if (contractApiInstance == null) {
-            synchronized (BaseBlockChainUtil.class) {
-                if (contractApiInstance == null) {
-                    contractApiInstance = initBlockChain();
-                }
-            }
-        }
-        return contractApiInstance;
-    }
-
-    public static synchronized void resetContractApiInstance() {
-        contractApiInstance = null;
+    public void warmUp() {
+        contractApiPool.warmUp();
     }
 
     /**
@@ -78,10 +61,12 @@ public class BaseBlockChainUtil {
      * @param roleType the role type associated with the DID document.
      * @throws OpenDidException if the DID document cannot be registered.
      */
-    public static void registerDidDocument(InvokedDidDoc invokedDidDoc, RoleType roleType) {
+    public void registerDidDocument(InvokedDidDoc invokedDidDoc, RoleType roleType) {
         try {
-            ContractApi contractApi = getContractApiInstance();
-            contractApi.registDidDoc(invokedDidDoc, roleType);
+            ledgerWriteBatcher.submit(contractApi -> {
+                contractApi.registDidDoc(invokedDidDoc, roleType);
+                return null;
+            });
         } catch (BlockChainException e) {
             log.error("Failed to register DID Document: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_DIDDOC_REGISTRATION_FAILED);
@@ -95,10 +80,9 @@ public class BaseBlockChainUtil {
      * @return the DID document and its status.
      * @throws OpenDidException if the DID document cannot be found.
      */
-    public static DidDocAndStatus findDidDocument(String didKeyUrl) {
+    public DidDocAndStatus findDidDocument(String didKeyUrl) {
         try {
-            ContractApi contractApi = getContractApiInstance();
-            return (DidDocAndStatus) contractApi.getDidDoc(didKeyUrl);
+            return contractApiPool.evaluate(contractApi -> (DidDocAndStatus) contractApi.getDidDoc(didKeyUrl));
         } catch (BlockChainException e) {
             log.error("Failed to get DID Document: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_GET_DID_DOC_FAILED);
@@ -113,10 +97,9 @@ public class BaseBlockChainUtil {
      * @return the updated DID document.
      * @throws OpenDidException if the DID document status cannot be updated.
      */
-    public static DidDocument updateDidDocStatus(String didKeyURl, DidDocStatus didDocStatus) {
+    public DidDocument updateDidDocStatus(String didKeyURl, DidDocStatus didDocStatus) {
         try {
-            ContractApi contractApi = getContractApiInstance();
-            return (DidDocument) contractApi.updateDidDocStatus(didKeyURl, didDocStatus);
+            return contractApiPool.submit(contractApi -> (DidDocument) contractApi.updateDidDocStatus(didKeyURl, didDocStatus));
         } catch (BlockChainException e) {
             log.error("Failed to update DID Document: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_UPDATE_DID_DOC_FAILED);
@@ -129,10 +112,12 @@ public class BaseBlockChainUtil {
      * @param vcMeta the VC metadata to register.
      * @throws OpenDidException if the VC metadata cannot be registered.
      */
-    public static void registerVcMeta(VcMeta vcMeta) {
+    public void registerVcMeta(VcMeta vcMeta) {
         try {
-            ContractApi contractApi = getContractApiInstance();
-            contractApi.registVcMetadata(vcMeta);
+            ledgerWriteBatcher.submit(contractApi -> {
+                contractApi.registVcMetadata(vcMeta);
+                return null;
+            });
         } catch (BlockChainException e) {
             log.error("Failed to register VC Meta: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_VC_META_REGISTRATION_FAILED);
@@ -146,10 +131,9 @@ public class BaseBlockChainUtil {
      * @return the VC metadata.
      * @throws OpenDidException if the VC metadata cannot be found.
      */
-    public static VcMeta findVcMeta(String vcId) {
+    public VcMeta findVcMeta(String vcId) {
         try {
-            ContractApi contractApi = getContractApiInstance();
-            return (VcMeta) contractApi.getVcMetadata(vcId);
+            return contractApiPool.evaluate(contractApi -> (VcMeta) contractApi.getVcMetadata(vcId));
         } catch (BlockChainException e) {
             log.error("Failed to find VC Meta: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_VC_META_RETRIEVAL_FAILED);
@@ -158,18 +142,24 @@ public class BaseBlockChainUtil {
 
     /**
      * Updates the status of a VC on the blockchain.
+     * The cached VC meta is evicted.
      *
      * @param vcId the VC ID.
      * @param vcStatus the new status for the VC.
      * @throws OpenDidException if the VC status cannot be updated.
      */
-    public static void updateVcStatus(String vcId, VcStatus vcStatus) {
+    public void updateVcStatus(String vcId, VcStatus vcStatus) {
         try {
-            ContractApi contractApi = getContractApiInstance();
-            contractApi.updateVcStatus(vcId, vcStatus);
+            contractApiPool.submit(contractApi -> {
+                contractApi.updateVcStatus(vcId, vcStatus);
+                return null;
+            });
         } catch (BlockChainException e) {
             log.error("Failed to update VC Status: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_VC_STATUS_UPDATE_FAILED);
+        } finally {
+            // The update may have been committed even if the call failed.
+            vcMetaCache.evict(vcId);
         }
     }
 
@@ -178,22 +168,26 @@ public class BaseBlockChainUtil {
      * (Caution: This method is for testing purposes only.)
      *
      * @param index the name of the index to remove.
-     * @throws RuntimeException if the index cannot be removed.
+     * @throws OpenDidException if the index cannot be removed.
      */
-    public static void removeIndex(String index) {
+    public void removeIndex(String index) {
         try {
-            FabricContractApi fabricContractApi = (FabricContractApi)getContractApiInstance();
-            fabricContractApi.removeIndex(index);
+            contractApiPool.submit(contractApi -> ((FabricContractApi) contractApi).removeIndex(index));
         } catch (BlockChainException e) {
             log.error("Failed to remove index: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_REMOVE_INDEX_FAILED);
         }
     }
 
-    public static void removeIndexAll() {
+    /**
+     * Removes all indexes from the blockchain.
+     * (Caution: This method is for testing purposes only.)
+     *
+     * @throws OpenDidException if the indexes cannot be removed.
+     */
+    public void removeIndexAll() {
         try {
-            FabricContractApi fabricContractApi = (FabricContractApi)getContractApiInstance();
-            fabricContractApi.removeAll();
+            contractApiPool.submit(contractApi -> ((FabricContractApi) contractApi).removeAll());
         } catch (BlockChainException e) {
             log.error("Failed to remove index: " + e.getMessage());
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_REMOVE_INDEX_FAILED);
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.ContractApi;
+import org.omnione.did.ContractFactory;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.BlockChainProperty;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.dto.admin.BlockChainCallMetricsResDto;
+import org.omnione.did.tas.v1.dto.admin.BlockChainPoolResDto;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.exception.BlockChainException;
+import org.omnione.exception.BlockchainErrorCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pool of blockchain contract handles (SDK ContractApi instances).
+ *
+ * Each handle wraps its own SDK gateway pool, which serves queries with an evaluate on the peer
+ * and invocations with a submit, so calls run concurrently across and within handles.
+ * The SDK does not return a gateway to its pool when a call fails and blocks once its 10 gateways are taken,
+ * so the number of calls per handle is bounded (blockchain.pool.max-concurrent-calls-per-handle) and a handle
+ * is replaced once it has failed blockchain.pool.max-failed-calls-per-handle calls. The sum of both must stay within 10.
+ *
+ * Handles are connected on first use, or ahead of it by {@link #warmUp()}. A handle that fails to connect or reports a connection error is
+ * reconnected with exponential backoff, both on demand and by the periodic health check, which also
+ * probes healthy handles by reading a DID document (blockchain.pool.health-probe-did-key-url, the TAS DID by default).
+ */
+@Component
+@Slf4j
+public class ContractApiPool {
+    private final BlockChainProperty.Pool config;
+    private final String healthProbeDidKeyUrl;
+    private final Supplier<ContractApi> connector;
+    private final Handle[] handles;
+    private final AtomicInteger nextHandle = new AtomicInteger();
+    private volatile boolean started;
+
+    private final CallMetrics evaluateMetrics = new CallMetrics();
+    private final CallMetrics submitMetrics = new CallMetrics();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder reconnectFailures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * A call against a contract handle.
+     */
+    @FunctionalInterface
+    public interface ContractCall<T> {
+        T apply(ContractApi contractApi) throws BlockChainException;
+    }
+
+    private enum State {
+        DISCONNECTED,
+        HEALTHY,
+        BROKEN
+    }
+
+    private static final class Handle {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Semaphore permits;
+        private final AtomicInteger failedCalls = new AtomicInteger();
+        private volatile ContractApi contractApi;
+        private volatile State state = State.DISCONNECTED;
+        // Guarded by lock.
+        private long backoffMs;
+        private long nextConnectAtMillis;
+
+        private Handle(int maxConcurrentCalls) {
+            this.permits = new Semaphore(maxConcurrentCalls);
+        }
+    }
+
+    @Autowired
+    public ContractApiPool(BlockChainProperty blockChainProperty, TasProperty tasProperty) {
+        this(blockChainProperty.getPool(),
+                defaultProbe(blockChainProperty.getPool().getHealthProbeDidKeyUrl(), tasProperty.getDid()),
+                () -> ContractFactory.FABRIC.create(blockChainProperty.getConfigFile()));
+    }
+
+    public ContractApiPool(BlockChainProperty.Pool config, String healthProbeDidKeyUrl, Supplier<ContractApi> connector) {
+        this.config = config;
+        this.healthProbeDidKeyUrl = healthProbeDidKeyUrl;
+        this.connector = connector;
+        this.handles = new Handle[Math.max(1, config.getSize())];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new Handle(config.getMaxConcurrentCallsPerHandle());
+        }
+    }
+
+    private static String defaultProbe(String healthProbeDidKeyUrl, String tasDid) {
+        if (healthProbeDidKeyUrl != null && !healthProbeDidKeyUrl.isBlank()) {
+            return healthProbeDidKeyUrl;
+        }
+        return (tasDid != null) ? tasDid + "?versionId=1" : null;
+    }
+
+    /**
+     * Runs a query, which the SDK evaluates on a peer without ordering.
+     *
+     * @param call The query
+     * @return The query result
+     * @throws BlockChainException if the query fails
+     * @throws OpenDidException if no contract handle is available
+     */
+    public <T> T evaluate(ContractCall<T> call) throws BlockChainException {
+        return execute(call, evaluateMetrics);
+    }
+
+    /**
+     * Runs an invocation, which the SDK submits for endorsement and ordering and waits for its commit.
+     *
+     * @param call The invocation
+     * @return The invocation result
+     * @throws BlockChainException if the invocation fails
+     * @throws OpenDidException if no contract handle is available
+     */
+    public <T> T submit(ContractCall<T> call) throws BlockChainException {
+        return execute(call, submitMetrics);
+    }
+
+    private <T> T execute(ContractCall<T> call, CallMetrics metrics) throws BlockChainException {
+        Handle handle = acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.apply(handle.contractApi);
+            metrics.record(System.nanoTime() - start, false);
+            return result;
+        } catch (BlockChainException e) {
+            metrics.record(System.nanoTime() - start, true);
+            onFailure(handle, e);
+            throw e;
+        } catch (RuntimeException e) {
+            metrics.record(System.nanoTime() - start, true);
+            onFailure(handle, null);
+            throw e;
+        } finally {
+            handle.permits.release();
+        }
+    }
+
+    /**
+     * Takes a call permit of a healthy handle, connecting handles on demand.
+     * Handles are tried round-robin; if all healthy handles are busy, waits up to blockchain.pool.acquire-timeout-ms.
+     */
+    private Handle acquire() {
+        started = true;
+        int start = Math.floorMod(nextHandle.getAndIncrement(), handles.length);
+        Handle waitFor = null;
+        for (int i = 0; i < handles.length; i++) {
+            Handle handle = handles[(start + i) % handles.length];
+            if (handle.state != State.HEALTHY && !connect(handle)) {
+                continue;
+            }
+            if (handle.permits.tryAcquire()) {
+                return handle;
+            }
+            if (waitFor == null) {
+                waitFor = handle;
+            }
+        }
+
+        if (waitFor != null) {
+            try {
+                if (waitFor.permits.tryAcquire(config.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    return waitFor;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        rejected.increment();
+        log.error("No blockchain contract handle is available");
+        throw new OpenDidException(ErrorCode.BLOCKCHAIN_UNAVAILABLE);
+    }
+
+    private void onFailure(Handle handle, BlockChainException e) {
+        if (e != null && BlockchainErrorCode.CONNECTION_ERROR.getCode().equals(e.getErrorCode())) {
+            markBroken(handle, "connection error");
+            return;
+        }
+        // The SDK keeps the gateway of a failed call, so a handle is replaced before its gateway pool runs dry.
+        if (handle.failedCalls.incrementAndGet() >= config.getMaxFailedCallsPerHandle()) {
+            markBroken(handle, handle.failedCalls.get() + " failed calls");
+        }
+    }
+
+    private void markBroken(Handle handle, String reason) {
+        handle.lock.lock();
+        try {
+            if (handle.state == State.HEALTHY) {
+                log.warn("Blockchain contract handle is replaced after {}", reason);
+                handle.state = State.BROKEN;
+                handle.nextConnectAtMillis = 0;
+            }
+        } finally {
+            handle.lock.unlock();
+        }
+    }
+
+    /**
+     * Connects or reconnects the handle unless it is already healthy or its backoff has not elapsed.
+     *
+     * @return true if the handle is healthy afterwards
+     */
+    private boolean connect(Handle handle) {
+        handle.lock.lock();
+        try {
+            if (handle.state == State.HEALTHY) {
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (now < handle.nextConnectAtMillis) {
+                return false;
+            }
+            boolean reconnect = handle.state == State.BROKEN;
+            try {
+                handle.contractApi = connector.get();
+                handle.failedCalls.set(0);
+                handle.backoffMs = 0;
+                handle.state = State.HEALTHY;
+                if (reconnect) {
+                    reconnects.increment();
+                }
+                return true;
+            } catch (RuntimeException e) {
+                handle.backoffMs = (handle.backoffMs == 0)
+                        ? config.getReconnectInitialBackoffMs()
+                        : Math.min(handle.backoffMs * 2, config.getReconnectMaxBackoffMs());
+                handle.nextConnectAtMillis = now + handle.backoffMs;
+                handle.state = State.BROKEN;
+                reconnectFailures.increment();
+                log.error("Failed to connect to the blockchain, retrying in {} ms: {}", handle.backoffMs, e.getMessage());
+                return false;
+            }
+        } finally {
+            handle.lock.unlock();
+        }
+    }
+
+    /**
+     * Connects all handles ahead of the first call and starts the health check.
+     * Handles that fail to connect are retried by the health check or on demand.
+     *
+     * @return The number of healthy handles
+     */
+    public int warmUp() {
+        started = true;
+        int healthy = 0;
+        for (Handle handle : handles) {
+            if (connect(handle)) {
+                healthy++;
+            }
+        }
+        log.info("Blockchain contract handles are warmed up: {}/{} healthy", healthy, handles.length);
+        return healthy;
+    }
+
+    /**
+     * Reconnects broken handles whose backoff has elapsed and probes idle healthy handles.
+     * Does nothing until the pool has been used.
+     */
+    @Scheduled(fixedDelayString = "${blockchain.pool.health-check-interval-ms:30000}")
+    public void checkHealth() {
+        if (!started) {
+            return;
+        }
+        for (Handle handle : handles) {
+            if (handle.state != State.HEALTHY) {
+                connect(handle);
+                continue;
+            }
+            if (healthProbeDidKeyUrl == null || !handle.permits.tryAcquire()) {
+                continue;
+            }
+            try {
+                handle.contractApi.getDidDoc(healthProbeDidKeyUrl);
+            } catch (BlockChainException e) {
+                log.warn("Blockchain health probe failed: {}", e.getMessage());
+                onFailure(handle, e);
+            } catch (RuntimeException e) {
+                log.warn("Blockchain health probe failed: {}", e.getMessage());
+                onFailure(handle, null);
+            } finally {
+                handle.permits.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the handles and the call metrics.
+     *
+     * @return The pool snapshot
+     */
+    public BlockChainPoolResDto getSnapshot() {
+        List<String> states = new ArrayList<>(handles.length);
+        int healthy = 0;
+        for (Handle handle : handles) {
+            states.add(handle.state.name());
+            if (handle.state == State.HEALTHY) {
+                healthy++;
+            }
+        }
+        return BlockChainPoolResDto.builder()
+                .size(handles.length)
+                .healthyHandles(healthy)
+                .handleStates(states)
+                .reconnects(reconnects.sum())
+                .reconnectFailures(reconnectFailures.sum())
+                .rejected(rejected.sum())
+                .evaluate(evaluateMetrics.snapshot())
+                .submit(submitMetrics.snapshot())
+                .build();
+    }
+
+    /**
+     * Latency and error counters for one kind of call.
+     */
+    private static class CallMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final AtomicLong lastLatencyNanos = new AtomicLong();
+
+        void record(long latencyNanos, boolean failed) {
+            requests.increment();
+            totalLatencyNanos.add(latencyNanos);
+            lastLatencyNanos.set(latencyNanos);
+            maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        BlockChainCallMetricsResDto snapshot() {
+            long count = requests.sum();
+            return BlockChainCallMetricsResDto.builder()
+                    .requests(count)
+                    .errors(errors.sum())
+                    .avgLatencyMs((count == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / count))
+                    .maxLatencyMs(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()))
+                    .lastLatencyMs(TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos.get()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.base.property.FeignClientProperty;
+import feign.Capability;
+import feign.Client;
+import feign.Retryer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-client configuration of the KYC and repository Feign clients.
+ * Applies the bounded retries of feign-client.clients.{name} to GET requests only and wraps the pooled HTTP client
+ * in an {@link InstrumentedFeignClient}.
+ *
+ * This class is referenced from the @FeignClient annotations and is intentionally not a @Configuration,
+ * so that its beans are created in each client's own context rather than shared by all clients.
+ */
+public class FeignClientConfig {
+    private static final String CLIENT_NAME_PROPERTY = "spring.cloud.openfeign.client.name";
+
+    @Bean
+    public Retryer feignRetryer(Environment environment, FeignClientProperty feignClientProperty) {
+        FeignClientProperty.Client config = feignClientProperty.getClient(environment.getProperty(CLIENT_NAME_PROPERTY));
+        if (config.getMaxAttempts() <= 1) {
+            return Retryer.NEVER_RETRY;
+        }
+        return new ReadOnlyRetryer(config.getRetryPeriodMs(), config.getMaxRetryPeriodMs(), config.getMaxAttempts());
+    }
+
+    @Bean
+    public Capability feignClientCapability(Environment environment, FeignClientProperty feignClientProperty,
+                                            FeignClientMetrics feignClientMetrics) {
+        FeignClientProperty.Client config = feignClientProperty.getClient(environment.getProperty(CLIENT_NAME_PROPERTY));
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                return new InstrumentedFeignClient(client, feignClientMetrics,
+                        config.isConditionalCache(), config.getConditionalCacheMaxEntries());
+            }
+        };
+    }
+}
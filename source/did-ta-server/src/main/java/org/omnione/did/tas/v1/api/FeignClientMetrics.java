@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.tas.v1.dto.admin.FeignClientMetricsResDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and error metrics of the Feign clients, per client method.
+ * Responses with a 4xx or 5xx status and I/O failures count as errors.
+ */
+@Component
+public class FeignClientMetrics {
+    private final ConcurrentHashMap<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Records a completed call.
+     *
+     * @param method The Feign method key, e.g. RepositoryFeign#getDid(String)
+     * @param latencyNanos The call latency
+     * @param failed Whether the call failed
+     * @param notModified Whether the response was served from the conditional cache
+     */
+    public void record(String method, long latencyNanos, boolean failed, boolean notModified) {
+        metrics.computeIfAbsent(method, key -> new MethodMetrics()).record(latencyNanos, failed, notModified);
+    }
+
+    /**
+     * Returns the metrics per client method.
+     *
+     * @return Metrics keyed by Feign method key
+     */
+    public Map<String, FeignClientMetricsResDto> getMetrics() {
+        Map<String, FeignClientMetricsResDto> snapshot = new TreeMap<>();
+        metrics.forEach((method, methodMetrics) -> snapshot.put(method, methodMetrics.snapshot()));
+        return snapshot;
+    }
+
+    private static class MethodMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final AtomicLong lastLatencyNanos = new AtomicLong();
+
+        void record(long latencyNanos, boolean failed, boolean cached) {
+            requests.increment();
+            totalLatencyNanos.add(latencyNanos);
+            lastLatencyNanos.set(latencyNanos);
+            maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            if (failed) {
+                errors.increment();
+            }
+            if (cached) {
+                notModified.increment();
+            }
+        }
+
+        FeignClientMetricsResDto snapshot() {
+            long count = requests.sum();
+            return FeignClientMetricsResDto.builder()
+                    .requests(count)
+                    .errors(errors.sum())
+                    .notModified(notModified.sum())
+                    .avgLatencyMs((count == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / count))
+                    .maxLatencyMs(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()))
+                    .lastLatencyMs(TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos.get()))
+                    .build();
+        }
+    }
+}
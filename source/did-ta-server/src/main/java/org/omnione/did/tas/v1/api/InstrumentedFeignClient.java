@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Feign client decorator that records per-method metrics in {@link FeignClientMetrics} and, when enabled,
+ * revalidates cached GET responses with conditional requests.
+ *
+ * A 200 response to a GET that carries an ETag or Last-Modified header is kept, bounded to the configured
+ * number of URLs with least-recently-used eviction. The next GET to the same URL is sent with If-None-Match
+ * and If-Modified-Since, and a 304 response is answered with the kept body. Responses without validators are
+ * not kept, so the cache has no effect if the server does not send them.
+ */
+public class InstrumentedFeignClient implements Client {
+    private static final int NOT_MODIFIED = 304;
+
+    private final Client delegate;
+    private final FeignClientMetrics feignClientMetrics;
+    private final Map<String, CachedResponse> cache;
+
+    public InstrumentedFeignClient(Client delegate, FeignClientMetrics feignClientMetrics, boolean conditionalCache, int maxEntries) {
+        this.delegate = delegate;
+        this.feignClientMetrics = feignClientMetrics;
+        this.cache = conditionalCache
+                ? Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                        return size() > maxEntries;
+                    }
+                })
+                : null;
+    }
+
+    /**
+     * A kept response body with its validators.
+     */
+    private record CachedResponse(int status, String reason, Map<String, Collection<String>> headers, byte[] body,
+                                  String etag, String lastModified) {
+        Response toResponse(Request request) {
+            return Response.builder()
+                    .status(status)
+                    .reason(reason)
+                    .headers(headers)
+                    .body(body)
+                    .request(request)
+                    .build();
+        }
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String method = methodKey(request);
+        boolean cacheable = cache != null && request.httpMethod() == Request.HttpMethod.GET;
+        CachedResponse cached = cacheable ? cache.get(request.url()) : null;
+        long start = System.nanoTime();
+        try {
+            Response response = delegate.execute((cached != null) ? withValidators(request, cached) : request, options);
+            if (cached != null && response.status() == NOT_MODIFIED) {
+                response.close();
+                feignClientMetrics.record(method, System.nanoTime() - start, false, true);
+                return cached.toResponse(request);
+            }
+            if (cacheable && response.status() == 200) {
+                response = keep(request, response);
+            }
+            feignClientMetrics.record(method, System.nanoTime() - start, response.status() >= 400, false);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            feignClientMetrics.record(method, System.nanoTime() - start, true, false);
+            throw e;
+        }
+    }
+
+    private Response keep(Request request, Response response) throws IOException {
+        String etag = firstHeader(response, "ETag");
+        String lastModified = firstHeader(response, "Last-Modified");
+        if (etag == null && lastModified == null) {
+            cache.remove(request.url());
+            return response;
+        }
+        byte[] body;
+        if (response.body() == null) {
+            body = new byte[0];
+        } else {
+            try (InputStream inputStream = response.body().asInputStream()) {
+                body = Util.toByteArray(inputStream);
+            }
+        }
+        cache.put(request.url(), new CachedResponse(response.status(), response.reason(), response.headers(), body, etag, lastModified));
+        return response.toBuilder().body(body).build();
+    }
+
+    private static Request withValidators(Request request, CachedResponse cached) {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+        if (cached.etag() != null) {
+            headers.put("If-None-Match", List.of(cached.etag()));
+        }
+        if (cached.lastModified() != null) {
+            headers.put("If-Modified-Since", List.of(cached.lastModified()));
+        }
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(), request.requestTemplate());
+    }
+
+    private static String firstHeader(Response response, String name) {
+        Collection<String> values = response.headers().get(name);
+        return (values == null || values.isEmpty()) ? null : values.iterator().next();
+    }
+
+    private static String methodKey(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().methodMetadata() != null) {
+            return request.requestTemplate().methodMetadata().configKey();
+        }
+        return request.httpMethod() + " " + request.url();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call to an issuer is rejected without being sent,
+ * because the issuer's circuit breaker is open or its bulkhead is full.
+ */
+@Getter
+public class IssuerCallNotPermittedException extends IOException {
+    private final Reason reason;
+
+    public IssuerCallNotPermittedException(String serverUrl, Reason reason) {
+        super("Call to issuer " + serverUrl + " not permitted: " + reason);
+        this.reason = reason;
+    }
+
+    /**
+     * The reason for the rejection.
+     */
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL
+    }
+}
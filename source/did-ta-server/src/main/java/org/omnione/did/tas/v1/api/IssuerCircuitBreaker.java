@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.base.property.IssuerClientProperty;
+import org.omnione.did.tas.v1.dto.admin.IssuerCircuitBreakerResDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker for a single issuer.
+ *
+ * The outcome of the last issuer-client.circuit-breaker.window-size calls is kept in a ring buffer.
+ * Once at least minimum-calls are recorded and either the failure rate or the slow-call rate reaches its
+ * threshold, the breaker opens and calls are rejected for open-duration-ms. It then lets half-open-calls
+ * trial calls through; the breaker closes if all of them succeed and opens again on the first failure.
+ *
+ * A failure is a connection error, a timeout or a 5xx response. Other error responses are business
+ * errors of the issuer and are not counted.
+ *
+ * Each permission is tagged with the generation of the breaker state it was issued under, and every state
+ * transition starts a new generation. The outcome of a call permitted under an earlier generation (e.g. a slow
+ * call sent while CLOSED that completes during HALF_OPEN) is ignored, so it cannot close or reopen the breaker.
+ */
+@Slf4j
+class IssuerCircuitBreaker {
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    static final long NOT_PERMITTED = -1;
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String serverUrl;
+    private final IssuerClientProperty.CircuitBreaker config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder notPermittedCalls = new LongAdder();
+
+    private final byte[] outcomes;
+    private int index;
+    private int bufferedCalls;
+    private int failedCalls;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    IssuerCircuitBreaker(String serverUrl, IssuerClientProperty.CircuitBreaker config) {
+        this.serverUrl = serverUrl;
+        this.config = config;
+        this.outcomes = new byte[Math.max(1, config.getWindowSize())];
+    }
+
+    /**
+     * Checks whether a call may be sent to the issuer.
+     *
+     * @return The permit to pass to {@link #onResult}, or NOT_PERMITTED if the call is rejected
+     */
+    long tryAcquirePermission() {
+        if (!config.isEnable()) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMs())) {
+                    notPermittedCalls.increment();
+                    return NOT_PERMITTED;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits >= config.getHalfOpenCalls()) {
+                    notPermittedCalls.increment();
+                    return NOT_PERMITTED;
+                }
+                halfOpenPermits++;
+            }
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     * Outcomes of calls permitted under an earlier state generation are ignored.
+     *
+     * @param permit The permit returned by {@link #tryAcquirePermission}
+     * @param durationNanos The call duration
+     * @param failure Whether the call failed
+     */
+    void onResult(long permit, long durationNanos, boolean failure) {
+        if (!config.isEnable()) {
+            return;
+        }
+        boolean slow = durationNanos >= TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs());
+        lock.lock();
+        try {
+            if (permit != generation) {
+                return;
+            }
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (failure || slow) {
+                        transitionTo(State.OPEN);
+                    } else if (++halfOpenSuccesses >= config.getHalfOpenCalls()) {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+                case CLOSED -> {
+                    record(failure, slow);
+                    if (bufferedCalls >= config.getMinimumCalls()
+                            && (getFailureRate() >= config.getFailureRateThreshold()
+                            || getSlowCallRate() >= config.getSlowCallRateThreshold())) {
+                        transitionTo(State.OPEN);
+                    }
+                }
+                default -> {
+                    // No permits are issued while OPEN.
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current state, as seen by the next call.
+     *
+     * @return The breaker state
+     */
+    State getState() {
+        lock.lock();
+        try {
+            if (state == State.OPEN
+                    && System.nanoTime() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMs())) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the breaker and clears the recorded calls.
+     */
+    void reset() {
+        lock.lock();
+        try {
+            transitionTo(State.CLOSED);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    IssuerCircuitBreakerResDto snapshot() {
+        lock.lock();
+        try {
+            long remainingOpenMs = 0;
+            if (state == State.OPEN) {
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAtNanos);
+                remainingOpenMs = Math.max(0, config.getOpenDurationMs() - elapsedMs);
+            }
+            return IssuerCircuitBreakerResDto.builder()
+                    .state(getState().name())
+                    .bufferedCalls(bufferedCalls)
+                    .failureRate(getFailureRate())
+                    .slowCallRate(getSlowCallRate())
+                    .notPermittedCalls(notPermittedCalls.sum())
+                    .remainingOpenMs(remainingOpenMs)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure, boolean slow) {
+        if (bufferedCalls == outcomes.length) {
+            byte evicted = outcomes[index];
+            failedCalls -= evicted & FAILURE;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            bufferedCalls++;
+        }
+        byte outcome = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+        outcomes[index] = outcome;
+        failedCalls += outcome & FAILURE;
+        slowCalls += (outcome & SLOW) >> 1;
+        index = (index + 1) % outcomes.length;
+    }
+
+    private float getFailureRate() {
+        return (bufferedCalls == 0) ? 0 : failedCalls * 100f / bufferedCalls;
+    }
+
+    private float getSlowCallRate() {
+        return (bufferedCalls == 0) ? 0 : slowCalls * 100f / bufferedCalls;
+    }
+
+    private void transitionTo(State next) {
+        if (next == State.OPEN) {
+            log.warn("Circuit breaker for issuer {} opened (failure rate {}%, slow-call rate {}%)",
+                    serverUrl, getFailureRate(), getSlowCallRate());
+            openedAtNanos = System.nanoTime();
+        } else if (state != next) {
+            log.info("Circuit breaker for issuer {} is {}", serverUrl, next);
+        }
+        if (next == State.CLOSED) {
+            index = 0;
+            bufferedCalls = 0;
+            failedCalls = 0;
+            slowCalls = 0;
+        }
+        state = next;
+        generation++;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+    }
+}
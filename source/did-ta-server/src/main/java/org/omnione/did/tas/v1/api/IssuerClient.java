@@ -0,0 +1,448 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.IssuerClientProperty;
+import org.omnione.did.base.response.ErrorResponse;
+import org.omnione.did.tas.v1.dto.admin.IssuerCircuitBreakerResDto;
+import org.omnione.did.tas.v1.dto.admin.IssuerMetricsResDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.common.exception.HttpClientException;
+import org.omnione.did.common.util.JsonUtil;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client for relaying requests to issuer servers.
+ *
+ * One HttpClient is kept per issuer (Entity.serverUrl), so each issuer has its own keep-alive connection pool.
+ * HTTP/2 is negotiated over TLS when enabled and supported by the issuer; plain HTTP uses HTTP/1.1.
+ * Latency and error counts are recorded per issuer.
+ *
+ * Each issuer also has a circuit breaker (issuer-client.circuit-breaker) and a bulkhead that limits
+ * the concurrent calls to it (issuer-client.bulkhead). Rejected calls fail immediately with
+ * IssuerCallNotPermittedException, so a slow or unavailable issuer does not hold up other flows.
+ * relay() maps these failures to the issuer error codes of OpenDidException.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class IssuerClient {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final IssuerClientProperty issuerClientProperty;
+    private final Environment environment;
+
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, IssuerMetrics> metrics = new ConcurrentHashMap<>();
+    private final Map<String, IssuerCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+    private final ReentrantLock executorLock = new ReentrantLock();
+    private volatile Executor executor;
+
+    /**
+     * Sends a POST request to the issuer and returns the response asynchronously.
+     * The future completes exceptionally with HttpClientException for a non-2xx response,
+     * and with an IOException for connection failures and timeouts.
+     *
+     * @param serverUrl The issuer server URL (Entity.serverUrl)
+     * @param path The API path
+     * @param request The request DTO
+     * @param responseType The response type
+     * @return The future of the response DTO
+     */
+    public <T> CompletableFuture<T> postAsync(String serverUrl, String path, Object request, Class<T> responseType) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = HttpRequest.newBuilder()
+                    .uri(URI.create(serverUrl + path))
+                    .timeout(Duration.ofMillis(issuerClientProperty.getReadTimeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JsonUtil.serializeToJson(request)))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        IssuerMetrics issuerMetrics = metrics.computeIfAbsent(serverUrl, key -> new IssuerMetrics());
+        Semaphore bulkhead = getBulkhead(serverUrl);
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            issuerMetrics.recordRejected(IssuerCallNotPermittedException.Reason.BULKHEAD_FULL);
+            return CompletableFuture.failedFuture(
+                    new IssuerCallNotPermittedException(serverUrl, IssuerCallNotPermittedException.Reason.BULKHEAD_FULL));
+        }
+        IssuerCircuitBreaker circuitBreaker = getCircuitBreaker(serverUrl);
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (permit == IssuerCircuitBreaker.NOT_PERMITTED) {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            issuerMetrics.recordRejected(IssuerCallNotPermittedException.Reason.CIRCUIT_OPEN);
+            return CompletableFuture.failedFuture(
+                    new IssuerCallNotPermittedException(serverUrl, IssuerCallNotPermittedException.Reason.CIRCUIT_OPEN));
+        }
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = getClient(serverUrl)
+                    .sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> readResponse(response, responseType));
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((response, throwable) -> {
+            long latencyNanos = System.nanoTime() - startedAt;
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            circuitBreaker.onResult(permit, latencyNanos, isFailure(throwable));
+            issuerMetrics.record(latencyNanos, throwable);
+        });
+    }
+
+    /**
+     * Sends a POST request to the issuer and maps a failure to OpenDidException.
+     * An error response of the issuer is passed on as is; timeouts, rejected calls and other
+     * failures are mapped to the corresponding issuer error codes.
+     *
+     * @param serverUrl The issuer server URL (Entity.serverUrl)
+     * @param path The API path
+     * @param request The request DTO
+     * @param responseType The response type
+     * @param requestName The request name for logging
+     * @return The future of the response DTO
+     */
+    public <T> CompletableFuture<T> relay(String serverUrl, String path, Object request, Class<T> responseType, String requestName) {
+        return postAsync(serverUrl, path, request, responseType)
+                .handle((response, throwable) -> {
+                    if (throwable == null) {
+                        return response;
+                    }
+                    throw toOpenDidException(unwrap(throwable), requestName);
+                });
+    }
+
+    /**
+     * Sends a POST request to the issuer and waits for the response.
+     *
+     * @param serverUrl The issuer server URL (Entity.serverUrl)
+     * @param path The API path
+     * @param request The request DTO
+     * @param responseType The response type
+     * @return The response DTO
+     * @throws HttpClientException if the issuer responds with a non-2xx status
+     * @throws IOException if the request fails or times out
+     */
+    public <T> T post(String serverUrl, String path, Object request, Class<T> responseType) throws HttpClientException, IOException {
+        try {
+            return postAsync(serverUrl, path, request, responseType).get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            if (cause instanceof HttpClientException httpClientException) {
+                throw httpClientException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the issuer response");
+        }
+    }
+
+    /**
+     * Returns the latency and error metrics per issuer.
+     *
+     * @return Metrics keyed by issuer server URL
+     */
+    public Map<String, IssuerMetricsResDto> getMetrics() {
+        Map<String, IssuerMetricsResDto> snapshot = new TreeMap<>();
+        metrics.forEach((serverUrl, issuerMetrics) -> {
+            IssuerMetricsResDto issuerMetricsResDto = issuerMetrics.snapshot();
+            IssuerCircuitBreaker circuitBreaker = circuitBreakers.get(serverUrl);
+            issuerMetricsResDto.setCircuitState((circuitBreaker != null)
+                    ? circuitBreaker.getState().name()
+                    : IssuerCircuitBreaker.State.CLOSED.name());
+            snapshot.put(serverUrl, issuerMetricsResDto);
+        });
+        return snapshot;
+    }
+
+    /**
+     * Returns the circuit breaker and bulkhead state per issuer.
+     *
+     * @return State keyed by issuer server URL
+     */
+    public Map<String, IssuerCircuitBreakerResDto> getCircuitBreakers() {
+        Map<String, IssuerCircuitBreakerResDto> snapshot = new TreeMap<>();
+        circuitBreakers.forEach((serverUrl, circuitBreaker) -> {
+            IssuerCircuitBreakerResDto issuerCircuitBreakerResDto = circuitBreaker.snapshot();
+            Semaphore bulkhead = bulkheads.get(serverUrl);
+            int maxConcurrentCalls = issuerClientProperty.getBulkhead().getMaxConcurrentCalls();
+            issuerCircuitBreakerResDto.setMaxConcurrentCalls(maxConcurrentCalls);
+            issuerCircuitBreakerResDto.setActiveCalls((bulkhead != null) ? maxConcurrentCalls - bulkhead.availablePermits() : 0);
+            IssuerMetrics issuerMetrics = metrics.get(serverUrl);
+            issuerCircuitBreakerResDto.setBulkheadRejectedCalls((issuerMetrics != null) ? issuerMetrics.bulkheadRejected.sum() : 0);
+            snapshot.put(serverUrl, issuerCircuitBreakerResDto);
+        });
+        return snapshot;
+    }
+
+    /**
+     * Closes the circuit breaker of the given issuer, e.g. after the issuer has been restored.
+     *
+     * @param serverUrl The issuer server URL (Entity.serverUrl)
+     * @return true if a circuit breaker exists for the issuer
+     */
+    public boolean resetCircuitBreaker(String serverUrl) {
+        IssuerCircuitBreaker circuitBreaker = circuitBreakers.get(serverUrl);
+        if (circuitBreaker == null) {
+            return false;
+        }
+        circuitBreaker.reset();
+        return true;
+    }
+
+    /**
+     * Unwraps the cause of a failed future.
+     *
+     * @param throwable The failure
+     * @return The underlying cause
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private OpenDidException toOpenDidException(Throwable cause, String requestName) {
+        if (cause instanceof HttpClientException e) {
+            log.error("HttpClientException occurred while sending {} request: {}", requestName, e.getResponseBody(), e);
+            return new OpenDidException(convertExternalErrorResponse(e.getResponseBody()));
+        }
+        if (cause instanceof HttpTimeoutException) {
+            log.error("Timed out while sending {} request", requestName, cause);
+            return new OpenDidException(ErrorCode.ISSUER_RESPONSE_TIMEOUT);
+        }
+        if (cause instanceof IssuerCallNotPermittedException e) {
+            log.error("{} request was not sent: {}", requestName, e.getMessage());
+            return new OpenDidException((e.getReason() == IssuerCallNotPermittedException.Reason.CIRCUIT_OPEN)
+                    ? ErrorCode.ISSUER_CIRCUIT_OPEN
+                    : ErrorCode.ISSUER_TOO_MANY_REQUESTS);
+        }
+        log.error("An unknown error occurred while sending {} request", requestName, cause);
+        return new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
+    }
+
+    /**
+     * Converts an external error response string to an ErrorResponse object.
+     *
+     * @param resBody The JSON string representing the external error response
+     * @return An ErrorResponse object parsed from the input string
+     * @throws OpenDidException with ErrorCode.ISSUER_UNKNOWN_RESPONSE if parsing fails
+     */
+    private ErrorResponse convertExternalErrorResponse(String resBody) {
+        try {
+            return OBJECT_MAPPER.readValue(resBody, ErrorResponse.class);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse external error response: {}", resBody, e);
+            throw new OpenDidException(ErrorCode.ISSUER_UNKNOWN_RESPONSE);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private IssuerCircuitBreaker getCircuitBreaker(String serverUrl) {
+        return circuitBreakers.computeIfAbsent(serverUrl,
+                key -> new IssuerCircuitBreaker(key, issuerClientProperty.getCircuitBreaker()));
+    }
+
+    private Semaphore getBulkhead(String serverUrl) {
+        if (!issuerClientProperty.getBulkhead().isEnable()) {
+            return null;
+        }
+        return bulkheads.computeIfAbsent(serverUrl,
+                key -> new Semaphore(issuerClientProperty.getBulkhead().getMaxConcurrentCalls()));
+    }
+
+    /**
+     * Connection errors, timeouts and 5xx responses count against the issuer's circuit breaker.
+     * Other error responses are business errors and do not.
+     */
+    private static boolean isFailure(Throwable throwable) {
+        if (throwable == null) {
+            return false;
+        }
+        Throwable cause = unwrap(throwable);
+        return !(cause instanceof HttpClientException httpClientException) || httpClientException.getStatusCode() >= 500;
+    }
+
+    private <T> T readResponse(HttpResponse<String> response, Class<T> responseType) {
+        int statusCode = response.statusCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new CompletionException(new HttpClientException(statusCode, response.body()));
+        }
+        try {
+            return OBJECT_MAPPER.readValue(response.body(), responseType);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private HttpClient getClient(String serverUrl) {
+        return clients.computeIfAbsent(serverUrl, this::createClient);
+    }
+
+    private HttpClient createClient(String serverUrl) {
+        boolean secure = serverUrl.regionMatches(true, 0, "https:", 0, 6);
+        HttpClient.Version version = (issuerClientProperty.isHttp2() && secure)
+                ? HttpClient.Version.HTTP_2
+                : HttpClient.Version.HTTP_1_1;
+        log.debug("\t--> Creating issuer client for {} ({})", serverUrl, version);
+
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(issuerClientProperty.getConnectTimeoutMs()))
+                .executor(getExecutor())
+                .build();
+    }
+
+    /**
+     * Returns the executor for the HttpClient's response handling.
+     * When virtual threads are enabled (spring.threads.virtual.enabled on Java 21), each task runs on its own virtual thread;
+     * otherwise a fixed pool of issuer-client.executor-threads platform threads is used.
+     */
+    private Executor getExecutor() {
+        Executor current = executor;
+        if (current == null) {
+            executorLock.lock();
+            try {
+                current = executor;
+                if (current == null) {
+                    current = createExecutor();
+                    executor = current;
+                }
+            } finally {
+                executorLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Executor createExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("issuer-client-");
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "issuer-client-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(issuerClientProperty.getExecutorThreads(), threadFactory);
+    }
+
+    /**
+     * Latency and error counters for a single issuer.
+     */
+    static class IssuerMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder bulkheadRejected = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final AtomicLong lastLatencyNanos = new AtomicLong();
+
+        void record(long latencyNanos, Throwable throwable) {
+            requests.increment();
+            totalLatencyNanos.add(latencyNanos);
+            lastLatencyNanos.set(latencyNanos);
+            maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            if (throwable != null) {
+                errors.increment();
+                if (unwrap(throwable) instanceof HttpTimeoutException) {
+                    timeouts.increment();
+                }
+            }
+        }
+
+        void recordRejected(IssuerCallNotPermittedException.Reason reason) {
+            rejected.increment();
+            if (reason == IssuerCallNotPermittedException.Reason.BULKHEAD_FULL) {
+                bulkheadRejected.increment();
+            }
+        }
+
+        IssuerMetricsResDto snapshot() {
+            long count = requests.sum();
+            return IssuerMetricsResDto.builder()
+                    .requests(count)
+                    .errors(errors.sum())
+                    .timeouts(timeouts.sum())
+                    .rejected(rejected.sum())
+                    .avgLatencyMs((count == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / count))
+                    .maxLatencyMs(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()))
+                    .lastLatencyMs(TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos.get()))
+                    .build();
+        }
+    }
+}
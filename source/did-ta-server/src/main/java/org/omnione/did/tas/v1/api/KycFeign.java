@@ -26,7 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
  * Feign client for the KYC server.
  * In the demo, the CAS server is used as the KYC server.
  */
-@FeignClient(value = "Kyc", url = "${kyc.url}", path = "/api/v1")
+@FeignClient(value = "Kyc", url = "${kyc.url}", path = "/api/v1", configuration = FeignClientConfig.class)
 public interface KycFeign {
 
     /**
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.BlockChainProperty;
+import org.omnione.did.tas.v1.dto.admin.LedgerWriteBatchResDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.exception.BlockChainException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batching stage in front of the ledger write invocations (DID document and VC meta registration).
+ *
+ * The chaincode has no multi-write function, so a batch cannot be one invocation. Instead, writes are collected
+ * for up to blockchain.batch.window-ms or blockchain.batch.max-size writes and then submitted together, one
+ * invocation per write, on a pipeline as deep as the contract handle pool. The writes of a batch are endorsed
+ * concurrently and ordered into the same block, rather than each waiting for the commit of the one before it.
+ * Every caller waits for and receives the result of its own write.
+ *
+ * When the queue is full, the caller submits its write directly (back-pressure).
+ * The dispatcher thread runs from {@link #start()} to {@link #shutdown()}, and only while batching is enabled.
+ * A caller waits at most blockchain.batch.await-timeout-ms for its write.
+ */
+@Component
+@Slf4j
+public class LedgerWriteBatcher {
+    private final BlockChainProperty.Batch config;
+    private final ContractApiPool contractApiPool;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final ThreadPoolExecutor pipeline;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedWrites = new LongAdder();
+    private final LongAdder directWrites = new LongAdder();
+
+    @Autowired
+    public LedgerWriteBatcher(BlockChainProperty blockChainProperty, ContractApiPool contractApiPool) {
+        this(blockChainProperty.getBatch(), contractApiPool,
+                blockChainProperty.getPool().getSize() * blockChainProperty.getPool().getMaxConcurrentCallsPerHandle());
+    }
+
+    public LedgerWriteBatcher(BlockChainProperty.Batch config, ContractApiPool contractApiPool, int pipelineDepth) {
+        this.config = config;
+        this.contractApiPool = contractApiPool;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pipeline = new ThreadPoolExecutor(
+                pipelineDepth,
+                pipelineDepth,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ledger-write-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.pipeline.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts the dispatcher thread when batching is enabled.
+     * Until then, and after {@link #shutdown()}, writes are submitted directly.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (!config.isEnable() || running) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "ledger-write-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Submits a ledger write through the batching stage and waits for its result.
+     *
+     * @param call The invocation
+     * @return The invocation result
+     * @throws BlockChainException if the invocation fails
+     * @throws OpenDidException if no contract handle is available, or LEDGER_WRITE_PENDING if the write
+     *         was submitted but did not complete within blockchain.batch.await-timeout-ms
+     */
+    public <T> T submit(ContractApiPool.ContractCall<T> call) throws BlockChainException {
+        if (!config.isEnable() || !running) {
+            return contractApiPool.submit(call);
+        }
+
+        PendingWrite<T> write = new PendingWrite<>(call);
+        if (!queue.offer(write)) {
+            directWrites.increment();
+            return contractApiPool.submit(call);
+        }
+        return write.await(config.getAwaitTimeoutMs());
+    }
+
+    /**
+     * Returns the batching metrics.
+     *
+     * @return The batching snapshot
+     */
+    public LedgerWriteBatchResDto getSnapshot() {
+        return LedgerWriteBatchResDto.builder()
+                .enabled(config.isEnable())
+                .queued(queue.size())
+                .batches(batches.sum())
+                .batchedWrites(batchedWrites.sum())
+                .directWrites(directWrites.sum())
+                .build();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher = null;
+        }
+        PendingWrite<?> write;
+        while ((write = queue.poll()) != null) {
+            write.future.completeExceptionally(new OpenDidException(ErrorCode.BLOCKCHAIN_UNAVAILABLE));
+        }
+        pipeline.shutdown();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                List<PendingWrite<?>> batch = collectBatch();
+                batches.increment();
+                batchedWrites.add(batch.size());
+                log.debug("Dispatching ledger write batch of {}", batch.size());
+                for (PendingWrite<?> write : batch) {
+                    pipeline.execute(() -> write.run(contractApiPool));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Ledger write dispatcher failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Waits for the first write, then collects further writes until the window closes or the batch is full.
+     */
+    private List<PendingWrite<?>> collectBatch() throws InterruptedException {
+        List<PendingWrite<?>> batch = new ArrayList<>();
+        batch.add(queue.take());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getWindowMs());
+        while (batch.size() < config.getMaxSize()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * A queued write and the future through which its caller receives the result.
+     */
+    private static final class PendingWrite<T> {
+        private final ContractApiPool.ContractCall<T> call;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        // Claimed either by the pipeline, to run the write, or by a caller that gave up waiting.
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingWrite(ContractApiPool.ContractCall<T> call) {
+            this.call = call;
+        }
+
+        private void run(ContractApiPool contractApiPool) {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                future.complete(contractApiPool.submit(call));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private T await(long timeoutMs) throws BlockChainException {
+            try {
+                return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    // Never dispatched; the pipeline skips it.
+                    log.error("Ledger write was not dispatched within {} ms", timeoutMs);
+                    throw new OpenDidException(ErrorCode.BLOCKCHAIN_UNAVAILABLE);
+                }
+                log.error("Ledger write did not complete within {} ms", timeoutMs);
+                throw new OpenDidException(ErrorCode.LEDGER_WRITE_PENDING);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OpenDidException(ErrorCode.BLOCKCHAIN_UNAVAILABLE);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof BlockChainException blockChainException) {
+                    throw blockChainException;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+
+/**
+ * Retryer that retries only idempotent (GET and HEAD) requests with the backoff of {@link Retryer.Default}.
+ * A failed POST such as RepositoryFeign#registerDid or KycFeign may already have been applied by the
+ * server before the connection dropped or timed out, so it is propagated to the caller on the first failure.
+ */
+public class ReadOnlyRetryer implements Retryer {
+    private final long period;
+    private final long maxPeriod;
+    private final int maxAttempts;
+    private final Retryer delegate;
+
+    public ReadOnlyRetryer(long period, long maxPeriod, int maxAttempts) {
+        this.period = period;
+        this.maxPeriod = maxPeriod;
+        this.maxAttempts = maxAttempts;
+        this.delegate = new Retryer.Default(period, maxPeriod, maxAttempts);
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        Request.HttpMethod method = e.method();
+        if (method != Request.HttpMethod.GET && method != Request.HttpMethod.HEAD) {
+            throw e;
+        }
+        delegate.continueOrPropagate(e);
+    }
+
+    @Override
+    public Retryer clone() {
+        return new ReadOnlyRetryer(period, maxPeriod, maxAttempts);
+    }
+}
@@ -29,7 +29,7 @@ import org.springframework.web.bind.annotation.RequestParam;
  * Feign client for the Storage server.
  * This class was temporarily used instead of the BlockChain service and is no longer in use.
  */
-@FeignClient(value = "Storage", url = "http://127.0.0.1:8097/repository", path = "/api/v1")
+@FeignClient(value = "Storage", url = "${repository.url}", path = "/api/v1", configuration = FeignClientConfig.class)
 public interface RepositoryFeign {
 
     /**
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.base.property.FeignClientProperty;
+import org.omnione.did.tas.v1.dto.admin.RepositoryHedgeResDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent repository reads.
+ *
+ * A read runs on the hedge pool. If it has not returned within the configured percentile of the recent
+ * successful read latencies of the same operation (at least feign-client.hedge.min-delay-ms), a second
+ * request is sent, which the pooled HTTP client places on another connection. The first success is returned
+ * and the other request is cancelled; the read fails only if both requests fail.
+ *
+ * Hedges are limited by a global budget: every read adds budget-percent / 100 of a token, up to budget-burst
+ * tokens, and every hedge takes one token, so hedging adds at most budget-percent to the repository load.
+ * When the hedge pool is saturated, the read runs on the caller thread without hedging.
+ */
+@Slf4j
+@Component
+public class RepositoryReadHedger {
+    private static final long TOKEN = 1000;
+
+    private final FeignClientProperty.Hedge config;
+    private final ThreadPoolExecutor hedgePool;
+    private final ConcurrentHashMap<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetRejected = new LongAdder();
+
+    public RepositoryReadHedger(FeignClientProperty feignClientProperty) {
+        this.config = feignClientProperty.getHedge();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hedgePool = new ThreadPoolExecutor(
+                config.getThreads(),
+                config.getThreads(),
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "repository-hedge-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hedgePool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Recent successful latencies of one operation, and the hedge delay derived from them.
+     * The delay is recomputed every tenth of the window.
+     */
+    private static class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+        private int sinceRecompute;
+        private volatile long delayMs;
+
+        LatencyWindow(int size, long initialDelayMs) {
+            this.samples = new long[Math.max(10, size)];
+            this.delayMs = initialDelayMs;
+        }
+
+        synchronized void record(long latencyMs, double percentile, long minDelayMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (++sinceRecompute < samples.length / 10) {
+                return;
+            }
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.ceil(percentile / 100.0 * count) - 1);
+            delayMs = Math.max(minDelayMs, sorted[Math.max(0, index)]);
+        }
+
+        long getDelayMs() {
+            return delayMs;
+        }
+    }
+
+    /**
+     * Runs an idempotent read, hedging it if it is slow.
+     *
+     * @param operation The operation name, which selects the latency window
+     * @param read The read; runtime exceptions it throws are rethrown as they are
+     * @return The result of the first successful request
+     */
+    public <T> T read(String operation, Supplier<T> read) {
+        if (!config.isEnable()) {
+            return read.get();
+        }
+        reads.increment();
+        budget.accumulateAndGet((long) (config.getBudgetPercent() / 100 * TOKEN),
+                (current, deposit) -> Math.min(current + deposit, config.getBudgetBurst() * TOKEN));
+
+        LatencyWindow window = windows.computeIfAbsent(operation,
+                key -> new LatencyWindow(config.getWindowSize(), config.getInitialDelayMs()));
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        AtomicReference<RuntimeException> lastError = new AtomicReference<>();
+
+        Future<?> primary = submit(read, result, outstanding, lastError, window, false);
+        if (primary == null) {
+            return read.get();
+        }
+        Future<?> hedge = null;
+        try {
+            try {
+                return result.get(window.getDelayMs(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (tryTakeToken()) {
+                    outstanding.incrementAndGet();
+                    hedge = submit(read, result, outstanding, lastError, window, true);
+                    if (hedge == null) {
+                        // The primary may have failed meanwhile and left the result to this request.
+                        if (outstanding.decrementAndGet() == 0) {
+                            result.completeExceptionally(lastError.get());
+                        }
+                    } else {
+                        hedges.increment();
+                    }
+                } else {
+                    budgetRejected.increment();
+                }
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the repository", e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the hedging metrics and the current hedge delay per operation.
+     *
+     * @return The hedging snapshot
+     */
+    public RepositoryHedgeResDto getSnapshot() {
+        Map<String, Long> delayMs = new TreeMap<>();
+        windows.forEach((operation, window) -> delayMs.put(operation, window.getDelayMs()));
+        return RepositoryHedgeResDto.builder()
+                .enabled(config.isEnable())
+                .reads(reads.sum())
+                .hedges(hedges.sum())
+                .hedgeWins(hedgeWins.sum())
+                .budgetRejected(budgetRejected.sum())
+                .delayMs(delayMs)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgePool.shutdownNow();
+    }
+
+    private <T> Future<?> submit(Supplier<T> read, CompletableFuture<T> result, AtomicInteger outstanding,
+                                 AtomicReference<RuntimeException> lastError, LatencyWindow window, boolean isHedge) {
+        try {
+            return hedgePool.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    T value = read.get();
+                    window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                            config.getPercentile(), config.getMinDelayMs());
+                    if (result.complete(value) && isHedge) {
+                        hedgeWins.increment();
+                    }
+                } catch (RuntimeException e) {
+                    lastError.set(e);
+                    if (outstanding.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private boolean tryTakeToken() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.controller;
+
+import org.omnione.did.base.constants.UrlConstant;
+import org.omnione.did.base.startup.StartupTimeline;
+import org.omnione.did.noti.v1.dto.push.PushOutboxResDto;
+import org.omnione.did.noti.v1.service.PushOutboxService;
+import org.omnione.did.tas.v1.api.ContractApiPool;
+import org.omnione.did.tas.v1.api.FeignClientMetrics;
+import org.omnione.did.tas.v1.api.IssuerClient;
+import org.omnione.did.tas.v1.api.LedgerWriteBatcher;
+import org.omnione.did.tas.v1.api.RepositoryReadHedger;
+import org.omnione.did.tas.v1.dto.admin.BlockChainPoolResDto;
+import org.omnione.did.tas.v1.dto.admin.FeignClientMetricsResDto;
+import org.omnione.did.tas.v1.dto.admin.IssuerCircuitBreakerResDto;
+import org.omnione.did.tas.v1.dto.admin.IssuerMetricsResDto;
+import org.omnione.did.tas.v1.dto.admin.LedgerWriteBatchResDto;
+import org.omnione.did.tas.v1.dto.admin.RepositoryHedgeResDto;
+import org.omnione.did.tas.v1.dto.admin.StartupTimelineResDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The AdminController class provides operational endpoints for the TAS server.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(value = UrlConstant.Tas.ADMIN_V1)
+public class AdminController {
+    private final IssuerClient issuerClient;
+    private final ContractApiPool contractApiPool;
+    private final LedgerWriteBatcher ledgerWriteBatcher;
+    private final FeignClientMetrics feignClientMetrics;
+    private final RepositoryReadHedger repositoryReadHedger;
+    private final StartupTimeline startupTimeline;
+    private final ApplicationAvailability applicationAvailability;
+    private final PushOutboxService pushOutboxService;
+
+    /**
+     * Retrieves the relay latency and error metrics per issuer.
+     *
+     * @return Metrics keyed by issuer server URL
+     */
+    @GetMapping("/issuer-metrics")
+    public Map<String, IssuerMetricsResDto> getIssuerMetrics() {
+        return issuerClient.getMetrics();
+    }
+
+    /**
+     * Retrieves the circuit breaker and bulkhead state per issuer.
+     *
+     * @return State keyed by issuer server URL
+     */
+    @GetMapping("/issuer-circuit-breakers")
+    public Map<String, IssuerCircuitBreakerResDto> getIssuerCircuitBreakers() {
+        return issuerClient.getCircuitBreakers();
+    }
+
+    /**
+     * Closes the circuit breaker of an issuer.
+     *
+     * @param serverUrl The issuer server URL
+     * @return 200 if the circuit breaker was reset, 404 if the issuer has no circuit breaker
+     */
+    @PostMapping("/issuer-circuit-breakers/reset")
+    public ResponseEntity<Void> resetIssuerCircuitBreaker(@RequestParam String serverUrl) {
+        return issuerClient.resetCircuitBreaker(serverUrl)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retrieves the state of the blockchain contract handles and the evaluate/submit latency metrics.
+     *
+     * @return The pool snapshot
+     */
+    @GetMapping("/blockchain-pool")
+    public BlockChainPoolResDto getBlockChainPool() {
+        return contractApiPool.getSnapshot();
+    }
+
+    /**
+     * Retrieves the metrics of the ledger write batching stage.
+     *
+     * @return The batching snapshot
+     */
+    @GetMapping("/ledger-write-batch")
+    public LedgerWriteBatchResDto getLedgerWriteBatch() {
+        return ledgerWriteBatcher.getSnapshot();
+    }
+
+    /**
+     * Retrieves the latency and error metrics of the KYC and repository clients.
+     *
+     * @return Metrics keyed by Feign method key
+     */
+    @GetMapping("/feign-client-metrics")
+    public Map<String, FeignClientMetricsResDto> getFeignClientMetrics() {
+        return feignClientMetrics.getMetrics();
+    }
+
+    /**
+     * Retrieves the metrics and current hedge delays of the hedged repository reads.
+     *
+     * @return The hedging snapshot
+     */
+    @GetMapping("/repository-hedge")
+    public RepositoryHedgeResDto getRepositoryHedge() {
+        return repositoryReadHedger.getSnapshot();
+    }
+
+    /**
+     * Retrieves the startup timeline: slow bean initializations, background initialization tasks
+     * and the time until the server accepted traffic.
+     *
+     * @return The startup timeline
+     */
+    @GetMapping("/startup-timeline")
+    public StartupTimelineResDto getStartupTimeline() {
+        return startupTimeline.getSnapshot();
+    }
+
+    /**
+     * Reports whether the server accepts traffic. The server is ready once the application has started
+     * and the critical background initialization tasks have completed.
+     *
+     * @return 200 if the server accepts traffic, 503 otherwise
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<String> getReadiness() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        return ResponseEntity.status((state == ReadinessState.ACCEPTING_TRAFFIC) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(state.name());
+    }
+
+    /**
+     * Retrieves the delivery results of the pushes queued for an offer.
+     *
+     * @param referenceId The offer ID
+     * @return The push outbox entries, newest first
+     */
+    @GetMapping("/push-outbox")
+    public List<PushOutboxResDto> getPushOutbox(@RequestParam String referenceId) {
+        return pushOutboxService.findDeliveryResults(referenceId);
+    }
+}
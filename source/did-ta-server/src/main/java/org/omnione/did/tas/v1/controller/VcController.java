@@ -40,16 +40,19 @@ import org.omnione.did.tas.v1.dto.vc.RequestIssueVcReqDto;
 import org.omnione.did.tas.v1.dto.vc.RequestIssueVcResDto;
 import org.omnione.did.tas.v1.dto.vc.RequestRevokeVcReqDto;
 import org.omnione.did.tas.v1.dto.vc.RequestRevokeVcResDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * The VcController class is a controller that handles requests related to vc.
  * It provides endpoints for issuing, proposing, requesting, confirming, and revoking vc.
+ * When vc-async.enable is true, {@link VcAsyncController} serves these endpoints instead.
  */
 @Slf4j
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(value = UrlConstant.Tas.V1)
+@ConditionalOnProperty(prefix = "vc-async", name = "enable", havingValue = "false", matchIfMissing = true)
 public class VcController {
     private final VcService vcService;
 
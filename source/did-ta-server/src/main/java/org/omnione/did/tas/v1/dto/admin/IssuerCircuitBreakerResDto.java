@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.dto.admin;
+
+import lombok.*;
+
+/**
+ * DTO for the circuit breaker and bulkhead state of a single issuer.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Builder
+public class IssuerCircuitBreakerResDto {
+    private String state;
+    private int bufferedCalls;
+    private float failureRate;
+    private float slowCallRate;
+    private long notPermittedCalls;
+    private long remainingOpenMs;
+    private int activeCalls;
+    private int maxConcurrentCalls;
+    private long bulkheadRejectedCalls;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.dto.admin;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for the startup timeline of the server.
+ * All times are in milliseconds since the JVM was started.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Builder
+public class StartupTimelineResDto {
+    private String jvmStartedAt;
+    private Long applicationStartedMs;
+    private Long applicationReadyMs;
+    private Long trafficReadyMs;
+    private boolean ready;
+    private List<StartupPhaseResDto> phases;
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.helper;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.PiiProperty;
+import org.omnione.did.base.util.BaseDigestUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Helper class for the keyed PII hash stored in user.pii_hash.
+ * Users are looked up by the HMAC of their PII, so raw PII is never compared in SQL.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class PiiHashHelper {
+    /**
+     * The minimum length of pii.hash-secret in bytes (the output size of SHA-256).
+     */
+    public static final int MIN_SECRET_LENGTH = 32;
+
+    private final PiiProperty piiProperty;
+    private final Environment environment;
+
+    /**
+     * Checks that the hash secret is configured, so that a deployment without a secret fails at startup
+     * rather than on the first user lookup. The check is skipped if the active Spring profile includes "sample".
+     *
+     * @throws IllegalStateException if pii.hash-secret is missing or shorter than MIN_SECRET_LENGTH bytes
+     */
+    @PostConstruct
+    public void init() {
+        if (Arrays.asList(environment.getActiveProfiles()).contains("sample")) {
+            return;
+        }
+        String secret = piiProperty.getHashSecret();
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("pii.hash-secret is not configured");
+        }
+        if (secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("pii.hash-secret must be at least " + MIN_SECRET_LENGTH + " bytes");
+        }
+    }
+
+    /**
+     * Generates the keyed hash (HMAC-SHA256, hex encoded) of the given PII.
+     *
+     * @param pii PII to hash
+     * @return Hex encoded hash (64 characters)
+     * @throws OpenDidException if the hash secret is not configured or hashing fails
+     */
+    public String hash(String pii) {
+        String secret = piiProperty.getHashSecret();
+        if (secret == null || secret.isBlank()) {
+            log.error("\t--> pii.hash-secret is not configured");
+            throw new OpenDidException(ErrorCode.INVALID_SERVER_CONFIGURATION);
+        }
+
+        byte[] hmac = BaseDigestUtil.generateHmac(secret.getBytes(StandardCharsets.UTF_8), pii.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hmac);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.helper;
+
+import org.omnione.did.base.datamodel.enums.ServerTokenPurpose;
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.AuthProperty;
+import org.omnione.did.base.util.BaseDigestUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Helper class for self-verifying (stateless) server tokens.
+ *
+ * A MAC server token is the multibase encoding of
+ * {@code "st1." + base64url(payload) + "." + base64url(HMAC-SHA256(secret[keyId], payload))},
+ * where the payload is the fields keyId, txId, purpose, walletId, appId and expiredAtEpochSeconds, each written as
+ * {@code <UTF-8 byte length>:<value>}, so a field value cannot spill into the next field.
+ * It is delivered to the wallet as the nonce of the ServerTokenData, so the legacy token
+ * (the hash of the ServerTokenData) is unchanged for existing wallets.
+ * Verification needs no database access and compares the MAC in constant time.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ServerTokenMacHelper {
+    private static final String PREFIX = "st1.";
+    private static final char LENGTH_SEPARATOR = ':';
+    private static final int FIELD_COUNT = 6;
+    /**
+     * The minimum length of a server token secret in bytes (the output size of SHA-256).
+     */
+    public static final int MIN_SECRET_LENGTH = 32;
+
+    private final AuthProperty authProperty;
+
+    /**
+     * Checks the server token keys at startup.
+     * Every configured secret must be at least MIN_SECRET_LENGTH bytes, and when stateless tokens are enabled
+     * the current key must be configured. Blank secrets are treated as not configured.
+     *
+     * @throws IllegalStateException if a secret is too short or the current key is missing
+     */
+    @PostConstruct
+    public void init() {
+        AuthProperty.ServerToken config = authProperty.getServerToken();
+        for (Map.Entry<String, String> secret : config.getSecrets().entrySet()) {
+            if (secret.getValue() != null && !secret.getValue().isBlank()
+                    && secret.getValue().getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_LENGTH) {
+                throw new IllegalStateException("auth.server-token.secrets." + secret.getKey()
+                        + " must be at least " + MIN_SECRET_LENGTH + " bytes");
+            }
+        }
+
+        if (!config.isStateless()) {
+            return;
+        }
+        String keyId = config.getCurrentKeyId();
+        if (keyId == null || keyId.isBlank()) {
+            throw new IllegalStateException("auth.server-token.current-key-id is not configured");
+        }
+        String secret = config.getSecrets().get(keyId);
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("auth.server-token.secrets." + keyId + " is not configured");
+        }
+    }
+
+    /**
+     * Checks whether MAC server tokens are issued.
+     *
+     * @return true if stateless server tokens are enabled
+     */
+    public boolean isStateless() {
+        return authProperty.getServerToken().isStateless();
+    }
+
+    /**
+     * Checks whether legacy server tokens (validated against the token table) are still accepted.
+     *
+     * @return true if legacy tokens are accepted
+     */
+    public boolean isLegacyAccepted() {
+        return !isStateless() || authProperty.getServerToken().isAcceptLegacy();
+    }
+
+    /**
+     * Issues a MAC server token with the current key.
+     *
+     * @param transaction The transaction the token is bound to
+     * @param purpose The token purpose
+     * @param walletId The wallet ID
+     * @param appId The app ID
+     * @param expiredAt The expiration time
+     * @return The multibase encoded MAC server token
+     * @throws OpenDidException if the current key is not configured
+     */
+    public String issue(Transaction transaction, ServerTokenPurpose purpose, String walletId, String appId, Instant expiredAt) {
+        String keyId = authProperty.getServerToken().getCurrentKeyId();
+        byte[] payloadBytes = encodePayload(
+                keyId,
+                transaction.getTxId(),
+                purpose.toString(),
+                walletId,
+                appId,
+                String.valueOf(expiredAt.getEpochSecond()));
+        byte[] mac = BaseDigestUtil.generateHmac(resolveSecret(keyId), payloadBytes);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = PREFIX + encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(mac);
+        return BaseMultibaseUtil.encode(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks whether the decoded server token is in the MAC format.
+     *
+     * @param decodedToken The multibase-decoded server token
+     * @return true if the token is a MAC server token
+     */
+    public boolean isMacToken(byte[] decodedToken) {
+        byte[] prefix = PREFIX.getBytes(StandardCharsets.UTF_8);
+        return decodedToken.length > prefix.length
+                && Arrays.equals(decodedToken, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    /**
+     * Verifies a MAC server token and returns the token information it carries.
+     *
+     * @param requestedServerToken The multibase encoded server token, as presented by the wallet
+     * @param decodedToken The multibase-decoded server token
+     * @param transaction The transaction of the current step
+     * @return Token information (not persisted) carried by the server token
+     * @throws OpenDidException if the token is malformed, forged or bound to another transaction
+     */
+    public Token verify(String requestedServerToken, byte[] decodedToken, Transaction transaction) {
+        String[] parts = new String(decodedToken, StandardCharsets.UTF_8).substring(PREFIX.length()).split("\\.");
+        if (parts.length != 2) {
+            log.error("\t--> Malformed MAC server token for transactionId: {}", transaction.getId());
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+
+        byte[] payloadBytes;
+        byte[] mac;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payloadBytes = decoder.decode(parts[0]);
+            mac = decoder.decode(parts[1]);
+        } catch (IllegalArgumentException e) {
+            log.error("\t--> Malformed MAC server token for transactionId: {}", transaction.getId());
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+
+        String[] fields = decodePayload(payloadBytes);
+        if (fields == null) {
+            log.error("\t--> Malformed MAC server token payload for transactionId: {}", transaction.getId());
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+
+        byte[] expectedMac = BaseDigestUtil.generateHmac(resolveSecret(fields[0]), payloadBytes);
+        if (!MessageDigest.isEqual(expectedMac, mac)) {
+            log.error("\t--> Invalid MAC server token for transactionId: {}", transaction.getId());
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+
+        if (!fields[1].equals(transaction.getTxId())) {
+            log.error("\t--> MAC server token is bound to another transaction: transactionId={}", transaction.getId());
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+
+        Instant expiredAt;
+        try {
+            expiredAt = Instant.ofEpochSecond(Long.parseLong(fields[5]));
+        } catch (NumberFormatException e) {
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+
+        return Token.builder()
+                .purpose(fields[2])
+                .token(requestedServerToken)
+                .walletId(fields[3])
+                .appId(fields[4])
+                .expiredAt(expiredAt)
+                .transactionId(transaction.getId())
+                .build();
+    }
+
+    /**
+     * Encodes the payload fields, each as its UTF-8 byte length, a colon and the value.
+     *
+     * @param fields The payload fields
+     * @return The encoded payload
+     */
+    private static byte[] encodePayload(String... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String field : fields) {
+            byte[] value = (field == null ? "" : field).getBytes(StandardCharsets.UTF_8);
+            out.writeBytes(String.valueOf(value.length).getBytes(StandardCharsets.US_ASCII));
+            out.write(LENGTH_SEPARATOR);
+            out.writeBytes(value);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a payload written by encodePayload.
+     *
+     * @param payload The encoded payload
+     * @return The payload fields, or null if the payload is malformed
+     */
+    private static String[] decodePayload(byte[] payload) {
+        String[] fields = new String[FIELD_COUNT];
+        int pos = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int length = 0;
+            int digits = 0;
+            while (pos < payload.length && payload[pos] >= '0' && payload[pos] <= '9') {
+                length = length * 10 + (payload[pos++] - '0');
+                if (++digits > 9) {
+                    return null;
+                }
+            }
+            if (digits == 0 || pos >= payload.length || payload[pos++] != LENGTH_SEPARATOR
+                    || length > payload.length - pos) {
+                return null;
+            }
+            fields[i] = new String(payload, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+        }
+        return (pos == payload.length) ? fields : null;
+    }
+
+    /**
+     * Resolves the secret for the given key ID.
+     *
+     * @param keyId The key ID
+     * @return The secret bytes
+     * @throws OpenDidException if the key is unknown
+     */
+    private byte[] resolveSecret(String keyId) {
+        String secret = (keyId == null) ? null : authProperty.getServerToken().getSecrets().get(keyId);
+        if (secret == null || secret.isBlank()) {
+            log.error("\t--> Unknown server token key ID: {}", keyId);
+            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.helper;
+
+import org.omnione.did.base.datasource.DataSourceRoutingContext;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.VcAsyncProperty;
+import org.omnione.did.tas.v1.api.IssuerClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Helper class for the async execution of issuer-bound VC endpoints.
+ *
+ * While an issuer call is outstanding no thread is held; the work that follows the issuer response
+ * runs on a bounded completion pool, so the number of threads does not grow with slow issuers.
+ * Each endpoint is bounded by its own timeout (vc-async.timeout-ms.[endpoint]).
+ *
+ * The writes that follow the issuer response run in one database transaction. A call that has timed out
+ * skips or rolls back its writes, and a call whose writes have started to commit is no longer timed out,
+ * so the client never receives a timeout for a step that was recorded.
+ */
+@Slf4j
+@Component
+public class VcAsyncHelper {
+    private static final ThreadLocal<AsyncCall> CURRENT_CALL = new ThreadLocal<>();
+
+    private final VcAsyncProperty vcAsyncProperty;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor completionPool;
+
+    public VcAsyncHelper(VcAsyncProperty vcAsyncProperty, PlatformTransactionManager transactionManager) {
+        this.vcAsyncProperty = vcAsyncProperty;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // When the queue is full, the completing issuer-client thread runs the work itself (back-pressure).
+        this.completionPool = new ThreadPoolExecutor(
+                vcAsyncProperty.getCompletionThreads(),
+                vcAsyncProperty.getCompletionThreads(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(vcAsyncProperty.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "vc-completion-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Runs an endpoint in async mode, bounded by its timeout.
+     *
+     * @param endpoint The endpoint name used to look up its timeout
+     * @param async Supplier of the async execution
+     * @return The future of the response
+     */
+    public <T> CompletableFuture<T> execute(String endpoint, Supplier<CompletableFuture<T>> async) {
+        long timeoutMs = getTimeoutMs(endpoint);
+        AsyncCall call = new AsyncCall();
+        CompletableFuture<T> future;
+        CURRENT_CALL.set(call);
+        try {
+            future = async.get();
+        } finally {
+            CURRENT_CALL.remove();
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+        // Unlike orTimeout, a call whose writes are already committing is left to complete.
+        CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (call.expire()) {
+                result.completeExceptionally(new TimeoutException());
+            }
+        });
+
+        return result.handle((response, throwable) -> {
+            if (throwable == null) {
+                return response;
+            }
+            Throwable cause = IssuerClient.unwrap(throwable);
+            if (cause instanceof TimeoutException) {
+                log.error("\t--> {} did not complete within {} ms", endpoint, timeoutMs);
+                throw new OpenDidException(ErrorCode.ISSUER_RESPONSE_TIMEOUT);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Runs the work that follows an issuer response on the completion pool, in one database transaction.
+     * Must be called from the async supplier passed to {@link #execute}, on the request thread.
+     *
+     * Only the primary datasource pin of the request is carried over to the completion thread;
+     * other request-scoped state (e.g. the request memo) is not available there.
+     * If the call has timed out, the writes are skipped, or rolled back if the timeout occurred meanwhile.
+     *
+     * @param issuerResponse The future of the issuer response
+     * @param stage The work that follows the issuer response
+     * @return The future of the result of the work
+     */
+    public <T, R> CompletableFuture<R> completeInTransaction(CompletableFuture<T> issuerResponse, Function<T, R> stage) {
+        AsyncCall call = CURRENT_CALL.get();
+        boolean pinnedToPrimary = DataSourceRoutingContext.isPinnedToPrimary();
+        return issuerResponse.thenApplyAsync(response -> {
+            Boolean previousPin = pinnedToPrimary ? DataSourceRoutingContext.enterPinnedToPrimary() : null;
+            try {
+                return transactionTemplate.execute(status -> {
+                    if (call != null && call.isTimedOut()) {
+                        log.error("\t--> Skipping the writes of a timed out call");
+                        throw new OpenDidException(ErrorCode.ISSUER_RESPONSE_TIMEOUT);
+                    }
+                    R result = stage.apply(response);
+                    if (call != null && !call.beginCommit()) {
+                        log.error("\t--> Rolling back the writes of a call that timed out meanwhile");
+                        throw new OpenDidException(ErrorCode.ISSUER_RESPONSE_TIMEOUT);
+                    }
+                    return result;
+                });
+            } finally {
+                if (pinnedToPrimary) {
+                    DataSourceRoutingContext.restorePin(previousPin);
+                }
+            }
+        }, completionPool);
+    }
+
+    /**
+     * Waits for the future and rethrows its failure as thrown by the synchronous code path.
+     *
+     * @param future The future to wait for
+     * @return The result
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = IssuerClient.unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the longest configured endpoint timeout.
+     *
+     * @return The maximum timeout in milliseconds
+     */
+    public long getMaxTimeoutMs() {
+        return vcAsyncProperty.getTimeoutMs().values().stream()
+                .mapToLong(Long::longValue)
+                .reduce(vcAsyncProperty.getDefaultTimeoutMs(), Math::max);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completionPool.shutdown();
+    }
+
+    private long getTimeoutMs(String endpoint) {
+        return vcAsyncProperty.getTimeoutMs().getOrDefault(endpoint, vcAsyncProperty.getDefaultTimeoutMs());
+    }
+
+    /**
+     * Outcome claim of a single async call, shared by its timeout and its writes.
+     */
+    static class AsyncCall {
+        private static final int RUNNING = 0;
+        private static final int COMMITTING = 1;
+        private static final int TIMED_OUT = 2;
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+        boolean expire() {
+            return state.compareAndSet(RUNNING, TIMED_OUT);
+        }
+
+        boolean beginCommit() {
+            return state.compareAndSet(RUNNING, COMMITTING);
+        }
+
+        boolean isTimedOut() {
+            return state.get() == TIMED_OUT;
+        }
+    }
+}
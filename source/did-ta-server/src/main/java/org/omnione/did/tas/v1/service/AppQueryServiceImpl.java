@@ -20,6 +20,7 @@ import org.omnione.did.base.db.domain.App;
 import org.omnione.did.base.db.repository.AppRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@RequestMemoized
 public class AppQueryServiceImpl implements AppQueryService {
     private final AppRepository appRepository;
 
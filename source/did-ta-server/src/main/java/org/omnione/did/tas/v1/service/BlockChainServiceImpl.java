@@ -18,26 +18,53 @@ package org.omnione.did.tas.v1.service;
 
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
-import org.omnione.did.base.util.BaseBlockChainUtil;
+import org.omnione.did.base.property.BlockChainProperty;
+import org.omnione.did.base.startup.BackgroundInitializer;
+import org.omnione.did.tas.v1.api.BlockChainClient;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.data.model.did.DidDocAndStatus;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.InvokedDidDoc;
 import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.enums.vc.VcStatus;
 import org.omnione.did.data.model.vc.VcMeta;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+
 /**
  * Service for managing DID Document operations, including registration and retrieval.
  * This service interacts with the blockchain to register and retrieve DID Documents.
+ * Reads are served from the local ledger mirror when it holds a current entry, and VC metas are
+ * additionally cached in memory by the {@link VcMetaCache}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Profile("!repository")
+@Profile("!repository & !storage-local")
 public class BlockChainServiceImpl implements StorageService {
+    private final BlockChainClient blockChainClient;
+    private final LedgerMirrorService ledgerMirrorService;
+    private final VcMetaCache vcMetaCache;
+    private final BlockChainProperty blockChainProperty;
+    private final BackgroundInitializer backgroundInitializer;
+    private final Environment environment;
+
+    /**
+     * Connects to the blockchain in the background, so the first request does not pay for the connection.
+     * Skipped in the sample profile.
+     */
+    @PostConstruct
+    public void init() {
+        if (blockChainProperty.getPool().isWarmUp()
+                && !Arrays.asList(environment.getActiveProfiles()).contains("sample")) {
+            backgroundInitializer.run("blockchain-warm-up", false, blockChainClient::warmUp);
+        }
+    }
 
     /**
      * Register the given DID Document with the blockchain.
@@ -50,7 +77,7 @@ public class BlockChainServiceImpl implements StorageService {
     @Override
     public void registerDidDoc(InvokedDidDoc didDoc, RoleType roleType) {
         try {
-            BaseBlockChainUtil.registerDidDocument(didDoc, roleType);
+            blockChainClient.registerDidDocument(didDoc, roleType);
         } catch (OpenDidException e) {
             log.error("Failed to register DID Document: " + e.getMessage());
             throw e;
@@ -84,7 +111,14 @@ public class BlockChainServiceImpl implements StorageService {
     @Override
     public DidDocument findDidDoc(String didKeyUrl) {
         try {
-            DidDocAndStatus didDocAndStatus = BaseBlockChainUtil.findDidDocument(didKeyUrl);
+            DidDocument mirrored = ledgerMirrorService.findDidDoc(didKeyUrl);
+            if (mirrored != null) {
+                return mirrored;
+            }
+
+            long mirrorVersion = ledgerMirrorService.currentVersion();
+            DidDocAndStatus didDocAndStatus = blockChainClient.findDidDocument(didKeyUrl);
+            ledgerMirrorService.putDidDoc(didKeyUrl, didDocAndStatus.getDocument(), mirrorVersion);
             return didDocAndStatus.getDocument();
         } catch (OpenDidException e) {
             log.error("Failed to find DID Document: " + e.getMessage());
@@ -104,7 +138,8 @@ public class BlockChainServiceImpl implements StorageService {
      */
     @Override
     public void registerVcMeta(VcMeta vcMeta) {
-        BaseBlockChainUtil.registerVcMeta(vcMeta);
+        blockChainClient.registerVcMeta(vcMeta);
+        vcMetaCache.evict(vcMeta.getId());
     }
 
     /**
@@ -118,8 +153,17 @@ public class BlockChainServiceImpl implements StorageService {
     @Override
     public VcMeta findVcMeta(String vcId) {
         try {
-            VcMeta vcMeta = BaseBlockChainUtil.findVcMeta(vcId);
-            return vcMeta;
+            return vcMetaCache.get(vcId, () -> {
+                VcMeta mirrored = ledgerMirrorService.findVcMeta(vcId);
+                if (mirrored != null) {
+                    return mirrored;
+                }
+
+                long mirrorVersion = ledgerMirrorService.currentVersion();
+                VcMeta vcMeta = blockChainClient.findVcMeta(vcId);
+                ledgerMirrorService.putVcMeta(vcMeta, mirrorVersion);
+                return vcMeta;
+            });
         } catch (OpenDidException e) {
             log.error("Failed to find VC Meta: " + e.getMessage());
             throw e;
@@ -128,4 +172,17 @@ public class BlockChainServiceImpl implements StorageService {
             throw new OpenDidException(ErrorCode.BLOCKCHAIN_VC_META_RETRIEVAL_FAILED);
         }
     }
+
+    /**
+     * Update the status of the given VC in the blockchain.
+     * Throws an OpenDidException if the status cannot be updated.
+     *
+     * @param vcId The VC ID to update the status for
+     * @param vcStatus The status to update the VC to
+     * @throws OpenDidException if the status cannot be updated
+     */
+    @Override
+    public void updateVcStatus(String vcId, VcStatus vcStatus) {
+        blockChainClient.updateVcStatus(vcId, vcStatus);
+    }
 }
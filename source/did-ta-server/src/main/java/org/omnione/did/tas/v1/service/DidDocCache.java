@@ -16,6 +16,7 @@
 
 package org.omnione.did.tas.v1.service;
 
+import org.omnione.did.base.util.ParsedDidDoc;
 import org.omnione.did.data.model.did.DidDocument;
 
 import java.util.Set;
@@ -27,7 +28,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * thread-safe access and modifications.
  *
  * The cache entries consist of a DID Document and a timestamp, which are stored
- * in the nested static class CacheEntry.
+ * in the nested static class CacheEntry. The parsed form of the document is
+ * created on first use and kept with the entry.
  *
  */
 public class DidDocCache {
@@ -40,6 +42,7 @@ public class DidDocCache {
     public static class CacheEntry {
         private DidDocument didDocument;
         private long timestamp;
+        private volatile ParsedDidDoc parsedDidDoc;
 
         public CacheEntry(DidDocument didDocument, long timestamp) {
             this.didDocument = didDocument;
@@ -53,6 +56,16 @@ public class DidDocCache {
         public long getTimestamp() {
             return timestamp;
         }
+
+        public ParsedDidDoc getParsedDidDoc() {
+            ParsedDidDoc parsed = parsedDidDoc;
+            if (parsed == null && didDocument != null) {
+                // Parsing twice on a race is harmless; both results are equal.
+                parsed = ParsedDidDoc.of(didDocument);
+                parsedDidDoc = parsed;
+            }
+            return parsed;
+        }
     }
 
     /**
@@ -65,6 +78,16 @@ public class DidDocCache {
         return (entry != null) ? entry.getDidDoc() : null;
     }
 
+    /**
+     * Retrieve the parsed DID Document associated with the given DID.
+     * @param did The DID to retrieve the parsed DID Document for
+     * @return The parsed DID Document associated with the given DID, or null if not found
+     */
+    public ParsedDidDoc getParsedDidDoc(String did) {
+        CacheEntry entry = cache.get(did);
+        return (entry != null) ? entry.getParsedDidDoc() : null;
+    }
+
     /**
      * Store the given DID Document in the cache with the associated DID.
      * The current timestamp is used as the time of storage.
@@ -17,6 +17,7 @@
 package org.omnione.did.tas.v1.service;
 
 import org.omnione.did.base.datamodel.enums.ProofPurpose;
+import org.omnione.did.base.util.ParsedDidDoc;
 import org.omnione.did.data.model.did.DidDocument;
 
 /**
@@ -24,5 +25,6 @@ import org.omnione.did.data.model.did.DidDocument;
  */
 public interface DidDocService {
     DidDocument getDidDocument(String did);
+    ParsedDidDoc getParsedDidDocument(String did);
     String getVerificationMethod(DidDocument didDocument, ProofPurpose proofPurpose);
 }
@@ -19,21 +19,20 @@ package org.omnione.did.tas.v1.service;
 import org.omnione.did.base.datamodel.enums.ProofPurpose;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
-import jakarta.annotation.PostConstruct;
+import org.omnione.did.base.util.ParsedDidDoc;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.data.model.did.DidDocument;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing and retrieving DID Documents.
  * This class includes a cache mechanism to store DID Documents and a scheduler to periodically refresh the cache.
  *
- * The class uses a ScheduledExecutorService to refresh the cache every hour.
+ * The cache is refreshed every hour by the application task scheduler.
  */
 @Service
 @RequiredArgsConstructor
@@ -42,15 +41,6 @@ public class DidDocServiceImpl implements DidDocService {
 
     private final StorageService storageService;
     private final DidDocCache didDocCache = new DidDocCache();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-
-    /**
-     * Initialize the service by scheduling the cache refresh task to run every hour.
-     */
-    @PostConstruct
-    public void init() {
-        scheduler.scheduleAtFixedRate(this::refreshAllDidDocuments, 0, 1, TimeUnit.HOURS);
-    }
 
     /**
      * Retrieve the DID Document associated with the given DID.
@@ -75,6 +65,29 @@ public class DidDocServiceImpl implements DidDocService {
         return didDoc;
     }
 
+    /**
+     * Retrieve the parsed DID Document associated with the given DID.
+     * The document is parsed once per cache entry, so callers that need its keys
+     * do not re-serialize and re-parse it on every request.
+     *
+     * @param did The DID to retrieve the DID Document for
+     * @return The parsed DID Document associated with the given DID
+     * @throws OpenDidException if the DID Document cannot be retrieved
+     */
+    @Override
+    public ParsedDidDoc getParsedDidDocument(String did) {
+        if (shouldUpdate(did)) {
+            updateDidDocument(did);
+        }
+
+        ParsedDidDoc parsedDidDoc = didDocCache.getParsedDidDoc(did);
+        if (parsedDidDoc == null) {
+            throw new OpenDidException(ErrorCode.DID_DOCUMENT_RETRIEVAL_FAILED);
+        }
+
+        return parsedDidDoc;
+    }
+
     /**
      * Retrieve the verification method from the given DID Document based on the specified proof purpose.
      *
@@ -124,8 +137,10 @@ public class DidDocServiceImpl implements DidDocService {
 
     /**
      * Refresh all DID Documents in the cache by fetching the latest versions.
+     * The cache is empty at startup, so the first refresh runs an hour after startup instead of during it.
      */
-    private void refreshAllDidDocuments() {
+    @Scheduled(fixedRate = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void refreshAllDidDocuments() {
         for (String did : didDocCache.getAllDids()) {
             updateDidDocument(did);
         }
@@ -35,6 +35,7 @@ import org.omnione.did.base.db.domain.Transaction;
 import org.omnione.did.base.db.repository.EcdhRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.idempotency.IdempotentStep;
 import org.omnione.did.base.property.TasProperty;
 import org.omnione.did.base.util.BaseCoreDidUtil;
 import org.omnione.did.base.util.BaseCryptoUtil;
@@ -73,6 +74,7 @@ public class EcdhServiceImpl implements EcdhService {
     private final TasProperty tasProperty;
     private final EcdhRepository ecdhRepository;
     private final FileWalletService fileWalletService;
+    private final TransactionCache transactionCache;
 
     /**
      * Handles the ECDH request process.
@@ -82,6 +84,7 @@ public class EcdhServiceImpl implements EcdhService {
      * @throws OpenDidException if there's an error during the ECDH process
      */
     @Override
+    @IdempotentStep(SubTransactionType.REQUEST_ECDH)
     public RequestECDHResDto requestECDH(RequestECDHReqDto requestECDHReqDto) {
         try {
             log.info("=== Starting requestECDH ===");
@@ -454,7 +457,7 @@ public class EcdhServiceImpl implements EcdhService {
                 .transactionId(transactionId)
                 .build();
 
-        ecdhRepository.save(ecdh);
+        transactionCache.putEcdh(ecdhRepository.save(ecdh));
     }
 
     /**
@@ -49,7 +49,6 @@ import org.omnione.did.tas.v1.service.validator.DidAuthValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.common.util.DateTimeUtil;
-import org.omnione.did.common.util.IdGenerator;
 import org.omnione.did.core.data.rest.IssueVcParam;
 import org.omnione.did.core.data.rest.SignatureVcParams;
 import org.omnione.did.data.model.did.DidDocument;
@@ -57,6 +56,7 @@ import org.omnione.did.data.model.vc.VcMeta;
 import org.omnione.did.data.model.vc.VerifiableCredential;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -76,9 +76,11 @@ public class EntityServiceImpl implements EntityService {
     private final DidAuthValidator didAuthValidator;
     private final TasQueryService tasQueryService;
     private final StorageService storageService;
+    private final LedgerOutboxService ledgerOutboxService;
     private final IssueVcService issueVcService;
     private final TasProperty tasProperty;
     private final FileWalletService fileWalletService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Proposes the enrollment of an entity.
@@ -91,7 +93,7 @@ public class EntityServiceImpl implements EntityService {
     public ProposeEnrollEntityResDto proposeEnrollEntity(ProposeEnrollEntityReqDto proposeEnrollEntityReqDto) {
         try {
             // Generate transaction code.
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Generate authNonce. (16-byte)
             String authNonce = BaseTasUtil.generateNonceWithMultibase();
@@ -134,6 +136,7 @@ public class EntityServiceImpl implements EntityService {
      * @throws OpenDidException if there's an error during the enrollment process
      */
     @Override
+    @Transactional
     public RequestEnrollEntityResDto requestEnrollEntity(RequestEnrollEntityReqDto requestEnrollEntityReqDto) {
         try {
             log.debug("=== Starting requestEnrollEntity ===");
@@ -166,9 +169,9 @@ public class EntityServiceImpl implements EntityService {
             log.debug("\t--> Signing TAS certificate VC.");
             signTasCertificateVc(entityCertificateVc);
 
-            // Register Entity certificate VC meta.
-            log.debug("\t--> Registering Entity certificate VC meta");
-            registerEntityCertificateVcMeta(entityCertificateVc, entity);
+            // Record Entity certificate VC meta for the ledger.
+            log.debug("\t--> Recording Entity certificate VC meta for the ledger");
+            registerEntityCertificateVcMeta(transaction.getId(), entityCertificateVc, entity);
 
             // Create IV.
             log.debug("\t--> Creating IV");
@@ -293,14 +296,15 @@ public class EntityServiceImpl implements EntityService {
     }
 
     /**
-     * Registers the entity certificate VC metadata.
+     * Records the entity certificate VC metadata for the ledger.
      *
+     * @param transactionId The ID of the associated transaction
      * @param verifiableCredential The VC to register
      * @param entity The entity associated with the VC
      */
-    private void registerEntityCertificateVcMeta(VerifiableCredential verifiableCredential, Entity entity) {
+    private void registerEntityCertificateVcMeta(Long transactionId, VerifiableCredential verifiableCredential, Entity entity) {
         VcMeta vcMeta = BaseCoreVcUtil.generateVcMeta(verifiableCredential, entity.getCertificateUrl());
-        storageService.registerVcMeta(vcMeta);
+        ledgerOutboxService.registerVcMeta(transactionId, vcMeta, false);
     }
     /**
      * Encrypts the entity certificate VC.
@@ -345,6 +349,9 @@ public class EntityServiceImpl implements EntityService {
         // Validate Certificate vc ID.
         validateVcId(confirmEnrollEntityReqDto.getVcId(), transaction.getCertificateId());
 
+        // Check that the certificate VC meta is committed to the ledger.
+        ledgerOutboxService.requireCommitted(transaction.getId());
+
         // Retrieve Entity information.
         Ecdh ecdh = ecdhQueryService.findEcdhByTransactionId(transaction.getId());
         Entity entity = entityQueryService.findEntityByDid(ecdh.getClientDid());
@@ -411,5 +418,6 @@ public class EntityServiceImpl implements EntityService {
         entity.setStatus(entityStatus);
 
         entityRepository.save(entity);
+        referenceDataCache.invalidate(ReferenceDataCache.Region.ENTITY, entity.getDid());
     }
 }
@@ -20,12 +20,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.base.startup.BackgroundInitializer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,33 +35,42 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for loading files and extracting JSON values.
+ * The files are loaded in the background at startup; the server reports ready once they are loaded.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileLoaderService {
-    private final Map<String, String> fileContentsMap = new HashMap<>();
+    private final Map<String, String> fileContentsMap = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final TasProperty tasProperty;
     private final Environment environment;
+    private final BackgroundInitializer backgroundInitializer;
+
+    private volatile CompletableFuture<Void> filesLoaded = CompletableFuture.completedFuture(null);
 
     /**
-     * Loads the contents of all files in the configured sample path.
-     *
-     * @throws IOException if an I/O error occurs while reading the files.
+     * Starts loading the contents of all files in the configured sample path in the background.
      */
     @PostConstruct
-    public void loadFiles() throws IOException {
+    public void loadFiles() {
         List<String> activeProfiles = Arrays.asList(environment.getActiveProfiles());
         if (!activeProfiles.contains("sample")) {
-            Path startPath = Paths.get(tasProperty.getSamplePath());
+            filesLoaded = backgroundInitializer.run("sample-files", true, this::walkSamplePath);
+        }
+    }
 
+    private void walkSamplePath() {
+        Path startPath = Paths.get(tasProperty.getSamplePath());
+        try {
             Files.walkFileTree(startPath, new SimpleFileVisitor<Path>() {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
@@ -70,6 +81,8 @@ public class FileLoaderService {
                     return FileVisitResult.CONTINUE;
                 }
             });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -78,8 +91,14 @@ public class FileLoaderService {
      *
      * @param fileName the name of the file to retrieve.
      * @return the contents of the file, or null if the file is not found.
+     * @throws IllegalStateException if the files could not be loaded.
      */
     public String getFileContent(String fileName) {
+        try {
+            filesLoaded.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Sample files could not be loaded", e.getCause());
+        }
         return fileContentsMap.get(fileName);
     }
 }
@@ -27,6 +27,7 @@ import org.omnione.did.wallet.key.WalletManagerInterface;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service for managing wallet operations, including connection and signature generation.
@@ -37,6 +38,8 @@ import java.nio.charset.StandardCharsets;
 public class FileWalletService {
     private final WalletProperty walletProperty;
     private final WalletManagerInterface walletManager;
+    // Guards the connect check; a lock rather than a monitor so that virtual threads are not pinned.
+    private final ReentrantLock connectLock = new ReentrantLock();
 
     public FileWalletService(WalletProperty walletProperty) {
         this.walletProperty = walletProperty;
@@ -79,8 +82,15 @@ public class FileWalletService {
     public byte[] generateCompactSignature(String keyId, byte[] plainText) {
         try {
             if (!walletManager.isConnect()) {
-                log.info("Wallet manager disConnect. Connecting to wallet...");
-                connectToWallet();
+                connectLock.lock();
+                try {
+                    if (!walletManager.isConnect()) {
+                        log.info("Wallet manager disConnect. Connecting to wallet...");
+                        connectToWallet();
+                    }
+                } finally {
+                    connectLock.unlock();
+                }
             }
 
             byte[] signature = BaseWalletUtil.generateCompactSignature(walletManager, keyId, plainText);
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.domain.LedgerCheckpoint;
+import org.omnione.did.base.db.repository.LedgerCheckpointRepository;
+import org.omnione.did.base.property.BlockChainProperty;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KvRwset;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.TxReadWriteSetInfo;
+import org.omnione.sender.fabric.FabricServerInformation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Listener for the blocks committed to the ledger channel, which keeps the ledger mirror current.
+ *
+ * For every valid transaction of the DID chaincode, the keys in its write set are reduced to their DIDs and
+ * VC IDs, and the mirror and VC meta cache entries of those subjects are removed. A transaction whose write
+ * set cannot be read clears the whole mirror. The next block to be processed is stored in the ledger_checkpoint table, so after
+ * a restart the listener resumes from there instead of rescanning the chain; without a checkpoint it starts
+ * at the next block and clears the mirror, since the history in between is unknown.
+ *
+ * The listener uses one gateway of its own and reconnects every blockchain.mirror.reconnect-interval-ms
+ * while it is disconnected; the mirror serves reads only while it is connected.
+ */
+@Component
+@Slf4j
+@Profile("!repository & !storage-local & !sample")
+public class LedgerEventListener {
+    private static final String DID_PREFIX = "did:";
+
+    private final LedgerMirrorService ledgerMirrorService;
+    private final VcMetaCache vcMetaCache;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final BlockChainProperty blockChainProperty;
+    private final ReentrantLock connectLock = new ReentrantLock();
+
+    private FabricServerInformation serverInformation;
+    private Gateway gateway;
+    private Network network;
+    private Consumer<BlockEvent> blockListener;
+    private volatile boolean connected;
+
+    public LedgerEventListener(LedgerMirrorService ledgerMirrorService, VcMetaCache vcMetaCache,
+                               LedgerCheckpointRepository ledgerCheckpointRepository, BlockChainProperty blockChainProperty) {
+        this.ledgerMirrorService = ledgerMirrorService;
+        this.vcMetaCache = vcMetaCache;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.blockChainProperty = blockChainProperty;
+    }
+
+    /**
+     * Connects the block listener when the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        ensureConnected();
+    }
+
+    /**
+     * Reconnects the block listener if it is not connected.
+     */
+    @Scheduled(fixedDelayString = "${blockchain.mirror.reconnect-interval-ms:30000}",
+            initialDelayString = "${blockchain.mirror.reconnect-interval-ms:30000}")
+    public void ensureConnected() {
+        if (!blockChainProperty.getMirror().isEnable() || connected || !connectLock.tryLock()) {
+            return;
+        }
+        try {
+            connect();
+        } catch (Exception e) {
+            log.warn("Failed to connect the ledger block listener: {}", e.getMessage());
+            disconnect();
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectLock.lock();
+        try {
+            disconnect();
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private void connect() throws Exception {
+        serverInformation = new FabricServerInformation(blockChainProperty.getConfigFile());
+        gateway = serverInformation.getGateway();
+        network = gateway.getNetwork(serverInformation.getNetworkName());
+
+        DbCheckpointer checkpointer = new DbCheckpointer(blockChainProperty.getMirror().getCheckpointName());
+        if (checkpointer.getBlockNumber() == Checkpointer.UNSET_BLOCK_NUMBER) {
+            ledgerMirrorService.clear();
+        }
+
+        String chaincodeName = serverInformation.getChaincodeName();
+        blockListener = network.addBlockListener(checkpointer, blockEvent -> onBlock(blockEvent, chaincodeName));
+        connected = true;
+        ledgerMirrorService.setLive(true);
+        log.info("Ledger block listener connected from block {}", checkpointer.getBlockNumber());
+    }
+
+    private void disconnect() {
+        connected = false;
+        ledgerMirrorService.setLive(false);
+        if (network != null && blockListener != null) {
+            network.removeBlockListener(blockListener);
+        }
+        if (serverInformation != null && gateway != null) {
+            serverInformation.returnGateway(gateway);
+        }
+        if (serverInformation != null) {
+            serverInformation.closePool();
+        }
+        blockListener = null;
+        network = null;
+        gateway = null;
+        serverInformation = null;
+    }
+
+    /**
+     * Invalidates the mirror and VC meta cache entries written by the block. Runs before the checkpoint moves past the block,
+     * so a block is processed again if the node stops in between.
+     */
+    private void onBlock(BlockEvent blockEvent, String chaincodeName) {
+        Set<String> subjects = new HashSet<>();
+        for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+            if (!transactionEvent.isValid()) {
+                continue;
+            }
+            try {
+                collectSubjects(transactionEvent, chaincodeName, subjects);
+            } catch (Exception e) {
+                log.warn("Failed to read the write set of transaction {} in block {}: {}",
+                        transactionEvent.getTransactionID(), blockEvent.getBlockNumber(), e.getMessage());
+                ledgerMirrorService.clear();
+                vcMetaCache.clear();
+                return;
+            }
+        }
+        ledgerMirrorService.invalidate(subjects);
+        vcMetaCache.evictAll(subjects);
+        if (!subjects.isEmpty()) {
+            log.debug("Block {} invalidated {} ledger mirror subjects", blockEvent.getBlockNumber(), subjects.size());
+        }
+    }
+
+    private static void collectSubjects(BlockEvent.TransactionEvent transactionEvent, String chaincodeName, Set<String> subjects) throws Exception {
+        for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo actionInfo : transactionEvent.getTransactionActionInfos()) {
+            TxReadWriteSetInfo readWriteSet = actionInfo.getTxReadWriteSet();
+            if (readWriteSet == null) {
+                continue;
+            }
+            for (TxReadWriteSetInfo.NsRwsetInfo nsRwsetInfo : readWriteSet.getNsRwsetInfos()) {
+                if (!chaincodeName.equals(nsRwsetInfo.getNamespace())) {
+                    continue;
+                }
+                for (KvRwset.KVWrite write : nsRwsetInfo.getRwset().getWritesList()) {
+                    subjects.addAll(toSubjects(write.getKey()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reduces a state key to the DIDs or VC IDs it may refer to. Composite keys are split into their
+     * attributes, and a DID with a prefix or a DID key URL suffix (?versionId=, #key) is reduced to the DID.
+     *
+     * @param key The state key written by the chaincode
+     * @return The candidate subjects
+     */
+    public static Set<String> toSubjects(String key) {
+        if (key == null || key.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> subjects = new HashSet<>();
+        for (String part : key.split("\u0000")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            subjects.add(part);
+            int didStart = part.indexOf(DID_PREFIX);
+            if (didStart >= 0) {
+                String did = part.substring(didStart);
+                int didEnd = indexOfAny(did, '?', '#', '/');
+                subjects.add(didEnd >= 0 ? did.substring(0, didEnd) : did);
+            }
+        }
+        return subjects;
+    }
+
+    private static int indexOfAny(String value, char... chars) {
+        int index = -1;
+        for (char c : chars) {
+            int found = value.indexOf(c);
+            if (found >= 0 && (index < 0 || found < index)) {
+                index = found;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Block checkpointer backed by the ledger_checkpoint table.
+     * Transaction IDs are only used by contract event listeners and are not persisted.
+     */
+    private class DbCheckpointer implements Checkpointer {
+        private final String name;
+        private final Set<String> transactionIds = new HashSet<>();
+
+        private DbCheckpointer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public long getBlockNumber() {
+            return ledgerCheckpointRepository.findById(name)
+                    .map(LedgerCheckpoint::getBlockNumber)
+                    .orElse(UNSET_BLOCK_NUMBER);
+        }
+
+        @Override
+        public void setBlockNumber(long blockNumber) {
+            ledgerCheckpointRepository.save(LedgerCheckpoint.builder()
+                    .name(name)
+                    .blockNumber(blockNumber)
+                    .build());
+            transactionIds.clear();
+        }
+
+        @Override
+        public Set<String> getTransactionIds() {
+            return Collections.unmodifiableSet(transactionIds);
+        }
+
+        @Override
+        public void addTransactionId(String transactionId) {
+            transactionIds.add(transactionId);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.constant.LedgerMirrorType;
+import org.omnione.did.base.db.domain.LedgerMirror;
+import org.omnione.did.base.db.repository.LedgerMirrorRepository;
+import org.omnione.did.base.property.BlockChainProperty;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local read model of the DID documents and VC metas read from the ledger, kept in the ledger_mirror table.
+ *
+ * Entries are written on a ledger read and removed by LedgerEventListener when a block writes their DID or VC ID,
+ * so they are served while the listener is connected and for at most blockchain.mirror.max-staleness-seconds,
+ * which bounds staleness if a write cannot be matched to an entry. While the listener is not connected, the
+ * mirror is bypassed and every read goes to the ledger.
+ *
+ * A ledger read that overlaps an invalidation is not stored, so an entry never outlives a block it has missed.
+ * Mirror failures never fail a read.
+ */
+@Service
+@Slf4j
+@Profile("!repository & !storage-local")
+public class LedgerMirrorService {
+    private final LedgerMirrorRepository ledgerMirrorRepository;
+    private final BlockChainProperty.Mirror config;
+    private final TransactionTemplate writeTemplate;
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile boolean live;
+
+    public LedgerMirrorService(LedgerMirrorRepository ledgerMirrorRepository, BlockChainProperty blockChainProperty,
+                               PlatformTransactionManager transactionManager) {
+        this.ledgerMirrorRepository = ledgerMirrorRepository;
+        this.config = blockChainProperty.getMirror();
+        // Mirror writes run in their own read-write transaction, so a failure never affects the caller's transaction.
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the invalidation sequence, to be passed to the put methods after a ledger read.
+     *
+     * @return The current invalidation sequence
+     */
+    public long currentVersion() {
+        return invalidations.get();
+    }
+
+    /**
+     * Retrieve the mirrored DID document for the given DID key URL.
+     *
+     * @param didKeyUrl The DID key URL
+     * @return The DID document, or null if it is not mirrored or the mirror is not serving
+     */
+    public DidDocument findDidDoc(String didKeyUrl) {
+        return find(LedgerMirrorType.DID_DOC, didKeyUrl)
+                .map(entry -> {
+                    DidDocument didDocument = new DidDocument();
+                    didDocument.fromJson(entry.getPayload());
+                    return didDocument;
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Retrieve the mirrored VC meta for the given VC ID.
+     *
+     * @param vcId The VC ID
+     * @return The VC meta, or null if it is not mirrored or the mirror is not serving
+     */
+    public VcMeta findVcMeta(String vcId) {
+        return find(LedgerMirrorType.VC_META, vcId)
+                .map(entry -> {
+                    VcMeta vcMeta = new VcMeta();
+                    vcMeta.fromJson(entry.getPayload());
+                    return vcMeta;
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Store a DID document read from the ledger.
+     *
+     * @param didKeyUrl The DID key URL that was read
+     * @param didDocument The DID document
+     * @param readVersion The invalidation sequence taken before the ledger read
+     */
+    public void putDidDoc(String didKeyUrl, DidDocument didDocument, long readVersion) {
+        if (didDocument != null) {
+            put(LedgerMirrorType.DID_DOC, didKeyUrl, didDocument.getId(), didDocument.toJson(), readVersion);
+        }
+    }
+
+    /**
+     * Store a VC meta read from the ledger.
+     *
+     * @param vcMeta The VC meta
+     * @param readVersion The invalidation sequence taken before the ledger read
+     */
+    public void putVcMeta(VcMeta vcMeta, long readVersion) {
+        if (vcMeta != null) {
+            put(LedgerMirrorType.VC_META, vcMeta.getId(), vcMeta.getId(), vcMeta.toJson(), readVersion);
+        }
+    }
+
+    /**
+     * Remove the entries of the given DIDs or VC IDs.
+     *
+     * @param subjects The DIDs or VC IDs written on the ledger
+     */
+    public void invalidate(Collection<String> subjects) {
+        if (subjects.isEmpty()) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        ledgerMirrorRepository.deleteBySubjectIn(subjects);
+    }
+
+    /**
+     * Remove all entries, e.g. when the block history since the last checkpoint is unknown.
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        int deleted = ledgerMirrorRepository.deleteAllEntries();
+        log.info("Cleared {} ledger mirror entries", deleted);
+    }
+
+    /**
+     * Marks whether the block listener is connected and the mirror may serve reads.
+     *
+     * @param live true if the block listener is connected
+     */
+    public void setLive(boolean live) {
+        if (!live) {
+            invalidations.incrementAndGet();
+        }
+        this.live = live;
+    }
+
+    /**
+     * Checks whether the mirror serves reads.
+     *
+     * @return true if the mirror is enabled and the block listener is connected
+     */
+    public boolean isServing() {
+        return config.isEnable() && live;
+    }
+
+    private Optional<LedgerMirror> find(LedgerMirrorType type, String key) {
+        if (!isServing()) {
+            return Optional.empty();
+        }
+        try {
+            Instant oldest = Instant.now().minus(Duration.ofSeconds(config.getMaxStalenessSeconds()));
+            return ledgerMirrorRepository.findByEntryTypeAndEntryKey(type, key)
+                    .filter(entry -> entry.getSyncedAt().isAfter(oldest));
+        } catch (Exception e) {
+            log.warn("Failed to read the ledger mirror: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void put(LedgerMirrorType type, String key, String subject, String payload, long readVersion) {
+        if (!isServing() || invalidations.get() != readVersion) {
+            return;
+        }
+        try {
+            writeTemplate.executeWithoutResult(status ->
+                    ledgerMirrorRepository.upsert(type.name(), key, subject, payload, Instant.now()));
+            // An invalidation that ran while the entry was being written may have missed it.
+            if (invalidations.get() != readVersion) {
+                ledgerMirrorRepository.deleteBySubjectIn(List.of(subject));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to write the ledger mirror: {}", e.getMessage());
+        }
+    }
+}
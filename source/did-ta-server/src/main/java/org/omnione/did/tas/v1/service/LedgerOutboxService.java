@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
+import org.omnione.did.base.db.constant.LedgerOutboxStatus;
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.domain.LedgerOutbox;
+import org.omnione.did.base.db.repository.LedgerOutboxRepository;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.TasProperty;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.InvokedDidDoc;
+import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service for recording ledger writes (DID documents and VC metas) in the ledger_outbox table.
+ *
+ * The entry is saved in the caller's database transaction, so it is committed or rolled back together
+ * with the business state, and the request returns without waiting for the block commit.
+ * LedgerOutboxWorker submits the entries in the background; the confirm steps call requireCommitted
+ * so that a protocol only completes once its ledger write is committed.
+ * When tas.ledger-outbox.enable is false, the write is submitted synchronously as before.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!sample")
+public class LedgerOutboxService {
+    private static final Set<LedgerOutboxStatus> UNSETTLED_STATUSES = EnumSet.of(LedgerOutboxStatus.PENDING, LedgerOutboxStatus.IN_PROGRESS);
+
+    private final LedgerOutboxRepository ledgerOutboxRepository;
+    private final StorageService storageService;
+    private final TransactionService transactionService;
+    private final TasProperty tasProperty;
+
+    /**
+     * Records the registration of a DID document.
+     *
+     * @param transactionId The transaction that the write belongs to
+     * @param invokedDidDoc The signed DID document to register
+     * @param didDocument The parsed DID document, used for the idempotency key
+     * @param roleType The role type of the DID document owner
+     * @param completeTransaction Whether the transaction is completed once the write is committed
+     */
+    public void registerDidDoc(Long transactionId, InvokedDidDoc invokedDidDoc, DidDocument didDocument,
+                               RoleType roleType, boolean completeTransaction) {
+        if (!isEnabled()) {
+            storageService.registerDidDoc(invokedDidDoc, roleType);
+            completeIfRequested(transactionId, completeTransaction);
+            return;
+        }
+
+        String didKeyUrl = toDidKeyUrl(didDocument.getId(), didDocument.getVersionId());
+        enqueue(LedgerOutbox.builder()
+                .transactionId(transactionId)
+                .operation(LedgerOutboxOperation.REGISTER_DID_DOC)
+                .idempotencyKey(LedgerOutboxOperation.REGISTER_DID_DOC + ":" + didKeyUrl)
+                .targetId(didDocument.getId())
+                .roleType(roleType.name())
+                .payload(invokedDidDoc.toJson())
+                .completeTransaction(completeTransaction)
+                .build());
+    }
+
+    /**
+     * Records the registration of a VC meta.
+     *
+     * @param transactionId The transaction that the write belongs to
+     * @param vcMeta The VC meta to register
+     * @param completeTransaction Whether the transaction is completed once the write is committed
+     */
+    public void registerVcMeta(Long transactionId, VcMeta vcMeta, boolean completeTransaction) {
+        if (!isEnabled()) {
+            storageService.registerVcMeta(vcMeta);
+            completeIfRequested(transactionId, completeTransaction);
+            return;
+        }
+
+        enqueue(LedgerOutbox.builder()
+                .transactionId(transactionId)
+                .operation(LedgerOutboxOperation.REGISTER_VC_META)
+                .idempotencyKey(LedgerOutboxOperation.REGISTER_VC_META + ":" + vcMeta.getId())
+                .targetId(vcMeta.getId())
+                .payload(vcMeta.toJson())
+                .completeTransaction(completeTransaction)
+                .build());
+    }
+
+    /**
+     * Checks that all ledger writes of the transaction are committed.
+     * Transactions without outbox entries (synchronous writes) pass.
+     *
+     * @param transactionId The transaction ID
+     * @throws OpenDidException LEDGER_WRITE_PENDING if a write is not committed yet
+     * @throws OpenDidException LEDGER_WRITE_FAILED if a write has exhausted its retries
+     */
+    public void requireCommitted(Long transactionId) {
+        List<LedgerOutbox> entries = ledgerOutboxRepository.findByTransactionId(transactionId);
+        for (LedgerOutbox entry : entries) {
+            if (entry.getStatus() == LedgerOutboxStatus.FAILED) {
+                log.error("\t--> Ledger write {} failed for transaction ID: {}", entry.getIdempotencyKey(), transactionId);
+                throw new OpenDidException(ErrorCode.LEDGER_WRITE_FAILED);
+            }
+            if (entry.getStatus() != LedgerOutboxStatus.COMMITTED) {
+                log.debug("\t--> Ledger write {} is not committed yet for transaction ID: {}", entry.getIdempotencyKey(), transactionId);
+                throw new OpenDidException(ErrorCode.LEDGER_WRITE_PENDING);
+            }
+        }
+    }
+
+    /**
+     * Checks that no ledger write for the given DID or VC ID is still being submitted,
+     * and that the latest write for it has not failed (the ledger then does not hold it).
+     *
+     * @param targetId The DID or VC ID
+     * @throws OpenDidException LEDGER_WRITE_PENDING if a write is not committed yet
+     * @throws OpenDidException LEDGER_WRITE_FAILED if the latest write has exhausted its retries
+     */
+    public void requireNoPendingWrite(String targetId) {
+        if (ledgerOutboxRepository.existsByTargetIdAndStatusIn(targetId, UNSETTLED_STATUSES)) {
+            log.debug("\t--> Ledger write for {} is not committed yet", targetId);
+            throw new OpenDidException(ErrorCode.LEDGER_WRITE_PENDING);
+        }
+        Optional<LedgerOutbox> latest = ledgerOutboxRepository.findFirstByTargetIdOrderByIdDesc(targetId);
+        if (latest.isPresent() && latest.get().getStatus() == LedgerOutboxStatus.FAILED) {
+            log.error("\t--> Ledger write {} failed for {}", latest.get().getIdempotencyKey(), targetId);
+            throw new OpenDidException(ErrorCode.LEDGER_WRITE_FAILED);
+        }
+    }
+
+    /**
+     * Builds the DID key URL of a specific DID document version.
+     *
+     * @param did The DID
+     * @param versionId The version ID
+     * @return The DID key URL
+     */
+    public static String toDidKeyUrl(String did, String versionId) {
+        return did + "?versionId=" + versionId;
+    }
+
+    private void enqueue(LedgerOutbox entry) {
+        // A retried request step records the same write again; the first entry is kept.
+        if (ledgerOutboxRepository.existsByIdempotencyKey(entry.getIdempotencyKey())) {
+            log.debug("\t--> Ledger write {} is already recorded", entry.getIdempotencyKey());
+            return;
+        }
+        entry.setStatus(LedgerOutboxStatus.PENDING);
+        entry.setAttempts(0);
+        entry.setNextAttemptAt(Instant.now());
+        ledgerOutboxRepository.save(entry);
+        log.debug("\t--> Recorded ledger write {}", entry.getIdempotencyKey());
+    }
+
+    private void completeIfRequested(Long transactionId, boolean completeTransaction) {
+        if (completeTransaction) {
+            transactionService.updateTransactionStatus(transactionId, TransactionStatus.COMPLETED);
+        }
+    }
+
+    private boolean isEnabled() {
+        return tasProperty.getLedgerOutbox().isEnable();
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
+import org.omnione.did.base.db.constant.LedgerOutboxStatus;
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.domain.LedgerOutbox;
+import org.omnione.did.base.db.repository.LedgerOutboxRepository;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.InvokedDidDoc;
+import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background worker pool that submits the entries of the ledger_outbox table to the storage.
+ *
+ * Each poll claims at most as many due entries as there are idle workers, locking them with
+ * FOR UPDATE SKIP LOCKED so that several nodes can poll the same table, and leases them for
+ * tas.ledger-outbox.lease-ms. The entries are submitted concurrently. A committed write marks the entry
+ * COMMITTED (and completes its transaction if requested); a failed write is retried with exponential
+ * backoff until tas.ledger-outbox.max-attempts, after which the entry (and its transaction) is FAILED
+ * and a {@link LedgerWriteFailedEvent} is published.
+ * Outcomes are only recorded while the claim is still held; an entry re-claimed by another node after
+ * the lease expired belongs to that node.
+ *
+ * A retried entry may already be on the ledger (e.g. the previous attempt timed out after the block
+ * was committed), so the ledger is checked before every retry and the write is not submitted twice.
+ */
+@Component
+@Slf4j
+@Profile("!sample")
+public class LedgerOutboxWorker {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final LedgerOutboxRepository ledgerOutboxRepository;
+    private final StorageService storageService;
+    private final TransactionService transactionService;
+    private final TasProperty tasProperty;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workerPool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastPurgedAt = new AtomicLong(System.currentTimeMillis());
+
+    public LedgerOutboxWorker(LedgerOutboxRepository ledgerOutboxRepository, StorageService storageService,
+                              TransactionService transactionService, TasProperty tasProperty,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              PlatformTransactionManager transactionManager) {
+        this.ledgerOutboxRepository = ledgerOutboxRepository;
+        this.storageService = storageService;
+        this.transactionService = transactionService;
+        this.tasProperty = tasProperty;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int workerThreads = tasProperty.getLedgerOutbox().getWorkerThreads();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Claims never exceed the idle workers, so the queue only holds entries that are about to start.
+        this.workerPool = new ThreadPoolExecutor(
+                workerThreads,
+                workerThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ledger-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Claims the due entries and hands them to the worker pool.
+     */
+    @Scheduled(fixedDelayString = "${tas.ledger-outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!tasProperty.getLedgerOutbox().isEnable()) {
+            return;
+        }
+        purgeCommittedIfDue();
+
+        int idle = tasProperty.getLedgerOutbox().getWorkerThreads() - inFlight.get();
+        if (idle <= 0) {
+            return;
+        }
+
+        List<LedgerOutbox> claimed;
+        try {
+            claimed = claim(idle);
+        } catch (Exception e) {
+            log.warn("Failed to claim ledger outbox entries: {}", e.getMessage());
+            return;
+        }
+
+        for (LedgerOutbox entry : claimed) {
+            inFlight.incrementAndGet();
+            workerPool.execute(() -> {
+                try {
+                    process(entry);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of entries currently being submitted by this node.
+     *
+     * @return The number of in-flight entries
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished entries stay IN_PROGRESS and are claimed again once their lease expires.
+        workerPool.shutdown();
+    }
+
+    /**
+     * Locks the due entries and marks them IN_PROGRESS under a lease.
+     *
+     * @param limit The maximum number of entries to claim
+     * @return The claimed entries
+     */
+    public List<LedgerOutbox> claim(int limit) {
+        Instant now = Instant.now();
+        // Millisecond precision, so that the lease read back from the database compares equal to it.
+        Instant lockedUntil = now.plusMillis(tasProperty.getLedgerOutbox().getLeaseMs()).truncatedTo(ChronoUnit.MILLIS);
+        return transactionTemplate.execute(status -> {
+            List<LedgerOutbox> entries = ledgerOutboxRepository.lockDue(now, limit);
+            for (LedgerOutbox entry : entries) {
+                entry.setStatus(LedgerOutboxStatus.IN_PROGRESS);
+                entry.setLockedUntil(lockedUntil);
+                entry.setAttempts(entry.getAttempts() + 1);
+            }
+            return ledgerOutboxRepository.saveAll(entries);
+        });
+    }
+
+    /**
+     * Submits a claimed entry and records the outcome.
+     *
+     * @param entry The claimed entry
+     */
+    public void process(LedgerOutbox entry) {
+        try {
+            if (entry.getAttempts() > 1 && isOnLedger(entry)) {
+                log.debug("\t--> Ledger write {} was already committed", entry.getIdempotencyKey());
+            } else {
+                submit(entry);
+            }
+            markCommitted(entry);
+        } catch (Exception e) {
+            log.warn("Ledger write {} failed (attempt {}): {}", entry.getIdempotencyKey(), entry.getAttempts(), e.getMessage());
+            markAttemptFailed(entry, e);
+        }
+    }
+
+    private void submit(LedgerOutbox entry) {
+        switch (entry.getOperation()) {
+            case REGISTER_DID_DOC -> storageService.registerDidDoc(toInvokedDidDoc(entry.getPayload()), RoleType.valueOf(entry.getRoleType()));
+            case REGISTER_VC_META -> storageService.registerVcMeta(toVcMeta(entry.getPayload()));
+        }
+    }
+
+    /**
+     * Checks whether the write of the entry is already on the ledger.
+     * Lookup failures are treated as absent; the write is then submitted and fails or succeeds on its own.
+     */
+    private boolean isOnLedger(LedgerOutbox entry) {
+        try {
+            if (entry.getOperation() == LedgerOutboxOperation.REGISTER_DID_DOC) {
+                DidDocument didDocument = parseDidDoc(toInvokedDidDoc(entry.getPayload()));
+                String didKeyUrl = LedgerOutboxService.toDidKeyUrl(didDocument.getId(), didDocument.getVersionId());
+                DidDocument onLedger = storageService.findDidDoc(didKeyUrl);
+                return onLedger != null && didDocument.getVersionId().equals(onLedger.getVersionId());
+            }
+            return storageService.findVcMeta(entry.getTargetId()) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the commit of a claimed entry. The update is conditional on the claim (attempt number and lease),
+     * so a worker whose lease has expired does not overwrite the entry of the node that re-claimed it.
+     */
+    private void markCommitted(LedgerOutbox entry) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            int updated = ledgerOutboxRepository.markCommitted(entry.getId(), entry.getAttempts(), entry.getLockedUntil(), now);
+            if (updated == 0) {
+                log.warn("Ledger write {} was committed after its lease (attempt {}) expired", entry.getIdempotencyKey(), entry.getAttempts());
+                return;
+            }
+            entry.setStatus(LedgerOutboxStatus.COMMITTED);
+            entry.setCommittedAt(now);
+            entry.setLockedUntil(null);
+            entry.setLastError(null);
+            if (entry.isCompleteTransaction()) {
+                transactionService.updateTransactionStatus(entry.getTransactionId(), TransactionStatus.COMPLETED);
+            }
+        });
+    }
+
+    /**
+     * Records a failed attempt of a claimed entry: rescheduled with backoff, or FAILED once the retries are
+     * exhausted. Like markCommitted, the update only applies while the claim is still held.
+     */
+    private void markAttemptFailed(LedgerOutbox entry, Exception cause) {
+        TasProperty.LedgerOutbox config = tasProperty.getLedgerOutbox();
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            boolean exhausted = entry.getAttempts() >= config.getMaxAttempts();
+            LedgerOutboxStatus nextStatus = exhausted ? LedgerOutboxStatus.FAILED : LedgerOutboxStatus.PENDING;
+            Instant nextAttemptAt = exhausted ? entry.getNextAttemptAt() : now.plus(backoff(entry.getAttempts(), config));
+            String lastError = truncate(cause.getMessage());
+            int updated = ledgerOutboxRepository.markAttemptFailed(entry.getId(), entry.getAttempts(), entry.getLockedUntil(),
+                    nextStatus, nextAttemptAt, lastError, now);
+            if (updated == 0) {
+                log.warn("Ledger write {} failed after its lease (attempt {}) expired", entry.getIdempotencyKey(), entry.getAttempts());
+                return;
+            }
+            entry.setStatus(nextStatus);
+            entry.setNextAttemptAt(nextAttemptAt);
+            entry.setLockedUntil(null);
+            entry.setLastError(lastError);
+            if (exhausted) {
+                log.error("Ledger write {} failed after {} attempts", entry.getIdempotencyKey(), entry.getAttempts());
+                if (entry.isCompleteTransaction()) {
+                    transactionService.updateTransactionStatus(entry.getTransactionId(), TransactionStatus.FAILED);
+                }
+                applicationEventPublisher.publishEvent(
+                        new LedgerWriteFailedEvent(entry.getTransactionId(), entry.getOperation(), entry.getTargetId()));
+            }
+        });
+    }
+
+    private void purgeCommittedIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPurgedAt.get();
+        if (now - last < tasProperty.getLedgerOutbox().getPurgeIntervalSeconds() * 1000L
+                || !lastPurgedAt.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            Instant before = Instant.now().minus(Duration.ofHours(tasProperty.getLedgerOutbox().getRetentionHours()));
+            int deleted = ledgerOutboxRepository.deleteCommittedBefore(before);
+            log.debug("\t--> Purged {} committed ledger outbox entries", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge committed ledger outbox entries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt: initial-backoff-ms doubled per failed attempt, capped at max-backoff-ms.
+     */
+    public static Duration backoff(int attempts, TasProperty.LedgerOutbox config) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delayMs = Math.min(config.getInitialBackoffMs() << exponent, config.getMaxBackoffMs());
+        return Duration.ofMillis(delayMs);
+    }
+
+    private static InvokedDidDoc toInvokedDidDoc(String payload) {
+        InvokedDidDoc invokedDidDoc = new InvokedDidDoc(null, null, null, null);
+        invokedDidDoc.fromJson(payload);
+        return invokedDidDoc;
+    }
+
+    private static VcMeta toVcMeta(String payload) {
+        VcMeta vcMeta = new VcMeta();
+        vcMeta.fromJson(payload);
+        return vcMeta;
+    }
+
+    private static DidDocument parseDidDoc(InvokedDidDoc invokedDidDoc) {
+        byte[] decodedDidDoc = BaseMultibaseUtil.decode(invokedDidDoc.getDidDoc());
+        return BaseCoreDidUtil.parseDidDoc(new String(decodedDidDoc, StandardCharsets.UTF_8)).getDocument();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
+
+/**
+ * Published by LedgerOutboxWorker when a ledger write has exhausted its retries.
+ * It is published in the database transaction that marks the entry FAILED, so listeners can
+ * revert the business state that assumed the write would be committed in the same transaction.
+ *
+ * @param transactionId The transaction that the write belongs to
+ * @param operation The ledger operation
+ * @param targetId The DID or VC ID of the write
+ */
+public record LedgerWriteFailedEvent(Long transactionId, LedgerOutboxOperation operation, String targetId) {
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Append-only journal of the LocalStorageServiceImpl, kept in a memory-mapped file.
+ *
+ * Each record is a 4-byte body length, a 1-byte record type and a UTF-8 body. The length is written last,
+ * so a record that was not completely written reads as the end of the journal. The file is mapped in regions
+ * of at least mapSizeBytes starting at the write position, so the zero-filled tail of the last region
+ * marks the end of the journal on replay.
+ */
+@Slf4j
+public class LocalStorageJournal implements Closeable {
+    private static final int HEADER_BYTES = Integer.BYTES + 1;
+
+    /**
+     * Types of journal records.
+     */
+    public enum RecordType {
+        DID_DOC,
+        DID_DOC_STATUS,
+        VC_META,
+        VC_STATUS;
+
+        private byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        private static RecordType fromCode(byte code) {
+            RecordType[] types = values();
+            return (code >= 1 && code <= types.length) ? types[code - 1] : null;
+        }
+    }
+
+    private final FileChannel channel;
+    private final long mapSizeBytes;
+    private final boolean forceOnWrite;
+    private MappedByteBuffer region;
+    private long position;
+
+    public LocalStorageJournal(Path path, long mapSizeBytes, boolean forceOnWrite) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.mapSizeBytes = Math.max(HEADER_BYTES, mapSizeBytes);
+        this.forceOnWrite = forceOnWrite;
+    }
+
+    /**
+     * Passes every complete record to the handler in the order it was written, and positions the journal
+     * after the last one. Must be called once before the first append.
+     *
+     * @param handler Receives the type and body of each record
+     * @return The number of records read
+     * @throws IOException if the journal cannot be read
+     */
+    public synchronized int replay(BiConsumer<RecordType, String> handler) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long offset = 0;
+        int records = 0;
+        while (offset + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, offset);
+            header.flip();
+            int length = header.getInt();
+            RecordType type = RecordType.fromCode(header.get());
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || type == null || offset + HEADER_BYTES + length > size) {
+                log.warn("Ignoring the incomplete storage journal record at offset {}", offset);
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            channel.read(body, offset + HEADER_BYTES);
+            handler.accept(type, new String(body.array(), StandardCharsets.UTF_8));
+            offset += HEADER_BYTES + length;
+            records++;
+        }
+        position = offset;
+        region = null;
+        return records;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param type The record type
+     * @param body The record body
+     * @throws IOException if the journal cannot be extended
+     */
+    public synchronized void append(RecordType type, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = HEADER_BYTES + bytes.length;
+        if (region == null || region.remaining() < recordBytes + Integer.BYTES) {
+            // The new region starts at the write position, so no gap is left between records.
+            region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(mapSizeBytes, recordBytes + Integer.BYTES));
+        }
+        int start = region.position();
+        region.position(start + Integer.BYTES);
+        region.put(type.code());
+        region.put(bytes);
+        region.putInt(start, bytes.length);
+        position += recordBytes;
+        if (forceOnWrite) {
+            region.force();
+        }
+    }
+
+    /**
+     * Returns the size of the written records in bytes.
+     *
+     * @return The write position
+     */
+    public synchronized long position() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (region != null) {
+            region.force();
+            region = null;
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.LocalStorageProperty;
+import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.InvokedDidDoc;
+import org.omnione.did.data.model.enums.did.DidDocStatus;
+import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.enums.vc.VcStatus;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Storage service implementation that keeps DID documents and VC metas in memory, for load testing
+ * on a single node without a ledger or repository server.
+ *
+ * Every version of a DID document is kept and can be read with its DID key URL; a URL without a versionId
+ * returns the latest version. Registrations of an existing DID document version or VC meta are rejected, as are
+ * the status transitions the ledger does not allow: a REVOKED DID document can only be terminated,
+ * a TERMINATED one cannot change, and a REVOKED VC cannot change.
+ *
+ * With storage-local.journal.enable, every change is appended to a LocalStorageJournal and replayed at startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Profile("storage-local")
+public class LocalStorageServiceImpl implements StorageService {
+    private static final String VERSION_ID_PARAM = "versionId=";
+    private static final String FIELD_SEPARATOR = "\n";
+
+    private final LocalStorageProperty localStorageProperty;
+
+    private final ConcurrentHashMap<String, DidDocEntry> didDocs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> vcMetas = new ConcurrentHashMap<>();
+    private LocalStorageJournal journal;
+
+    /**
+     * The versions and status of a single DID. Entries are immutable; every update replaces the entry atomically.
+     */
+    public static class DidDocEntry {
+        private final Map<String, String> versions;
+        private final String latestVersionId;
+        private final DidDocStatus status;
+
+        public DidDocEntry(Map<String, String> versions, String latestVersionId, DidDocStatus status) {
+            this.versions = versions;
+            this.latestVersionId = latestVersionId;
+            this.status = status;
+        }
+
+        public String getVersion(String versionId) {
+            return versions.get((versionId != null) ? versionId : latestVersionId);
+        }
+
+        public DidDocStatus getStatus() {
+            return status;
+        }
+
+        private DidDocEntry withVersion(String versionId, String didDocJson) {
+            Map<String, String> next = new HashMap<>(versions);
+            next.put(versionId, didDocJson);
+            return new DidDocEntry(next, versionId, status);
+        }
+
+        private DidDocEntry withStatus(DidDocStatus nextStatus) {
+            return new DidDocEntry(versions, latestVersionId, nextStatus);
+        }
+    }
+
+    /**
+     * Opens and replays the journal if it is enabled.
+     */
+    @PostConstruct
+    public void init() {
+        LocalStorageProperty.Journal config = localStorageProperty.getJournal();
+        if (!config.isEnable()) {
+            log.info("Local storage started without a journal");
+            return;
+        }
+        try {
+            journal = new LocalStorageJournal(Path.of(config.getPath()), config.getMapSizeBytes(), config.isForceOnWrite());
+            int records = journal.replay(this::applyRecord);
+            log.info("Local storage replayed {} journal records: {} DIDs, {} VC metas", records, didDocs.size(), vcMetas.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the local storage journal: " + config.getPath(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the local storage journal: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registers a new version of a DID document.
+     *
+     * @param didDoc The DID document to register
+     * @param roleType The role type of the DID document
+     * @throws OpenDidException if the version is already registered or the DID is revoked or terminated
+     */
+    @Override
+    public void registerDidDoc(InvokedDidDoc didDoc, RoleType roleType) {
+        try {
+            String didDocJson = new String(BaseMultibaseUtil.decode(didDoc.getDidDoc()), StandardCharsets.UTF_8);
+            DidDocument didDocument = BaseCoreDidUtil.parseDidDoc(didDocJson).getDocument();
+            String versionId = didDocument.getVersionId();
+
+            didDocs.compute(didDocument.getId(), (did, entry) -> {
+                DidDocEntry next;
+                if (entry == null) {
+                    next = new DidDocEntry(Map.of(versionId, didDocJson), versionId, DidDocStatus.ACTIVATED);
+                } else {
+                    if (entry.versions.containsKey(versionId)) {
+                        log.error("DID document version is already registered: {}?versionId={}", did, versionId);
+                        throw new OpenDidException(ErrorCode.DID_DOCUMENT_REGISTRATION_FAILED);
+                    }
+                    if (entry.getStatus() == DidDocStatus.REVOKED || entry.getStatus() == DidDocStatus.TERMINATED) {
+                        log.error("DID document cannot be updated in status {}: {}", entry.getStatus(), did);
+                        throw new OpenDidException(ErrorCode.DID_DOCUMENT_REGISTRATION_FAILED);
+                    }
+                    next = entry.withVersion(versionId, didDocJson);
+                }
+                appendRecord(LocalStorageJournal.RecordType.DID_DOC, didDocJson);
+                return next;
+            });
+        } catch (OpenDidException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to register DID document.", e);
+            throw new OpenDidException(ErrorCode.DID_DOCUMENT_REGISTRATION_FAILED);
+        }
+    }
+
+    /**
+     * Updates the status of a DID.
+     *
+     * @param did The DID or DID key URL
+     * @param didDocStatus The new status, as a DidDocStatus or its name
+     * @throws OpenDidException if the DID is not registered or the transition is not allowed
+     */
+    @Override
+    public void updateDidDocStatus(String did, Object didDocStatus) {
+        DidDocStatus status = (didDocStatus instanceof DidDocStatus s) ? s : DidDocStatus.valueOf(String.valueOf(didDocStatus));
+        String id = toDid(did);
+        didDocs.compute(id, (key, entry) -> {
+            if (entry == null) {
+                log.error("DID document is not registered: {}", id);
+                throw new OpenDidException(ErrorCode.UPDATE_DID_DOC_FAILED);
+            }
+            if (entry.getStatus() == status) {
+                return entry;
+            }
+            if (!isAllowed(entry.getStatus(), status)) {
+                log.error("DID document status cannot change from {} to {}: {}", entry.getStatus(), status, id);
+                throw new OpenDidException(ErrorCode.UPDATE_DID_DOC_FAILED);
+            }
+            appendRecord(LocalStorageJournal.RecordType.DID_DOC_STATUS, id + FIELD_SEPARATOR + status.name());
+            return entry.withStatus(status);
+        });
+    }
+
+    /**
+     * Finds a DID document by DID key URL.
+     *
+     * @param didKeyUrl The DID key URL; without a versionId the latest version is returned
+     * @return The DID document
+     * @throws OpenDidException if the DID document version is not registered
+     */
+    @Override
+    public DidDocument findDidDoc(String didKeyUrl) {
+        DidDocEntry entry = didDocs.get(toDid(didKeyUrl));
+        String didDocJson = (entry != null) ? entry.getVersion(toVersionId(didKeyUrl)) : null;
+        if (didDocJson == null) {
+            log.error("DID document is not registered: {}", didKeyUrl);
+            throw new OpenDidException(ErrorCode.FIND_DID_DOC_FAILED);
+        }
+        DidDocument didDocument = new DidDocument();
+        didDocument.fromJson(didDocJson);
+        return didDocument;
+    }
+
+    /**
+     * Registers a VC meta.
+     *
+     * @param vcMeta The VC meta to register
+     * @throws OpenDidException if a VC meta with the same ID is already registered
+     */
+    @Override
+    public void registerVcMeta(VcMeta vcMeta) {
+        String vcMetaJson = vcMeta.toJson();
+        vcMetas.compute(vcMeta.getId(), (vcId, current) -> {
+            if (current != null) {
+                log.error("VC meta is already registered: {}", vcId);
+                throw new OpenDidException(ErrorCode.VC_META_REGISTRATION_FAILED);
+            }
+            appendRecord(LocalStorageJournal.RecordType.VC_META, vcMetaJson);
+            return vcMetaJson;
+        });
+    }
+
+    /**
+     * Finds a VC meta by VC ID.
+     *
+     * @param vcId The VC ID
+     * @return The VC meta
+     * @throws OpenDidException if the VC meta is not registered
+     */
+    @Override
+    public VcMeta findVcMeta(String vcId) {
+        String vcMetaJson = vcMetas.get(vcId);
+        if (vcMetaJson == null) {
+            log.error("VC meta is not registered: {}", vcId);
+            throw new OpenDidException(ErrorCode.FIND_VC_META_FAILED);
+        }
+        VcMeta vcMeta = new VcMeta();
+        vcMeta.fromJson(vcMetaJson);
+        return vcMeta;
+    }
+
+    /**
+     * Updates the status of a VC.
+     *
+     * @param vcId The VC ID
+     * @param vcStatus The new status
+     * @throws OpenDidException if the VC meta is not registered or the VC is revoked
+     */
+    @Override
+    public void updateVcStatus(String vcId, VcStatus vcStatus) {
+        vcMetas.compute(vcId, (key, current) -> {
+            if (current == null) {
+                log.error("VC meta is not registered: {}", vcId);
+                throw new OpenDidException(ErrorCode.VC_STATUS_UPDATE_FAILED);
+            }
+            VcMeta vcMeta = new VcMeta();
+            vcMeta.fromJson(current);
+            VcStatus currentStatus = VcStatus.fromString(vcMeta.getStatus());
+            if (currentStatus == vcStatus) {
+                return current;
+            }
+            if (currentStatus == VcStatus.REVOKED) {
+                log.error("VC status cannot change from REVOKED: {}", vcId);
+                throw new OpenDidException(ErrorCode.VC_STATUS_UPDATE_FAILED);
+            }
+            appendRecord(LocalStorageJournal.RecordType.VC_STATUS, vcId + FIELD_SEPARATOR + vcStatus.name());
+            vcMeta.setStatus(vcStatus.getRawValue());
+            return vcMeta.toJson();
+        });
+    }
+
+    /**
+     * Checks whether a DID document may move between the given statuses.
+     * ACTIVATED and DEACTIVATED may move to any status, REVOKED only to TERMINATED, and TERMINATED is final.
+     */
+    private static boolean isAllowed(DidDocStatus from, DidDocStatus to) {
+        return switch (from) {
+            case ACTIVATED, DEACTIVATED -> true;
+            case REVOKED -> to == DidDocStatus.TERMINATED;
+            case TERMINATED -> false;
+        };
+    }
+
+    private void appendRecord(LocalStorageJournal.RecordType type, String body) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(type, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the local storage journal", e);
+        }
+    }
+
+    /**
+     * Applies a journal record during replay. Records were validated when they were written.
+     */
+    private void applyRecord(LocalStorageJournal.RecordType type, String body) {
+        switch (type) {
+            case DID_DOC -> {
+                DidDocument didDocument = new DidDocument();
+                didDocument.fromJson(body);
+                String versionId = didDocument.getVersionId();
+                didDocs.compute(didDocument.getId(), (did, entry) -> (entry == null)
+                        ? new DidDocEntry(Map.of(versionId, body), versionId, DidDocStatus.ACTIVATED)
+                        : entry.withVersion(versionId, body));
+            }
+            case DID_DOC_STATUS -> {
+                String[] fields = body.split(FIELD_SEPARATOR, 2);
+                didDocs.computeIfPresent(fields[0], (did, entry) -> entry.withStatus(DidDocStatus.valueOf(fields[1])));
+            }
+            case VC_META -> {
+                VcMeta vcMeta = new VcMeta();
+                vcMeta.fromJson(body);
+                vcMetas.put(vcMeta.getId(), body);
+            }
+            case VC_STATUS -> {
+                String[] fields = body.split(FIELD_SEPARATOR, 2);
+                vcMetas.computeIfPresent(fields[0], (vcId, current) -> {
+                    VcMeta vcMeta = new VcMeta();
+                    vcMeta.fromJson(current);
+                    vcMeta.setStatus(VcStatus.valueOf(fields[1]).getRawValue());
+                    return vcMeta.toJson();
+                });
+            }
+        }
+    }
+
+    private static String toDid(String didKeyUrl) {
+        int end = indexOfAny(didKeyUrl, '?', '#');
+        return (end >= 0) ? didKeyUrl.substring(0, end) : didKeyUrl;
+    }
+
+    private static String toVersionId(String didKeyUrl) {
+        int start = didKeyUrl.indexOf(VERSION_ID_PARAM);
+        if (start < 0) {
+            return null;
+        }
+        String versionId = didKeyUrl.substring(start + VERSION_ID_PARAM.length());
+        int end = indexOfAny(versionId, '&', '#');
+        return (end >= 0) ? versionId.substring(0, end) : versionId;
+    }
+
+    private static int indexOfAny(String value, char... chars) {
+        int index = -1;
+        for (char c : chars) {
+            int found = value.indexOf(c);
+            if (found >= 0 && (index < 0 || found < index)) {
+                index = found;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.domain.User;
+import org.omnione.did.base.db.repository.UserRepository;
+import org.omnione.did.base.property.PiiProperty;
+import org.omnione.did.tas.v1.helper.PiiHashHelper;
+import org.omnione.did.tas.v1.service.query.UserQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Service for backfilling user.pii_hash for rows created before the column existed.
+ * Runs once in the background after startup and processes users in batches ordered by id,
+ * committing each batch in its own transaction so that it never holds long locks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!sample")
+public class PiiHashBackfillService {
+    private final UserRepository userRepository;
+    private final PiiHashHelper piiHashHelper;
+    private final UserQueryService userQueryService;
+    private final PiiProperty piiProperty;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Starts the backfill when the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!piiProperty.getBackfill().isEnable()) {
+            log.info("pii_hash backfill is disabled");
+            userQueryService.refreshUnhashedUsers();
+            return;
+        }
+
+        try {
+            long updated = backfill();
+            log.info("pii_hash backfill completed: {} users updated", updated);
+        } catch (Exception e) {
+            log.error("pii_hash backfill failed; lookups keep falling back to the pii column", e);
+        }
+        userQueryService.refreshUnhashedUsers();
+    }
+
+    /**
+     * Populates pii_hash for all users that do not have one yet.
+     *
+     * @return The number of updated users
+     */
+    public long backfill() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int batchSize = piiProperty.getBackfill().getBatchSize();
+        long lastId = 0L;
+        long updated = 0L;
+
+        while (true) {
+            long fromId = lastId;
+            List<User> batch = transactionTemplate.execute(status -> {
+                List<User> users = userRepository.findByPiiHashIsNullAndIdGreaterThanOrderByIdAsc(fromId, PageRequest.of(0, batchSize));
+                users.forEach(user -> user.setPiiHash(piiHashHelper.hash(user.getPii())));
+                return userRepository.saveAll(users);
+            });
+            if (batch == null || batch.isEmpty()) {
+                return updated;
+            }
+
+            updated += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+            log.debug("\t--> pii_hash backfilled up to user id {}", lastId);
+        }
+    }
+}
@@ -84,7 +84,7 @@ public class PushServiceImpl implements PushService {
 
             // Update Push token
             log.debug("\t--> Updating Push token");
-            updatePushToken(app.getId(), updatePushTokenReqDto.getPushToken());
+            updatePushToken(app, updatePushTokenReqDto.getPushToken());
 
             return new EmptyResDto();
         } catch (OpenDidException e) {
@@ -216,12 +216,12 @@ public class PushServiceImpl implements PushService {
     }
     /**
      * Updates the push token for an application.
+     * The App already loaded by the request is updated rather than fetched again.
      *
-     * @param id The ID of the application
+     * @param app The application
      * @param pushToken The new push token
      */
-    private void updatePushToken(Long id, String pushToken) {
-        App app = appQueryService.findById(id);
+    private void updatePushToken(App app, String pushToken) {
         app.setPushToken(pushToken);
 
         appRepository.save(app);
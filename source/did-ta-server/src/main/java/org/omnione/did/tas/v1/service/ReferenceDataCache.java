@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.datasource.DataSourceRoutingContext;
+import org.omnione.did.base.property.TasProperty;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Application-level cache for rarely changing reference rows (Tas, Entity, CertificateVc).
+ *
+ * Values are loaded from the primary datasource, detached from the persistence context and shared
+ * between requests, so callers must treat them as read-only; write paths load their own instance.
+ * A write path calls {@link #invalidate(Region, String)}, which evicts the entry when the surrounding
+ * database transaction completes and publishes the key with pg_notify, so that the other nodes
+ * (see {@link ReferenceDataListener}) evict it as well. Entries also expire after tas.reference-cache.ttl-seconds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataCache {
+    private final TasProperty tasProperty;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private final ConcurrentHashMap<String, CachedValue> cache = new ConcurrentHashMap<>();
+    // Incremented on every eviction; a load that overlaps an eviction is not stored.
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The kind of reference data.
+     */
+    public enum Region {
+        TAS,
+        ENTITY,
+        CERTIFICATE_VC
+    }
+
+    private record CachedValue(Object value, long expiresAtNanos) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+
+    /**
+     * Returns the cached value, or loads and caches it on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     *
+     * @param region The kind of reference data
+     * @param id The identifier within the region (e.g. the DID)
+     * @param loader Loads the value from the database
+     * @return The value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Region region, String id, Supplier<T> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        String key = toKey(region, id);
+        CachedValue cached = cache.get(key);
+        if (cached != null && !cached.isExpired()) {
+            return (T) cached.value();
+        }
+
+        long loadGeneration = generation.get();
+        T value;
+        Boolean previous = DataSourceRoutingContext.enterPrimaryRead();
+        try {
+            value = loader.get();
+        } finally {
+            DataSourceRoutingContext.restore(previous);
+        }
+        if (value != null) {
+            if (entityManager.contains(value)) {
+                entityManager.detach(value);
+            }
+            if (generation.get() == loadGeneration) {
+                long ttlNanos = TimeUnit.SECONDS.toNanos(tasProperty.getReferenceCache().getTtlSeconds());
+                CachedValue loaded = new CachedValue(value, System.nanoTime() + ttlNanos);
+                cache.put(key, loaded);
+                // An eviction between the check and the put would otherwise leave the stale value in place.
+                if (generation.get() != loadGeneration) {
+                    cache.remove(key, loaded);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Invalidates an entry on this node and on all other nodes.
+     * Must be called by every write path of the cached tables.
+     *
+     * @param region The kind of reference data
+     * @param id The identifier within the region
+     */
+    public void invalidate(Region region, String id) {
+        String key = toKey(region, id);
+        evictLocal(key);
+        publish(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictLocal(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts a single entry on this node.
+     *
+     * @param key The entry key, as published by {@link #invalidate(Region, String)}
+     */
+    public void evictLocal(String key) {
+        generation.incrementAndGet();
+        cache.remove(key);
+    }
+
+    /**
+     * Evicts all entries on this node, e.g. when change notifications may have been missed.
+     */
+    public void evictAllLocal() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private boolean isEnabled() {
+        return tasProperty.getReferenceCache().isEnable();
+    }
+
+    /**
+     * Publishes the key on the notification channel. Inside a transaction PostgreSQL delivers
+     * the notification only once the transaction commits.
+     */
+    private void publish(String key) {
+        TasProperty.ReferenceCache config = tasProperty.getReferenceCache();
+        if (!config.isEnable() || !config.isNotifyEnable()) {
+            return;
+        }
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null,
+                    config.getNotifyChannel(), key);
+        } catch (Exception e) {
+            // Other nodes still pick up the change when their entry expires.
+            log.error("Failed to publish reference data change for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static String toKey(Region region, String id) {
+        return region.name() + ":" + ((id != null) ? id : "");
+    }
+}
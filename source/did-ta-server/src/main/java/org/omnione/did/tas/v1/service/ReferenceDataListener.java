@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.property.TasProperty;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Listens for reference data changes published by other nodes (see {@link ReferenceDataCache})
+ * and evicts the affected entries on this node.
+ *
+ * The listener holds its own connection to the primary database outside the connection pool.
+ * Whenever the connection is (re)established the whole cache is cleared, since notifications
+ * sent while it was down are lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!sample")
+public class ReferenceDataListener {
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final TasProperty tasProperty;
+    private final DataSourceProperties dataSourceProperties;
+    private final ReferenceDataCache referenceDataCache;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * Starts listening once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        TasProperty.ReferenceCache config = tasProperty.getReferenceCache();
+        if (!config.isEnable() || !config.isNotifyEnable()) {
+            log.info("Reference data change notification is disabled");
+            return;
+        }
+        if (!CHANNEL_PATTERN.matcher(config.getNotifyChannel()).matches()) {
+            log.error("Invalid reference data notification channel: {}", config.getNotifyChannel());
+            return;
+        }
+
+        running = true;
+        listenerThread = new Thread(this::listen, "reference-data-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        TasProperty.ReferenceCache config = tasProperty.getReferenceCache();
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + config.getNotifyChannel());
+                }
+                referenceDataCache.evictAllLocal();
+                log.info("Listening for reference data changes on channel {}", config.getNotifyChannel());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(config.getNotifyPollMs());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        log.debug("\t--> Reference data changed: {}", notification.getParameter());
+                        referenceDataCache.evictLocal(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Reference data listener disconnected, retrying in {} ms: {}",
+                        config.getNotifyReconnectMs(), e.getMessage());
+                referenceDataCache.evictAllLocal();
+                try {
+                    Thread.sleep(config.getNotifyReconnectMs());
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the listener connection to the primary database, outside the connection pool.
+     *
+     * @return The connection
+     * @throws SQLException if the connection cannot be established
+     */
+    protected Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
@@ -22,6 +22,7 @@ import org.omnione.did.base.util.BaseCoreDidUtil;
 import org.omnione.did.base.util.BaseCoreVcUtil;
 import org.omnione.did.base.util.BaseMultibaseUtil;
 import org.omnione.did.tas.v1.api.RepositoryFeign;
+import org.omnione.did.tas.v1.api.RepositoryReadHedger;
 import org.omnione.did.tas.v1.api.dto.RegisterDidApiReqDto;
 import org.omnione.did.tas.v1.api.dto.DidDocApiResDto;
 import org.omnione.did.tas.v1.api.dto.VcMetaApiResDto;
@@ -33,6 +34,7 @@ import org.omnione.did.core.manager.DidManager;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.InvokedDidDoc;
 import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.enums.vc.VcStatus;
 import org.omnione.did.data.model.vc.VcMeta;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
@@ -48,6 +50,8 @@ import org.springframework.stereotype.Service;
 @Profile("repository")
 public class RepositoryServiceImpl implements StorageService {
     private final RepositoryFeign repositoryFeign;
+    private final RepositoryReadHedger repositoryReadHedger;
+    private final VcMetaCache vcMetaCache;
 
     /**
      * Registers a DID document.
@@ -100,7 +104,7 @@ public class RepositoryServiceImpl implements StorageService {
         try {
             String did = DidUtil.extractDid(didKeyUrl);
 
-            DidDocApiResDto didDocApiResDto = repositoryFeign.getDid(did);
+            DidDocApiResDto didDocApiResDto = repositoryReadHedger.read("getDid", () -> repositoryFeign.getDid(did));
 
             byte[] decodedDidDoc = BaseMultibaseUtil.decode(didDocApiResDto.getDidDoc());
 
@@ -140,8 +144,10 @@ public class RepositoryServiceImpl implements StorageService {
     @Override
     public VcMeta findVcMeta(String vcId) {
         try {
-            VcMetaApiResDto vcMetaData = repositoryFeign.getVcMetaData(vcId);
-            return BaseCoreVcUtil.parseVcMeta(vcMetaData.getVcMeta());
+            return vcMetaCache.get(vcId, () -> {
+                VcMetaApiResDto vcMetaData = repositoryReadHedger.read("getVcMetaData", () -> repositoryFeign.getVcMetaData(vcId));
+                return BaseCoreVcUtil.parseVcMeta(vcMetaData.getVcMeta());
+            });
         } catch (OpenDidException e) {
             log.error("Failed to find VC meta data.", e);
             throw e;
@@ -153,4 +159,15 @@ public class RepositoryServiceImpl implements StorageService {
             throw new OpenDidException(ErrorCode.FIND_VC_META_FAILED);
         }
     }
+
+    /**
+     * Updates the status of a verifiable credential.
+     *
+     * @param vcId The ID of the verifiable credential to update
+     * @param vcStatus The new status of the verifiable credential
+     */
+    @Override
+    public void updateVcStatus(String vcId, VcStatus vcStatus) {
+        vcMetaCache.evict(vcId);
+    }
 }
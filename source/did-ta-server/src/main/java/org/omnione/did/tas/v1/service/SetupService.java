@@ -26,8 +26,8 @@ import org.omnione.did.base.db.repository.TasRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.base.property.TasProperty;
-import org.omnione.did.base.util.BaseBlockChainUtil;
 import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.tas.v1.api.BlockChainClient;
 import org.omnione.did.tas.v1.dto.common.EmptyResDto;
 import org.omnione.did.tas.v1.dto.setup.RemoveBlockChainIndexReqDto;
 import org.omnione.did.tas.v1.service.query.EntityQueryService;
@@ -57,6 +57,8 @@ public class SetupService {
     private final TasRepository tasRepository;
     private final EntityQueryService entityQueryService;
     private final EntityRepository entityRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final BlockChainClient blockChainClient;
 
     /**
      * Registers the TAS DID document.
@@ -102,6 +104,7 @@ public class SetupService {
                     .serverUrl(tasProperty.getUrl())
                     .status(TasStatus.CERTIFICATE_VC_REQUIRED)
                     .build());
+            referenceDataCache.invalidate(ReferenceDataCache.Region.TAS, ownerDidDoc.getId());
 
             log.debug("=== Finished registerTasDidDocument ===");
 
@@ -276,6 +279,7 @@ public class SetupService {
                     .certificateUrl(certificateUrl)
                     .status(EntityStatus.CERTIFICATE_VC_REQUIRED)
                     .build());
+            referenceDataCache.invalidate(ReferenceDataCache.Region.ENTITY, ownerDidDoc.getId());
 
             log.debug("=== Finished registerEntityDidDocument ===");
 
@@ -313,7 +317,7 @@ public class SetupService {
     public EmptyResDto removeBlockchainIndex(RemoveBlockChainIndexReqDto removeBlockChainIndexReqDto) {
         try {
             log.debug("=== Starting removeBlockchainIndex ===");
-            BaseBlockChainUtil.removeIndex(removeBlockChainIndexReqDto.getIndex());
+            blockChainClient.removeIndex(removeBlockChainIndexReqDto.getIndex());
             log.debug("=== Finished removeBlockchainIndex ===");
 
             return new EmptyResDto();
@@ -329,7 +333,7 @@ public class SetupService {
     public EmptyResDto removeBlockchainAll() {
         try {
             log.debug("=== Starting removeBlockchainAll ===");
-            BaseBlockChainUtil.removeIndexAll();
+            blockChainClient.removeIndexAll();
             log.debug("=== Finished removeBlockchainAll ===");
 
             return new EmptyResDto();
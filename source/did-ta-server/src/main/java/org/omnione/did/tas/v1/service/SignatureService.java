@@ -26,6 +26,7 @@ import org.omnione.did.base.util.BaseCryptoUtil;
 import org.omnione.did.base.util.BaseDigestUtil;
 import org.omnione.did.base.util.BaseMultibaseUtil;
 import org.omnione.did.base.util.BaseTasDidUtil;
+import org.omnione.did.base.util.ParsedDidDoc;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.common.util.JsonUtil;
@@ -74,18 +75,28 @@ public class SignatureService {
         BaseCoreDidUtil.verifyDidDocKeyProofs(ownerDidDoc);
     }
 
+    /**
+     * Verifies the key proofs in a parsed DID document without parsing it again.
+     *
+     * @param ownerDidDoc The parsed DID document to verify
+     */
+    public void verifyDidDocKeyProofs(ParsedDidDoc ownerDidDoc) {
+        BaseCoreDidUtil.verifyDidDocKeyProofs(ownerDidDoc.getDidManager());
+    }
+
     /**
      * Signs an invoked DID document.
+     * The proofs of the owner's DID document are removed, so its key proofs must be verified beforehand.
      *
-     * @param ownerDidDoc The owner's DID document
+     * @param ownerDidDoc The parsed owner's DID document
      * @return InvokedDidDoc The signed invoked DID document
      */
-    public InvokedDidDoc signInvokedDidDoc(DidDocument ownerDidDoc) {
+    public InvokedDidDoc signInvokedDidDoc(ParsedDidDoc ownerDidDoc) {
         // Find TAS DID Document.
-        DidDocument tasDidDocument = didDocService.getDidDocument(tasProperty.getDid());
+        ParsedDidDoc tasDidDocument = didDocService.getParsedDidDocument(tasProperty.getDid());
 
         // Generate the signature message.
-        DidDocument didDocument = removeProof(ownerDidDoc);
+        DidDocument didDocument = removeProof(ownerDidDoc.getDocument());
         InvokedDidDoc unsignedInvokedDidDoc = generateInvokedDidDoc(tasDidDocument, didDocument);
         String signatureMessage = generateSignatureMessage(unsignedInvokedDidDoc);
 
@@ -117,7 +128,7 @@ public class SignatureService {
      * @param didDocument The DID document to invoke
      * @return InvokedDidDoc The unsigned invoked DID document
      */
-    private InvokedDidDoc generateInvokedDidDoc(DidDocument tasDidDocument, DidDocument didDocument) {
+    private InvokedDidDoc generateInvokedDidDoc(ParsedDidDoc tasDidDocument, DidDocument didDocument) {
         return BaseTasDidUtil.generateInvokedDocumentSignatureMessage(tasDidDocument, didDocument, ProofType.SECP_256R1_SIGNATURE_2018, tasProperty.getCertificateVc());
     }
 
@@ -142,14 +153,14 @@ public class SignatureService {
     /**
      * Signs a DID document.
      *
-     * @param tasDidDocument The TAS DID document
+     * @param tasDidDocument The parsed TAS DID document
      * @param signatureMessage The message to sign
      * @param proofPurpose The purpose of the proof
      * @return String The generated signature
      */
-    private String signDidDoc(DidDocument tasDidDocument, String signatureMessage, ProofPurpose proofPurpose) {
+    private String signDidDoc(ParsedDidDoc tasDidDocument, String signatureMessage, ProofPurpose proofPurpose) {
         // Get the key ID
-        VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(tasDidDocument, proofPurpose.toKeyId());
+        VerificationMethod verificationMethod = tasDidDocument.getVerificationMethod(proofPurpose.toKeyId());
         String keyId = verificationMethod.getId();
 
         //  Sign the message.
@@ -179,17 +190,18 @@ public class SignatureService {
         try {
             // Generate the signature message.
             DidDocument didDocument = removeProof(tasOwnerDidDoc);
-            InvokedDidDoc unsignedInvokedDidDoc = generateInvokedDidDoc(tasOwnerDidDoc, didDocument);
+            ParsedDidDoc parsedTasOwnerDidDoc = ParsedDidDoc.of(didDocument);
+            InvokedDidDoc unsignedInvokedDidDoc = generateInvokedDidDoc(parsedTasOwnerDidDoc, didDocument);
             String signatureMessage = generateSignatureMessage(unsignedInvokedDidDoc);
 
             // Sing data.
-            String proofValue = signDidDoc(tasOwnerDidDoc, signatureMessage, ProofPurpose.CAPABILITY_INVOCATION);
+            String proofValue = signDidDoc(parsedTasOwnerDidDoc, signatureMessage, ProofPurpose.CAPABILITY_INVOCATION);
 
             // generate signed invoked did document.
             InvokedDidDoc signedInvokedDidDoc = generateSignedInvokedDidDoc(unsignedInvokedDidDoc, proofValue);
 
             // Get the Assertion public key.
-            String encodedInvokePublicKey = BaseCoreDidUtil.getPublicKey(tasOwnerDidDoc, "invoke");
+            String encodedInvokePublicKey = parsedTasOwnerDidDoc.getPublicKey("invoke");
             verifySignature(encodedInvokePublicKey, signedInvokedDidDoc.getProof().getProofValue(), BaseDigestUtil.generateHash(signatureMessage), ProofType.fromDisplayName(signedInvokedDidDoc.getProof().getType()));
 
             return signedInvokedDidDoc;
@@ -210,7 +222,7 @@ public class SignatureService {
     public InvokedDidDoc signEntityInvokedDidDoc(DidDocument entityOwnerDidDoc) {
         try {
             // Retrievie TAS DID Document.
-            DidDocument tasDidDoc = storageService.findDidDoc(tasProperty.getDid());
+            ParsedDidDoc tasDidDoc = ParsedDidDoc.of(storageService.findDidDoc(tasProperty.getDid()));
 
             // Generate the signature message.
             DidDocument didDocument = removeProof(entityOwnerDidDoc);
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.omnione.did.base.db.constant.SubTransactionType;
+import org.omnione.did.base.db.domain.StepResponse;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.db.repository.StepResponseRepository;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.base.util.BaseDigestUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for storing and replaying the responses of completed protocol steps.
+ * A response is stored per (txId, step) together with the digest of the request that produced it,
+ * and is returned again only for a retry with the same request digest before the transaction expires.
+ * A retry with a different request for a completed step is rejected.
+ *
+ * Storing and replaying are otherwise best effort: any failure is logged and the step runs normally.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!sample")
+public class StepReplayService {
+    private final TasProperty tasProperty;
+    private final StepResponseRepository stepResponseRepository;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong lastPurgedAt = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Checks whether step replay is enabled.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return tasProperty.getStepReplay().isEnable();
+    }
+
+    /**
+     * Generates the digest (SHA-256, hex encoded) of the serialized request.
+     *
+     * @param request The request DTO
+     * @return The hex encoded digest, or null if the request cannot be serialized
+     */
+    public String digest(Object request) {
+        try {
+            return HexFormat.of().formatHex(BaseDigestUtil.generateHash(objectMapper.writeValueAsBytes(request)));
+        } catch (Exception e) {
+            log.warn("Failed to generate request digest: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the stored response of the step for an identical retry.
+     *
+     * @param txId The transaction ID
+     * @param step The protocol step
+     * @param requestDigest The digest of the retried request
+     * @param responseType The response type of the step
+     * @return The stored response, or null if there is none or it has expired
+     * @throws OpenDidException if the step was completed with a different request
+     */
+    public <T> T findResponse(String txId, SubTransactionType step, String requestDigest, Class<T> responseType) {
+        try {
+            Optional<StepResponse> stored = stepResponseRepository.findByTxIdAndStep(txId, step);
+            if (stored.isEmpty()) {
+                return null;
+            }
+
+            StepResponse stepResponse = stored.get();
+            if (Instant.now().isAfter(stepResponse.getExpiredAt())) {
+                return null;
+            }
+            if (!stepResponse.getRequestDigest().equals(requestDigest)) {
+                log.error("\t--> Stored response of {} for txId {} belongs to a different request", step, txId);
+                throw new OpenDidException(ErrorCode.STEP_REQUEST_MISMATCH);
+            }
+
+            return objectMapper.readValue(stepResponse.getResponseBody(), responseType);
+        } catch (OpenDidException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Failed to read stored response of {} for txId {}: {}", step, txId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the response of a completed step until the transaction expires.
+     *
+     * @param txId The transaction ID
+     * @param step The protocol step
+     * @param requestDigest The digest of the request
+     * @param response The response of the step
+     */
+    public void saveResponse(String txId, SubTransactionType step, String requestDigest, Object response) {
+        if (response == null) {
+            return;
+        }
+        try {
+            Transaction transaction = transactionService.findTransactionByTxId(txId);
+            stepResponseRepository.save(StepResponse.builder()
+                    .txId(txId)
+                    .step(step)
+                    .requestDigest(requestDigest)
+                    .responseBody(objectMapper.writeValueAsString(response))
+                    .expiredAt(transaction.getExpiredAt())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("\t--> Response of {} for txId {} is already stored", step, txId);
+        } catch (Exception e) {
+            log.warn("Failed to store response of {} for txId {}: {}", step, txId, e.getMessage());
+        }
+        purgeExpiredIfDue();
+    }
+
+    /**
+     * Deletes expired responses, at most once per tas.step-replay.purge-interval-seconds across all requests.
+     */
+    private void purgeExpiredIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPurgedAt.get();
+        if (now - last < tasProperty.getStepReplay().getPurgeIntervalSeconds() * 1000L
+                || !lastPurgedAt.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            int deleted = stepResponseRepository.deleteExpired(Instant.now());
+            log.debug("\t--> Purged {} expired step responses", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge expired step responses: {}", e.getMessage());
+        }
+    }
+}
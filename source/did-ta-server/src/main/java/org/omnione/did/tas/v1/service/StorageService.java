@@ -19,6 +19,7 @@ package org.omnione.did.tas.v1.service;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.InvokedDidDoc;
 import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.enums.vc.VcStatus;
 import org.omnione.did.data.model.vc.VcMeta;
 
 /**
@@ -30,4 +31,5 @@ public interface StorageService {
     DidDocument findDidDoc(String didKeyUrl);
     void registerVcMeta(VcMeta vcMeta);
     VcMeta findVcMeta(String vcId);
+    void updateVcStatus(String vcId, VcStatus vcStatus);
 }
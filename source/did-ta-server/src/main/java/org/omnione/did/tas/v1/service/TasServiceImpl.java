@@ -16,6 +16,7 @@
 
 package org.omnione.did.tas.v1.service;
 
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
 import org.omnione.did.base.db.constant.SubTransactionStatus;
 import org.omnione.did.base.db.constant.SubTransactionType;
 import org.omnione.did.base.db.constant.TasStatus;
@@ -37,14 +38,15 @@ import org.omnione.did.tas.v1.dto.tas.RequestEnrollTasResDto;
 import org.omnione.did.tas.v1.service.query.TasQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.omnione.did.common.util.IdGenerator;
 import org.omnione.did.core.data.rest.IssueVcParam;
 import org.omnione.did.core.data.rest.SignatureVcParams;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.vc.VcMeta;
 import org.omnione.did.data.model.vc.VerifiableCredential;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -60,10 +62,12 @@ public class TasServiceImpl implements TasService {
     private final TasQueryService tasQueryService;
     private final TransactionService transactionService;
     private final StorageService storageService;
+    private final LedgerOutboxService ledgerOutboxService;
     private final TasProperty tasProperty;
     private final CertificateVcRepository certificateVcRepository;
     private final IssueVcService issueVcService;
     private final FileWalletService fileWalletService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Handles the request to enroll a TAS (Trust Anchor Service).
@@ -75,6 +79,7 @@ public class TasServiceImpl implements TasService {
      * @throws OpenDidException if there's an error during the enrollment process
      */
     @Override
+    @Transactional
     public RequestEnrollTasResDto requestEnrollTas(RequestEnrollTasReqDto requestEnrollTasReqDto) {
         try {
             log.debug("=== Starting requestEnrollTas ===");
@@ -98,11 +103,6 @@ public class TasServiceImpl implements TasService {
             log.debug("\t--> Signing TAS certificate VC.");
             signTasCertificateVc(tasCertificateVc);
 
-            // Register TAS certificate VC meta.
-            log.debug("\t--> Registering TAS certificate VC meta.");
-            Tas tas = tasQueryService.findTas();
-            registerTasCertificateVcMeta(tasCertificateVc, tas);
-
             // Publish TAS certificate VC.
             log.debug("\t--> Publishing TAS certificate VC.");
             String tasCertificateVcUrl = publishTasCertificateVc(tasCertificateVc);
@@ -110,7 +110,7 @@ public class TasServiceImpl implements TasService {
 
             // Generate transaction code.
             log.debug("\t--> Generating transaction code.");
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Update the status of TAS.
             log.debug("\t--> Updating TAS status. (status: COMPLETED)");
@@ -125,7 +125,7 @@ public class TasServiceImpl implements TasService {
             Transaction transaction = transactionService.insertTransaction(Transaction.builder()
                     .txId(txId)
                     .type(TransactionType.TAS_REGISTRATION)
-                    .status(TransactionStatus.COMPLETED)
+                    .status(TransactionStatus.PENDING)
                     .expiredAt(transactionService.retrieveTransactionExpiredTime())
                     .build()
             );
@@ -140,6 +140,11 @@ public class TasServiceImpl implements TasService {
                     .build()
             );
 
+            // Record TAS certificate VC meta for the ledger; the transaction completes once it is committed.
+            log.debug("\t--> Recording TAS certificate VC meta for the ledger.");
+            Tas tas = tasQueryService.findTas();
+            registerTasCertificateVcMeta(transaction.getId(), tasCertificateVc, tas);
+
             return RequestEnrollTasResDto.builder()
                     .certVcRef(tasCertificateVcUrl)
                     .txId(txId)
@@ -153,6 +158,36 @@ public class TasServiceImpl implements TasService {
         }
     }
 
+    /**
+     * Reverts the TAS enrollment when the ledger write of its certificate VC meta has failed.
+     * requestEnrollTas completes the TAS before the VC meta is committed; without the meta on the ledger
+     * the certificate cannot be verified, so the TAS returns to CERTIFICATE_VC_REQUIRED and can enroll again.
+     * Runs in the transaction that marks the outbox entry FAILED.
+     *
+     * @param event The failed ledger write
+     */
+    @EventListener
+    public void onLedgerWriteFailed(LedgerWriteFailedEvent event) {
+        if (event.operation() != LedgerOutboxOperation.REGISTER_VC_META) {
+            return;
+        }
+        Transaction transaction = transactionService.findTransactionById(event.transactionId());
+        if (transaction.getType() != TransactionType.TAS_REGISTRATION) {
+            return;
+        }
+
+        Tas tas = findTasForUpdate();
+        if (tas.getStatus() != TasStatus.COMPLETED) {
+            return;
+        }
+        log.error("TAS certificate VC meta {} was not written to the ledger; reverting the TAS enrollment", event.targetId());
+        tas.setStatus(TasStatus.CERTIFICATE_VC_REQUIRED);
+        tas.setCertificateUrl(null);
+
+        tasRepository.save(tas);
+        referenceDataCache.invalidate(ReferenceDataCache.Region.TAS, tas.getDid());
+    }
+
     /**
      * Retrieves the TAS password.
      *
@@ -238,16 +273,17 @@ public class TasServiceImpl implements TasService {
     }
 
     /**
-     * Registers the TAS certificate VC metadata.
+     * Records the TAS certificate VC metadata for the ledger.
      *
+     * @param transactionId The ID of the TAS registration transaction
      * @param verifiableCredential The Verifiable Credential
      * @param tas The TAS object
      */
-    private void registerTasCertificateVcMeta(VerifiableCredential verifiableCredential, Tas tas) {
+    private void registerTasCertificateVcMeta(Long transactionId, VerifiableCredential verifiableCredential, Tas tas) {
         VcMeta vcMeta = BaseCoreVcUtil.generateVcMeta(verifiableCredential, tasProperty.getCertificateVc());
         log.debug("tas.getCertificateUrl(): {}", tasProperty.getCertificateVc());
         log.debug("vcMeta: {}", vcMeta.toJson());
-        storageService.registerVcMeta(vcMeta);
+        ledgerOutboxService.registerVcMeta(transactionId, vcMeta, true);
     }
 
     /**
@@ -260,6 +296,7 @@ public class TasServiceImpl implements TasService {
         certificateVcRepository.save(CertificateVc.builder()
                 .vc(tasCertificateVc.toJson())
                 .build());
+        referenceDataCache.invalidate(ReferenceDataCache.Region.CERTIFICATE_VC, null);
 
         return tasProperty.getCertificateVc();
     }
@@ -270,10 +307,11 @@ public class TasServiceImpl implements TasService {
      * @param certificateVcUrl The new certificate VC URL
      */
     private void updateTasCertificateVcUrl(String certificateVcUrl) {
-        Tas tas = tasQueryService.findTas();
+        Tas tas = findTasForUpdate();
         tas.setCertificateUrl(certificateVcUrl);
 
         tasRepository.save(tas);
+        referenceDataCache.invalidate(ReferenceDataCache.Region.TAS, tas.getDid());
     }
 
     /**
@@ -282,9 +320,22 @@ public class TasServiceImpl implements TasService {
      * @param tasStatus The new TAS status
      */
     private void updateTasStatus(TasStatus tasStatus) {
-        Tas tas = tasQueryService.findTas();
+        Tas tas = findTasForUpdate();
         tas.setStatus(tasStatus);
 
         tasRepository.save(tas);
+        referenceDataCache.invalidate(ReferenceDataCache.Region.TAS, tas.getDid());
+    }
+
+    /**
+     * Loads the TAS from the database rather than the reference data cache,
+     * so that the shared cached instance is never modified.
+     *
+     * @return The TAS
+     * @throws OpenDidException if the TAS is not found
+     */
+    private Tas findTasForUpdate() {
+        return tasRepository.findByDid(tasProperty.getDid())
+                .orElseThrow(() -> new OpenDidException(ErrorCode.TAS_INFO_NOT_FOUND));
     }
 }
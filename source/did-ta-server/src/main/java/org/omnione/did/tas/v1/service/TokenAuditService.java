@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.repository.TokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for writing issued server tokens to the token table as an audit record.
+ * Used when only MAC server tokens are accepted, so the record is not needed for validation
+ * and is written off the request path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!sample")
+public class TokenAuditService {
+    private final TokenRepository tokenRepository;
+
+    /**
+     * Saves the issued server token asynchronously.
+     *
+     * @param token The issued token
+     */
+    @Async
+    public void recordToken(Token token) {
+        try {
+            tokenRepository.save(token);
+        } catch (Exception e) {
+            log.error("Failed to record server token for transactionId {}: {}", token.getTransactionId(), e.getMessage(), e);
+        }
+    }
+}
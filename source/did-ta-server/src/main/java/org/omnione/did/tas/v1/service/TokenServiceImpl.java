@@ -44,6 +44,7 @@ import org.omnione.did.base.db.domain.Transaction;
 import org.omnione.did.base.db.repository.TokenRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.idempotency.IdempotentStep;
 import org.omnione.did.base.property.TasProperty;
 import org.omnione.did.base.util.BaseCoreDidUtil;
 import org.omnione.did.base.util.BaseCryptoUtil;
@@ -51,6 +52,7 @@ import org.omnione.did.base.util.BaseDigestUtil;
 import org.omnione.did.base.util.BaseMultibaseUtil;
 import org.omnione.did.tas.v1.dto.user.RequestCreateTokenReqDto;
 import org.omnione.did.tas.v1.dto.user.RequestCreateTokenResDto;
+import org.omnione.did.tas.v1.helper.ServerTokenMacHelper;
 import org.omnione.did.tas.v1.service.query.EcdhQueryService;
 import org.omnione.did.tas.v1.service.query.EntityQueryService;
 import org.omnione.did.tas.v1.service.query.TasQueryService;
@@ -88,6 +90,9 @@ public class TokenServiceImpl implements TokenService {
     private final FileWalletService fileWalletService;
     private final DidDocService didDocService;
     private final CertificateVcValidator certificateVcValidator;
+    private final TransactionCache transactionCache;
+    private final ServerTokenMacHelper serverTokenMacHelper;
+    private final TokenAuditService tokenAuditService;
 
     /**
      * Handles the request to create a token.
@@ -96,6 +101,7 @@ public class TokenServiceImpl implements TokenService {
      * @return The response DTO containing the transaction ID, initialization vector, and encrypted server token data.
      */
     @Override
+    @IdempotentStep(SubTransactionType.REQUEST_CREATE_TOKEN)
     public RequestCreateTokenResDto requestCreateToken(RequestCreateTokenReqDto requestCreateTokenReqDto) {
         try {
             log.info("=== Starting requestCreateToken ===");
@@ -116,9 +122,14 @@ public class TokenServiceImpl implements TokenService {
             log.debug("\t--> Retrieving token expiration date and time");
             String tokenValidUntil = DateTimeUtil.addHoursToCurrentTimeString(tasProperty.getTokenExpirationTimeHours());
 
+            // Generate Server token nonce.
+            // With stateless server tokens, the nonce is the MAC server token bound to this transaction.
+            log.debug("\t--> Generating Server token nonce");
+            String encodedNonce = generateServerTokenNonce(transaction, requestCreateTokenReqDto.getSeed(), tokenValidUntil);
+
             // Generate Server token data.
             log.debug("\t--> Generating Server token data");
-            ServerTokenData serverTokenData = generateServerTokenData(requestCreateTokenReqDto.getSeed(), tokenValidUntil);
+            ServerTokenData serverTokenData = generateServerTokenData(requestCreateTokenReqDto.getSeed(), tokenValidUntil, encodedNonce);
 
             // Generate Server token.
             log.debug("\t--> Generating Server token");
@@ -140,15 +151,22 @@ public class TokenServiceImpl implements TokenService {
             String encodedEncryptedStd = BaseMultibaseUtil.encode(encryptedServerTokenDataBytes);
 
             // Insert Server token data.
+            // While legacy tokens are accepted the row is needed for validation and is written synchronously;
+            // otherwise it is only an audit record.
             log.debug("\t--> Inserting Server token data");
-            tokenRepository.save(Token.builder()
+            Token token = Token.builder()
                     .purpose(requestCreateTokenReqDto.getSeed().getPurpose().toString())
                     .token(encodedServerToken)
                     .appId(requestCreateTokenReqDto.getSeed().getCaAppInfo().getAppId())
                     .walletId(requestCreateTokenReqDto.getSeed().getWalletInfo().getWallet().getId())
                     .expiredAt(DateTimeUtil.parseUtcTimeStringToInstant(tokenValidUntil))
                     .transactionId(transaction.getId())
-                    .build());
+                    .build();
+            if (serverTokenMacHelper.isLegacyAccepted()) {
+                transactionCache.putToken(tokenRepository.save(token));
+            } else {
+                tokenAuditService.recordToken(token);
+            }
 
             // Insert sub-transaction information.
             log.debug("\t--> Inserting sub-transaction information");
@@ -263,14 +281,10 @@ public class TokenServiceImpl implements TokenService {
         WalletStatus walletStatus = (transactionType == TransactionType.USER_REGISTRATION) ? WalletStatus.CREATED : WalletStatus.ASSIGNED;
 
         // Checks if the Wallet is created but not assigned.
-        long walletCount = walletQueryService.countByWalletIdAndDidAndStatus(
+        // A single fetch rather than a count, so that later lookups of the request are served from the request memo.
+        walletQueryService.findByWalletIdAndDidAndStatus(
                 signedWalletInfo.getWallet().getId(), signedWalletInfo.getWallet().getDid(), walletStatus);
 
-        if (walletCount == 0) {
-            log.error("\t--> Wallet info not found for wallet ID: {} and DID: {}", signedWalletInfo.getWallet().getId(), signedWalletInfo.getWallet().getDid());
-            throw new OpenDidException(ErrorCode.WALLET_INFO_NOT_FOUND);
-        }
-
         // Validate Wallet Provider's signature.
         validateWalletProof(signedWalletInfo);
     }
@@ -487,17 +501,37 @@ public class TokenServiceImpl implements TokenService {
         certificateVcValidator.validateCertificateVc(certVcRef, did);
     }
 
+    /**
+     * Generates the Server token nonce.
+     * With stateless server tokens enabled, the nonce is a MAC server token that the wallet can present
+     * instead of the legacy token; otherwise it is a random 16-byte nonce.
+     *
+     * @param transaction The transaction the token is issued for.
+     * @param serverTokenSeed The Server token seed.
+     * @param tokenValidUntil The token expiration date and time.
+     * @return The multibase encoded nonce.
+     */
+    private String generateServerTokenNonce(Transaction transaction, ServerTokenSeed serverTokenSeed, String tokenValidUntil) {
+        if (!serverTokenMacHelper.isStateless()) {
+            return BaseMultibaseUtil.encode(NonceGenerator.generate16ByteNonce());
+        }
+
+        return serverTokenMacHelper.issue(transaction,
+                serverTokenSeed.getPurpose(),
+                serverTokenSeed.getWalletInfo().getWallet().getId(),
+                serverTokenSeed.getCaAppInfo().getAppId(),
+                DateTimeUtil.parseUtcTimeStringToInstant(tokenValidUntil));
+    }
+
     /**
      * Generates the Server token data.
      *
      * @param serverTokenSeed The Server token seed to generate the Server token data.
      * @param tokenValidUntil The token expiration date and time.
+     * @param encodedNonce The Server token nonce.
      * @return The generated Server token data.
      */
-    private ServerTokenData generateServerTokenData(ServerTokenSeed serverTokenSeed, String tokenValidUntil) {
-        // Generate nonce.
-        String encodedNonce = BaseMultibaseUtil.encode(NonceGenerator.generate16ByteNonce());
-
+    private ServerTokenData generateServerTokenData(ServerTokenSeed serverTokenSeed, String tokenValidUntil, String encodedNonce) {
         // Retrieve TAS information.
         Tas tas = tasQueryService.findTas();
 
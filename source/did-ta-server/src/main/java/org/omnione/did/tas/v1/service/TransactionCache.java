@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.domain.Ecdh;
+import org.omnione.did.base.db.domain.SubTransaction;
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.property.TasProperty;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory state cache for in-flight (PENDING) transactions.
+ * Each entry is keyed by txId and holds the Transaction together with its last SubTransaction,
+ * Token and Ecdh, so that consecutive protocol steps served by the same node do not
+ * re-read these rows from the database.
+ *
+ * The cache is written through by the services that persist these rows.
+ * When a database transaction is active, the cache update is deferred until it commits,
+ * and the entry is evicted if it rolls back. Entries expire at the transaction's expiredAt,
+ * are evicted once the transaction leaves the PENDING status, and the least recently used
+ * entries are dropped beyond tas.transaction-cache.max-size. Callers fall back to the database on a miss.
+ *
+ * The cache is local to each node and is not invalidated when another node updates the transaction,
+ * so it is disabled by default and must only be enabled when all steps of a transaction are routed
+ * to the same node (sticky routing).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionCache {
+    private final TasProperty tasProperty;
+
+    // Access-ordered, so the eldest entry is the least recently used one. Guarded by this.
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            if (size() <= tasProperty.getTransactionCache().getMaxSize()) {
+                return false;
+            }
+            txIdIndex.remove(eldest.getValue().getTransaction().getId(), eldest.getKey());
+            return true;
+        }
+    };
+    private final Map<Long, String> txIdIndex = new HashMap<>();
+
+    /**
+     * A cache entry for storing the state of a single in-flight transaction.
+     * Entries are immutable; every update replaces the entry atomically.
+     */
+    public static class CacheEntry {
+        private final Transaction transaction;
+        private final SubTransaction lastSubTransaction;
+        private final Token token;
+        private final Ecdh ecdh;
+
+        public CacheEntry(Transaction transaction, SubTransaction lastSubTransaction, Token token, Ecdh ecdh) {
+            this.transaction = transaction;
+            this.lastSubTransaction = lastSubTransaction;
+            this.token = token;
+            this.ecdh = ecdh;
+        }
+
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        public SubTransaction getLastSubTransaction() {
+            return lastSubTransaction;
+        }
+
+        public Token getToken() {
+            return token;
+        }
+
+        public Ecdh getEcdh() {
+            return ecdh;
+        }
+
+        public boolean isExpired() {
+            Instant expiredAt = transaction.getExpiredAt();
+            return expiredAt != null && Instant.now().isAfter(expiredAt);
+        }
+    }
+
+    /**
+     * Retrieve the transaction for the given txId.
+     *
+     * @param txId The transaction ID
+     * @return The cached Transaction, or null if not cached
+     */
+    public Transaction getTransaction(String txId) {
+        CacheEntry entry = getEntry(txId);
+        return (entry != null) ? entry.getTransaction() : null;
+    }
+
+    /**
+     * Retrieve the transaction for the given transaction primary key.
+     *
+     * @param transactionId The transaction primary key
+     * @return The cached Transaction, or null if not cached
+     */
+    public Transaction getTransaction(Long transactionId) {
+        CacheEntry entry = getEntry(transactionId);
+        return (entry != null) ? entry.getTransaction() : null;
+    }
+
+    /**
+     * Retrieve the last sub-transaction for the given transaction primary key.
+     *
+     * @param transactionId The transaction primary key
+     * @return The cached SubTransaction, or null if not cached
+     */
+    public SubTransaction getLastSubTransaction(Long transactionId) {
+        CacheEntry entry = getEntry(transactionId);
+        return (entry != null) ? entry.getLastSubTransaction() : null;
+    }
+
+    /**
+     * Retrieve the server token for the given transaction primary key.
+     *
+     * @param transactionId The transaction primary key
+     * @return The cached Token, or null if not cached
+     */
+    public Token getToken(Long transactionId) {
+        CacheEntry entry = getEntry(transactionId);
+        return (entry != null) ? entry.getToken() : null;
+    }
+
+    /**
+     * Retrieve the ECDH information for the given transaction primary key.
+     *
+     * @param transactionId The transaction primary key
+     * @return The cached Ecdh, or null if not cached
+     */
+    public Ecdh getEcdh(Long transactionId) {
+        CacheEntry entry = getEntry(transactionId);
+        return (entry != null) ? entry.getEcdh() : null;
+    }
+
+    /**
+     * Store the given transaction. Transactions that are no longer PENDING are evicted instead.
+     *
+     * @param transaction The saved Transaction
+     */
+    public void putTransaction(Transaction transaction) {
+        if (!isEnabled() || transaction == null || transaction.getId() == null) {
+            return;
+        }
+        String txId = transaction.getTxId();
+        afterCommit(() -> {
+            if (transaction.getStatus() != TransactionStatus.PENDING) {
+                evict(txId);
+                return;
+            }
+            synchronized (this) {
+                txIdIndex.put(transaction.getId(), txId);
+                cache.compute(txId, (key, entry) -> (entry == null)
+                        ? new CacheEntry(transaction, null, null, null)
+                        : new CacheEntry(transaction, entry.getLastSubTransaction(), entry.getToken(), entry.getEcdh()));
+            }
+        }, () -> evict(txId));
+    }
+
+    /**
+     * Store the given sub-transaction as the last step of its transaction.
+     * The sub-transaction is ignored if its transaction is not cached or a later step is already cached.
+     *
+     * @param subTransaction The saved SubTransaction
+     */
+    public void putLastSubTransaction(SubTransaction subTransaction) {
+        if (subTransaction == null) {
+            return;
+        }
+        update(subTransaction.getTransactionId(), entry -> {
+            SubTransaction cached = entry.getLastSubTransaction();
+            if (cached != null && cached.getStep() > subTransaction.getStep()) {
+                return entry;
+            }
+            return new CacheEntry(entry.getTransaction(), subTransaction, entry.getToken(), entry.getEcdh());
+        });
+    }
+
+    /**
+     * Store the given server token for its transaction.
+     *
+     * @param token The saved Token
+     */
+    public void putToken(Token token) {
+        if (token == null) {
+            return;
+        }
+        update(token.getTransactionId(), entry ->
+                new CacheEntry(entry.getTransaction(), entry.getLastSubTransaction(), token, entry.getEcdh()));
+    }
+
+    /**
+     * Store the given ECDH information for its transaction.
+     *
+     * @param ecdh The saved Ecdh
+     */
+    public void putEcdh(Ecdh ecdh) {
+        if (ecdh == null) {
+            return;
+        }
+        update(ecdh.getTransactionId(), entry ->
+                new CacheEntry(entry.getTransaction(), entry.getLastSubTransaction(), entry.getToken(), ecdh));
+    }
+
+    /**
+     * Remove the entry for the given txId.
+     *
+     * @param txId The transaction ID
+     */
+    public synchronized void evict(String txId) {
+        if (txId == null) {
+            return;
+        }
+        CacheEntry removed = cache.remove(txId);
+        if (removed != null) {
+            txIdIndex.remove(removed.getTransaction().getId(), txId);
+        }
+    }
+
+    /**
+     * Returns the number of cached transactions.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private boolean isEnabled() {
+        return tasProperty.getTransactionCache().isEnable();
+    }
+
+    private synchronized CacheEntry getEntry(String txId) {
+        if (!isEnabled() || txId == null) {
+            return null;
+        }
+        CacheEntry entry = cache.get(txId);
+        if (entry != null && entry.isExpired()) {
+            evict(txId);
+            return null;
+        }
+        return entry;
+    }
+
+    private CacheEntry getEntry(Long transactionId) {
+        if (!isEnabled() || transactionId == null) {
+            return null;
+        }
+        synchronized (this) {
+            return getEntry(txIdIndex.get(transactionId));
+        }
+    }
+
+    private void update(Long transactionId, UnaryOperator<CacheEntry> updater) {
+        if (!isEnabled() || transactionId == null) {
+            return;
+        }
+        // The owning transaction may have been put earlier in the same database transaction,
+        // so the txId is resolved when the update is applied rather than when it is registered.
+        afterCommit(() -> {
+            synchronized (this) {
+                String txId = txIdIndex.get(transactionId);
+                if (txId != null) {
+                    cache.computeIfPresent(txId, (key, entry) -> updater.apply(entry));
+                }
+            }
+        }, () -> {
+            synchronized (this) {
+                evict(txIdIndex.get(transactionId));
+            }
+        });
+    }
+
+    /**
+     * Applies the cache update once the surrounding database transaction commits,
+     * or immediately when no transaction is active. On rollback the entry is evicted,
+     * so the next step reads the committed state from the database.
+     */
+    private void afterCommit(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
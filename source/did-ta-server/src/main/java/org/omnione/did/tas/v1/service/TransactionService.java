@@ -28,6 +28,7 @@ import java.util.List;
  */
 public interface TransactionService {
     public Transaction findTransactionByTxId (String txId);
+    public Transaction findTransactionById(Long id);
     public Transaction insertTransaction(Transaction transaction);
     public void updateTransaction(Transaction transaction);
     public void updateTransactionCertificateId(Long id, String certificateId);
@@ -42,4 +43,5 @@ public interface TransactionService {
     public SubTransaction findLastSubTransaction(Long transactionId);
 
     public Instant retrieveTransactionExpiredTime();
+    public String generateTxId();
 }
@@ -16,15 +16,23 @@
 
 package org.omnione.did.tas.v1.service;
 
+import org.omnione.did.base.datasource.DataSourceRoutingContext;
 import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.constant.TxIdType;
 import org.omnione.did.base.db.domain.SubTransaction;
 import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.db.projection.SubTransactionRow;
+import org.omnione.did.base.db.projection.TransactionRow;
+import org.omnione.did.base.db.repository.LeanReadRepository;
 import org.omnione.did.base.db.repository.SubTransactionRepository;
 import org.omnione.did.base.db.repository.TransactionRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.base.util.BaseIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.common.util.IdGenerator;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -41,9 +49,16 @@ import java.util.Optional;
 public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
     private final SubTransactionRepository subTransactionRepository;
+    private final LeanReadRepository leanReadRepository;
+    private final TransactionCache transactionCache;
+    private final TasProperty tasProperty;
 
     /**
      * Finds a transaction by its transaction ID.
+     * In-flight transactions are served from the transaction cache, falling back to the database on a miss.
+     * The current request is pinned to the primary datasource, as every later read of a protocol step
+     * must observe the writes of the previous steps.
+     * Cache misses are read through {@link LeanReadRepository} unless tas.lean-read.enable is false.
      *
      * @param txId The transaction ID to search for
      * @return The found Transaction object
@@ -51,13 +66,38 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public Transaction findTransactionByTxId(String txId) {
-        Optional<Transaction> optionalTransaction = transactionRepository.findByTxId(txId);
+        DataSourceRoutingContext.pinToPrimary();
+
+        Transaction cachedTransaction = transactionCache.getTransaction(txId);
+        if (cachedTransaction != null) {
+            return cachedTransaction;
+        }
+
+        Optional<Transaction> optionalTransaction = isLeanReadEnabled()
+                ? leanReadRepository.findTransactionByTxId(txId).map(TransactionRow::toEntity)
+                : transactionRepository.findByTxId(txId);
         if (optionalTransaction.isEmpty()) {
             log.error("\t--> Transaction not found for txId: {}", txId);
             throw new OpenDidException(ErrorCode.TRANSACTION_NOT_FOUND);
         }
 
-        return optionalTransaction.get();
+        Transaction transaction = optionalTransaction.get();
+        transactionCache.putTransaction(transaction);
+
+        return transaction;
+    }
+
+    /**
+     * Finds a transaction by its database ID.
+     *
+     * @param id The ID of the transaction
+     * @return The found Transaction object
+     * @throws OpenDidException if the transaction is not found
+     */
+    @Override
+    public Transaction findTransactionById(Long id) {
+        return transactionRepository.findById(id)
+                .orElseThrow(() -> new OpenDidException(ErrorCode.TRANSACTION_NOT_FOUND));
     }
 
     /**
@@ -68,7 +108,11 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public Transaction insertTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        DataSourceRoutingContext.pinToPrimary();
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionCache.putTransaction(savedTransaction);
+
+        return savedTransaction;
     }
 
     /**
@@ -98,7 +142,7 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction transaction = optionalTransaction.get();
         transaction.setCertificateId(certificateId);
 
-        transactionRepository.save(transaction);
+        transactionCache.putTransaction(transactionRepository.save(transaction));
     }
 
     /**
@@ -118,7 +162,7 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction transaction = optionalTransaction.get();
         transaction.setAuthNonce(authNonce);
 
-        transactionRepository.save(transaction);
+        transactionCache.putTransaction(transactionRepository.save(transaction));
     }
 
     /**
@@ -138,7 +182,7 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction transaction = optionalTransaction.get();
         transaction.setPii(pii);
 
-        transactionRepository.save(transaction);
+        transactionCache.putTransaction(transactionRepository.save(transaction));
     }
 
     /**
@@ -158,7 +202,7 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction transaction = optionalTransaction.get();
         transaction.setStatus(transactionStatus);
 
-        transactionRepository.save(transaction);
+        transactionCache.putTransaction(transactionRepository.save(transaction));
     }
 
     /**
@@ -193,7 +237,10 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public SubTransaction insertSubTransaction(SubTransaction subTransaction) {
-        return subTransactionRepository.save(subTransaction);
+        SubTransaction savedSubTransaction = subTransactionRepository.save(subTransaction);
+        transactionCache.putLastSubTransaction(savedSubTransaction);
+
+        return savedSubTransaction;
     }
 
     /**
@@ -215,11 +262,21 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public SubTransaction findLastSubTransaction(Long transactionId) {
-        Optional<SubTransaction> optionalSubTransaction = subTransactionRepository.findFirstByTransactionIdOrderByStepDesc(transactionId);
+        SubTransaction cachedSubTransaction = transactionCache.getLastSubTransaction(transactionId);
+        if (cachedSubTransaction != null) {
+            return cachedSubTransaction;
+        }
+
+        Optional<SubTransaction> optionalSubTransaction = isLeanReadEnabled()
+                ? leanReadRepository.findLastSubTransaction(transactionId).map(SubTransactionRow::toEntity)
+                : subTransactionRepository.findFirstByTransactionIdOrderByStepDesc(transactionId);
         if (optionalSubTransaction.isEmpty()) {
             throw new OpenDidException(ErrorCode.TRANSACTION_NOT_FOUND);
         }
-        return optionalSubTransaction.get();
+        SubTransaction subTransaction = optionalSubTransaction.get();
+        transactionCache.putLastSubTransaction(subTransaction);
+
+        return subTransaction;
     }
 
     /**
@@ -231,4 +288,24 @@ public class TransactionServiceImpl implements TransactionService {
     public Instant retrieveTransactionExpiredTime() {
         return Instant.now().plus(1, ChronoUnit.DAYS);
     }
-}
\ No newline at end of file
+
+    /**
+     * Generates a new transaction ID.
+     * The generation strategy is selected by tas.tx-id-type:
+     * RANDOM uses random UUIDs, TIME_ORDERED uses time-ordered UUIDs (version 7)
+     * so that inserts into the tx_id index stay localized.
+     *
+     * @return The generated transaction ID (36 characters)
+     */
+    @Override
+    public String generateTxId() {
+        if (tasProperty.getTxIdType() == TxIdType.TIME_ORDERED) {
+            return BaseIdGenerator.generateTimeOrderedId();
+        }
+        return IdGenerator.generateTxId();
+    }
+
+    private boolean isLeanReadEnabled() {
+        return tasProperty.getLeanRead().isEnable();
+    }
+}
@@ -48,19 +48,20 @@ import org.omnione.did.base.db.repository.UserRepository;
 import org.omnione.did.base.db.repository.WalletRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.idempotency.IdempotentStep;
+import org.omnione.did.base.lock.StripedLock;
 import org.omnione.did.base.property.EmailProperty;
-import org.omnione.did.base.util.BaseBlockChainUtil;
-import org.omnione.did.base.util.BaseCoreDidUtil;
 import org.omnione.did.base.util.BaseDigestUtil;
-import org.omnione.did.base.util.BaseMultibaseUtil;
 import org.omnione.did.base.util.BaseTasDidUtil;
 import org.omnione.did.base.util.BaseTasUtil;
+import org.omnione.did.base.util.ParsedDidDoc;
 import org.omnione.did.noti.v1.dto.email.EmailTemplate;
 import org.omnione.did.noti.v1.dto.email.RequestSendEmailReqDto;
 import org.omnione.did.noti.v1.dto.push.FcmNotificationDto;
 import org.omnione.did.noti.v1.dto.push.RequestSendPushReqDto;
 import org.omnione.did.noti.v1.service.NotiEmailService;
 import org.omnione.did.noti.v1.service.NotiPushService;
+import org.omnione.did.tas.v1.api.BlockChainClient;
 import org.omnione.did.tas.v1.api.KycFeign;
 import org.omnione.did.tas.v1.api.dto.RetrievePiiApiReqDto;
 import org.omnione.did.tas.v1.api.dto.RetrievePiiApiResDto;
@@ -94,6 +95,7 @@ import org.omnione.did.tas.v1.dto.user.UpdateDidDocRevokedReqDto;
 import org.omnione.did.tas.v1.dto.user.UpdateUserStatusReqDto;
 import org.omnione.did.tas.v1.dto.user.UpdateUserStatusResDto;
 import org.omnione.did.tas.v1.helper.EmailServiceHelper;
+import org.omnione.did.tas.v1.helper.PiiHashHelper;
 import org.omnione.did.tas.v1.helper.PushServiceHelper;
 import org.omnione.did.tas.v1.service.query.DidOfferQueryService;
 import org.omnione.did.tas.v1.service.query.UserQueryService;
@@ -108,14 +110,13 @@ import org.omnione.did.common.util.DidUtil;
 import org.omnione.did.common.util.DidValidator;
 import org.omnione.did.common.util.IdGenerator;
 import org.omnione.did.common.util.JsonUtil;
-import org.omnione.did.core.manager.DidManager;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.InvokedDidDoc;
 import org.omnione.did.data.model.enums.vc.RoleType;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -131,9 +132,12 @@ import java.util.Set;
 @Transactional
 @Profile("!sample")
 public class UserServiceImpl implements UserService {
+    private static final String USER_DID_LOCK_SCOPE = "user-did";
+
     private final TransactionService transactionService;
     private final WalletQueryService walletQueryService;
     private final StorageService storageService;
+    private final LedgerOutboxService ledgerOutboxService;
     private final UserQueryService userQueryService;
     private final TokenValidator tokenValidator;
     private final UserRepository userRepository;
@@ -150,6 +154,9 @@ public class UserServiceImpl implements UserService {
     private final NotiEmailService notiEmailService;
     private final EmailProperty emailProperty;
     private final DidOfferQueryService didOfferQueryService;
+    private final PiiHashHelper piiHashHelper;
+    private final StripedLock stripedLock;
+    private final BlockChainClient blockChainClient;
 
     /**
      * Proposes the registration of a new user, generating a transaction ID and initializing sub-transaction.
@@ -165,7 +172,7 @@ public class UserServiceImpl implements UserService {
 
             // Generate transaction code.
             log.debug("\t--> Generating transaction ID");
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Insert transaction information.
             log.debug("\t--> Inserting transaction information for txId: {}", txId);
@@ -224,7 +231,7 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(retrieveKycReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.CREATE_DID, ServerTokenPurpose.CREATE_DID_AND_ISSUE_VC);
+            tokenValidator.validateServerToken(retrieveKycReqDto.getServerToken(), transaction, ServerTokenPurpose.CREATE_DID, ServerTokenPurpose.CREATE_DID_AND_ISSUE_VC);
 
             // Retrieve PII information from KYC server
             log.debug("\t--> Retrieving PII information from KYC server");
@@ -303,6 +310,7 @@ public class UserServiceImpl implements UserService {
      * @throws OpenDidException if there's an error during user registration
      */
     @Override
+    @IdempotentStep(SubTransactionType.REQUEST_REGISTER_USER)
     public RequestRegisterUserResDto requestRegisterUser(RequestRegisterUserReqDto requestRegisterUserReqDto) {
         try {
             log.debug("=== Starting requestRegisterUser ===");
@@ -318,22 +326,30 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            Token token = tokenValidator.validateServerToken(requestRegisterUserReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.CREATE_DID, ServerTokenPurpose.CREATE_DID_AND_ISSUE_VC);
+            Token token = tokenValidator.validateServerToken(requestRegisterUserReqDto.getServerToken(), transaction, ServerTokenPurpose.CREATE_DID, ServerTokenPurpose.CREATE_DID_AND_ISSUE_VC);
 
             // Retrieve Wallet information.
             log.debug("\t--> Retrieving wallet information");
             Wallet wallet = walletQueryService.findByWalletIdAndDidAndStatus(
                     requestRegisterUserReqDto.getSignedDidDoc().getWallet().getId(), requestRegisterUserReqDto.getSignedDidDoc().getWallet().getDid(), WalletStatus.CREATED);
 
+            // Check that the wallet DID document is committed to the ledger.
+            log.debug("\t--> Checking wallet DID document ledger write");
+            ledgerOutboxService.requireNoPendingWrite(wallet.getDid());
+
             // Validate Signed did document.
             log.debug("\t--> Validating signed DID document");
             validateSignedDidDoc(requestRegisterUserReqDto.getSignedDidDoc());
 
             // Parse User did document.
             log.debug("\t--> Parsing user DID document");
-            DidDocument ownerDidDoc = parseOwnerDidDoc(requestRegisterUserReqDto.getSignedDidDoc().getOwnerDidDoc());
+            ParsedDidDoc ownerDidDoc = parseOwnerDidDoc(requestRegisterUserReqDto.getSignedDidDoc().getOwnerDidDoc());
             String userDid = ownerDidDoc.getId();
 
+            // Serialize registrations of the same DID on this node until the transaction completes.
+            log.debug("\t--> Locking user DID");
+            stripedLock.lock(USER_DID_LOCK_SCOPE, userDid);
+
             // Check if the user has registered.
             log.debug("\t--> Checking if the user has registered");
             validateUserNotRegistered(userDid);
@@ -346,15 +362,16 @@ public class UserServiceImpl implements UserService {
             log.debug("\t--> Signing DID document");
             InvokedDidDoc invokedDidDoc = signatureService.signInvokedDidDoc(ownerDidDoc);
 
-            // Upload User DID document.
-            log.debug("\t--> Uploading wallet DID document");
-            storageService.registerDidDoc(invokedDidDoc, RoleType.ETC);
+            // Record User DID document for the ledger.
+            log.debug("\t--> Recording user DID document for the ledger");
+            ledgerOutboxService.registerDidDoc(transaction.getId(), invokedDidDoc, ownerDidDoc.getDocument(), RoleType.ETC, false);
 
             // Insert User information.
             log.debug("\t--> Inserting user information");
-            User user = userRepository.save(User.builder()
+            User user = insertUser(User.builder()
                     .did(userDid)
                     .pii(transaction.getPii())
+                    .piiHash(piiHashHelper.hash(transaction.getPii()))
                     .status(UserStatus.ACTIVATED)
                     .build());
 
@@ -457,10 +474,10 @@ public class UserServiceImpl implements UserService {
         byte[] signatureMessage = generateSignatureMessage(signedDidDoc);
 
         // Find Wallet  DID Document.
-        DidDocument walletDidDocument = didDocService.getDidDocument(verificationMethod);
+        ParsedDidDoc walletDidDocument = didDocService.getParsedDidDocument(verificationMethod);
 
         // Get the Assertion public key.
-        String encodedAssertPublicKey = BaseCoreDidUtil.getPublicKey(walletDidDocument, "assert");
+        String encodedAssertPublicKey = walletDidDocument.getPublicKey("assert");
 
         // Verify the signature.
         signatureService.verifySignature(encodedAssertPublicKey, signedDidDoc.getProof().getProofValue(), signatureMessage, signedDidDoc.getProof().getType());
@@ -468,20 +485,15 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Parses the owner DID document from the encoded DID document.
+     * The result is used by all later steps of the request, so the document is decoded and parsed only once.
      *
      * @param encodedDidDoc The encoded DID document to parse
      * @return the parsed owner DID document
      * @throws OpenDidException if there's an error during parsing
      */
-    private DidDocument parseOwnerDidDoc(String encodedDidDoc) {
+    private ParsedDidDoc parseOwnerDidDoc(String encodedDidDoc) {
         try {
-            byte[] decodedDidDoc = BaseMultibaseUtil.decode(encodedDidDoc);
-            String OwnerDidDoc = new String(decodedDidDoc, StandardCharsets.UTF_8);
-
-            DidManager didManager = BaseCoreDidUtil.parseDidDoc(OwnerDidDoc);
-            DidDocument didDocument = didManager.getDocument();
-
-            return didDocument;
+            return ParsedDidDoc.decode(encodedDidDoc);
         } catch (OpenDidException e) {
             throw e;
         } catch (Exception e) {
@@ -503,12 +515,29 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Inserts the user. A concurrent registration of the same DID on another node
+     * is rejected by the unique constraint on user.did.
+     *
+     * @param user The user to insert
+     * @return The saved user
+     * @throws OpenDidException if the user DID already exists
+     */
+    private User insertUser(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            log.error("\t--> User DID already exists: {}", user.getDid());
+            throw new OpenDidException(ErrorCode.USER_DID_ALREADY_EXISTS);
+        }
+    }
+
     /**
      * verifies the DID document key proofs.
      *
-     * @param ownerDidDoc Owner DID document
+     * @param ownerDidDoc Parsed owner DID document
      */
-    private void verifyDidDocKeyProofs(DidDocument ownerDidDoc) {
+    private void verifyDidDocKeyProofs(ParsedDidDoc ownerDidDoc) {
         signatureService.verifyDidDocKeyProofs(ownerDidDoc);
     }
 
@@ -595,7 +624,11 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(confirmRegisterUserReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.CREATE_DID, ServerTokenPurpose.CREATE_DID_AND_ISSUE_VC);
+            tokenValidator.validateServerToken(confirmRegisterUserReqDto.getServerToken(), transaction, ServerTokenPurpose.CREATE_DID, ServerTokenPurpose.CREATE_DID_AND_ISSUE_VC);
+
+            // Check that the user DID document is committed to the ledger.
+            log.debug("\t--> Checking ledger write status");
+            ledgerOutboxService.requireCommitted(transaction.getId());
 
             // Update transaction status.
             log.debug("\t--> Updating transaction status to COMPLETED for transaction ID: {}", transaction.getId());
@@ -668,7 +701,7 @@ public class UserServiceImpl implements UserService {
 
             // Generate transaction code.
             log.debug("\t--> Generating transaction ID");
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Generate authNonce. (16-byte)
             log.debug("\t--> Generating auth nonce");
@@ -750,7 +783,7 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            Token token = tokenValidator.validateServerToken(requestUpdateDidDocReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.UPDATE_DID);
+            Token token = tokenValidator.validateServerToken(requestUpdateDidDocReqDto.getServerToken(), transaction, ServerTokenPurpose.UPDATE_DID);
 
             // Validate Signed did document.
             log.debug("\t--> Validating signed DID document");
@@ -758,16 +791,20 @@ public class UserServiceImpl implements UserService {
 
             // Parse User did document.
             log.debug("\t--> Parsing user DID document");
-            DidDocument updatedUserOwnerDidDoc = parseOwnerDidDoc(requestUpdateDidDocReqDto.getSignedDidDoc().getOwnerDidDoc());
+            ParsedDidDoc updatedUserOwnerDidDoc = parseOwnerDidDoc(requestUpdateDidDocReqDto.getSignedDidDoc().getOwnerDidDoc());
             String userDid = updatedUserOwnerDidDoc.getId();
 
+            // Check that no earlier write of the DID document is still being committed.
+            log.debug("\t--> Checking user DID document ledger write");
+            ledgerOutboxService.requireNoPendingWrite(userDid);
+
             // Retrieve current DID document.
             log.debug("\t--> Retrieving current DID document");
             DidDocument currentUserDidDoc = storageService.findDidDoc(userDid);
 
             // Validate DID document's contents.
             log.debug("\t--> Validating DID document's contents");
-            validateDidDocContents(currentUserDidDoc, updatedUserOwnerDidDoc);
+            validateDidDocContents(currentUserDidDoc, updatedUserOwnerDidDoc.getDocument());
 
             // Check if the user has registered.
             log.debug("\t--> Checking if the user has registered");
@@ -783,7 +820,7 @@ public class UserServiceImpl implements UserService {
 
             // Validate DID document id
             log.debug("\t--> Validating DID document ID");
-            validateUserDidDocId(updatedUserOwnerDidDoc, transaction, requestUpdateDidDocReqDto.getDidAuth());
+            validateUserDidDocId(updatedUserOwnerDidDoc.getDocument(), transaction, requestUpdateDidDocReqDto.getDidAuth());
 
             // Validate User Mapping Info.(userDid, walletId, appID)
             log.debug("\t--> Validating User Mapping Info(userDid, walletId, appID)");
@@ -793,9 +830,9 @@ public class UserServiceImpl implements UserService {
             log.debug("\t--> Signing DID document");
             InvokedDidDoc invokedDidDoc = signatureService.signInvokedDidDoc(updatedUserOwnerDidDoc);
 
-            // Upload User DID document.
-            log.debug("\t--> Uploading wallet DID document");
-            storageService.registerDidDoc(invokedDidDoc, RoleType.ETC);
+            // Record User DID document for the ledger.
+            log.debug("\t--> Recording user DID document for the ledger");
+            ledgerOutboxService.registerDidDoc(transaction.getId(), invokedDidDoc, updatedUserOwnerDidDoc.getDocument(), RoleType.ETC, false);
 
             // Insert sub-transaction information.
             log.debug("\t--> Inserting sub-transaction information");
@@ -1086,7 +1123,11 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(confirmUpdateDidDocReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.UPDATE_DID);
+            tokenValidator.validateServerToken(confirmUpdateDidDocReqDto.getServerToken(), transaction, ServerTokenPurpose.UPDATE_DID);
+
+            // Check that the updated DID document is committed to the ledger.
+            log.debug("\t--> Checking ledger write status");
+            ledgerOutboxService.requireCommitted(transaction.getId());
 
             // Update transaction status.
             log.debug("\t--> Updating transaction status to COMPLETED for transaction ID: {}", transaction.getId());
@@ -1153,7 +1194,7 @@ public class UserServiceImpl implements UserService {
 
             // Generate transaction code.
             log.debug("\t--> Generating transaction ID");
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Retrieve User information.
             log.debug("\t--> Retrieving user information for DID: {}", updateUserStatusReqDto.getDid());
@@ -1300,7 +1341,7 @@ public class UserServiceImpl implements UserService {
      */
     private void updateDidDocDeactivated(DidDocument userDidDoc) {
         String didWithVersion = BaseTasDidUtil.getDidWithVersion(userDidDoc);
-        BaseBlockChainUtil.updateDidDocStatus(didWithVersion, org.omnione.did.data.model.enums.did.DidDocStatus.DEACTIVATED);
+        blockChainClient.updateDidDocStatus(didWithVersion, org.omnione.did.data.model.enums.did.DidDocStatus.DEACTIVATED);
     }
 
     /**
@@ -1364,7 +1405,7 @@ public class UserServiceImpl implements UserService {
      */
     private void updateDidDocRevoked(DidDocument userDidDoc) {
         String didWithVersion = BaseTasDidUtil.getDidWithVersion(userDidDoc);
-        BaseBlockChainUtil.updateDidDocStatus(didWithVersion, org.omnione.did.data.model.enums.did.DidDocStatus.REVOKED);
+        blockChainClient.updateDidDocStatus(didWithVersion, org.omnione.did.data.model.enums.did.DidDocStatus.REVOKED);
     }
 
     /**
@@ -1401,13 +1442,13 @@ public class UserServiceImpl implements UserService {
             log.debug("\t--> Generating Fcm Notification data");
             FcmNotificationDto fcmNotificationDto = pushServiceHelper.generateDidNotification(PayloadType.RESTORE_DID, user);
 
-            // Send push notification
-            log.debug("\t--> Sending push notification");
-            notiPushService.requestSendPush(RequestSendPushReqDto.builder()
+            // Queue push notification
+            log.debug("\t--> Queueing push notification");
+            notiPushService.queueSendPush(RequestSendPushReqDto.builder()
                     .data(pushData)
                     .targetDids(Collections.singletonList(user.getDid()))
                     .notification(fcmNotificationDto)
-                    .build());
+                    .build(), offerId);
 
             // Insert DID offer information.
             log.debug("\t--> Insert DID offer information");
@@ -1522,7 +1563,7 @@ public class UserServiceImpl implements UserService {
 
             // Generate transaction code.
             log.debug("\t--> Generating transaction code.");
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Retrieve DID offer information.
             log.debug("\t--> Retrieving DID offer information for offer ID: {}", proposeRestoreDidDocReqDto.getOfferId());
@@ -1628,7 +1669,7 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            Token token = tokenValidator.validateServerToken(requestRestoreDidDocReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.RESTORE_DID);
+            Token token = tokenValidator.validateServerToken(requestRestoreDidDocReqDto.getServerToken(), transaction, ServerTokenPurpose.RESTORE_DID);
 
             // Validate Did Auth.
             log.debug("\t--> Validating DidAuth");
@@ -1719,7 +1760,7 @@ public class UserServiceImpl implements UserService {
      */
     private void updateDidDocActivated(DidDocument userDidDoc) {
         String didWithVersion = BaseTasDidUtil.getDidWithVersion(userDidDoc);
-        BaseBlockChainUtil.updateDidDocStatus(didWithVersion, org.omnione.did.data.model.enums.did.DidDocStatus.ACTIVATED);
+        blockChainClient.updateDidDocStatus(didWithVersion, org.omnione.did.data.model.enums.did.DidDocStatus.ACTIVATED);
     }
 
     /**
@@ -1745,7 +1786,7 @@ public class UserServiceImpl implements UserService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(confirmRestoreDidDocReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.RESTORE_DID);
+            tokenValidator.validateServerToken(confirmRestoreDidDocReqDto.getServerToken(), transaction, ServerTokenPurpose.RESTORE_DID);
 
             // Update transaction status.
             log.debug("\t--> Updating transaction status to COMPLETED for transaction ID: {}", transaction.getId());
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.service;
+
+import org.omnione.did.base.property.TasProperty;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.data.model.enums.vc.VcStatus;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of the VC metas read through the StorageService, shared by its implementations.
+ *
+ * The TTL of an entry depends on the VC status: REVOKED is terminal and is cached for
+ * tas.vc-meta-cache.revoked-ttl-seconds, while ACTIVE and INACTIVE may still change and are cached for
+ * tas.vc-meta-cache.active-ttl-seconds. Entries are evicted when the VC status is updated, when a VC meta is
+ * registered and when a ledger block writes the VC ID. A load that overlaps an eviction is not stored.
+ * Beyond tas.vc-meta-cache.max-size, the least recently used entry is dropped on each insertion.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VcMetaCache {
+    private final TasProperty tasProperty;
+
+    // Access-ordered, so the eldest entry is the least recently used one. Guarded by this.
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > tasProperty.getVcMetaCache().getMaxSize();
+        }
+    };
+    // Incremented under the lock by every eviction; a load that started before an eviction is not stored.
+    private long evictions;
+
+    /**
+     * A cache entry for storing a VC meta and its expiry time.
+     */
+    public static class CacheEntry {
+        private final VcMeta vcMeta;
+        private final long expiresAt;
+
+        public CacheEntry(VcMeta vcMeta, long expiresAt) {
+            this.vcMeta = vcMeta;
+            this.expiresAt = expiresAt;
+        }
+
+        public VcMeta getVcMeta() {
+            return vcMeta;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    /**
+     * Retrieve the VC meta for the given VC ID, loading it on a miss.
+     *
+     * @param vcId The VC ID
+     * @param loader Loads the VC meta from the storage
+     * @return The VC meta
+     */
+    public VcMeta get(String vcId, Supplier<VcMeta> loader) {
+        if (!isEnabled() || vcId == null) {
+            return loader.get();
+        }
+        long readVersion;
+        synchronized (this) {
+            CacheEntry entry = cache.get(vcId);
+            if (entry != null) {
+                if (!entry.isExpired()) {
+                    return entry.getVcMeta();
+                }
+                cache.remove(vcId);
+            }
+            readVersion = evictions;
+        }
+
+        VcMeta vcMeta = loader.get();
+        put(vcId, vcMeta, readVersion);
+        return vcMeta;
+    }
+
+    /**
+     * Remove the entry for the given VC ID.
+     *
+     * @param vcId The VC ID
+     */
+    public synchronized void evict(String vcId) {
+        if (vcId == null) {
+            return;
+        }
+        evictions++;
+        cache.remove(vcId);
+    }
+
+    /**
+     * Remove the entries for the given VC IDs. IDs that are not cached are ignored.
+     *
+     * @param vcIds The VC IDs
+     */
+    public synchronized void evictAll(Collection<String> vcIds) {
+        if (vcIds.isEmpty()) {
+            return;
+        }
+        evictions++;
+        vcIds.forEach(cache::remove);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        evictions++;
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of cached VC metas.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private boolean isEnabled() {
+        return tasProperty.getVcMetaCache().isEnable();
+    }
+
+    private synchronized void put(String vcId, VcMeta vcMeta, long readVersion) {
+        if (vcMeta == null || evictions != readVersion) {
+            return;
+        }
+        cache.put(vcId, new CacheEntry(vcMeta, System.currentTimeMillis() + ttlMillis(vcMeta)));
+    }
+
+    private long ttlMillis(VcMeta vcMeta) {
+        TasProperty.VcMetaCache config = tasProperty.getVcMetaCache();
+        VcStatus status = (vcMeta.getStatus() != null) ? VcStatus.fromString(vcMeta.getStatus()) : null;
+        long ttlSeconds = (status == VcStatus.REVOKED) ? config.getRevokedTtlSeconds() : config.getActiveTtlSeconds();
+        return ttlSeconds * 1000;
+    }
+}
@@ -36,6 +36,8 @@ import org.omnione.did.tas.v1.dto.vc.RequestIssueVcResDto;
 import org.omnione.did.tas.v1.dto.vc.RequestRevokeVcReqDto;
 import org.omnione.did.tas.v1.dto.vc.RequestRevokeVcResDto;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * VC service interface for handling Verifiable Credentials.
  *
@@ -53,4 +55,34 @@ public interface VcService {
     ProposeRevokeVcResDto proposeRevokeVc(ProposeRevokeVcReqDto proposeRevokeVcReqDto);
     RequestRevokeVcResDto requestRevokeVc(RequestRevokeVcReqDto requestRevokeVcReqDto);
     ConfirmRevokeVcResDto confirmRevokeVc(ConfirmRevokeVcReqDto confirmRevokeVcReqDto);
+
+    // Async variants of the issuer-bound steps. Implementations that do not call an issuer
+    // may rely on these defaults, which run the synchronous step.
+    default CompletableFuture<ProposeIssueVcResDto> proposeIssueVcAsync(ProposeIssueVcReqDto proposeIssueVcReqDto) {
+        return CompletableFuture.completedFuture(proposeIssueVc(proposeIssueVcReqDto));
+    }
+
+    default CompletableFuture<RequestIssueProfileResDto> requestIssueProfileAsync(RequestIssueProfileReqDto requestIssueProfileReqDto) {
+        return CompletableFuture.completedFuture(requestIssueProfile(requestIssueProfileReqDto));
+    }
+
+    default CompletableFuture<RequestIssueVcResDto> requestIssueVcAsync(RequestIssueVcReqDto requestIssueVcReqDto) {
+        return CompletableFuture.completedFuture(requestIssueVc(requestIssueVcReqDto));
+    }
+
+    default CompletableFuture<ConfirmIssueVcResDto> confirmIssueVcAsync(ConfirmIssueVcReqDto confirmIssueVcReqDto) {
+        return CompletableFuture.completedFuture(confirmIssueVc(confirmIssueVcReqDto));
+    }
+
+    default CompletableFuture<ProposeRevokeVcResDto> proposeRevokeVcAsync(ProposeRevokeVcReqDto proposeRevokeVcReqDto) {
+        return CompletableFuture.completedFuture(proposeRevokeVc(proposeRevokeVcReqDto));
+    }
+
+    default CompletableFuture<RequestRevokeVcResDto> requestRevokeVcAsync(RequestRevokeVcReqDto requestRevokeVcReqDto) {
+        return CompletableFuture.completedFuture(requestRevokeVc(requestRevokeVcReqDto));
+    }
+
+    default CompletableFuture<ConfirmRevokeVcResDto> confirmRevokeVcAsync(ConfirmRevokeVcReqDto confirmRevokeVcReqDto) {
+        return CompletableFuture.completedFuture(confirmRevokeVc(confirmRevokeVcReqDto));
+    }
 }
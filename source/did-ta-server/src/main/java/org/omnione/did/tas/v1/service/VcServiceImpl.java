@@ -16,8 +16,6 @@
 
 package org.omnione.did.tas.v1.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.base.constants.UrlConstant.Issuer;
@@ -39,14 +37,10 @@ import org.omnione.did.base.db.domain.Transaction;
 import org.omnione.did.base.db.domain.User;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.idempotency.IdempotentStep;
 import org.omnione.did.base.property.EmailProperty;
-import org.omnione.did.base.response.ErrorResponse;
 import org.omnione.did.base.util.BaseMultibaseUtil;
-import org.omnione.did.common.exception.HttpClientException;
 import org.omnione.did.common.util.DateTimeUtil;
-import org.omnione.did.common.util.HttpClientUtil;
-import org.omnione.did.common.util.IdGenerator;
-import org.omnione.did.common.util.JsonUtil;
 import org.omnione.did.common.util.NonceGenerator;
 import org.omnione.did.data.model.enums.vc.VcStatus;
 import org.omnione.did.data.model.schema.VcSchema;
@@ -58,6 +52,7 @@ import org.omnione.did.noti.v1.dto.push.FcmNotificationDto;
 import org.omnione.did.noti.v1.dto.push.RequestSendPushReqDto;
 import org.omnione.did.noti.v1.service.NotiEmailService;
 import org.omnione.did.noti.v1.service.NotiPushService;
+import org.omnione.did.tas.v1.api.IssuerClient;
 import org.omnione.did.tas.v1.api.dto.ApiHolder;
 import org.omnione.did.tas.v1.api.dto.CompleteRevokeApiReqDto;
 import org.omnione.did.tas.v1.api.dto.CompleteRevokeApiResDto;
@@ -96,6 +91,7 @@ import org.omnione.did.tas.v1.dto.vc.RequestRevokeVcReqDto;
 import org.omnione.did.tas.v1.dto.vc.RequestRevokeVcResDto;
 import org.omnione.did.tas.v1.helper.EmailServiceHelper;
 import org.omnione.did.tas.v1.helper.PushServiceHelper;
+import org.omnione.did.tas.v1.helper.VcAsyncHelper;
 import org.omnione.did.tas.v1.service.query.CertificateVcQueryService;
 import org.omnione.did.tas.v1.service.query.EcdhQueryService;
 import org.omnione.did.tas.v1.service.query.EntityQueryService;
@@ -107,6 +103,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -131,6 +128,8 @@ public class VcServiceImpl implements VcService {
     private final EmailServiceHelper emailServiceHelper;
     private final EmailProperty emailProperty;
     private final StorageService storageService;
+    private final IssuerClient issuerClient;
+    private final VcAsyncHelper vcAsyncHelper;
 
     /**
      * Propose to issue a VC.
@@ -141,6 +140,17 @@ public class VcServiceImpl implements VcService {
      */
     @Override
     public ProposeIssueVcResDto proposeIssueVc(ProposeIssueVcReqDto proposeIssueVcReqDto) {
+        return VcAsyncHelper.join(proposeIssueVcAsync(proposeIssueVcReqDto));
+    }
+
+    /**
+     * Propose to issue a VC without holding a thread while the issuer call is outstanding.
+     *
+     * @param proposeIssueVcReqDto ProposeIssueVcReqDto
+     * @return Future of ProposeIssueVcResDto
+     */
+    @Override
+    public CompletableFuture<ProposeIssueVcResDto> proposeIssueVcAsync(ProposeIssueVcReqDto proposeIssueVcReqDto) {
         try {
             log.debug("=== Starting proposeIssueVc ===");
             // Validate Issuer Information.
@@ -152,43 +162,41 @@ public class VcServiceImpl implements VcService {
 
             // Send inspect-propose to Issuer
             log.debug("\t--> Sending inspect-propose to Issuer");
-            InspectIssueProposeApiResDto inspectIssueProposeApiResDto = sendInspectPropose(entity, proposeIssueVcReqDto);
-
-            // Insert transaction information.
-            String txId = IdGenerator.generateTxId();
-            log.debug("\t--> Inserting transaction information");
-            Transaction transaction = transactionService.insertTransaction(Transaction.builder()
-                    .txId(txId)
-                    .type(TransactionType.ISSUE_VC)
-                    .status(TransactionStatus.PENDING)
-                    .externalTxId(inspectIssueProposeApiResDto.getTxId())
-                    .externalDid(entity.getDid())
-                    .expiredAt(transactionService.retrieveTransactionExpiredTime())
-                    .build()
-            );
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(1)
-                    .type(SubTransactionType.PROPOSE_ISSUE_VC)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished proposeIssueVc ***");
-
-            return ProposeIssueVcResDto.builder()
-                    .txId(txId)
-                    .refId(inspectIssueProposeApiResDto.getRefId())
-                    .build();
-        } catch (OpenDidException e) {
-            log.error("An OpenDidException occurred while sending proposeIssueVc request", e);
-            throw e;
+            CompletableFuture<ProposeIssueVcResDto> future = vcAsyncHelper.completeInTransaction(sendInspectPropose(entity, proposeIssueVcReqDto), inspectIssueProposeApiResDto -> {
+                // Insert transaction information.
+                String txId = transactionService.generateTxId();
+                log.debug("\t--> Inserting transaction information");
+                Transaction transaction = transactionService.insertTransaction(Transaction.builder()
+                        .txId(txId)
+                        .type(TransactionType.ISSUE_VC)
+                        .status(TransactionStatus.PENDING)
+                        .externalTxId(inspectIssueProposeApiResDto.getTxId())
+                        .externalDid(entity.getDid())
+                        .expiredAt(transactionService.retrieveTransactionExpiredTime())
+                        .build()
+                );
+
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(1)
+                        .type(SubTransactionType.PROPOSE_ISSUE_VC)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished proposeIssueVc ***");
+
+                return ProposeIssueVcResDto.builder()
+                        .txId(txId)
+                        .refId(inspectIssueProposeApiResDto.getRefId())
+                        .build();
+            });
+
+            return handleFailure(future, "proposeIssueVc", ErrorCode.FAIL_TO_PROPOSE_ISSUE_VC);
         } catch (Exception e) {
-            log.error("An unknown error occurred while sending proposeIssueVc request", e);
-            throw new OpenDidException(ErrorCode.FAIL_TO_PROPOSE_ISSUE_VC);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "proposeIssueVc", ErrorCode.FAIL_TO_PROPOSE_ISSUE_VC));
         }
     }
 
@@ -228,9 +236,7 @@ public class VcServiceImpl implements VcService {
      * @return InspectIssueProposeApiResDto
      * @throws OpenDidException if an error occurs while sending the inspect-propose request.
      */
-    private InspectIssueProposeApiResDto sendInspectPropose(Entity entity, ProposeIssueVcReqDto proposeIssueVcReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.INSPECT_PROPOSE_ISSUE;
-
+    private CompletableFuture<InspectIssueProposeApiResDto> sendInspectPropose(Entity entity, ProposeIssueVcReqDto proposeIssueVcReqDto) {
         InspectIssueProposeApiReqDto inspectIssueProposeApiReqDto = InspectIssueProposeApiReqDto.builder()
                 .id(proposeIssueVcReqDto.getId())
                 .vcPlanId(proposeIssueVcReqDto.getVcPlanId())
@@ -238,35 +244,57 @@ public class VcServiceImpl implements VcService {
                 .offerId(proposeIssueVcReqDto.getOfferId())
                 .build();
 
-        try {
-            String request = JsonUtil.serializeToJson(inspectIssueProposeApiReqDto);
-            return HttpClientUtil.postData(url, request, InspectIssueProposeApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending inspect-propose request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending inspect-propose request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.INSPECT_PROPOSE_ISSUE, inspectIssueProposeApiReqDto, InspectIssueProposeApiResDto.class, "inspect-propose");
+    }
+
+    /**
+     * Sends a request to the Issuer through the issuer client.
+     * Error responses from the Issuer are converted to OpenDidException as in the synchronous relay.
+     *
+     * @param entity The Issuer entity
+     * @param path The Issuer API path
+     * @param request The request DTO
+     * @param responseType The response type
+     * @param requestName The request name for logging
+     * @return Future of the response DTO from the Issuer
+     */
+    private <T> CompletableFuture<T> relayToIssuer(Entity entity, String path, Object request, Class<T> responseType, String requestName) {
+        return issuerClient.relay(entity.getServerUrl(), Issuer.V1 + path, request, responseType, requestName);
     }
 
     /**
-     * Converts an external error response string to an ErrorResponse object.
-     * This method attempts to parse the given JSON string into an ErrorResponse instance.
+     * Maps the failure of an async step to OpenDidException, as the synchronous step does.
      *
-     * @param resBody The JSON string representing the external error response
-     * @return An ErrorResponse object parsed from the input string
-     * @throws OpenDidException with ErrorCode.ISSUER_UNKNOWN_RESPONSE if parsing fails
+     * @param future The future of the step
+     * @param methodName The step name for logging
+     * @param errorCode The error code for unknown errors
+     * @return Future completing with the result or with OpenDidException
      */
-    private ErrorResponse convertExternalErrorResponse(String resBody) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            return objectMapper.readValue(resBody, ErrorResponse.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse external error response: {}", resBody, e);
-            throw new OpenDidException(ErrorCode.ISSUER_UNKNOWN_RESPONSE);
+    private <T> CompletableFuture<T> handleFailure(CompletableFuture<T> future, String methodName, ErrorCode errorCode) {
+        return future.handle((result, throwable) -> {
+            if (throwable == null) {
+                return result;
+            }
+            throw toOpenDidException(throwable, methodName, errorCode);
+        });
+    }
+
+    /**
+     * Converts the failure of a step to OpenDidException.
+     *
+     * @param throwable The failure
+     * @param methodName The step name for logging
+     * @param errorCode The error code for unknown errors
+     * @return OpenDidException
+     */
+    private OpenDidException toOpenDidException(Throwable throwable, String methodName, ErrorCode errorCode) {
+        Throwable cause = IssuerClient.unwrap(throwable);
+        if (cause instanceof OpenDidException openDidException) {
+            log.error("An OpenDidException occurred while sending {} request", methodName, openDidException);
+            return openDidException;
         }
+        log.error("An unknown error occurred while sending {} request", methodName, cause);
+        return new OpenDidException(errorCode);
     }
 
 
@@ -280,7 +308,20 @@ public class VcServiceImpl implements VcService {
      * @throws OpenDidException if any step in the process fails
      */
     @Override
+    @IdempotentStep(SubTransactionType.REQUEST_ISSUE_PROFILE)
     public RequestIssueProfileResDto requestIssueProfile(RequestIssueProfileReqDto requestIssueProfileReqDto) {
+        return VcAsyncHelper.join(requestIssueProfileAsync(requestIssueProfileReqDto));
+    }
+
+    /**
+     * Processes a request to generate an issue profile without holding a thread while the issuer call is outstanding.
+     *
+     * @param requestIssueProfileReqDto The DTO containing the request information
+     * @return Future of RequestIssueProfileResDto
+     */
+    @Override
+    @IdempotentStep(SubTransactionType.REQUEST_ISSUE_PROFILE)
+    public CompletableFuture<RequestIssueProfileResDto> requestIssueProfileAsync(RequestIssueProfileReqDto requestIssueProfileReqDto) {
         try {
             log.debug("=== Starting requestIssueProfile ===");
 
@@ -299,7 +340,7 @@ public class VcServiceImpl implements VcService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(requestIssueProfileReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.ISSUE_VC);
+            tokenValidator.validateServerToken(requestIssueProfileReqDto.getServerToken(), transaction, ServerTokenPurpose.ISSUE_VC);
 
             // Retrieve Ecdh information.
             log.debug("\t--> Retrieving Ecdh information");
@@ -307,37 +348,37 @@ public class VcServiceImpl implements VcService {
 
             // Send issuer-propose to Issuer
             log.debug("\t--> Sending issuer-propose to Issuer");
-            GenerateIssueProfileApiResDto generateIssueProfileApiResDto = sendGenerateProfiler(entity, transaction, ecdh, requestIssueProfileReqDto);
-
-            // Generate auth nonce.
-            log.debug("\t--> Generating auth nonce");
-            String authNonce = generateNonceWithMultibase();
-
-            // Update auth nonce.
-            log.debug("\t--> Updating transactioin authNonce");
-            transactionService.updateTransactionAuthNonce(transaction.getId(), authNonce);
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(lastSubTransaction.getStep() + 1)
-                    .type(SubTransactionType.REQUEST_ISSUE_PROFILE)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished requestIssueProfile ***");
-
-            return RequestIssueProfileResDto.builder()
-                    .txId(transaction.getTxId())
-                    .authNonce(authNonce)
-                    .profile(generateIssueProfileApiResDto.getProfile())
-                    .build();
-        } catch (OpenDidException e) {
-            throw e;
+            CompletableFuture<RequestIssueProfileResDto> future = vcAsyncHelper.completeInTransaction(sendGenerateProfiler(entity, transaction, ecdh, requestIssueProfileReqDto), generateIssueProfileApiResDto -> {
+                // Generate auth nonce.
+                log.debug("\t--> Generating auth nonce");
+                String authNonce = generateNonceWithMultibase();
+
+                // Update auth nonce.
+                log.debug("\t--> Updating transactioin authNonce");
+                transactionService.updateTransactionAuthNonce(transaction.getId(), authNonce);
+
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(lastSubTransaction.getStep() + 1)
+                        .type(SubTransactionType.REQUEST_ISSUE_PROFILE)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished requestIssueProfile ***");
+
+                return RequestIssueProfileResDto.builder()
+                        .txId(transaction.getTxId())
+                        .authNonce(authNonce)
+                        .profile(generateIssueProfileApiResDto.getProfile())
+                        .build();
+            });
+
+            return handleFailure(future, "requestIssueProfile", ErrorCode.FAIL_TO_REQUEST_ISSUE_PROFILE);
         } catch (Exception e) {
-            throw new OpenDidException(ErrorCode.FAIL_TO_REQUEST_ISSUE_PROFILE);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "requestIssueProfile", ErrorCode.FAIL_TO_REQUEST_ISSUE_PROFILE));
         }
     }
 
@@ -375,9 +416,7 @@ public class VcServiceImpl implements VcService {
      * @return The response DTO from the Issuer
      * @throws OpenDidException if an error occurs while sending the request
      */
-    private GenerateIssueProfileApiResDto sendGenerateProfiler(Entity entity, Transaction transaction, Ecdh ecdh, RequestIssueProfileReqDto requestIssueProfileReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.GENERATE_ISSUE_PROFILE;
-
+    private CompletableFuture<GenerateIssueProfileApiResDto> sendGenerateProfiler(Entity entity, Transaction transaction, Ecdh ecdh, RequestIssueProfileReqDto requestIssueProfileReqDto) {
         // Retrieve User information.
         User user = userQueryService.findByDid(ecdh.getClientDid());
 
@@ -390,17 +429,7 @@ public class VcServiceImpl implements VcService {
                         .build())
                 .build();
 
-        try {
-            String request = JsonUtil.serializeToJson(generateIssueProfileApiReqDto);
-            return HttpClientUtil.postData(url, request, GenerateIssueProfileApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending generate-profile request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending generate-profile request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.GENERATE_ISSUE_PROFILE, generateIssueProfileApiReqDto, GenerateIssueProfileApiResDto.class, "generate-profile");
     }
 
     /**
@@ -423,7 +452,20 @@ public class VcServiceImpl implements VcService {
      * @throws OpenDidException if any step in the process fails, with specific error codes
      */
     @Override
+    @IdempotentStep(SubTransactionType.REQUEST_ISSUE_VC)
     public RequestIssueVcResDto requestIssueVc(RequestIssueVcReqDto requestIssueVcReqDto) {
+        return VcAsyncHelper.join(requestIssueVcAsync(requestIssueVcReqDto));
+    }
+
+    /**
+     * Processes a request to issue a VC without holding a thread while the issuer call is outstanding.
+     *
+     * @param requestIssueVcReqDto The DTO containing the VC issuance request information
+     * @return Future of RequestIssueVcResDto
+     */
+    @Override
+    @IdempotentStep(SubTransactionType.REQUEST_ISSUE_VC)
+    public CompletableFuture<RequestIssueVcResDto> requestIssueVcAsync(RequestIssueVcReqDto requestIssueVcReqDto) {
         try {
             log.debug("=== Starting requestIssueVc ===");
 
@@ -442,7 +484,7 @@ public class VcServiceImpl implements VcService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(requestIssueVcReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.ISSUE_VC);
+            tokenValidator.validateServerToken(requestIssueVcReqDto.getServerToken(), transaction, ServerTokenPurpose.ISSUE_VC);
 
             // Validate Did Auth.
             log.debug("\t--> Validating DidAuth");
@@ -450,30 +492,28 @@ public class VcServiceImpl implements VcService {
 
             // Send issuer-propose to Issuer
             log.debug("\t--> Sending issue-vc to Issuer");
-            IssueVcApiResDto issueVcApiResDto = sendIssueVc(entity, transaction, requestIssueVcReqDto);
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(lastSubTransaction.getStep() + 1)
-                    .type(SubTransactionType.REQUEST_ISSUE_VC)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished requestIssueVc ***");
-
-            return RequestIssueVcResDto.builder()
-                    .txId(transaction.getTxId())
-                    .e2e(issueVcApiResDto.getE2e())
-                    .build();
-        } catch (OpenDidException e) {
-            log.error("An OpenDidException occurred while sending requestIssueVc request", e);
-            throw e;
+            CompletableFuture<RequestIssueVcResDto> future = vcAsyncHelper.completeInTransaction(sendIssueVc(entity, transaction, requestIssueVcReqDto), issueVcApiResDto -> {
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(lastSubTransaction.getStep() + 1)
+                        .type(SubTransactionType.REQUEST_ISSUE_VC)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished requestIssueVc ***");
+
+                return RequestIssueVcResDto.builder()
+                        .txId(transaction.getTxId())
+                        .e2e(issueVcApiResDto.getE2e())
+                        .build();
+            });
+
+            return handleFailure(future, "requestIssueVc", ErrorCode.FAIL_TO_REQUEST_ISSUE_VC);
         } catch (Exception e) {
-            log.error("An unknown error occurred while sending requestIssueVc request", e);
-            throw new OpenDidException(ErrorCode.FAIL_TO_REQUEST_ISSUE_VC);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "requestIssueVc", ErrorCode.FAIL_TO_REQUEST_ISSUE_VC));
         }
     }
 
@@ -513,9 +553,7 @@ public class VcServiceImpl implements VcService {
      * @return The response DTO from the Issuer
      * @throws OpenDidException if Failed to communicate with issuer: unknown error occurred
      */
-    private IssueVcApiResDto sendIssueVc(Entity entity, Transaction transaction, RequestIssueVcReqDto requestIssueVcReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.ISSUE_VC;
-
+    private CompletableFuture<IssueVcApiResDto> sendIssueVc(Entity entity, Transaction transaction, RequestIssueVcReqDto requestIssueVcReqDto) {
         IssueVcApiReqDto issueVcApiReqDto = IssueVcApiReqDto.builder()
                 .id(requestIssueVcReqDto.getId())
                 .txId(transaction.getExternalTxId())
@@ -523,17 +561,7 @@ public class VcServiceImpl implements VcService {
                 .encReqVc(requestIssueVcReqDto.getEncReqVc())
                 .build();
 
-        try {
-            String request = JsonUtil.serializeToJson(issueVcApiReqDto);
-            return HttpClientUtil.postData(url, request, IssueVcApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending issue-vc request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending issue-vc request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.ISSUE_VC, issueVcApiReqDto, IssueVcApiResDto.class, "issue-vc");
     }
 
     /**
@@ -546,7 +574,20 @@ public class VcServiceImpl implements VcService {
      * @throws OpenDidException if Failed to communicate with issuer: unknown error occurred
      */
     @Override
+    @IdempotentStep(SubTransactionType.CONFIRM_ISSUE_VC)
     public ConfirmIssueVcResDto confirmIssueVc(ConfirmIssueVcReqDto confirmIssueVcReqDto) {
+        return VcAsyncHelper.join(confirmIssueVcAsync(confirmIssueVcReqDto));
+    }
+
+    /**
+     * Confirms the VC issuance without holding a thread while the issuer call is outstanding.
+     *
+     * @param confirmIssueVcReqDto The DTO containing the VC issuance confirmation information
+     * @return Future of ConfirmIssueVcResDto
+     */
+    @Override
+    @IdempotentStep(SubTransactionType.CONFIRM_ISSUE_VC)
+    public CompletableFuture<ConfirmIssueVcResDto> confirmIssueVcAsync(ConfirmIssueVcReqDto confirmIssueVcReqDto) {
         try {
             log.debug("=== Starting confirmIssueVc ===");
 
@@ -565,37 +606,34 @@ public class VcServiceImpl implements VcService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(confirmIssueVcReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.ISSUE_VC);
+            tokenValidator.validateServerToken(confirmIssueVcReqDto.getServerToken(), transaction, ServerTokenPurpose.ISSUE_VC);
 
             // Send complete-vc to Issuer
-            CompleteVcApiResDto completeVcApiResDto = sendCompleteVc(entity, transaction, confirmIssueVcReqDto);
-
-            // Update transaction status.
-            log.debug("\t--> Updating transaction status for transaction ID: {} to {}", transaction.getId(), TransactionStatus.COMPLETED);
-            transactionService.updateTransactionStatus(transaction.getId(), TransactionStatus.COMPLETED);
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(lastSubTransaction.getStep() + 1)
-                    .type(SubTransactionType.CONFIRM_ISSUE_VC)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished confirmIssueVc ***");
-
-            return ConfirmIssueVcResDto.builder()
-                    .txId(confirmIssueVcReqDto.getTxId())
-                    .build();
-
-        } catch (OpenDidException e) {
-            log.error("An OpenDidException occurred while sending confirmIssueVc request", e);
-            throw e;
+            CompletableFuture<ConfirmIssueVcResDto> future = vcAsyncHelper.completeInTransaction(sendCompleteVc(entity, transaction, confirmIssueVcReqDto), completeVcApiResDto -> {
+                // Update transaction status.
+                log.debug("\t--> Updating transaction status for transaction ID: {} to {}", transaction.getId(), TransactionStatus.COMPLETED);
+                transactionService.updateTransactionStatus(transaction.getId(), TransactionStatus.COMPLETED);
+
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(lastSubTransaction.getStep() + 1)
+                        .type(SubTransactionType.CONFIRM_ISSUE_VC)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished confirmIssueVc ***");
+
+                return ConfirmIssueVcResDto.builder()
+                        .txId(confirmIssueVcReqDto.getTxId())
+                        .build();
+            });
+
+            return handleFailure(future, "confirmIssueVc", ErrorCode.FAIL_TO_CONFIRM_ISSUE_VC);
         } catch (Exception e) {
-            log.error("An unknown error occurred while sending inspect propose request", e);
-            throw new OpenDidException(ErrorCode.FAIL_TO_CONFIRM_ISSUE_VC);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "confirmIssueVc", ErrorCode.FAIL_TO_CONFIRM_ISSUE_VC));
         }
     }
 
@@ -635,26 +673,14 @@ public class VcServiceImpl implements VcService {
      * @return The response DTO from the Issuer
      * @throws OpenDidException if Failed to communicate with issuer: unknown error occurred
      */
-    private CompleteVcApiResDto sendCompleteVc(Entity entity, Transaction transaction, ConfirmIssueVcReqDto confirmIssueVcReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.COMPLETE_VC;
-
+    private CompletableFuture<CompleteVcApiResDto> sendCompleteVc(Entity entity, Transaction transaction, ConfirmIssueVcReqDto confirmIssueVcReqDto) {
         CompleteVcApiReqDto completeVcApiReqDto = CompleteVcApiReqDto.builder()
                 .id(confirmIssueVcReqDto.getId())
                 .txId(transaction.getExternalTxId())
                 .vcId(confirmIssueVcReqDto.getVcId())
                 .build();
 
-        try {
-            String request = JsonUtil.serializeToJson(completeVcApiReqDto);
-            return HttpClientUtil.postData(url, request, CompleteVcApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending complete-vc request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending complete-vc request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.COMPLETE_VC, completeVcApiReqDto, CompleteVcApiResDto.class, "complete-vc");
     }
 
     /**
@@ -761,13 +787,13 @@ public class VcServiceImpl implements VcService {
             log.debug("\t--> Generating Fcm Notification data");
             FcmNotificationDto fcmNotificationDto = pushServiceHelper.generateVcOrVpNotification(PayloadType.ISSUE_VC, entity);
 
-            // Send push notification
-            log.debug("\t--> Sending push notification");
-            notiPushService.requestSendPush(RequestSendPushReqDto.builder()
+            // Queue push notification
+            log.debug("\t--> Queueing push notification");
+            notiPushService.queueSendPush(RequestSendPushReqDto.builder()
                     .data(pushData)
                     .targetDids(Collections.singletonList(request.getHolder()))
                     .notification(fcmNotificationDto)
-                    .build());
+                    .build(), offerIssueVcResDto.getOfferId());
 
             log.debug("*** Finished offerIssueVcPush ***");
 
@@ -835,22 +861,10 @@ public class VcServiceImpl implements VcService {
      * @throws OpenDidException if there's an error in communication with the issuer
      */
     private OfferIssueVcApiResDto sendOfferIssueVc(Entity entity, String vcPlanId) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.REQUEST_OFFER;
-
         OfferIssueVcApiReqDto offerIssueVcApiReqDto = OfferIssueVcApiReqDto.builder()
                 .vcPlanId(vcPlanId)
                 .build();
-        try {
-            String request = JsonUtil.serializeToJson(offerIssueVcApiReqDto);
-            return HttpClientUtil.postData(url, request, OfferIssueVcApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending offer-issue-vc request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending offer-issue-vc request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return VcAsyncHelper.join(relayToIssuer(entity, Issuer.REQUEST_OFFER, offerIssueVcApiReqDto, OfferIssueVcApiResDto.class, "offer-issue-vc"));
     }
 
     /**
@@ -924,6 +938,17 @@ public class VcServiceImpl implements VcService {
      */
     @Override
     public ProposeRevokeVcResDto proposeRevokeVc(ProposeRevokeVcReqDto proposeRevokeVcReqDto) {
+        return VcAsyncHelper.join(proposeRevokeVcAsync(proposeRevokeVcReqDto));
+    }
+
+    /**
+     * Initiates the VC revocation without holding a thread while the issuer call is outstanding.
+     *
+     * @param proposeRevokeVcReqDto The DTO containing revocation proposal details
+     * @return Future of ProposeRevokeVcResDto
+     */
+    @Override
+    public CompletableFuture<ProposeRevokeVcResDto> proposeRevokeVcAsync(ProposeRevokeVcReqDto proposeRevokeVcReqDto) {
         try {
             log.debug("=== Starting proposeRevokeVc ===");
 
@@ -942,45 +967,42 @@ public class VcServiceImpl implements VcService {
 
             // Send inspect-propose to Issuer
             log.debug("\t--> Sending inspect-propose to Issuer");
-            InspectProposeRevokeApiResDto inspectProposeRevokeApiResDto = sendInspectPropose(entity, proposeRevokeVcReqDto);
-
-            // Insert transaction information.
-            log.debug("\t--> Inserting transaction information");
-            String txId = IdGenerator.generateTxId();
-            Transaction transaction = transactionService.insertTransaction(Transaction.builder()
-                    .txId(txId)
-                    .type(TransactionType.REVOKE_VC)
-                    .status(TransactionStatus.PENDING)
-                    .externalTxId(inspectProposeRevokeApiResDto.getTxId())
-                    .externalDid(entity.getDid())
-                    .expiredAt(transactionService.retrieveTransactionExpiredTime())
-                    .build()
-            );
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(1)
-                    .type(SubTransactionType.PROPOSE_REVOKE_VC)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished proposeRevokeVc ***");
-
-            return ProposeRevokeVcResDto.builder()
-                    .txId(txId)
-                    .issuerNonce(inspectProposeRevokeApiResDto.getIssuerNonce())
-                    .authType(inspectProposeRevokeApiResDto.getAuthType())
-                    .build();
-
-        } catch (OpenDidException e) {
-            log.error("An OpenDidException occurred while sending proposeRevokeVc request", e);
-            throw e;
+            CompletableFuture<ProposeRevokeVcResDto> future = vcAsyncHelper.completeInTransaction(sendInspectPropose(entity, proposeRevokeVcReqDto), inspectProposeRevokeApiResDto -> {
+                // Insert transaction information.
+                log.debug("\t--> Inserting transaction information");
+                String txId = transactionService.generateTxId();
+                Transaction transaction = transactionService.insertTransaction(Transaction.builder()
+                        .txId(txId)
+                        .type(TransactionType.REVOKE_VC)
+                        .status(TransactionStatus.PENDING)
+                        .externalTxId(inspectProposeRevokeApiResDto.getTxId())
+                        .externalDid(entity.getDid())
+                        .expiredAt(transactionService.retrieveTransactionExpiredTime())
+                        .build()
+                );
+
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(1)
+                        .type(SubTransactionType.PROPOSE_REVOKE_VC)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished proposeRevokeVc ***");
+
+                return ProposeRevokeVcResDto.builder()
+                        .txId(txId)
+                        .issuerNonce(inspectProposeRevokeApiResDto.getIssuerNonce())
+                        .authType(inspectProposeRevokeApiResDto.getAuthType())
+                        .build();
+            });
+
+            return handleFailure(future, "proposeRevokeVc", ErrorCode.FAIL_TO_PROPOSE_REVOKE_VC);
         } catch (Exception e) {
-            log.error("An unknown error occurred while sending proposeRevokeVc request", e);
-            throw new OpenDidException(ErrorCode.FAIL_TO_PROPOSE_REVOKE_VC);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "proposeRevokeVc", ErrorCode.FAIL_TO_PROPOSE_REVOKE_VC));
         }
     }
 
@@ -1007,24 +1029,12 @@ public class VcServiceImpl implements VcService {
      * @return InspectProposeRevokeApiResDto containing the response from the Issuer
      * @throws OpenDidException if there's an error in communication with the issuer
      */
-    private InspectProposeRevokeApiResDto sendInspectPropose(Entity entity, ProposeRevokeVcReqDto proposeRevokeVcReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.INSPECT_PROPOSE_REVOKE;
-
+    private CompletableFuture<InspectProposeRevokeApiResDto> sendInspectPropose(Entity entity, ProposeRevokeVcReqDto proposeRevokeVcReqDto) {
         InspectProposeRevokeApiReqDto inspectProposeRevokeApiReqDto = InspectProposeRevokeApiReqDto.builder()
                 .id(proposeRevokeVcReqDto.getId())
                 .vcId(proposeRevokeVcReqDto.getVcId())
                 .build();
-        try {
-            String request = JsonUtil.serializeToJson(inspectProposeRevokeApiReqDto);
-            return HttpClientUtil.postData(url, request, InspectProposeRevokeApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending inspect-propose request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending inspect-propose request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.INSPECT_PROPOSE_REVOKE, inspectProposeRevokeApiReqDto, InspectProposeRevokeApiResDto.class, "inspect-propose");
     }
 
     /**
@@ -1037,7 +1047,20 @@ public class VcServiceImpl implements VcService {
      * @throws OpenDidException if any step in the process fails
      */
     @Override
+    @IdempotentStep(SubTransactionType.REQUEST_REVOKE_VC)
     public RequestRevokeVcResDto requestRevokeVc(RequestRevokeVcReqDto requestRevokeVcReqDto) {
+        return VcAsyncHelper.join(requestRevokeVcAsync(requestRevokeVcReqDto));
+    }
+
+    /**
+     * Processes a request to revoke a VC without holding a thread while the issuer call is outstanding.
+     *
+     * @param requestRevokeVcReqDto The DTO containing the VC revocation request information
+     * @return Future of RequestRevokeVcResDto
+     */
+    @Override
+    @IdempotentStep(SubTransactionType.REQUEST_REVOKE_VC)
+    public CompletableFuture<RequestRevokeVcResDto> requestRevokeVcAsync(RequestRevokeVcReqDto requestRevokeVcReqDto) {
         try {
             log.debug("=== Starting requestRevokeVc ===");
 
@@ -1056,33 +1079,31 @@ public class VcServiceImpl implements VcService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(requestRevokeVcReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.REVOKE_VC);
+            tokenValidator.validateServerToken(requestRevokeVcReqDto.getServerToken(), transaction, ServerTokenPurpose.REVOKE_VC);
 
             // Send revoke-vc to Issuer
             log.debug("\t--> Sending revoke-vc to Issuer");
-            RevokeVcApiResDto revokeVcApiResDto = sendRevokeVc(entity, transaction, requestRevokeVcReqDto);
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(lastSubTransaction.getStep() + 1)
-                    .type(SubTransactionType.REQUEST_REVOKE_VC)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished requestRevokeVc ***");
-
-            return RequestRevokeVcResDto.builder()
-                    .txId(requestRevokeVcReqDto.getTxId())
-                    .build();
-        } catch (OpenDidException e) {
-            log.error("An OpenDidException occurred while sending requestRevokeVc request", e);
-            throw e;
+            CompletableFuture<RequestRevokeVcResDto> future = vcAsyncHelper.completeInTransaction(sendRevokeVc(entity, transaction, requestRevokeVcReqDto), revokeVcApiResDto -> {
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(lastSubTransaction.getStep() + 1)
+                        .type(SubTransactionType.REQUEST_REVOKE_VC)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished requestRevokeVc ***");
+
+                return RequestRevokeVcResDto.builder()
+                        .txId(requestRevokeVcReqDto.getTxId())
+                        .build();
+            });
+
+            return handleFailure(future, "requestRevokeVc", ErrorCode.FAIL_TO_REQUEST_REVOKE_VC);
         } catch (Exception e) {
-            log.error("An unknown error occurred while sending requestRevokeVc request", e);
-            throw new OpenDidException(ErrorCode.FAIL_TO_REQUEST_REVOKE_VC);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "requestRevokeVc", ErrorCode.FAIL_TO_REQUEST_REVOKE_VC));
         }
     }
 
@@ -1119,26 +1140,14 @@ public class VcServiceImpl implements VcService {
      * @return RevokeVcApiResDto containing the response from the Issuer
      * @throws OpenDidException if there's an error in communication with the issuer
      */
-    private RevokeVcApiResDto sendRevokeVc(Entity entity, Transaction transaction, RequestRevokeVcReqDto requestRevokeVcReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.REVOKE_VC;
-
+    private CompletableFuture<RevokeVcApiResDto> sendRevokeVc(Entity entity, Transaction transaction, RequestRevokeVcReqDto requestRevokeVcReqDto) {
         RevokeVcApiReqDto revokeVcApiReqDto = RevokeVcApiReqDto.builder()
                 .id(requestRevokeVcReqDto.getId())
                 .txId(transaction.getExternalTxId())
                 .request(requestRevokeVcReqDto.getRequest())
                 .build();
 
-        try {
-            String request = JsonUtil.serializeToJson(revokeVcApiReqDto);
-            return HttpClientUtil.postData(url, request, RevokeVcApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending request-vc request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending request-vc request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.REVOKE_VC, revokeVcApiReqDto, RevokeVcApiResDto.class, "revoke-vc");
     }
 
     /**
@@ -1151,7 +1160,20 @@ public class VcServiceImpl implements VcService {
      * @throws OpenDidException if any step in the process fails
      */
     @Override
+    @IdempotentStep(SubTransactionType.CONFIRM_REVOKE_VC)
     public ConfirmRevokeVcResDto confirmRevokeVc(ConfirmRevokeVcReqDto confirmRevokeVcReqDto) {
+        return VcAsyncHelper.join(confirmRevokeVcAsync(confirmRevokeVcReqDto));
+    }
+
+    /**
+     * Confirms the VC revocation without holding a thread while the issuer call is outstanding.
+     *
+     * @param confirmRevokeVcReqDto The DTO containing the VC revocation confirmation information
+     * @return Future of ConfirmRevokeVcResDto
+     */
+    @Override
+    @IdempotentStep(SubTransactionType.CONFIRM_REVOKE_VC)
+    public CompletableFuture<ConfirmRevokeVcResDto> confirmRevokeVcAsync(ConfirmRevokeVcReqDto confirmRevokeVcReqDto) {
         try {
             log.debug("=== Starting confirmRevokeVc ===");
 
@@ -1170,38 +1192,35 @@ public class VcServiceImpl implements VcService {
 
             // Validate server token.
             log.debug("\t--> Validating server token");
-            tokenValidator.validateServerToken(confirmRevokeVcReqDto.getServerToken(), transaction.getId(), ServerTokenPurpose.REVOKE_VC);
+            tokenValidator.validateServerToken(confirmRevokeVcReqDto.getServerToken(), transaction, ServerTokenPurpose.REVOKE_VC);
 
             // Send complete-revoke to Issuer
             log.debug("\t--> Sending complete-revoke to Issuer");
-            CompleteRevokeApiResDto completeRevokeApiResDto = sendConfirmRevokeVc(entity, transaction, confirmRevokeVcReqDto);
-
-            // Update transaction status.
-            log.debug("\t--> Updating transaction status for transaction ID: {} to {}", transaction.getId(), TransactionStatus.COMPLETED);
-            transactionService.updateTransactionStatus(transaction.getId(), TransactionStatus.COMPLETED);
-
-            // Insert sub-transaction information.
-            log.debug("\t--> Inserting sub-transaction information");
-            transactionService.insertSubTransaction(SubTransaction.builder()
-                    .transactionId(transaction.getId())
-                    .step(lastSubTransaction.getStep() + 1)
-                    .type(SubTransactionType.CONFIRM_REVOKE_VC)
-                    .status(SubTransactionStatus.COMPLETED)
-                    .build()
-            );
-
-            log.debug("*** Finished confirmRevokeVc ***");
-
-            return ConfirmRevokeVcResDto.builder()
-                    .txId(confirmRevokeVcReqDto.getTxId())
-                    .build();
-
-        } catch (OpenDidException e) {
-            log.error("An OpenDidException occurred while sending confirmRevokeVc request", e);
-            throw e;
+            CompletableFuture<ConfirmRevokeVcResDto> future = vcAsyncHelper.completeInTransaction(sendConfirmRevokeVc(entity, transaction, confirmRevokeVcReqDto), completeRevokeApiResDto -> {
+                // Update transaction status.
+                log.debug("\t--> Updating transaction status for transaction ID: {} to {}", transaction.getId(), TransactionStatus.COMPLETED);
+                transactionService.updateTransactionStatus(transaction.getId(), TransactionStatus.COMPLETED);
+
+                // Insert sub-transaction information.
+                log.debug("\t--> Inserting sub-transaction information");
+                transactionService.insertSubTransaction(SubTransaction.builder()
+                        .transactionId(transaction.getId())
+                        .step(lastSubTransaction.getStep() + 1)
+                        .type(SubTransactionType.CONFIRM_REVOKE_VC)
+                        .status(SubTransactionStatus.COMPLETED)
+                        .build()
+                );
+
+                log.debug("*** Finished confirmRevokeVc ***");
+
+                return ConfirmRevokeVcResDto.builder()
+                        .txId(confirmRevokeVcReqDto.getTxId())
+                        .build();
+            });
+
+            return handleFailure(future, "confirmRevokeVc", ErrorCode.FAIL_TO_CONFIRM_REVOKE_VC);
         } catch (Exception e) {
-            log.error("An unknown error occurred while sending confirmRevokeVc request", e);
-            throw new OpenDidException(ErrorCode.FAIL_TO_CONFIRM_REVOKE_VC);
+            return CompletableFuture.failedFuture(toOpenDidException(e, "confirmRevokeVc", ErrorCode.FAIL_TO_CONFIRM_REVOKE_VC));
         }
     }
 
@@ -1236,24 +1255,12 @@ public class VcServiceImpl implements VcService {
      *  @return CompleteRevokeApiResDto containing the API response
      *  @throws OpenDidException if there's an error in communication with the issuer
      */
-    private CompleteRevokeApiResDto sendConfirmRevokeVc(Entity entity, Transaction transaction, ConfirmRevokeVcReqDto confirmRevokeVcReqDto) {
-        String url = entity.getServerUrl() + Issuer.V1 + Issuer.COMPLETE_REVOKE;
-
+    private CompletableFuture<CompleteRevokeApiResDto> sendConfirmRevokeVc(Entity entity, Transaction transaction, ConfirmRevokeVcReqDto confirmRevokeVcReqDto) {
         CompleteRevokeApiReqDto completeRevokeApiReqDto = CompleteRevokeApiReqDto.builder()
                 .id(confirmRevokeVcReqDto.getId())
                 .txId(transaction.getExternalTxId())
                 .build();
 
-        try {
-            String request = JsonUtil.serializeToJson(completeRevokeApiReqDto);
-            return HttpClientUtil.postData(url, request, CompleteRevokeApiResDto.class);
-        } catch (HttpClientException e) {
-            log.error("HttpClientException occurred while sending complete-revoke request: {}", e.getResponseBody(), e);
-            ErrorResponse errorResponse = convertExternalErrorResponse(e.getResponseBody());
-            throw new OpenDidException(errorResponse);
-        } catch (Exception e) {
-            log.error("An unknown error occurred while sending complete-revoke request", e);
-            throw new OpenDidException(ErrorCode.ISSUER_COMMUNICATION_ERROR);
-        }
+        return relayToIssuer(entity, Issuer.COMPLETE_REVOKE, completeRevokeApiReqDto, CompleteRevokeApiResDto.class, "complete-revoke");
     }
 }
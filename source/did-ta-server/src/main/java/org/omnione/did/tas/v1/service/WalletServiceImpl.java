@@ -34,9 +34,9 @@ import org.omnione.did.base.db.domain.Wallet;
 import org.omnione.did.base.db.repository.WalletRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
-import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.lock.StripedLock;
 import org.omnione.did.base.util.BaseDigestUtil;
-import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.base.util.ParsedDidDoc;
 import org.omnione.did.tas.v1.dto.wallet.RegisterWalletReqDto;
 import org.omnione.did.tas.v1.dto.wallet.RegisterWalletResDto;
 import org.omnione.did.tas.v1.service.query.EntityQueryService;
@@ -46,16 +46,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.common.util.DidUtil;
 import org.omnione.did.common.util.DidValidator;
-import org.omnione.did.common.util.IdGenerator;
 import org.omnione.did.common.util.JsonUtil;
-import org.omnione.did.core.manager.DidManager;
-import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.InvokedDidDoc;
 import org.omnione.did.data.model.enums.vc.RoleType;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 /**
@@ -66,15 +64,17 @@ import java.time.Instant;
 @Slf4j
 @Profile("!sample")
 public class WalletServiceImpl implements WalletService {
+    private static final String WALLET_ID_LOCK_SCOPE = "wallet-id";
 
     private final EntityQueryService entityQueryService;
     private final WalletQueryService walletQueryService;
     private final TransactionService transactionService;
     private final WalletRepository walletRepository;
     private final DidDocService didDocService;
-    private final StorageService storageService;
+    private final LedgerOutboxService ledgerOutboxService;
     private final SignatureService signatureService;
     private final CertificateVcValidator certificateVcValidator;
+    private final StripedLock stripedLock;
 
     /**
      * Handles a request to register a wallet.
@@ -84,13 +84,14 @@ public class WalletServiceImpl implements WalletService {
      * @throws OpenDidException if an error occurs during the registration process.
      */
     @Override
+    @Transactional
     public RegisterWalletResDto RequestRegisterWallet(RegisterWalletReqDto registerWalletReqDto) {
         try {
             log.debug("=== Starting RequestRegisterWallet ===");
 
             // Parse Wallet did document.
             log.debug("\t--> Parsing Owner DID Document");
-            DidDocument ownerDidDoc = parseOwnerDidDoc(registerWalletReqDto.getAttestedDidDoc().getOwnerDidDoc());
+            ParsedDidDoc ownerDidDoc = parseOwnerDidDoc(registerWalletReqDto.getAttestedDidDoc().getOwnerDidDoc());
 
             // Check if the Entity is registered.
             log.debug("\t--> Validating Signer");
@@ -100,41 +101,43 @@ public class WalletServiceImpl implements WalletService {
             log.debug("\t--> Validating Attested DID Document");
             validateAttestedDidDoc(registerWalletReqDto.getAttestedDidDoc());
 
-            // Check for duplicate Wallet ID.
-            log.debug("\t--> Checking Wallet ID Duplicate");
-            checkWalletIdDuplicate(registerWalletReqDto.getAttestedDidDoc().getWalletId());
-
-            // Verify DID document key signatures.
-            log.debug("\t--> Verifying DID Document Key Proofs");
-            signatureService.verifyDidDocKeyProofs(ownerDidDoc);
-
-            // Sign DID document.
-            log.debug("\t--> Signing Invoked DID Document");
-            InvokedDidDoc invokedDidDoc = signatureService.signInvokedDidDoc(ownerDidDoc);
-
-            // Upload Wallet DID document.
-            log.debug("\t--> Uploading Wallet DID Document");
-            storageService.registerDidDoc(invokedDidDoc, RoleType.WALLET);
-
-            // Insert wallet information
-            log.debug("\t--> Inserting Wallet Information");
-            insertWallet(Wallet.builder()
-                    .walletId(registerWalletReqDto.getAttestedDidDoc().getWalletId())
-                    .did(ownerDidDoc.getId())
-                    .status(WalletStatus.CREATED)
-                    .registeredAt(Instant.now())
-                    .entityId(entity.getId())
-                    .build());
+            // Serialize registrations of the same wallet ID on this node until the transaction completes.
+            String walletId = registerWalletReqDto.getAttestedDidDoc().getWalletId();
+            InvokedDidDoc invokedDidDoc;
+            log.debug("\t--> Locking Wallet ID");
+            try (StripedLock.Handle ignored = stripedLock.lock(WALLET_ID_LOCK_SCOPE, walletId)) {
+                // Check for duplicate Wallet ID.
+                log.debug("\t--> Checking Wallet ID Duplicate");
+                checkWalletIdDuplicate(walletId);
+
+                // Verify DID document key signatures.
+                log.debug("\t--> Verifying DID Document Key Proofs");
+                signatureService.verifyDidDocKeyProofs(ownerDidDoc);
+
+                // Sign DID document.
+                log.debug("\t--> Signing Invoked DID Document");
+                invokedDidDoc = signatureService.signInvokedDidDoc(ownerDidDoc);
+
+                // Insert wallet information
+                log.debug("\t--> Inserting Wallet Information");
+                insertWallet(Wallet.builder()
+                        .walletId(walletId)
+                        .did(ownerDidDoc.getId())
+                        .status(WalletStatus.CREATED)
+                        .registeredAt(Instant.now())
+                        .entityId(entity.getId())
+                        .build());
+            }
 
             // Generate transaction code.
-            String txId = IdGenerator.generateTxId();
+            String txId = transactionService.generateTxId();
 
             // Insert transaction information.
             log.debug("\t--> Inserting Transaction Information");
             Transaction transaction = transactionService.insertTransaction(Transaction.builder()
                     .txId(txId)
                     .type(TransactionType.WALLET_REGISTRATION)
-                    .status(TransactionStatus.COMPLETED)
+                    .status(TransactionStatus.PENDING)
                     .expiredAt(transactionService.retrieveTransactionExpiredTime())
                     .build()
             );
@@ -149,6 +152,10 @@ public class WalletServiceImpl implements WalletService {
                     .build()
             );
 
+            // Record Wallet DID document for the ledger; the transaction completes once it is committed.
+            log.debug("\t--> Recording Wallet DID Document for the ledger");
+            ledgerOutboxService.registerDidDoc(transaction.getId(), invokedDidDoc, ownerDidDoc.getDocument(), RoleType.WALLET, true);
+
             log.debug("*** Finished RequestRegisterWallet ***");
 
             return RegisterWalletResDto.builder()
@@ -169,11 +176,8 @@ public class WalletServiceImpl implements WalletService {
      * @param encodedDidDoc Encoded DID document.
      * @return Parsed DID document.
      */
-    private DidDocument parseOwnerDidDoc(String encodedDidDoc) {
-        byte[] decodedDidDoc = BaseMultibaseUtil.decode(encodedDidDoc);
-        DidManager didManager = BaseCoreDidUtil.parseDidDoc(new String(decodedDidDoc, StandardCharsets.UTF_8));
-
-        return didManager.getDocument();
+    private ParsedDidDoc parseOwnerDidDoc(String encodedDidDoc) {
+        return ParsedDidDoc.decode(encodedDidDoc);
     }
 
     /**
@@ -244,10 +248,10 @@ public class WalletServiceImpl implements WalletService {
         byte[] signatureMessage = extractSignatureMessage(attestedDidDoc);
 
         // Find Wallet Provider DID Document.
-        DidDocument walletProviderDidDocument = didDocService.getDidDocument(verificationMethod);
+        ParsedDidDoc walletProviderDidDocument = didDocService.getParsedDidDocument(verificationMethod);
 
         // Get the Assertion public key.
-        String encodedAssertPublicKey = BaseCoreDidUtil.getPublicKey(walletProviderDidDocument, "assert");
+        String encodedAssertPublicKey = walletProviderDidDocument.getPublicKey("assert");
 
         // Verify the signature.
         signatureService.verifySignature(encodedAssertPublicKey, attestedDidDoc.getProof().getProofValue(), signatureMessage, attestedDidDoc.getProof().getType());
@@ -312,10 +316,18 @@ public class WalletServiceImpl implements WalletService {
 
     /**
      * Inserts the wallet information into the database.
+     * A concurrent registration of the same wallet ID on another node
+     * is rejected by the unique constraint on wallet.wallet_id.
      *
      * @param wallet Wallet object to insert.
+     * @throws OpenDidException if the wallet ID already exists.
      */
     private void insertWallet(Wallet wallet) {
-        walletRepository.save(wallet);
+        try {
+            walletRepository.save(wallet);
+        } catch (DataIntegrityViolationException e) {
+            log.error("\t--> Wallet ID already exists: {}", wallet.getWalletId());
+            throw new OpenDidException(ErrorCode.WALLET_ID_ALREADY_EXISTS);
+        }
     }
 }
@@ -16,10 +16,13 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.domain.CertificateVc;
 import org.omnione.did.base.db.repository.CertificateVcRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.tas.v1.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,25 +33,31 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
+@RequestMemoized
 public class CertificateVcQueryService {
     private final CertificateVcRepository certificateVcRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Finds the latest CertificateVc.
+     * The result is served from the reference data cache and must not be modified.
      *
      * @return The latest CertificateVc
      * @throws OpenDidException if the CertificateVc is not found
      */
     public CertificateVc findCertificateVc() {
-        try {
-            return certificateVcRepository.findFirstByOrderByCreatedAtDesc()
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.TAS_CERTIFICATE_DATA_NOT_FOUND));
-        } catch (OpenDidException e) {
-            log.error("CertificateVc not found: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error occurred while finding CertificateVc: {}" , e.getMessage());
-            throw new OpenDidException(ErrorCode.TAS_CERTIFICATE_DATA_NOT_FOUND);
-        }
+        return referenceDataCache.get(ReferenceDataCache.Region.CERTIFICATE_VC, null, () -> {
+            try {
+                return certificateVcRepository.findFirstByOrderByCreatedAtDesc()
+                        .orElseThrow(() -> new OpenDidException(ErrorCode.TAS_CERTIFICATE_DATA_NOT_FOUND));
+            } catch (OpenDidException e) {
+                log.error("CertificateVc not found: {}", e.getMessage());
+                throw e;
+            } catch (Exception e) {
+                log.error("Unexpected error occurred while finding CertificateVc: {}" , e.getMessage());
+                throw new OpenDidException(ErrorCode.TAS_CERTIFICATE_DATA_NOT_FOUND);
+            }
+        });
     }
 }
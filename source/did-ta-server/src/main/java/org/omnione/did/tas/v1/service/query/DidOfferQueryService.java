@@ -16,10 +16,12 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.domain.DidOffer;
 import org.omnione.did.base.db.repository.DidOfferRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -52,6 +54,8 @@ public class DidOfferQueryService {
      * @return Found DidOffer.
      * @throws OpenDidException if the DidOffer is not found.
      */
+    @ReplicaRead
+    @RequestMemoized
     public DidOffer findById(Long id) {
         return didOfferRepository.findById(id)
                 .orElseThrow(() -> new OpenDidException(ErrorCode.DID_OFFER_NOT_FOUND));
@@ -64,6 +68,8 @@ public class DidOfferQueryService {
      * @return Found DidOffer.
      * @throws OpenDidException if the DidOffer is not found.
      */
+    @ReplicaRead
+    @RequestMemoized
     public DidOffer findByOfferId(String offerId) {
         return didOfferRepository.findByOfferId(offerId)
                 .orElseThrow(() -> new OpenDidException(ErrorCode.DID_OFFER_NOT_FOUND));
@@ -76,6 +82,8 @@ public class DidOfferQueryService {
      * @return Found DidOffer.
      * @throws OpenDidException if the DidOffer is not found.
      */
+    @ReplicaRead
+    @RequestMemoized
     public DidOffer findByTransactionId(Long transactionId) {
         return didOfferRepository.findByTransactionId(transactionId)
                 .orElseThrow(() -> new OpenDidException(ErrorCode.DID_OFFER_NOT_FOUND));
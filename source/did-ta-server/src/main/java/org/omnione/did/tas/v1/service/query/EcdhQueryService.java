@@ -17,34 +17,57 @@
 package org.omnione.did.tas.v1.service.query;
 
 import org.omnione.did.base.db.domain.Ecdh;
+import org.omnione.did.base.db.projection.EcdhRow;
+import org.omnione.did.base.db.repository.LeanReadRepository;
 import org.omnione.did.base.db.repository.EcdhRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.TransactionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service for querying ECDH.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@RequestMemoized
 public class EcdhQueryService {
 
     private final EcdhRepository ecdhRepository;
+    private final LeanReadRepository leanReadRepository;
+    private final TasProperty tasProperty;
+    private final TransactionCache transactionCache;
 
     /**
      * Finds an ECDH by its transaction ID.
+     * In-flight transactions are served from the transaction cache, falling back to the database on a miss.
+     * Database reads go through {@link LeanReadRepository} unless tas.lean-read.enable is false.
      *
      * @param transactionId Transaction ID to search for.
      * @return Found ECDH.
      * @throws OpenDidException if the ECDH is not found.
      */
     public Ecdh findEcdhByTransactionId(Long transactionId) {
+        Ecdh cachedEcdh = transactionCache.getEcdh(transactionId);
+        if (cachedEcdh != null) {
+            return cachedEcdh;
+        }
+
         try {
-            return ecdhRepository.findByTransactionId(transactionId)
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.ECDH_NOT_FOUND));
+            Optional<Ecdh> found = tasProperty.getLeanRead().isEnable()
+                    ? leanReadRepository.findEcdhByTransactionId(transactionId).map(EcdhRow::toEntity)
+                    : ecdhRepository.findByTransactionId(transactionId);
+            Ecdh ecdh = found.orElseThrow(() -> new OpenDidException(ErrorCode.ECDH_NOT_FOUND));
+            transactionCache.putEcdh(ecdh);
+
+            return ecdh;
         } catch (OpenDidException e) {
             log.error("ECDH not found for transactionId {}: {}", transactionId, e.getMessage());
             throw e;
@@ -16,11 +16,14 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.constant.EntityStatus;
 import org.omnione.did.base.db.domain.Entity;
 import org.omnione.did.base.db.repository.EntityRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.tas.v1.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,27 +34,33 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
+@RequestMemoized
 public class EntityQueryService {
     private final EntityRepository entityRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Finds an Entity by its DID.
+     * The result is served from the reference data cache and must not be modified.
      *
      * @param did DID to search for.
      * @return Found Entity.
      * @throws OpenDidException if the Entity is not found.
      */
     public Entity findEntityByDid(String did) {
-        try {
-            return entityRepository.findByDid(did)
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.ENTITY_INFO_NOT_FOUND));
-        } catch (OpenDidException e) {
-            log.error("Entity not found for did {}: {}", did, e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error occurred while finding Entity for did {}: {}", did, e.getMessage());
-            throw new OpenDidException(ErrorCode.ENTITY_INFO_NOT_FOUND);
-        }
+        return referenceDataCache.get(ReferenceDataCache.Region.ENTITY, did, () -> {
+            try {
+                return entityRepository.findByDid(did)
+                        .orElseThrow(() -> new OpenDidException(ErrorCode.ENTITY_INFO_NOT_FOUND));
+            } catch (OpenDidException e) {
+                log.error("Entity not found for did {}: {}", did, e.getMessage());
+                throw e;
+            } catch (Exception e) {
+                log.error("Unexpected error occurred while finding Entity for did {}: {}", did, e.getMessage());
+                throw new OpenDidException(ErrorCode.ENTITY_INFO_NOT_FOUND);
+            }
+        });
     }
 
     /**
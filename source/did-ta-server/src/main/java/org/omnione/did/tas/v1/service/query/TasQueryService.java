@@ -16,12 +16,15 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.constant.TasStatus;
 import org.omnione.did.base.db.domain.Tas;
 import org.omnione.did.base.db.repository.TasRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.tas.v1.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,27 +35,33 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
+@RequestMemoized
 public class TasQueryService {
     private final TasRepository tasRepository;
     private final TasProperty tasProperty;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Finds a TAS by its DID.
+     * The result is served from the reference data cache and must not be modified.
      *
      * @return Found TAS.
      * @throws OpenDidException if the TAS is not found.
      */
     public Tas findTas() {
-        try {
-            return tasRepository.findByDid(tasProperty.getDid())
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.TAS_INFO_NOT_FOUND));
-        } catch (OpenDidException e) {
-            log.error("TAS not found : {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error occurred while finding TAS : {}", e.getMessage());
-            throw new OpenDidException(ErrorCode.TAS_INFO_NOT_FOUND);
-        }
+        return referenceDataCache.get(ReferenceDataCache.Region.TAS, tasProperty.getDid(), () -> {
+            try {
+                return tasRepository.findByDid(tasProperty.getDid())
+                        .orElseThrow(() -> new OpenDidException(ErrorCode.TAS_INFO_NOT_FOUND));
+            } catch (OpenDidException e) {
+                log.error("TAS not found : {}", e.getMessage());
+                throw e;
+            } catch (Exception e) {
+                log.error("Unexpected error occurred while finding TAS : {}", e.getMessage());
+                throw new OpenDidException(ErrorCode.TAS_INFO_NOT_FOUND);
+            }
+        });
     }
 
     /**
@@ -16,34 +16,59 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.projection.TokenRow;
+import org.omnione.did.base.db.repository.LeanReadRepository;
 import org.omnione.did.base.db.repository.TokenRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.TransactionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service for querying Token.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
+@RequestMemoized
 public class TokenQueryService {
     private final TokenRepository tokenRepository;
+    private final LeanReadRepository leanReadRepository;
+    private final TasProperty tasProperty;
+    private final TransactionCache transactionCache;
 
     /**
      * Finds a Token by its transaction ID.
+     * In-flight transactions are served from the transaction cache, falling back to the database on a miss.
+     * Database reads go through {@link LeanReadRepository} unless tas.lean-read.enable is false.
      *
      * @param transactionId Transaction ID to search for.
      * @return Found Token.
      * @throws OpenDidException if the Token is not found.
      */
     public Token findTokenByTransactionId(Long transactionId) {
+        Token cachedToken = transactionCache.getToken(transactionId);
+        if (cachedToken != null) {
+            return cachedToken;
+        }
+
         try {
-            return tokenRepository.findByTransactionId(transactionId)
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.TOKEN_INFO_NOT_FOUND));
+            Optional<Token> found = tasProperty.getLeanRead().isEnable()
+                    ? leanReadRepository.findTokenByTransactionId(transactionId).map(TokenRow::toEntity)
+                    : tokenRepository.findByTransactionId(transactionId);
+            Token token = found.orElseThrow(() -> new OpenDidException(ErrorCode.TOKEN_INFO_NOT_FOUND));
+            transactionCache.putToken(token);
+
+            return token;
         } catch (OpenDidException e) {
             log.error("Token not found for transactionId {}: {}", transactionId, e.getMessage());
             throw e;
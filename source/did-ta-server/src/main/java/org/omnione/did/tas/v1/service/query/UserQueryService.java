@@ -16,16 +16,20 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.constant.UserStatus;
 import org.omnione.did.base.db.domain.User;
 import org.omnione.did.base.db.repository.UserRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.tas.v1.helper.PiiHashHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for querying User.
@@ -33,8 +37,17 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
+@RequestMemoized
 public class UserQueryService {
+    private static final long UNHASHED_USERS_RECHECK_MS = 60_000L;
+
     private final UserRepository userRepository;
+    private final PiiHashHelper piiHashHelper;
+
+    // Whether user rows without pii_hash remain, as last read from the database.
+    private volatile boolean unhashedUsersRemain = true;
+    private volatile long unhashedUsersCheckedAt = 0L;
 
     /**
      * UserRepository countByDid
@@ -130,6 +143,8 @@ public class UserQueryService {
 
     /**
      * Finds a User by its PII.
+     * The lookup uses the indexed keyed hash of the PII. While user rows without pii_hash remain
+     * in the database, users without a hash are matched on the raw PII column as a fallback.
      *
      * @param pii PII to search for
      * @return Found User
@@ -137,8 +152,12 @@ public class UserQueryService {
      */
     public User findByPiiAndStatus(String pii, UserStatus status) {
         try {
-            return userRepository.findByPiiAndStatus(pii, status)
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.USER_INFO_NOT_FOUND));
+            Optional<User> optionalUser = userRepository.findByPiiHashAndStatus(piiHashHelper.hash(pii), status);
+            if (optionalUser.isEmpty() && hasUnhashedUsers()) {
+                optionalUser = userRepository.findByPiiAndStatusAndPiiHashIsNull(pii, status);
+            }
+
+            return optionalUser.orElseThrow(() -> new OpenDidException(ErrorCode.USER_INFO_NOT_FOUND));
         } catch (OpenDidException e) {
             log.error("User not found", e.getMessage());
             throw e;
@@ -147,4 +166,25 @@ public class UserQueryService {
             throw new OpenDidException(ErrorCode.USER_INFO_NOT_FOUND);
         }
     }
+
+    /**
+     * Reads from the database whether user rows without pii_hash remain.
+     * Called once the pii_hash backfill has run; lookups re-check on their own at most once a minute
+     * while such rows remain, so nodes that do not run the backfill also stop falling back.
+     */
+    public void refreshUnhashedUsers() {
+        try {
+            unhashedUsersRemain = userRepository.existsByPiiHashIsNull();
+            unhashedUsersCheckedAt = System.currentTimeMillis();
+        } catch (Exception e) {
+            log.warn("Failed to check for users without pii_hash: {}", e.getMessage());
+        }
+    }
+
+    private boolean hasUnhashedUsers() {
+        if (unhashedUsersRemain && System.currentTimeMillis() - unhashedUsersCheckedAt >= UNHASHED_USERS_RECHECK_MS) {
+            refreshUnhashedUsers();
+        }
+        return unhashedUsersRemain;
+    }
 }
@@ -16,23 +16,34 @@
 
 package org.omnione.did.tas.v1.service.query;
 
+import org.omnione.did.base.datasource.ReplicaRead;
 import org.omnione.did.base.db.constant.WalletStatus;
 import org.omnione.did.base.db.domain.Wallet;
+import org.omnione.did.base.db.projection.WalletRow;
+import org.omnione.did.base.db.repository.LeanReadRepository;
 import org.omnione.did.base.db.repository.WalletRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.base.property.TasProperty;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service for querying Wallet.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ReplicaRead
+@RequestMemoized
 public class WalletQueryService {
     private final WalletRepository walletRepository;
+    private final LeanReadRepository leanReadRepository;
+    private final TasProperty tasProperty;
 
     /**
      * Finds a Wallet by its ID.
@@ -99,6 +110,7 @@ public class WalletQueryService {
 
     /**
      * Finds a Wallet by its wallet ID and DID.
+     * The row is read through {@link LeanReadRepository} unless tas.lean-read.enable is false.
      *
      * @param walletId Wallet ID to search for.
      * @param did DID to search for.
@@ -108,8 +120,10 @@ public class WalletQueryService {
     public Wallet findByWalletIdAndDidAndStatus(String walletId, String did, WalletStatus walletStatus) {
 
         try {
-            return walletRepository.findByWalletIdAndDidAndStatus(walletId, did, walletStatus)
-                    .orElseThrow(() -> new OpenDidException(ErrorCode.WALLET_INFO_NOT_FOUND));
+            Optional<Wallet> found = tasProperty.getLeanRead().isEnable()
+                    ? leanReadRepository.findWalletByWalletIdAndDidAndStatus(walletId, did, walletStatus).map(WalletRow::toEntity)
+                    : walletRepository.findByWalletIdAndDidAndStatus(walletId, did, walletStatus);
+            return found.orElseThrow(() -> new OpenDidException(ErrorCode.WALLET_INFO_NOT_FOUND));
         } catch (OpenDidException e) {
             log.error("Wallet not found for walletId {}, did {} : {}", walletId, did, e.getMessage());
             throw e;
@@ -18,15 +18,18 @@ package org.omnione.did.tas.v1.service.validator;
 
 import org.omnione.did.base.datamodel.enums.ServerTokenPurpose;
 import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.tas.v1.helper.ServerTokenMacHelper;
 import org.omnione.did.tas.v1.service.query.TokenQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.common.util.DateTimeUtil;
 import org.springframework.stereotype.Service;
 
+import java.security.MessageDigest;
 import java.util.Arrays;
 
 /**
@@ -37,23 +40,44 @@ import java.util.Arrays;
 @Slf4j
 public class TokenValidator {
     private final TokenQueryService tokenQueryService;
+    private final ServerTokenMacHelper serverTokenMacHelper;
 
     /**
      * Validates a server token.
+     * MAC server tokens are verified without database access. Legacy tokens are compared with
+     * the token stored for the transaction, as long as legacy tokens are accepted.
      *
      * @param requestedServerToken The server token to validate
-     * @param transactionId The transaction ID associated with the token
+     * @param transaction The transaction associated with the token
      * @param serverTokenPurposes The purposes for which the token is valid
      * @return The validated token
      * @throws OpenDidException if validation fails or the token is invalid or expired
      */
-    public Token validateServerToken(String requestedServerToken, long transactionId, ServerTokenPurpose... serverTokenPurposes) {
+    public Token validateServerToken(String requestedServerToken, Transaction transaction, ServerTokenPurpose... serverTokenPurposes) {
+        long transactionId = transaction.getId();
+
         // Decode requested server token.
         byte[] requestServerTokenBytes = BaseMultibaseUtil.decode(requestedServerToken);
 
         // Retrieve token information
-        Token token = tokenQueryService.findTokenByTransactionId(transactionId);
-        byte[] savedServerTokenBytes = BaseMultibaseUtil.decode(token.getToken());
+        Token token;
+        // MAC tokens are only honoured while stateless tokens are enabled; otherwise they fall through
+        // to the token table comparison and are rejected.
+        if (serverTokenMacHelper.isStateless() && serverTokenMacHelper.isMacToken(requestServerTokenBytes)) {
+            token = serverTokenMacHelper.verify(requestedServerToken, requestServerTokenBytes, transaction);
+        } else {
+            if (!serverTokenMacHelper.isLegacyAccepted()) {
+                log.error("\t--> Legacy server token is no longer accepted for transactionId: {}", transactionId);
+                throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+            }
+
+            token = tokenQueryService.findTokenByTransactionId(transactionId);
+            byte[] savedServerTokenBytes = BaseMultibaseUtil.decode(token.getToken());
+            if (!MessageDigest.isEqual(requestServerTokenBytes, savedServerTokenBytes)) {
+                log.error("\t--> Invalid token for transactionId: {}", transactionId);
+                throw new OpenDidException(ErrorCode.INVALID_TOKEN);
+            }
+        }
 
         // Verify token purpose.
         boolean isValidPurpose = Arrays.stream(serverTokenPurposes)
@@ -71,11 +95,6 @@ public class TokenValidator {
             throw new OpenDidException(ErrorCode.TOKEN_EXPIRED);
         }
 
-        if (!Arrays.equals(requestServerTokenBytes, savedServerTokenBytes)) {
-            log.error("\t--> Invalid token for transactionId: {}", transactionId);
-            throw new OpenDidException(ErrorCode.INVALID_TOKEN);
-        }
-
         return token;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.startup.BackgroundInitializer;
+import org.omnione.did.base.startup.StartupTimeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BackgroundInitializerTest {
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private StartupTimeline startupTimeline;
+    private BackgroundInitializer backgroundInitializer;
+
+    @BeforeEach
+    public void setUp() {
+        startupTimeline = new StartupTimeline();
+        backgroundInitializer = new BackgroundInitializer(startupTimeline, events::add);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        backgroundInitializer.shutdown();
+    }
+
+    @Test
+    public void readinessIsHeldBackUntilCriticalTaskCompletes() throws Exception {
+        CompletableFuture<Void> task = backgroundInitializer.run("critical", true, this::awaitRelease);
+
+        backgroundInitializer.onReadinessChange(accepting());
+        Assertions.assertFalse(backgroundInitializer.isReady());
+        Assertions.assertEquals(ReadinessState.REFUSING_TRAFFIC, lastState());
+
+        release.countDown();
+        task.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(backgroundInitializer.isReady());
+        Assertions.assertEquals(ReadinessState.ACCEPTING_TRAFFIC, lastState());
+        Assertions.assertNotNull(startupTimeline.getSnapshot().getTrafficReadyMs());
+        Assertions.assertEquals("COMPLETED", startupTimeline.getSnapshot().getPhases().get(0).getStatus());
+    }
+
+    @Test
+    public void nonCriticalTaskDoesNotAffectReadiness() {
+        backgroundInitializer.run("optional", false, this::awaitRelease);
+
+        backgroundInitializer.onReadinessChange(accepting());
+
+        Assertions.assertTrue(backgroundInitializer.isReady());
+        Assertions.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void failedCriticalTaskKeepsRefusingTraffic() {
+        CompletableFuture<Void> task = backgroundInitializer.run("critical", true, () -> {
+            throw new IllegalStateException("broken");
+        });
+        Assertions.assertThrows(Exception.class, () -> task.get(5, TimeUnit.SECONDS));
+
+        backgroundInitializer.onReadinessChange(accepting());
+
+        Assertions.assertFalse(backgroundInitializer.isReady());
+        Assertions.assertEquals(ReadinessState.REFUSING_TRAFFIC, lastState());
+        Assertions.assertEquals("FAILED", startupTimeline.getSnapshot().getPhases().get(0).getStatus());
+    }
+
+    private AvailabilityChangeEvent<ReadinessState> accepting() {
+        return new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    private ReadinessState lastState() {
+        Object event = events.get(events.size() - 1);
+        return (ReadinessState) ((AvailabilityChangeEvent<?>) event).getState();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.util.BaseIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public class BaseIdGeneratorTest {
+
+    @Test
+    public void generateTimeOrderedId() {
+        String id = BaseIdGenerator.generateTimeOrderedId();
+        UUID uuid = UUID.fromString(id);
+
+        // Must fit the tx_id varchar(40) column.
+        Assertions.assertTrue(id.length() <= 40);
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    public void timeOrderedIdsAreSortedByTimestamp() {
+        long now = System.currentTimeMillis();
+        String earlier = BaseIdGenerator.generateTimeOrderedUuid(now).toString();
+        String later = BaseIdGenerator.generateTimeOrderedUuid(now + 1).toString();
+
+        Assertions.assertTrue(earlier.compareTo(later) < 0);
+        Assertions.assertEquals(Long.toHexString(now + 1), later.replace("-", "").substring(0, 12).replaceFirst("^0+", ""));
+    }
+
+    @Test
+    public void timeOrderedIdsAreUnique() {
+        long now = System.currentTimeMillis();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(BaseIdGenerator.generateTimeOrderedUuid(now).toString());
+        }
+
+        Assertions.assertEquals(100_000, ids.size());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.base.util.ParsedDidDoc;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class ParsedDidDocTest {
+
+    @Test
+    public void decodedDocumentIsIndexedByKeyId() {
+        String didDocJson = didDocument().toJson();
+
+        ParsedDidDoc parsed = ParsedDidDoc.decode(BaseMultibaseUtil.encode(didDocJson.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals("did:omn:user", parsed.getId());
+        Assertions.assertEquals("zAssert", parsed.getPublicKey("assert"));
+        Assertions.assertEquals("zInvoke", parsed.getPublicKey("invoke"));
+        Assertions.assertNull(parsed.getVerificationMethod("keyagree"));
+        Assertions.assertArrayEquals(didDocJson.getBytes(StandardCharsets.UTF_8), parsed.getBytes());
+        Assertions.assertSame(parsed.getDidManager().getDocument(), parsed.getDocument());
+    }
+
+    @Test
+    public void parsedDocumentIsIndependentOfSource() {
+        DidDocument source = didDocument();
+
+        ParsedDidDoc parsed = ParsedDidDoc.of(source);
+        source.setId("did:omn:other");
+
+        Assertions.assertEquals("did:omn:user", parsed.getId());
+        Assertions.assertEquals(parsed.getDocument().getVerificationMethod().get(0).getId(),
+                parsed.getVerificationMethod("assert").getId());
+    }
+
+    private static DidDocument didDocument() {
+        DidDocument didDocument = new DidDocument();
+        didDocument.setId("did:omn:user");
+        didDocument.setVerificationMethod(List.of(
+                verificationMethod("assert", "zAssert"),
+                verificationMethod("invoke", "zInvoke")));
+        return didDocument;
+    }
+
+    private static VerificationMethod verificationMethod(String keyId, String publicKey) {
+        VerificationMethod verificationMethod = new VerificationMethod();
+        verificationMethod.setId(keyId);
+        verificationMethod.setPublicKeyMultibase(publicKey);
+        return verificationMethod;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.aop.ReplicaReadAspects;
+import org.omnione.did.base.config.DataSourceConfig;
+import org.omnione.did.base.datasource.ReplicaRead;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@DisplayName("Replica Routing")
+@SpringBootTest(classes = ReplicaRoutingContextTest.TestConfig.class, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=" + ReplicaRoutingContextTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.replica.enabled=true",
+        "spring.datasource.replica.driver-class-name=org.h2.Driver",
+        "spring.datasource.replica.url=" + ReplicaRoutingContextTest.REPLICA_URL,
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.password="})
+public class ReplicaRoutingContextTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private NodeQueryService nodeQueryService;
+
+    @Autowired
+    private NodeWriteService nodeWriteService;
+
+    @BeforeAll
+    public static void createDatabases() {
+        createNode(PRIMARY_URL, "primary");
+        createNode(REPLICA_URL, "replica");
+    }
+
+    @BeforeEach
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("A ReplicaRead transaction is served by the replica")
+    void testReplicaReadRoutesToReplica() {
+        Assertions.assertEquals("replica", nodeQueryService.findNodeName());
+    }
+
+    @Test
+    @DisplayName("A read outside ReplicaRead is served by the primary")
+    void testUnmarkedReadRoutesToPrimary() {
+        Assertions.assertEquals("primary", nodeWriteService.findNodeName());
+    }
+
+    @Test
+    @DisplayName("A write pins the later reads of the request to the primary")
+    void testWritePinsLaterReadsToPrimary() {
+        Assertions.assertEquals("replica", nodeQueryService.findNodeName());
+
+        nodeWriteService.touchNode();
+
+        Assertions.assertEquals("primary", nodeQueryService.findNodeName());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Assertions.assertEquals("replica", nodeQueryService.findNodeName());
+    }
+
+    private static void createNode(String url, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({
+            AopAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @Import({DataSourceConfig.class, ReplicaReadAspects.class, NodeQueryService.class, NodeWriteService.class})
+    static class TestConfig {
+    }
+
+    @ReplicaRead
+    static class NodeQueryService {
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeQueryService(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Transactional(readOnly = true)
+        public String findNodeName() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+    }
+
+    static class NodeWriteService {
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeWriteService(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Transactional(readOnly = true)
+        public String findNodeName() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        @Transactional
+        public void touchNode() {
+            jdbcTemplate.update("UPDATE node SET name = name");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.datasource.DataSourceRoutingContext;
+import org.omnione.did.base.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class ReplicaRoutingDataSourceTest {
+    private final DataSource primary = Mockito.mock(DataSource.class);
+    private final DataSource replica = Mockito.mock(DataSource.class);
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+    private final Connection replicaConnection = Mockito.mock(Connection.class);
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replica.getConnection()).thenReturn(replicaConnection);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        DataSourceRoutingContext.restore(null);
+    }
+
+    @Test
+    public void readsGoToPrimaryByDefault() throws SQLException {
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    public void replicaReadsGoToReplica() throws SQLException {
+        Boolean previous = DataSourceRoutingContext.enterReplicaRead();
+        try {
+            Assertions.assertSame(replicaConnection, routingDataSource.getConnection());
+        } finally {
+            DataSourceRoutingContext.restore(previous);
+        }
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    public void pinnedRequestReadsGoToPrimary() throws SQLException {
+        DataSourceRoutingContext.pinToPrimary();
+        DataSourceRoutingContext.enterReplicaRead();
+
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    public void readWriteTransactionPinsRequestToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        try {
+            DataSourceRoutingContext.enterReplicaRead();
+            Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Later reads of the same request must observe the write.
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+}
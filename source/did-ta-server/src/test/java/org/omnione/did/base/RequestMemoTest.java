@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.aop.RequestMemoAspects;
+import org.omnione.did.base.memo.RequestMemoized;
+import org.omnione.did.base.property.TasProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestMemoTest {
+    // Counts the lookups that reach the database.
+    private final AtomicInteger queries = new AtomicInteger();
+    private final TasProperty tasProperty = new TasProperty();
+    private LookupQueryService queryService;
+    private CrudRepository<Object, Long> repository;
+
+    @RequestMemoized
+    public static class LookupQueryService {
+        private final AtomicInteger queries;
+
+        public LookupQueryService(AtomicInteger queries) {
+            this.queries = queries;
+        }
+
+        public String findByKey(String key) {
+            queries.incrementAndGet();
+            return "value-" + key;
+        }
+
+        public String findMissing(String key) {
+            queries.incrementAndGet();
+            return null;
+        }
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RequestMemoAspects aspect = new RequestMemoAspects(tasProperty);
+
+        AspectJProxyFactory queryServiceFactory = new AspectJProxyFactory(new LookupQueryService(queries));
+        queryServiceFactory.setProxyTargetClass(true);
+        queryServiceFactory.addAspect(aspect);
+        queryService = queryServiceFactory.getProxy();
+
+        AspectJProxyFactory repositoryFactory = new AspectJProxyFactory(Mockito.mock(CrudRepository.class));
+        repositoryFactory.addAspect(aspect);
+        repository = repositoryFactory.getProxy();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void repeatedLookupQueriesOnce() {
+        Assertions.assertEquals("value-a", queryService.findByKey("a"));
+        Assertions.assertEquals("value-a", queryService.findByKey("a"));
+        Assertions.assertEquals(1, queries.get());
+
+        queryService.findByKey("b");
+        Assertions.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void missingResultIsMemoized() {
+        Assertions.assertNull(queryService.findMissing("a"));
+        Assertions.assertNull(queryService.findMissing("a"));
+        Assertions.assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void writeClearsMemo() {
+        queryService.findByKey("a");
+        repository.save(new Object());
+        queryService.findByKey("a");
+        Assertions.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void nothingIsMemoizedOutsideRequest() {
+        RequestContextHolder.resetRequestAttributes();
+        queryService.findByKey("a");
+        queryService.findByKey("a");
+        Assertions.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void nothingIsMemoizedWhenDisabled() {
+        tasProperty.getRequestMemo().setEnable(false);
+        queryService.findByKey("a");
+        queryService.findByKey("a");
+        Assertions.assertEquals(2, queries.get());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.lock.StripedLock;
+import org.omnione.did.base.property.TasProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class StripedLockTest {
+    private StripedLock stripedLock;
+
+    @BeforeEach
+    public void setUp() {
+        TasProperty tasProperty = new TasProperty();
+        tasProperty.getStripedLock().setStripes(16);
+        tasProperty.getStripedLock().setWaitTimeoutMs(200);
+        stripedLock = new StripedLock(tasProperty);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void sameKeyWaitsForRelease() throws Exception {
+        StripedLock.Handle handle = stripedLock.lock("wallet-id", "wallet-1");
+        CountDownLatch acquired = new CountDownLatch(1);
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> {
+            try (StripedLock.Handle ignored = stripedLock.lock("wallet-id", "wallet-1")) {
+                acquired.countDown();
+            }
+        });
+
+        Assertions.assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+        handle.close();
+        Assertions.assertTrue(acquired.await(1, TimeUnit.SECONDS));
+        other.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void waitingTooLongFailsWithConcurrentRequestError() throws Exception {
+        try (StripedLock.Handle ignored = stripedLock.lock("user-did", "did:omn:user1")) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () ->
+                    CompletableFuture.runAsync(() -> stripedLock.lock("user-did", "did:omn:user1")).get());
+            Assertions.assertEquals(ErrorCode.CONCURRENT_REQUEST_IN_PROGRESS,
+                    ((OpenDidException) e.getCause()).getErrorCode());
+        }
+    }
+
+    @Test
+    public void lockIsHeldUntilTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        StripedLock.Handle handle = stripedLock.lock("user-did", "did:omn:user2");
+        handle.close();
+
+        // Still held after close, as the surrounding transaction has not completed.
+        Assertions.assertThrows(ExecutionException.class, () ->
+                CompletableFuture.runAsync(() -> stripedLock.lock("user-did", "did:omn:user2")).get());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        CompletableFuture.runAsync(() -> stripedLock.lock("user-did", "did:omn:user2").close()).get(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.benchmark;
+
+import org.omnione.did.base.db.constant.SubTransactionStatus;
+import org.omnione.did.base.db.constant.SubTransactionType;
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.constant.TransactionType;
+import org.omnione.did.base.db.domain.SubTransaction;
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.db.projection.SubTransactionRow;
+import org.omnione.did.base.db.projection.TokenRow;
+import org.omnione.did.base.db.projection.TransactionRow;
+import org.omnione.did.base.db.repository.LeanReadRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the per-call latency and allocation of the hot lookups (transaction by tx_id,
+ * last sub-transaction and token) read as managed JPA entities and through {@link LeanReadRepository}.
+ * The JPA variant runs each lookup set in its own EntityManager and read-write transaction,
+ * as a protocol step does, so the persistence context and the flush at commit are included.
+ *
+ * Runs only against a PostgreSQL instance with the TAS schema (created by Liquibase on startup),
+ * given by environment variables, e.g.
+ * BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/tas BENCHMARK_JDBC_USER=... BENCHMARK_JDBC_PASSWORD=...
+ * ./gradlew test --tests '*LeanReadBenchmark'
+ * The benchmark inserts BENCHMARK_ROWS transactions (default 1,000) and removes them afterwards.
+ * The number of measured calls can be changed with BENCHMARK_ITERATIONS (default 20,000).
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_JDBC_URL", matches = ".+")
+public class LeanReadBenchmark {
+    private static final String TX_ID_PREFIX = "bench-lean-";
+
+    @Test
+    public void compareJpaAndLeanRead() {
+        int rows = Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_ROWS", "1000"));
+        int iterations = Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_ITERATIONS", "20000"));
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getenv("BENCHMARK_JDBC_URL"));
+        dataSource.setUsername(System.getenv("BENCHMARK_JDBC_USER"));
+        dataSource.setPassword(System.getenv("BENCHMARK_JDBC_PASSWORD"));
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("org.omnione.did.base.db.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "none",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+
+        JdbcClient jdbcClient = JdbcClient.create(dataSource);
+        LeanReadRepository leanReadRepository = new LeanReadRepository(jdbcClient,
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+
+        try {
+            List<Seed> seeds = seed(jdbcClient, rows);
+
+            IntConsumer jpa = i -> {
+                Seed seed = seeds.get(i % seeds.size());
+                EntityManager entityManager = entityManagerFactory.createEntityManager();
+                try {
+                    entityManager.getTransaction().begin();
+                    Transaction transaction = entityManager
+                            .createQuery("SELECT t FROM Transaction t WHERE t.txId = :txId", Transaction.class)
+                            .setParameter("txId", seed.txId())
+                            .getSingleResult();
+                    entityManager
+                            .createQuery("SELECT s FROM SubTransaction s WHERE s.transactionId = :id ORDER BY s.step DESC", SubTransaction.class)
+                            .setParameter("id", transaction.getId())
+                            .setMaxResults(1)
+                            .getSingleResult();
+                    entityManager
+                            .createQuery("SELECT t FROM Token t WHERE t.transactionId = :id", Token.class)
+                            .setParameter("id", transaction.getId())
+                            .getSingleResult();
+                    entityManager.getTransaction().commit();
+                } finally {
+                    entityManager.close();
+                }
+            };
+            IntConsumer lean = i -> {
+                Seed seed = seeds.get(i % seeds.size());
+                Transaction transaction = leanReadRepository.findTransactionByTxId(seed.txId())
+                        .map(TransactionRow::toEntity).orElseThrow();
+                leanReadRepository.findLastSubTransaction(transaction.getId())
+                        .map(SubTransactionRow::toEntity).orElseThrow();
+                leanReadRepository.findTokenByTransactionId(transaction.getId())
+                        .map(TokenRow::toEntity).orElseThrow();
+            };
+
+            // Warm up both paths before measuring.
+            run(jpa, iterations / 10);
+            run(lean, iterations / 10);
+            Result jpaResult = run(jpa, iterations);
+            Result leanResult = run(lean, iterations);
+
+            System.out.printf("%-6s %12s %16s%n", "path", "us/call", "bytes/call");
+            System.out.printf("%-6s %12.1f %16d%n", "JPA", jpaResult.microsPerCall(), jpaResult.bytesPerCall());
+            System.out.printf("%-6s %12.1f %16d%n", "LEAN", leanResult.microsPerCall(), leanResult.bytesPerCall());
+
+            Assertions.assertTrue(leanResult.bytesPerCall() <= jpaResult.bytesPerCall());
+        } finally {
+            jdbcClient.sql("DELETE FROM \"token\" WHERE transaction_id IN (SELECT id FROM \"transaction\" WHERE tx_id LIKE ?)")
+                    .param(TX_ID_PREFIX + "%").update();
+            jdbcClient.sql("DELETE FROM \"sub_transaction\" WHERE transaction_id IN (SELECT id FROM \"transaction\" WHERE tx_id LIKE ?)")
+                    .param(TX_ID_PREFIX + "%").update();
+            jdbcClient.sql("DELETE FROM \"transaction\" WHERE tx_id LIKE ?")
+                    .param(TX_ID_PREFIX + "%").update();
+            entityManagerFactory.close();
+            dataSource.close();
+        }
+    }
+
+    private List<Seed> seed(JdbcClient jdbcClient, int rows) {
+        Timestamp expiredAt = Timestamp.from(Instant.now().plus(1, ChronoUnit.DAYS));
+        List<Seed> seeds = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String txId = TX_ID_PREFIX + UUID.randomUUID().toString().substring(0, 25);
+            Long id = jdbcClient.sql("INSERT INTO \"transaction\" (tx_id, type, status, expired_at) VALUES (?, ?, ?, ?) RETURNING id")
+                    .params(txId, TransactionType.values()[0].name(), TransactionStatus.PENDING.name(), expiredAt)
+                    .query(Long.class)
+                    .single();
+            for (int step = 1; step <= 3; step++) {
+                jdbcClient.sql("INSERT INTO \"sub_transaction\" (step, type, status, transaction_id) VALUES (?, ?, ?, ?)")
+                        .params(step, SubTransactionType.values()[0].name(), SubTransactionStatus.values()[0].name(), id)
+                        .update();
+            }
+            jdbcClient.sql("INSERT INTO \"token\" (purpose, token, app_id, wallet_id, expired_at, transaction_id) VALUES (?, ?, ?, ?, ?, ?)")
+                    .params("BENCHMARK", UUID.randomUUID().toString(), "bench-app", "bench-wallet", expiredAt, id)
+                    .update();
+            seeds.add(new Seed(txId));
+        }
+        return seeds;
+    }
+
+    private Result run(IntConsumer call, int iterations) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            call.accept(i);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(elapsedNanos / 1_000.0 / iterations, allocated / iterations);
+    }
+
+    private record Seed(String txId) {
+    }
+
+    private record Result(double microsPerCall, long bytesPerCall) {
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.benchmark;
+
+import org.omnione.did.base.util.BaseIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares insert throughput and tx_id index size for random and time-ordered transaction IDs.
+ * The table mirrors the tx_id column of the transaction table (varchar(40) with a unique B-tree index).
+ *
+ * Runs only against a PostgreSQL instance given by environment variables, e.g.
+ * BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/bench BENCHMARK_JDBC_USER=... BENCHMARK_JDBC_PASSWORD=...
+ * ./gradlew test --tests '*TxIdIndexBenchmark'
+ * The row count can be changed with BENCHMARK_ROWS (default 1,000,000).
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_JDBC_URL", matches = ".+")
+public class TxIdIndexBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Test
+    public void compareTxIdGenerators() throws SQLException {
+        int rows = Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_ROWS", "1000000"));
+
+        try (Connection connection = DriverManager.getConnection(
+                System.getenv("BENCHMARK_JDBC_URL"),
+                System.getenv("BENCHMARK_JDBC_USER"),
+                System.getenv("BENCHMARK_JDBC_PASSWORD"))) {
+            Result random = run(connection, "bench_tx_id_random", rows, () -> UUID.randomUUID().toString());
+            Result timeOrdered = run(connection, "bench_tx_id_time_ordered", rows, BaseIdGenerator::generateTimeOrderedId);
+
+            System.out.printf("%-14s %12s %14s %14s%n", "generator", "rows/s", "index bytes", "table bytes");
+            System.out.printf("%-14s %12.0f %14d %14d%n", "RANDOM", random.rowsPerSecond(), random.indexBytes(), random.tableBytes());
+            System.out.printf("%-14s %12.0f %14d %14d%n", "TIME_ORDERED", timeOrdered.rowsPerSecond(), timeOrdered.indexBytes(), timeOrdered.tableBytes());
+
+            Assertions.assertTrue(timeOrdered.indexBytes() <= random.indexBytes());
+        }
+    }
+
+    private Result run(Connection connection, String table, int rows, Supplier<String> generator) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id bigserial PRIMARY KEY, tx_id varchar(40) NOT NULL)");
+            statement.execute("CREATE UNIQUE INDEX " + table + "_tx_id_idx ON " + table + " (tx_id)");
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (tx_id) VALUES (?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setString(1, generator.get());
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_relation_size('" + table + "_tx_id_idx'), pg_relation_size('" + table + "')")) {
+            resultSet.next();
+            return new Result(rows / elapsedSeconds, resultSet.getLong(1), resultSet.getLong(2));
+        }
+    }
+
+    private record Result(double rowsPerSecond, long indexBytes, long tableBytes) {
+    }
+}
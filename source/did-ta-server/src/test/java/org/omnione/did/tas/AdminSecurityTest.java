@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.TasApplication;
+import org.omnione.did.base.constants.UrlConstant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Admin Endpoint Security")
+@SpringBootTest(classes = TasApplication.class, properties = "auth.admin.password=test-admin-password")
+@ActiveProfiles("sample")
+@AutoConfigureMockMvc
+public class AdminSecurityTest {
+    private static final String ADMIN_V1 = UrlConstant.Tas.ADMIN_V1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Admin endpoints require credentials")
+    void testAdminEndpointsRequireCredentials() throws Exception {
+        mockMvc.perform(get(ADMIN_V1 + "/issuer-metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post(ADMIN_V1 + "/issuer-circuit-breakers/reset").param("serverUrl", "http://issuer"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get(ADMIN_V1 + "/push-outbox").param("referenceId", "offer-1"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Wrong credentials are rejected")
+    void testWrongCredentialsAreRejected() throws Exception {
+        mockMvc.perform(get(ADMIN_V1 + "/issuer-metrics").with(httpBasic("admin", "wrong-password")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Admin credentials are accepted")
+    void testAdminCredentialsAreAccepted() throws Exception {
+        mockMvc.perform(get(ADMIN_V1 + "/issuer-metrics").with(httpBasic("admin", "test-admin-password")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Readiness probe is open")
+    void testReadinessIsOpen() throws Exception {
+        int status = mockMvc.perform(get(ADMIN_V1 + "/readiness")).andReturn().getResponse().getStatus();
+        Assertions.assertTrue(status == 200 || status == 503, "unexpected status " + status);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.tas;
+
+import org.omnione.did.ContractApi;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.BlockChainProperty;
+import org.omnione.did.tas.v1.api.ContractApiPool;
+import org.omnione.did.tas.v1.dto.admin.BlockChainPoolResDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.omnione.exception.BlockChainException;
+import org.omnione.exception.BlockchainErrorCode;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ContractApiPoolTest {
+    private final AtomicInteger connects = new AtomicInteger();
+    private final AtomicBoolean connectFails = new AtomicBoolean();
+    private BlockChainProperty.Pool config;
+    private ContractApiPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        config = new BlockChainProperty.Pool();
+        config.setSize(1);
+        config.setMaxFailedCallsPerHandle(2);
+        config.setAcquireTimeoutMs(100);
+        config.setReconnectInitialBackoffMs(60000);
+        pool = new ContractApiPool(config, "did:omn:tas?versionId=1", () -> {
+            connects.incrementAndGet();
+            if (connectFails.get()) {
+                throw new RuntimeException("peer unreachable");
+            }
+            return Mockito.mock(ContractApi.class);
+        });
+    }
+
+    @Test
+    public void connectsOnFirstUseAndReusesHandle() throws BlockChainException {
+        Assertions.assertEquals(0, connects.get());
+
+        pool.evaluate(contractApi -> contractApi.getVcMetadata("vc-1"));
+        pool.evaluate(contractApi -> contractApi.getVcMetadata("vc-2"));
+        pool.submit(contractApi -> {
+            contractApi.registVcMetadata(null);
+            return null;
+        });
+
+        Assertions.assertEquals(1, connects.get());
+        BlockChainPoolResDto snapshot = pool.getSnapshot();
+        Assertions.assertEquals(1, snapshot.getHealthyHandles());
+        Assertions.assertEquals(2, snapshot.getEvaluate().getRequests());
+        Assertions.assertEquals(1, snapshot.getSubmit().getRequests());
+    }
+
+    @Test
+    public void reconnectsAfterConnectionError() throws BlockChainException {
+        Assertions.assertThrows(BlockChainException.class, () -> pool.evaluate(contractApi -> {
+            throw new BlockChainException(BlockchainErrorCode.CONNECTION_ERROR, new RuntimeException());
+        }));
+        Assertions.assertEquals("BROKEN", pool.getSnapshot().getHandleStates().get(0));
+
+        pool.evaluate(contractApi -> contractApi.getVcMetadata("vc-1"));
+
+        Assertions.assertEquals(2, connects.get());
+        Assertions.assertEquals(1, pool.getSnapshot().getReconnects());
+        Assertions.assertEquals(1, pool.getSnapshot().getEvaluate().getErrors());
+    }
+
+    @Test
+    public void replacesHandleAfterFailedCallBudget() throws BlockChainException {
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(BlockChainException.class, () -> pool.submit(contractApi -> {
+                throw new BlockChainException(BlockchainErrorCode.TRANSACTION_ERROR, new RuntimeException());
+            }));
+        }
+        Assertions.assertEquals("BROKEN", pool.getSnapshot().getHandleStates().get(0));
+
+        pool.submit(contractApi -> null);
+        Assertions.assertEquals(2, connects.get());
+    }
+
+    @Test
+    public void backsOffAfterFailedConnect() {
+        connectFails.set(true);
+
+        OpenDidException first = Assertions.assertThrows(OpenDidException.class,
+                () -> pool.evaluate(contractApi -> null));
+        OpenDidException second = Assertions.assertThrows(OpenDidException.class,
+                () -> pool.evaluate(contractApi -> null));
+
+        Assertions.assertEquals(ErrorCode.BLOCKCHAIN_UNAVAILABLE, first.getErrorCode());
+        Assertions.assertEquals(ErrorCode.BLOCKCHAIN_UNAVAILABLE, second.getErrorCode());
+        // The second call falls within the backoff and does not try to connect again.
+        Assertions.assertEquals(1, connects.get());
+        Assertions.assertEquals(1, pool.getSnapshot().getReconnectFailures());
+        Assertions.assertEquals(2, pool.getSnapshot().getRejected());
+    }
+}
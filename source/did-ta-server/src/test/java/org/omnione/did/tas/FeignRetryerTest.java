@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.tas.v1.api.ReadOnlyRetryer;
+import org.omnione.did.tas.v1.api.RepositoryFeign;
+import org.omnione.did.tas.v1.api.dto.RegisterDidApiReqDto;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FeignRetryerTest {
+    private static final String URL = "http://127.0.0.1:8097/repository/api/v1";
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Test
+    public void postIsNotRetried() {
+        List<Request> sent = new ArrayList<>();
+        RepositoryFeign feign = failingRepository(sent);
+
+        RetryableException e = Assertions.assertThrows(RetryableException.class,
+                () -> feign.registerDid(new RegisterDidApiReqDto()));
+
+        Assertions.assertEquals(Request.HttpMethod.POST, e.method());
+        Assertions.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void getIsRetriedUpToMaxAttempts() {
+        List<Request> sent = new ArrayList<>();
+        RepositoryFeign feign = failingRepository(sent);
+
+        Assertions.assertThrows(RetryableException.class, () -> feign.getDid("did:omn:tas"));
+
+        Assertions.assertEquals(MAX_ATTEMPTS, sent.size());
+        Assertions.assertTrue(sent.stream().allMatch(request -> request.httpMethod() == Request.HttpMethod.GET));
+    }
+
+    private static RepositoryFeign failingRepository(List<Request> sent) {
+        Client client = (request, options) -> {
+            sent.add(request);
+            throw new IOException("Connection reset");
+        };
+        return Feign.builder()
+                .client(client)
+                .contract(new SpringMvcContract())
+                .encoder((object, bodyType, template) -> template.body("{}"))
+                .retryer(new ReadOnlyRetryer(1, 5, MAX_ATTEMPTS))
+                .target(RepositoryFeign.class, URL);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.tas.v1.api.FeignClientMetrics;
+import org.omnione.did.tas.v1.api.InstrumentedFeignClient;
+import org.omnione.did.tas.v1.dto.admin.FeignClientMetricsResDto;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class InstrumentedFeignClientTest {
+    private static final String URL = "http://127.0.0.1:8097/repository/api/v1/vc-meta?vcId=vc-1";
+
+    @Test
+    public void notModifiedResponseIsServedFromCache() throws Exception {
+        List<Request> sent = new ArrayList<>();
+        FeignClientMetrics metrics = new FeignClientMetrics();
+        InstrumentedFeignClient client = new InstrumentedFeignClient((request, options) -> {
+            sent.add(request);
+            return sent.size() == 1
+                    ? response(request, 200, Map.<String, Collection<String>>of("ETag", List.of("\"v1\"")), "{\"vcMeta\":\"z1\"}")
+                    : response(request, 304, Map.of(), null);
+        }, metrics, true, 10);
+
+        Response first = client.execute(get(), new Request.Options());
+        Response second = client.execute(get(), new Request.Options());
+
+        Assertions.assertEquals("{\"vcMeta\":\"z1\"}", Util.toString(first.body().asReader(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(200, second.status());
+        Assertions.assertEquals("{\"vcMeta\":\"z1\"}", Util.toString(second.body().asReader(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(List.of("\"v1\""), List.copyOf(sent.get(1).headers().get("If-None-Match")));
+
+        FeignClientMetricsResDto methodMetrics = metrics.getMetrics().values().iterator().next();
+        Assertions.assertEquals(2, methodMetrics.getRequests());
+        Assertions.assertEquals(1, methodMetrics.getNotModified());
+        Assertions.assertEquals(0, methodMetrics.getErrors());
+    }
+
+    @Test
+    public void responseWithoutValidatorsIsNotCached() throws Exception {
+        List<Request> sent = new ArrayList<>();
+        InstrumentedFeignClient client = new InstrumentedFeignClient((request, options) -> {
+            sent.add(request);
+            return response(request, 200, Map.of(), "{}");
+        }, new FeignClientMetrics(), true, 10);
+
+        client.execute(get(), new Request.Options());
+        client.execute(get(), new Request.Options());
+
+        Assertions.assertNull(sent.get(1).headers().get("If-None-Match"));
+    }
+
+    @Test
+    public void errorStatusIsCountedAsError() throws Exception {
+        FeignClientMetrics metrics = new FeignClientMetrics();
+        InstrumentedFeignClient client = new InstrumentedFeignClient(
+                (request, options) -> response(request, 500, Map.of(), "{}"), metrics, false, 10);
+
+        client.execute(get(), new Request.Options());
+
+        Assertions.assertEquals(1, metrics.getMetrics().values().iterator().next().getErrors());
+    }
+
+    private static Request get() {
+        return Request.create(Request.HttpMethod.GET, URL, Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request, int status, Map<String, Collection<String>> headers, String body) {
+        Response.Builder builder = Response.builder()
+                .status(status)
+                .reason("")
+                .headers(headers)
+                .request(request);
+        if (body != null) {
+            builder.body(body, StandardCharsets.UTF_8);
+        }
+        return builder.build();
+    }
+}
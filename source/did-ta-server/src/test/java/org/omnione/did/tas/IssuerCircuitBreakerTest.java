@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.property.IssuerClientProperty;
+import org.omnione.did.tas.v1.api.IssuerCallNotPermittedException;
+import org.omnione.did.tas.v1.api.IssuerClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class IssuerCircuitBreakerTest {
+    // Nothing listens on port 1, so every call fails with a connection error.
+    private static final String DEAD_ISSUER = "http://127.0.0.1:1";
+
+    private IssuerClient issuerClient;
+
+    @BeforeEach
+    public void setUp() {
+        IssuerClientProperty property = new IssuerClientProperty();
+        property.setConnectTimeoutMs(1000);
+        property.getCircuitBreaker().setWindowSize(4);
+        property.getCircuitBreaker().setMinimumCalls(2);
+        property.getCircuitBreaker().setOpenDurationMs(60000);
+        issuerClient = new IssuerClient(property, new MockEnvironment());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        issuerClient.shutdown();
+    }
+
+    @Test
+    public void opensAfterFailuresAndFailsFast() {
+        Assertions.assertNotEquals(IssuerCallNotPermittedException.Reason.CIRCUIT_OPEN, callDeadIssuer());
+        Assertions.assertNotEquals(IssuerCallNotPermittedException.Reason.CIRCUIT_OPEN, callDeadIssuer());
+
+        Assertions.assertEquals(IssuerCallNotPermittedException.Reason.CIRCUIT_OPEN, callDeadIssuer());
+        Assertions.assertEquals("OPEN", issuerClient.getCircuitBreakers().get(DEAD_ISSUER).getState());
+        Assertions.assertEquals(1, issuerClient.getMetrics().get(DEAD_ISSUER).getRejected());
+    }
+
+    @Test
+    public void resetClosesTheBreaker() {
+        callDeadIssuer();
+        callDeadIssuer();
+        Assertions.assertEquals("OPEN", issuerClient.getCircuitBreakers().get(DEAD_ISSUER).getState());
+
+        Assertions.assertTrue(issuerClient.resetCircuitBreaker(DEAD_ISSUER));
+        Assertions.assertEquals("CLOSED", issuerClient.getCircuitBreakers().get(DEAD_ISSUER).getState());
+        Assertions.assertFalse(issuerClient.resetCircuitBreaker("http://unknown.issuer"));
+    }
+
+    /**
+     * Calls the dead issuer and returns the rejection reason, or null if the call was sent.
+     */
+    private IssuerCallNotPermittedException.Reason callDeadIssuer() {
+        CompletableFuture<Map> future = issuerClient.postAsync(DEAD_ISSUER, "/test", Map.of(), Map.class);
+        Throwable failure = Assertions.assertThrows(Exception.class, future::join);
+        Throwable cause = IssuerClient.unwrap(failure);
+        return (cause instanceof IssuerCallNotPermittedException e) ? e.getReason() : null;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.IssuerClientProperty;
+import org.omnione.did.tas.v1.api.IssuerClient;
+import org.omnione.did.tas.v1.dto.admin.IssuerMetricsResDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class IssuerClientTest {
+    private final CountDownLatch hold = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String serverUrl;
+    private IssuerClientProperty property;
+    private IssuerClient issuerClient;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, "{\"result\":\"issued\"}"));
+        server.createContext("/rejected", exchange ->
+                respond(exchange, 400, "{\"code\":\"SSRVISS00001\",\"description\":\"Invalid offer\"}"));
+        server.createContext("/broken", exchange -> respond(exchange, 500, "<html>Internal Server Error</html>"));
+        server.createContext("/slow", exchange -> {
+            try {
+                hold.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"result\":\"late\"}");
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        serverUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        property = new IssuerClientProperty();
+        property.setConnectTimeoutMs(1000);
+        property.setReadTimeoutMs(300);
+        property.getCircuitBreaker().setEnable(false);
+        issuerClient = new IssuerClient(property, new MockEnvironment());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hold.countDown();
+        issuerClient.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void successReturnsResponseAndCountsRequest() {
+        IssueResult result = issuerClient.relay(serverUrl, "/ok", Map.of("txId", "tx-1"), IssueResult.class, "issue-vc").join();
+
+        Assertions.assertEquals("issued", result.result);
+        IssuerMetricsResDto metrics = issuerClient.getMetrics().get(serverUrl);
+        Assertions.assertEquals(1, metrics.getRequests());
+        Assertions.assertEquals(0, metrics.getErrors());
+        Assertions.assertEquals(0, metrics.getTimeouts());
+        Assertions.assertEquals("CLOSED", metrics.getCircuitState());
+    }
+
+    @Test
+    public void issuerErrorResponseIsPassedOn() {
+        OpenDidException e = relayFailure("/rejected");
+
+        Assertions.assertNull(e.getErrorCode());
+        Assertions.assertEquals("SSRVISS00001", e.getErrorResponse().getCode());
+        Assertions.assertEquals("Invalid offer", e.getErrorResponse().getDescription());
+        Assertions.assertEquals(1, issuerClient.getMetrics().get(serverUrl).getErrors());
+    }
+
+    @Test
+    public void unparsableErrorResponseMapsToUnknownResponse() {
+        Assertions.assertEquals(ErrorCode.ISSUER_UNKNOWN_RESPONSE, relayFailure("/broken").getErrorCode());
+    }
+
+    @Test
+    public void timeoutMapsToResponseTimeout() {
+        Assertions.assertEquals(ErrorCode.ISSUER_RESPONSE_TIMEOUT, relayFailure("/slow").getErrorCode());
+
+        IssuerMetricsResDto metrics = issuerClient.getMetrics().get(serverUrl);
+        Assertions.assertEquals(1, metrics.getRequests());
+        Assertions.assertEquals(1, metrics.getErrors());
+        Assertions.assertEquals(1, metrics.getTimeouts());
+        Assertions.assertTrue(metrics.getMaxLatencyMs() >= 250);
+    }
+
+    @Test
+    public void connectionFailureMapsToCommunicationError() {
+        server.stop(0);
+
+        Assertions.assertEquals(ErrorCode.ISSUER_COMMUNICATION_ERROR, relayFailure("/ok").getErrorCode());
+        Assertions.assertEquals(0, issuerClient.getMetrics().get(serverUrl).getTimeouts());
+    }
+
+    @Test
+    public void fullBulkheadMapsToTooManyRequests() {
+        property.getBulkhead().setMaxConcurrentCalls(1);
+        property.setReadTimeoutMs(5000);
+        CompletableFuture<IssueResult> first = issuerClient.relay(serverUrl, "/slow", Map.of(), IssueResult.class, "issue-vc");
+
+        Assertions.assertEquals(ErrorCode.ISSUER_TOO_MANY_REQUESTS, relayFailure("/ok").getErrorCode());
+        hold.countDown();
+        Assertions.assertEquals("late", first.join().result);
+
+        IssuerMetricsResDto metrics = issuerClient.getMetrics().get(serverUrl);
+        Assertions.assertEquals(1, metrics.getRequests());
+        Assertions.assertEquals(1, metrics.getRejected());
+        Assertions.assertEquals(1, issuerClient.getCircuitBreakers().get(serverUrl).getBulkheadRejectedCalls());
+    }
+
+    @Test
+    public void openCircuitMapsToCircuitOpen() {
+        property.getCircuitBreaker().setEnable(true);
+        property.getCircuitBreaker().setWindowSize(2);
+        property.getCircuitBreaker().setMinimumCalls(2);
+        property.getCircuitBreaker().setOpenDurationMs(60000);
+        IssuerClient breakerClient = new IssuerClient(property, new MockEnvironment());
+        try {
+            for (int i = 0; i < 2; i++) {
+                Assertions.assertThrows(CompletionException.class, () ->
+                        breakerClient.relay(serverUrl, "/broken", Map.of(), IssueResult.class, "issue-vc").join());
+            }
+
+            CompletionException e = Assertions.assertThrows(CompletionException.class, () ->
+                    breakerClient.relay(serverUrl, "/ok", Map.of(), IssueResult.class, "issue-vc").join());
+            Assertions.assertEquals(ErrorCode.ISSUER_CIRCUIT_OPEN, ((OpenDidException) e.getCause()).getErrorCode());
+            Assertions.assertEquals(1, breakerClient.getMetrics().get(serverUrl).getRejected());
+        } finally {
+            breakerClient.shutdown();
+        }
+    }
+
+    private OpenDidException relayFailure(String path) {
+        CompletionException e = Assertions.assertThrows(CompletionException.class, () ->
+                issuerClient.relay(serverUrl, path, Map.of(), IssueResult.class, "issue-vc").join());
+        return (OpenDidException) e.getCause();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    public static class IssueResult {
+        public String result;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.db.constant.LedgerMirrorType;
+import org.omnione.did.base.db.domain.LedgerMirror;
+import org.omnione.did.base.db.repository.LedgerMirrorRepository;
+import org.omnione.did.base.property.BlockChainProperty;
+import org.omnione.did.tas.v1.service.LedgerEventListener;
+import org.omnione.did.tas.v1.service.LedgerMirrorService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class LedgerMirrorTest {
+    private LedgerMirrorRepository ledgerMirrorRepository;
+    private BlockChainProperty blockChainProperty;
+    private LedgerMirrorService mirror;
+
+    @BeforeEach
+    public void setUp() {
+        ledgerMirrorRepository = Mockito.mock(LedgerMirrorRepository.class);
+        blockChainProperty = new BlockChainProperty();
+        mirror = new LedgerMirrorService(ledgerMirrorRepository, blockChainProperty, Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void stateKeysAreReducedToDids() {
+        Assertions.assertTrue(LedgerEventListener.toSubjects("did:omn:user1").contains("did:omn:user1"));
+        Assertions.assertTrue(LedgerEventListener.toSubjects("DIDDOC_did:omn:user1?versionId=2").contains("did:omn:user1"));
+        Set<String> composite = LedgerEventListener.toSubjects("\u0000vcmeta\u0000vc-1\u0000");
+        Assertions.assertTrue(composite.contains("vc-1"));
+        Assertions.assertTrue(LedgerEventListener.toSubjects("").isEmpty());
+    }
+
+    @Test
+    public void mirrorIsBypassedUntilListenerIsLive() {
+        mirror.putVcMeta(vcMeta("vc-1"), mirror.currentVersion());
+        Assertions.assertNull(mirror.findVcMeta("vc-1"));
+        Mockito.verifyNoInteractions(ledgerMirrorRepository);
+    }
+
+    @Test
+    public void freshEntryIsServedAndStaleEntryIsNot() {
+        mirror.setLive(true);
+        Mockito.when(ledgerMirrorRepository.findByEntryTypeAndEntryKey(LedgerMirrorType.VC_META, "vc-1"))
+                .thenReturn(Optional.of(entry("vc-1", Instant.now())));
+        Mockito.when(ledgerMirrorRepository.findByEntryTypeAndEntryKey(LedgerMirrorType.VC_META, "vc-2"))
+                .thenReturn(Optional.of(entry("vc-2", Instant.now().minusSeconds(blockChainProperty.getMirror().getMaxStalenessSeconds() + 1))));
+
+        Assertions.assertEquals("vc-1", mirror.findVcMeta("vc-1").getId());
+        Assertions.assertNull(mirror.findVcMeta("vc-2"));
+    }
+
+    @Test
+    public void readOverlappingInvalidationIsNotStored() {
+        mirror.setLive(true);
+        long readVersion = mirror.currentVersion();
+        mirror.invalidate(List.of("vc-1"));
+
+        mirror.putVcMeta(vcMeta("vc-1"), readVersion);
+
+        Mockito.verify(ledgerMirrorRepository, Mockito.never())
+                .upsert(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any());
+    }
+
+    private static VcMeta vcMeta(String id) {
+        VcMeta vcMeta = new VcMeta();
+        vcMeta.setId(id);
+        return vcMeta;
+    }
+
+    private static LedgerMirror entry(String id, Instant syncedAt) {
+        return LedgerMirror.builder()
+                .entryType(LedgerMirrorType.VC_META)
+                .entryKey(id)
+                .subject(id)
+                .payload(vcMeta(id).toJson())
+                .syncedAt(syncedAt)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.db.constant.LedgerOutboxStatus;
+import org.omnione.did.base.db.domain.LedgerOutbox;
+import org.omnione.did.base.db.repository.LedgerOutboxRepository;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.LedgerOutboxService;
+import org.omnione.did.tas.v1.service.StorageService;
+import org.omnione.did.tas.v1.service.TransactionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+
+public class LedgerOutboxServiceTest {
+    private static final String DID = "did:omn:wallet";
+
+    private LedgerOutboxRepository ledgerOutboxRepository;
+    private LedgerOutboxService ledgerOutboxService;
+
+    @BeforeEach
+    public void setUp() {
+        ledgerOutboxRepository = Mockito.mock(LedgerOutboxRepository.class);
+        ledgerOutboxService = new LedgerOutboxService(ledgerOutboxRepository, Mockito.mock(StorageService.class),
+                Mockito.mock(TransactionService.class), new TasProperty());
+    }
+
+    @Test
+    public void unsettledWriteIsPending() {
+        Mockito.when(ledgerOutboxRepository.existsByTargetIdAndStatusIn(Mockito.eq(DID), Mockito.anyCollection())).thenReturn(true);
+
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class, () -> ledgerOutboxService.requireNoPendingWrite(DID));
+        Assertions.assertEquals(ErrorCode.LEDGER_WRITE_PENDING, e.getErrorCode());
+    }
+
+    @Test
+    public void failedLatestWriteIsRejected() {
+        Mockito.when(ledgerOutboxRepository.findFirstByTargetIdOrderByIdDesc(DID)).thenReturn(Optional.of(latest(LedgerOutboxStatus.FAILED)));
+
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class, () -> ledgerOutboxService.requireNoPendingWrite(DID));
+        Assertions.assertEquals(ErrorCode.LEDGER_WRITE_FAILED, e.getErrorCode());
+    }
+
+    @Test
+    public void committedOrSynchronousWritePasses() {
+        Mockito.when(ledgerOutboxRepository.findFirstByTargetIdOrderByIdDesc(DID)).thenReturn(Optional.of(latest(LedgerOutboxStatus.COMMITTED)));
+        Assertions.assertDoesNotThrow(() -> ledgerOutboxService.requireNoPendingWrite(DID));
+
+        Mockito.when(ledgerOutboxRepository.findFirstByTargetIdOrderByIdDesc(DID)).thenReturn(Optional.empty());
+        Assertions.assertDoesNotThrow(() -> ledgerOutboxService.requireNoPendingWrite(DID));
+    }
+
+    private static LedgerOutbox latest(LedgerOutboxStatus status) {
+        return LedgerOutbox.builder()
+                .id(1L)
+                .targetId(DID)
+                .idempotencyKey("REGISTER_DID_DOC:" + DID + "?versionId=1")
+                .status(status)
+                .build();
+    }
+}
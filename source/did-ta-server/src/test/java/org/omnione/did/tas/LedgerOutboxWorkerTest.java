@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
+import org.omnione.did.base.db.constant.LedgerOutboxStatus;
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.domain.LedgerOutbox;
+import org.omnione.did.base.db.repository.LedgerOutboxRepository;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.LedgerOutboxWorker;
+import org.omnione.did.tas.v1.service.LedgerWriteFailedEvent;
+import org.omnione.did.tas.v1.service.StorageService;
+import org.omnione.did.tas.v1.service.TransactionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class LedgerOutboxWorkerTest {
+    private LedgerOutboxRepository ledgerOutboxRepository;
+    private StorageService storageService;
+    private TransactionService transactionService;
+    private TasProperty tasProperty;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private LedgerOutboxWorker worker;
+
+    @BeforeEach
+    public void setUp() {
+        ledgerOutboxRepository = Mockito.mock(LedgerOutboxRepository.class);
+        storageService = Mockito.mock(StorageService.class);
+        transactionService = Mockito.mock(TransactionService.class);
+        tasProperty = new TasProperty();
+        tasProperty.getLedgerOutbox().setWorkerThreads(1);
+        tasProperty.getLedgerOutbox().setMaxAttempts(3);
+        applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        worker = new LedgerOutboxWorker(ledgerOutboxRepository, storageService, transactionService, tasProperty,
+                applicationEventPublisher, Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void backoffDoublesPerAttemptAndIsCapped() {
+        TasProperty.LedgerOutbox config = tasProperty.getLedgerOutbox();
+        Assertions.assertEquals(Duration.ofMillis(1000), LedgerOutboxWorker.backoff(1, config));
+        Assertions.assertEquals(Duration.ofMillis(4000), LedgerOutboxWorker.backoff(3, config));
+        Assertions.assertEquals(Duration.ofMillis(60000), LedgerOutboxWorker.backoff(40, config));
+    }
+
+    @Test
+    public void firstAttemptSubmitsAndCompletesTransaction() {
+        LedgerOutbox entry = claimed(1);
+
+        worker.process(entry);
+
+        Mockito.verify(storageService).registerVcMeta(Mockito.any(VcMeta.class));
+        Mockito.verify(storageService, Mockito.never()).findVcMeta(Mockito.anyString());
+        Assertions.assertEquals(LedgerOutboxStatus.COMMITTED, entry.getStatus());
+        Assertions.assertNotNull(entry.getCommittedAt());
+        Mockito.verify(transactionService).updateTransactionStatus(10L, TransactionStatus.COMPLETED);
+    }
+
+    @Test
+    public void retrySkipsWriteAlreadyOnLedger() {
+        LedgerOutbox entry = claimed(2);
+        Mockito.when(storageService.findVcMeta("vc-1")).thenReturn(new VcMeta());
+
+        worker.process(entry);
+
+        Mockito.verify(storageService, Mockito.never()).registerVcMeta(Mockito.any(VcMeta.class));
+        Assertions.assertEquals(LedgerOutboxStatus.COMMITTED, entry.getStatus());
+    }
+
+    @Test
+    public void failedAttemptIsRescheduled() {
+        LedgerOutbox entry = claimed(1);
+        Mockito.doThrow(new RuntimeException("endorsement failed")).when(storageService).registerVcMeta(Mockito.any(VcMeta.class));
+
+        worker.process(entry);
+
+        Assertions.assertEquals(LedgerOutboxStatus.PENDING, entry.getStatus());
+        Assertions.assertTrue(entry.getNextAttemptAt().isAfter(Instant.now()));
+        Assertions.assertEquals("endorsement failed", entry.getLastError());
+        Mockito.verify(transactionService, Mockito.never()).updateTransactionStatus(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void lastFailedAttemptFailsEntryAndTransaction() {
+        LedgerOutbox entry = claimed(3);
+        Mockito.doThrow(new RuntimeException("endorsement failed")).when(storageService).registerVcMeta(Mockito.any(VcMeta.class));
+
+        worker.process(entry);
+
+        Assertions.assertEquals(LedgerOutboxStatus.FAILED, entry.getStatus());
+        Mockito.verify(transactionService).updateTransactionStatus(10L, TransactionStatus.FAILED);
+        Mockito.verify(applicationEventPublisher).publishEvent(
+                new LedgerWriteFailedEvent(10L, LedgerOutboxOperation.REGISTER_VC_META, "vc-1"));
+    }
+
+    @Test
+    public void outcomeIsDroppedOnceTheLeaseIsLost() {
+        LedgerOutbox entry = claimed(1);
+        // Another node re-claimed the entry after the lease expired.
+        Mockito.when(ledgerOutboxRepository.markCommitted(Mockito.eq(1L), Mockito.eq(1), Mockito.any(), Mockito.any())).thenReturn(0);
+
+        worker.process(entry);
+
+        Assertions.assertEquals(LedgerOutboxStatus.IN_PROGRESS, entry.getStatus());
+        Mockito.verify(transactionService, Mockito.never()).updateTransactionStatus(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void failureIsDroppedOnceTheLeaseIsLost() {
+        LedgerOutbox entry = claimed(3);
+        Mockito.doThrow(new RuntimeException("endorsement failed")).when(storageService).registerVcMeta(Mockito.any(VcMeta.class));
+        Mockito.when(ledgerOutboxRepository.markAttemptFailed(Mockito.eq(1L), Mockito.eq(3), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(0);
+
+        worker.process(entry);
+
+        Assertions.assertEquals(LedgerOutboxStatus.IN_PROGRESS, entry.getStatus());
+        Mockito.verify(transactionService, Mockito.never()).updateTransactionStatus(Mockito.anyLong(), Mockito.any());
+        Mockito.verify(applicationEventPublisher, Mockito.never()).publishEvent(Mockito.any(Object.class));
+    }
+
+    private LedgerOutbox claimed(int attempts) {
+        VcMeta vcMeta = new VcMeta();
+        vcMeta.setId("vc-1");
+        LedgerOutbox entry = LedgerOutbox.builder()
+                .id(1L)
+                .transactionId(10L)
+                .operation(LedgerOutboxOperation.REGISTER_VC_META)
+                .idempotencyKey(LedgerOutboxOperation.REGISTER_VC_META + ":vc-1")
+                .targetId("vc-1")
+                .payload(vcMeta.toJson())
+                .completeTransaction(true)
+                .status(LedgerOutboxStatus.IN_PROGRESS)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .lockedUntil(Instant.now().plusSeconds(60))
+                .build();
+        Mockito.when(ledgerOutboxRepository.markCommitted(Mockito.eq(1L), Mockito.eq(attempts), Mockito.eq(entry.getLockedUntil()), Mockito.any()))
+                .thenReturn(1);
+        Mockito.when(ledgerOutboxRepository.markAttemptFailed(Mockito.eq(1L), Mockito.eq(attempts), Mockito.eq(entry.getLockedUntil()),
+                        Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(1);
+        return entry;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.ContractApi;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.BlockChainProperty;
+import org.omnione.did.tas.v1.api.ContractApiPool;
+import org.omnione.did.tas.v1.api.LedgerWriteBatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.omnione.exception.BlockChainException;
+import org.omnione.exception.BlockchainErrorCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LedgerWriteBatcherTest {
+    private static final int CALLERS = 8;
+
+    private BlockChainProperty.Batch config;
+    private ContractApiPool pool;
+    private LedgerWriteBatcher batcher;
+    private ExecutorService callers;
+
+    @BeforeEach
+    public void setUp() {
+        BlockChainProperty.Pool poolConfig = new BlockChainProperty.Pool();
+        poolConfig.setSize(2);
+        pool = new ContractApiPool(poolConfig, "did:omn:tas?versionId=1", () -> Mockito.mock(ContractApi.class));
+
+        config = new BlockChainProperty.Batch();
+        config.setWindowMs(500);
+        config.setMaxSize(CALLERS);
+        batcher = new LedgerWriteBatcher(config, pool, 10);
+        batcher.start();
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        batcher.shutdown();
+    }
+
+    @Test
+    public void eachCallerReceivesItsOwnResult() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String id = "vc-" + i;
+            results.add(callers.submit(() -> {
+                start.await();
+                return batcher.submit(contractApi -> id);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < CALLERS; i++) {
+            Assertions.assertEquals("vc-" + i, results.get(i).get());
+        }
+        Assertions.assertEquals(CALLERS, batcher.getSnapshot().getBatchedWrites());
+        Assertions.assertTrue(batcher.getSnapshot().getBatches() < CALLERS);
+    }
+
+    @Test
+    public void failureIsReturnedOnlyToItsCaller() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Future<String> failing = callers.submit(() -> {
+            start.await();
+            return batcher.submit(contractApi -> {
+                throw new BlockChainException(BlockchainErrorCode.TRANSACTION_ERROR, new RuntimeException());
+            });
+        });
+        Future<String> succeeding = callers.submit(() -> {
+            start.await();
+            return batcher.submit(contractApi -> "ok");
+        });
+        start.countDown();
+
+        Assertions.assertEquals("ok", succeeding.get());
+        Exception exception = Assertions.assertThrows(Exception.class, failing::get);
+        Assertions.assertInstanceOf(BlockChainException.class, exception.getCause());
+    }
+
+    @Test
+    public void disabledBatchingSubmitsDirectly() throws BlockChainException {
+        config.setEnable(false);
+
+        Assertions.assertEquals("ok", batcher.submit(contractApi -> "ok"));
+        Assertions.assertEquals(0, batcher.getSnapshot().getBatches());
+    }
+
+    @Test
+    public void writesAreSubmittedDirectlyUntilStarted() throws BlockChainException {
+        LedgerWriteBatcher notStarted = new LedgerWriteBatcher(config, pool, 10);
+        try {
+            Assertions.assertEquals("ok", notStarted.submit(contractApi -> "ok"));
+            Assertions.assertEquals(0, notStarted.getSnapshot().getBatches());
+        } finally {
+            notStarted.shutdown();
+        }
+    }
+
+    @Test
+    public void shutdownStopsTheDispatcher() throws Exception {
+        batcher.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (isDispatcherAlive() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assertions.assertFalse(isDispatcherAlive());
+        Assertions.assertEquals("ok", batcher.submit(contractApi -> "ok"));
+    }
+
+    @Test
+    public void writeStillInFlightAfterTimeoutIsPending() {
+        config.setWindowMs(1);
+        config.setAwaitTimeoutMs(100);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            OpenDidException e = Assertions.assertThrows(OpenDidException.class, () -> batcher.submit(contractApi -> {
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return "late";
+            }));
+            Assertions.assertEquals(ErrorCode.LEDGER_WRITE_PENDING, e.getErrorCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void writeNotDispatchedBeforeTimeoutIsSkipped() throws Exception {
+        config.setAwaitTimeoutMs(100);
+        AtomicInteger runs = new AtomicInteger();
+
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class, () -> batcher.submit(contractApi -> {
+            runs.incrementAndGet();
+            return "skipped";
+        }));
+        Assertions.assertEquals(ErrorCode.BLOCKCHAIN_UNAVAILABLE, e.getErrorCode());
+
+        // The batch window (500 ms) closes after the caller gave up; the write must not run then.
+        TimeUnit.MILLISECONDS.sleep(700);
+        Assertions.assertEquals(0, runs.get());
+    }
+
+    private static boolean isDispatcherAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("ledger-write-dispatcher") && thread.isAlive());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.LocalStorageProperty;
+import org.omnione.did.tas.v1.service.LocalStorageJournal;
+import org.omnione.did.tas.v1.service.LocalStorageServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omnione.did.data.model.enums.did.DidDocStatus;
+import org.omnione.did.data.model.enums.vc.VcStatus;
+import org.omnione.did.data.model.vc.VcMeta;
+
+import java.nio.file.Path;
+
+public class LocalStorageServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void vcMetaStatusTransitions() {
+        LocalStorageServiceImpl storage = open(null);
+        storage.registerVcMeta(vcMeta("vc-1", VcStatus.ACTIVE));
+
+        storage.updateVcStatus("vc-1", VcStatus.INACTIVE);
+        storage.updateVcStatus("vc-1", VcStatus.ACTIVE);
+        storage.updateVcStatus("vc-1", VcStatus.REVOKED);
+
+        Assertions.assertEquals(VcStatus.REVOKED.getRawValue(), storage.findVcMeta("vc-1").getStatus());
+        assertError(ErrorCode.VC_STATUS_UPDATE_FAILED, () -> storage.updateVcStatus("vc-1", VcStatus.ACTIVE));
+        assertError(ErrorCode.VC_META_REGISTRATION_FAILED, () -> storage.registerVcMeta(vcMeta("vc-1", VcStatus.ACTIVE)));
+        assertError(ErrorCode.FIND_VC_META_FAILED, () -> storage.findVcMeta("vc-2"));
+    }
+
+    @Test
+    public void journalIsReplayedOnStartup() throws Exception {
+        Path path = tempDir.resolve("storage.journal");
+        try (LocalStorageJournal journal = new LocalStorageJournal(path, 64, false)) {
+            journal.replay((type, body) -> { });
+            journal.append(LocalStorageJournal.RecordType.DID_DOC, "{\"id\":\"did:omn:user1\",\"versionId\":\"1\"}");
+            journal.append(LocalStorageJournal.RecordType.DID_DOC, "{\"id\":\"did:omn:user1\",\"versionId\":\"2\"}");
+        }
+
+        LocalStorageServiceImpl storage = open(path);
+        storage.updateDidDocStatus("did:omn:user1?versionId=2", DidDocStatus.DEACTIVATED);
+        storage.registerVcMeta(vcMeta("vc-1", VcStatus.ACTIVE));
+        storage.updateVcStatus("vc-1", VcStatus.REVOKED);
+        storage.shutdown();
+
+        LocalStorageServiceImpl replayed = open(path);
+        Assertions.assertEquals("2", replayed.findDidDoc("did:omn:user1").getVersionId());
+        Assertions.assertEquals("1", replayed.findDidDoc("did:omn:user1?versionId=1#pin").getVersionId());
+        Assertions.assertEquals(VcStatus.REVOKED.getRawValue(), replayed.findVcMeta("vc-1").getStatus());
+
+        replayed.updateDidDocStatus("did:omn:user1", DidDocStatus.REVOKED);
+        assertError(ErrorCode.UPDATE_DID_DOC_FAILED, () -> replayed.updateDidDocStatus("did:omn:user1", DidDocStatus.ACTIVATED));
+        replayed.updateDidDocStatus("did:omn:user1", DidDocStatus.TERMINATED);
+        replayed.shutdown();
+    }
+
+    private LocalStorageServiceImpl open(Path journalPath) {
+        LocalStorageProperty property = new LocalStorageProperty();
+        if (journalPath != null) {
+            property.getJournal().setEnable(true);
+            property.getJournal().setPath(journalPath.toString());
+            property.getJournal().setMapSizeBytes(64);
+        }
+        LocalStorageServiceImpl storage = new LocalStorageServiceImpl(property);
+        storage.init();
+        return storage;
+    }
+
+    private static VcMeta vcMeta(String id, VcStatus status) {
+        VcMeta vcMeta = new VcMeta();
+        vcMeta.setId(id);
+        vcMeta.setStatus(status.getRawValue());
+        return vcMeta;
+    }
+
+    private static void assertError(ErrorCode errorCode, Runnable call) {
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class, call::run);
+        Assertions.assertEquals(errorCode, e.getErrorCode());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.db.constant.UserStatus;
+import org.omnione.did.base.db.domain.User;
+import org.omnione.did.base.db.repository.UserRepository;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.PiiProperty;
+import org.omnione.did.tas.v1.helper.PiiHashHelper;
+import org.omnione.did.tas.v1.service.PiiHashBackfillService;
+import org.omnione.did.tas.v1.service.query.UserQueryService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+public class PiiHashTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private PiiProperty piiProperty;
+    private PiiHashHelper piiHashHelper;
+    private UserRepository userRepository;
+    private UserQueryService userQueryService;
+
+    @BeforeEach
+    public void setUp() {
+        piiProperty = new PiiProperty();
+        piiProperty.setHashSecret(SECRET);
+        piiHashHelper = new PiiHashHelper(piiProperty, new MockEnvironment());
+        userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.saveAll(Mockito.<User>anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        userQueryService = new UserQueryService(userRepository, piiHashHelper);
+    }
+
+    @Test
+    public void hashIsKeyedAndDeterministic() {
+        String hash = piiHashHelper.hash("pii-1");
+
+        Assertions.assertEquals(64, hash.length());
+        Assertions.assertEquals(hash, piiHashHelper.hash("pii-1"));
+        Assertions.assertNotEquals(hash, piiHashHelper.hash("pii-2"));
+
+        piiProperty.setHashSecret(SECRET.toUpperCase());
+        Assertions.assertNotEquals(hash, piiHashHelper.hash("pii-1"));
+    }
+
+    @Test
+    public void missingOrShortSecretFailsAtStartup() {
+        piiProperty.setHashSecret(null);
+        Assertions.assertThrows(IllegalStateException.class, piiHashHelper::init);
+
+        piiProperty.setHashSecret("too-short");
+        Assertions.assertThrows(IllegalStateException.class, piiHashHelper::init);
+
+        piiProperty.setHashSecret(SECRET);
+        Assertions.assertDoesNotThrow(piiHashHelper::init);
+    }
+
+    @Test
+    public void sampleProfileSkipsSecretCheck() {
+        piiProperty.setHashSecret(null);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("sample");
+
+        Assertions.assertDoesNotThrow(new PiiHashHelper(piiProperty, environment)::init);
+    }
+
+    @Test
+    public void lookupUsesHash() {
+        User user = User.builder().id(1L).pii("pii-1").piiHash(piiHashHelper.hash("pii-1")).status(UserStatus.ACTIVATED).build();
+        Mockito.when(userRepository.findByPiiHashAndStatus(user.getPiiHash(), UserStatus.ACTIVATED)).thenReturn(Optional.of(user));
+
+        Assertions.assertSame(user, userQueryService.findByPiiAndStatus("pii-1", UserStatus.ACTIVATED));
+        Mockito.verify(userRepository, Mockito.never()).findByPiiAndStatusAndPiiHashIsNull(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void missFallsBackToPiiWhileUnhashedUsersRemain() {
+        User legacy = User.builder().id(1L).pii("pii-1").status(UserStatus.ACTIVATED).build();
+        Mockito.when(userRepository.findByPiiHashAndStatus(Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsByPiiHashIsNull()).thenReturn(true);
+        Mockito.when(userRepository.findByPiiAndStatusAndPiiHashIsNull("pii-1", UserStatus.ACTIVATED)).thenReturn(Optional.of(legacy));
+
+        Assertions.assertSame(legacy, userQueryService.findByPiiAndStatus("pii-1", UserStatus.ACTIVATED));
+    }
+
+    @Test
+    public void missDoesNotFallBackOnceAllUsersAreHashed() {
+        Mockito.when(userRepository.findByPiiHashAndStatus(Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsByPiiHashIsNull()).thenReturn(false);
+
+        Assertions.assertThrows(OpenDidException.class, () -> userQueryService.findByPiiAndStatus("pii-1", UserStatus.ACTIVATED));
+        Assertions.assertThrows(OpenDidException.class, () -> userQueryService.findByPiiAndStatus("pii-2", UserStatus.ACTIVATED));
+
+        Mockito.verify(userRepository, Mockito.never()).findByPiiAndStatusAndPiiHashIsNull(Mockito.any(), Mockito.any());
+        // The persisted state is read once and then cached.
+        Mockito.verify(userRepository, Mockito.times(1)).existsByPiiHashIsNull();
+    }
+
+    @Test
+    public void backfillHashesUsersInBatchesAndStopsFallback() {
+        piiProperty.getBackfill().setBatchSize(2);
+        User first = User.builder().id(1L).pii("pii-1").build();
+        User second = User.builder().id(2L).pii("pii-2").build();
+        User third = User.builder().id(3L).pii("pii-3").build();
+        Mockito.when(userRepository.findByPiiHashIsNullAndIdGreaterThanOrderByIdAsc(Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        Mockito.when(userRepository.findByPiiHashIsNullAndIdGreaterThanOrderByIdAsc(Mockito.eq(2L), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(third));
+        Mockito.when(userRepository.findByPiiHashIsNullAndIdGreaterThanOrderByIdAsc(Mockito.eq(3L), Mockito.any(Pageable.class)))
+                .thenReturn(List.of());
+        Mockito.when(userRepository.existsByPiiHashIsNull()).thenReturn(false);
+        PiiHashBackfillService backfillService = new PiiHashBackfillService(userRepository, piiHashHelper, userQueryService,
+                piiProperty, Mockito.mock(PlatformTransactionManager.class));
+
+        backfillService.backfillOnStartup();
+
+        Assertions.assertEquals(piiHashHelper.hash("pii-1"), first.getPiiHash());
+        Assertions.assertEquals(piiHashHelper.hash("pii-3"), third.getPiiHash());
+        Mockito.when(userRepository.findByPiiHashAndStatus(Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+        Assertions.assertThrows(OpenDidException.class, () -> userQueryService.findByPiiAndStatus("pii-4", UserStatus.ACTIVATED));
+        Mockito.verify(userRepository, Mockito.never()).findByPiiAndStatusAndPiiHashIsNull(Mockito.any(), Mockito.any());
+    }
+}
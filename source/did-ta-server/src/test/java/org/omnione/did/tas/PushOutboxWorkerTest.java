@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.SendResponse;
+import org.omnione.did.base.db.constant.PushOutboxStatus;
+import org.omnione.did.base.db.domain.PushOutbox;
+import org.omnione.did.base.db.repository.PushOutboxRepository;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.FcmProperty;
+import org.omnione.did.noti.v1.dto.push.FcmNotificationDto;
+import org.omnione.did.noti.v1.dto.push.RequestSendPushReqDto;
+import org.omnione.did.noti.v1.service.NotiPushService;
+import org.omnione.did.noti.v1.service.PushOutboxService;
+import org.omnione.did.noti.v1.service.PushOutboxWorker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class PushOutboxWorkerTest {
+    private PushOutboxRepository pushOutboxRepository;
+    private NotiPushService notiPushService;
+    private FcmProperty fcmProperty;
+    private PushOutboxWorker worker;
+
+    @BeforeEach
+    public void setUp() {
+        pushOutboxRepository = Mockito.mock(PushOutboxRepository.class);
+        notiPushService = Mockito.mock(NotiPushService.class);
+        fcmProperty = new FcmProperty();
+        fcmProperty.getOutbox().setWorkerThreads(1);
+        fcmProperty.getOutbox().setMaxAttempts(3);
+        fcmProperty.getOutbox().setRateLimitPerSecond(0);
+        worker = new PushOutboxWorker(pushOutboxRepository, notiPushService, fcmProperty,
+                Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void backoffDoublesPerAttemptAndIsCapped() {
+        FcmProperty.Outbox config = fcmProperty.getOutbox();
+        Assertions.assertEquals(Duration.ofMillis(1000), PushOutboxWorker.backoff(1, config));
+        Assertions.assertEquals(Duration.ofMillis(4000), PushOutboxWorker.backoff(3, config));
+        Assertions.assertEquals(Duration.ofMillis(60000), PushOutboxWorker.backoff(40, config));
+    }
+
+    @Test
+    public void entriesWithSameContentAreGrouped() {
+        PushOutbox first = claimed(1L, "offer-1", List.of("a"), 1);
+        PushOutbox second = claimed(2L, "offer-1", List.of("b"), 1);
+        PushOutbox other = claimed(3L, "offer-2", List.of("c"), 1);
+
+        List<List<PushOutbox>> groups = PushOutboxWorker.groupByContent(List.of(first, other, second));
+
+        Assertions.assertEquals(2, groups.size());
+        Assertions.assertEquals(List.of(first, second), groups.get(0));
+        Assertions.assertEquals(List.of(other), groups.get(1));
+    }
+
+    @Test
+    public void groupIsSentInOneMulticastAndRetryableTokensAreKept() throws Exception {
+        PushOutbox first = claimed(1L, "offer-1", List.of("a", "b"), 1);
+        PushOutbox second = claimed(2L, "offer-1", List.of("c"), 1);
+        BatchResponse batchResponse = batch(
+                success(), failure(MessagingErrorCode.UNAVAILABLE), failure(MessagingErrorCode.UNREGISTERED));
+        Mockito.when(notiPushService.sendMulticast(Mockito.any(), Mockito.anyList())).thenReturn(batchResponse);
+
+        worker.process(List.of(first, second));
+
+        Mockito.verify(notiPushService).sendMulticast(Mockito.any(), Mockito.eq(List.of("a", "b", "c")));
+        Assertions.assertEquals(PushOutboxStatus.PENDING, first.getStatus());
+        Assertions.assertEquals(1, first.getSuccessCount());
+        Assertions.assertEquals(List.of("b"), PushOutboxService.readTokens(first.getTokens()));
+        Assertions.assertTrue(first.getNextAttemptAt().isAfter(Instant.now()));
+        Assertions.assertEquals(PushOutboxStatus.FAILED, second.getStatus());
+        Assertions.assertEquals(1, second.getFailureCount());
+    }
+
+    @Test
+    public void tokensAreSentInMulticastsOfAtMost500() throws Exception {
+        List<String> tokens = IntStream.range(0, 501).mapToObj(i -> "token-" + i).toList();
+        PushOutbox entry = claimed(1L, "offer-1", tokens, 1);
+        Mockito.when(notiPushService.sendMulticast(Mockito.any(), Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> chunk = invocation.getArgument(1);
+            List<SendResponse> responses = new ArrayList<>();
+            chunk.forEach(token -> responses.add(success()));
+            return batch(responses.toArray(new SendResponse[0]));
+        });
+
+        worker.process(List.of(entry));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(notiPushService, Mockito.times(2)).sendMulticast(Mockito.any(), captor.capture());
+        Assertions.assertEquals(500, captor.getAllValues().get(0).size());
+        Assertions.assertEquals(1, captor.getAllValues().get(1).size());
+        Assertions.assertEquals(PushOutboxStatus.SENT, entry.getStatus());
+        Assertions.assertEquals(501, entry.getSuccessCount());
+        Assertions.assertNotNull(entry.getSentAt());
+    }
+
+    @Test
+    public void lastAttemptFailsRemainingTokens() throws Exception {
+        PushOutbox entry = claimed(1L, "offer-1", List.of("a", "b"), 3);
+        BatchResponse batchResponse = batch(success(), failure(MessagingErrorCode.QUOTA_EXCEEDED));
+        Mockito.when(notiPushService.sendMulticast(Mockito.any(), Mockito.anyList())).thenReturn(batchResponse);
+
+        worker.process(List.of(entry));
+
+        Assertions.assertEquals(PushOutboxStatus.FAILED, entry.getStatus());
+        Assertions.assertEquals(1, entry.getSuccessCount());
+        Assertions.assertEquals(1, entry.getFailureCount());
+    }
+
+    @Test
+    public void disabledFcmFailsEntryWithoutRetry() throws Exception {
+        PushOutbox entry = claimed(1L, "offer-1", List.of("a"), 1);
+        Mockito.when(notiPushService.sendMulticast(Mockito.any(), Mockito.anyList()))
+                .thenThrow(new OpenDidException(ErrorCode.FCM_SEND_FAILED));
+
+        worker.process(List.of(entry));
+
+        Assertions.assertEquals(PushOutboxStatus.FAILED, entry.getStatus());
+        Assertions.assertEquals(1, entry.getFailureCount());
+    }
+
+    @Test
+    public void pollClaimsNoMoreEntriesThanIdleWorkers() {
+        fcmProperty.getOutbox().setClaimSize(100);
+        Mockito.when(pushOutboxRepository.lockDue(Mockito.any(), Mockito.anyInt())).thenReturn(List.of());
+
+        worker.poll();
+
+        Mockito.verify(pushOutboxRepository).lockDue(Mockito.any(), Mockito.eq(1));
+    }
+
+    @Test
+    public void outcomeIsDroppedOnceTheLeaseIsLost() throws Exception {
+        PushOutbox entry = claimed(1L, "offer-1", List.of("a"), 1);
+        Mockito.when(notiPushService.sendMulticast(Mockito.any(), Mockito.anyList())).thenReturn(batch(success()));
+        // Another node re-claimed the entry after the lease expired.
+        Mockito.when(pushOutboxRepository.recordDelivery(Mockito.eq(1L), Mockito.eq(1), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(0);
+
+        worker.process(List.of(entry));
+
+        Assertions.assertEquals(PushOutboxStatus.IN_PROGRESS, entry.getStatus());
+        Assertions.assertEquals(0, entry.getSuccessCount());
+    }
+
+    private PushOutbox claimed(Long id, String offerId, List<String> tokens, int attempts) {
+        RequestSendPushReqDto content = RequestSendPushReqDto.builder()
+                .notification(new FcmNotificationDto("title", "body"))
+                .data(Map.of("offerId", offerId))
+                .build();
+        PushOutbox entry = PushOutbox.builder()
+                .id(id)
+                .referenceId(offerId)
+                .payload(PushOutboxService.writeContent(content))
+                .tokens(PushOutboxService.writeTokens(tokens))
+                .tokenCount(tokens.size())
+                .status(PushOutboxStatus.IN_PROGRESS)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .lockedUntil(Instant.now().plusSeconds(60))
+                .build();
+        Mockito.when(pushOutboxRepository.recordDelivery(Mockito.eq(id), Mockito.eq(attempts), Mockito.eq(entry.getLockedUntil()),
+                        Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(1);
+        return entry;
+    }
+
+    private static BatchResponse batch(SendResponse... responses) {
+        BatchResponse batchResponse = Mockito.mock(BatchResponse.class);
+        Mockito.when(batchResponse.getResponses()).thenReturn(List.of(responses));
+        return batchResponse;
+    }
+
+    private static SendResponse success() {
+        SendResponse response = Mockito.mock(SendResponse.class);
+        Mockito.when(response.isSuccessful()).thenReturn(true);
+        return response;
+    }
+
+    private static SendResponse failure(MessagingErrorCode code) {
+        FirebaseMessagingException exception = Mockito.mock(FirebaseMessagingException.class);
+        Mockito.when(exception.getMessagingErrorCode()).thenReturn(code);
+        Mockito.when(exception.getMessage()).thenReturn(code.name());
+        SendResponse response = Mockito.mock(SendResponse.class);
+        Mockito.when(response.isSuccessful()).thenReturn(false);
+        Mockito.when(response.getException()).thenReturn(exception);
+        return response;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import jakarta.persistence.EntityManager;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.ReferenceDataCache;
+import org.omnione.did.tas.v1.service.ReferenceDataListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReferenceDataCacheTest {
+    private static final String ISSUER_DID = "did:omn:issuer";
+
+    private TasProperty tasProperty;
+    private ReferenceDataCache referenceDataCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        tasProperty = new TasProperty();
+        referenceDataCache = Mockito.spy(new ReferenceDataCache(tasProperty,
+                Mockito.mock(JdbcTemplate.class), Mockito.mock(EntityManager.class)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void hitDoesNotReload() {
+        Assertions.assertEquals("issuer-1", read());
+        Assertions.assertEquals("issuer-1", read());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void invalidatedEntryIsReloadedOnNextRead() {
+        read();
+        referenceDataCache.invalidate(ReferenceDataCache.Region.ENTITY, ISSUER_DID);
+
+        Assertions.assertEquals("issuer-2", read());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void entryLoadedBeforeCommitIsEvictedOnCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        referenceDataCache.invalidate(ReferenceDataCache.Region.ENTITY, ISSUER_DID);
+        // A read on this node before the writing transaction commits still sees the old row.
+        read();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Assertions.assertEquals("issuer-2", read());
+    }
+
+    @Test
+    public void loadRacingAnInvalidationIsNotStored() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CompletableFuture<String> racingRead = CompletableFuture.supplyAsync(() ->
+                referenceDataCache.get(ReferenceDataCache.Region.ENTITY, ISSUER_DID, () -> {
+                    loading.countDown();
+                    try {
+                        invalidated.await(1, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "stale";
+                }));
+
+        Assertions.assertTrue(loading.await(1, TimeUnit.SECONDS));
+        referenceDataCache.invalidate(ReferenceDataCache.Region.ENTITY, ISSUER_DID);
+        invalidated.countDown();
+
+        Assertions.assertEquals("stale", racingRead.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("issuer-1", read());
+    }
+
+    @Test
+    public void notificationFromAnotherNodeDropsTheEntry() throws Exception {
+        String key = ReferenceDataCache.Region.ENTITY.name() + ":" + ISSUER_DID;
+        CountDownLatch listening = new CountDownLatch(1);
+        CountDownLatch populated = new CountDownLatch(1);
+        PGNotification notification = Mockito.mock(PGNotification.class);
+        Mockito.when(notification.getParameter()).thenReturn(key);
+
+        PGConnection pgConnection = Mockito.mock(PGConnection.class);
+        AtomicInteger polls = new AtomicInteger();
+        Mockito.when(pgConnection.getNotifications(ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            if (polls.getAndIncrement() == 0) {
+                listening.countDown();
+                populated.await(1, TimeUnit.SECONDS);
+                return new PGNotification[] {notification};
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+            return null;
+        });
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.createStatement()).thenReturn(Mockito.mock(Statement.class));
+        Mockito.when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+        ReferenceDataListener listener = new ReferenceDataListener(tasProperty, new DataSourceProperties(), referenceDataCache) {
+            @Override
+            protected Connection openConnection() {
+                return connection;
+            }
+        };
+        listener.start();
+        try {
+            Assertions.assertTrue(listening.await(1, TimeUnit.SECONDS));
+            read();
+            populated.countDown();
+
+            Mockito.verify(referenceDataCache, Mockito.timeout(1000)).evictLocal(key);
+            Assertions.assertEquals("issuer-2", read());
+            Assertions.assertEquals(2, loads.get());
+        } finally {
+            listener.stop();
+        }
+    }
+
+    private String read() {
+        return referenceDataCache.get(ReferenceDataCache.Region.ENTITY, ISSUER_DID,
+                () -> "issuer-" + loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.property.FeignClientProperty;
+import org.omnione.did.tas.v1.api.RepositoryReadHedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RepositoryReadHedgerTest {
+    private FeignClientProperty property;
+    private RepositoryReadHedger hedger;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        property = new FeignClientProperty();
+        property.getHedge().setEnable(true);
+        property.getHedge().setInitialDelayMs(20);
+        property.getHedge().setBudgetPercent(100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        hedger.shutdown();
+    }
+
+    @Test
+    public void slowReadIsHedgedAndFirstSuccessWins() {
+        hedger = new RepositoryReadHedger(property);
+        AtomicInteger calls = new AtomicInteger();
+
+        String value = hedger.read("getDid", () -> calls.incrementAndGet() == 1 ? slow("primary") : "hedge");
+
+        Assertions.assertEquals("hedge", value);
+        Assertions.assertEquals(1, hedger.getSnapshot().getHedges());
+        Assertions.assertEquals(1, hedger.getSnapshot().getHedgeWins());
+    }
+
+    @Test
+    public void hedgeIsNotSentWithoutBudget() {
+        property.getHedge().setBudgetPercent(0);
+        hedger = new RepositoryReadHedger(property);
+        AtomicInteger calls = new AtomicInteger();
+
+        String value = hedger.read("getDid", () -> {
+            calls.incrementAndGet();
+            sleep(50);
+            return "primary";
+        });
+
+        Assertions.assertEquals("primary", value);
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, hedger.getSnapshot().getBudgetRejected());
+    }
+
+    @Test
+    public void failureIsRethrownWhenAllRequestsFail() {
+        hedger = new RepositoryReadHedger(property);
+
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> hedger.read("getDid", () -> {
+                    throw new IllegalArgumentException("not found");
+                }));
+        Assertions.assertEquals("not found", e.getMessage());
+    }
+
+    @Test
+    public void disabledHedgerRunsReadDirectly() {
+        property.getHedge().setEnable(false);
+        hedger = new RepositoryReadHedger(property);
+
+        Assertions.assertEquals(Thread.currentThread().getName(), hedger.read("getDid", () -> Thread.currentThread().getName()));
+    }
+
+    private String slow(String value) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.datamodel.enums.ServerTokenPurpose;
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.AuthProperty;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.tas.v1.helper.ServerTokenMacHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+public class ServerTokenMacHelperTest {
+    private static final String SECRET_K1 = "k1-0123456789abcdef0123456789abcdef";
+    private static final String SECRET_K2 = "k2-0123456789abcdef0123456789abcdef";
+
+    private AuthProperty authProperty;
+    private ServerTokenMacHelper helper;
+    private Transaction transaction;
+
+    @BeforeEach
+    public void setUp() {
+        authProperty = new AuthProperty();
+        authProperty.getServerToken().setStateless(true);
+        authProperty.getServerToken().setCurrentKeyId("k1");
+        authProperty.getServerToken().getSecrets().put("k1", SECRET_K1);
+        helper = new ServerTokenMacHelper(authProperty);
+        transaction = Transaction.builder().id(1L).txId("tx-1").build();
+    }
+
+    @Test
+    public void issuedTokenVerifies() {
+        Instant expiredAt = Instant.now().plusSeconds(300);
+        String serverToken = issue(expiredAt);
+        byte[] decoded = BaseMultibaseUtil.decode(serverToken);
+
+        Assertions.assertTrue(helper.isMacToken(decoded));
+        Token token = helper.verify(serverToken, decoded, transaction);
+
+        Assertions.assertEquals(ServerTokenPurpose.ISSUE_VC.toString(), token.getPurpose());
+        Assertions.assertEquals("wallet-1", token.getWalletId());
+        Assertions.assertEquals("app-1", token.getAppId());
+        Assertions.assertEquals(expiredAt.getEpochSecond(), token.getExpiredAt().getEpochSecond());
+        Assertions.assertEquals(1L, token.getTransactionId());
+    }
+
+    @Test
+    public void tamperedPayloadIsRejected() {
+        String[] parts = tokenParts(issue(Instant.now().plusSeconds(300)));
+        String payload = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8)
+                .replace("wallet-1", "wallet-2");
+
+        assertInvalid(toServerToken(Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)), parts[1]));
+    }
+
+    @Test
+    public void tamperedMacIsRejected() {
+        String[] parts = tokenParts(issue(Instant.now().plusSeconds(300)));
+        byte[] mac = Base64.getUrlDecoder().decode(parts[1]);
+        mac[0] ^= 1;
+
+        assertInvalid(toServerToken(parts[0], Base64.getUrlEncoder().withoutPadding().encodeToString(mac)));
+    }
+
+    @Test
+    public void tokenOfAnotherTransactionIsRejected() {
+        String serverToken = issue(Instant.now().plusSeconds(300));
+        Transaction other = Transaction.builder().id(2L).txId("tx-2").build();
+
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class,
+                () -> helper.verify(serverToken, BaseMultibaseUtil.decode(serverToken), other));
+        Assertions.assertEquals(ErrorCode.INVALID_TOKEN, e.getErrorCode());
+    }
+
+    @Test
+    public void separatorInFieldCannotShiftFields() {
+        String serverToken = helper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet|1", "app:1|",
+                Instant.now().plusSeconds(300));
+        String otherToken = helper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet", "1|app:1|",
+                Instant.now().plusSeconds(300));
+        Assertions.assertNotEquals(tokenParts(serverToken)[0], tokenParts(otherToken)[0]);
+
+        Token token = helper.verify(serverToken, BaseMultibaseUtil.decode(serverToken), transaction);
+
+        Assertions.assertEquals("wallet|1", token.getWalletId());
+        Assertions.assertEquals("app:1|", token.getAppId());
+    }
+
+    @Test
+    public void unknownKeyIdIsRejected() {
+        String serverToken = issue(Instant.now().plusSeconds(300));
+        authProperty.getServerToken().getSecrets().clear();
+        authProperty.getServerToken().getSecrets().put("k2", SECRET_K2);
+
+        assertInvalid(serverToken);
+    }
+
+    @Test
+    public void tokensOfBothKeysVerifyDuringRotation() {
+        String oldToken = issue(Instant.now().plusSeconds(300));
+        authProperty.getServerToken().getSecrets().put("k2", SECRET_K2);
+        authProperty.getServerToken().setCurrentKeyId("k2");
+        String newToken = issue(Instant.now().plusSeconds(300));
+
+        Assertions.assertNotNull(helper.verify(oldToken, BaseMultibaseUtil.decode(oldToken), transaction));
+        Assertions.assertNotNull(helper.verify(newToken, BaseMultibaseUtil.decode(newToken), transaction));
+
+        authProperty.getServerToken().getSecrets().remove("k1");
+        assertInvalid(oldToken);
+        Assertions.assertNotNull(helper.verify(newToken, BaseMultibaseUtil.decode(newToken), transaction));
+    }
+
+    @Test
+    public void startupFailsWithoutCurrentSecretInStatelessMode() {
+        authProperty.getServerToken().getSecrets().put("k1", "");
+        Assertions.assertThrows(IllegalStateException.class, helper::init);
+
+        authProperty.getServerToken().getSecrets().remove("k1");
+        Assertions.assertThrows(IllegalStateException.class, helper::init);
+
+        authProperty.getServerToken().setStateless(false);
+        Assertions.assertDoesNotThrow(helper::init);
+    }
+
+    @Test
+    public void startupFailsWithShortSecret() {
+        authProperty.getServerToken().getSecrets().put("k1", "short-secret");
+        Assertions.assertThrows(IllegalStateException.class, helper::init);
+
+        authProperty.getServerToken().setStateless(false);
+        Assertions.assertThrows(IllegalStateException.class, helper::init);
+
+        authProperty.getServerToken().getSecrets().put("k1", SECRET_K1);
+        Assertions.assertDoesNotThrow(helper::init);
+    }
+
+    private String issue(Instant expiredAt) {
+        return helper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet-1", "app-1", expiredAt);
+    }
+
+    private void assertInvalid(String serverToken) {
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class,
+                () -> helper.verify(serverToken, BaseMultibaseUtil.decode(serverToken), transaction));
+        Assertions.assertEquals(ErrorCode.INVALID_TOKEN, e.getErrorCode());
+    }
+
+    private static String[] tokenParts(String serverToken) {
+        String decoded = new String(BaseMultibaseUtil.decode(serverToken), StandardCharsets.UTF_8);
+        return decoded.substring("st1.".length()).split("\\.");
+    }
+
+    private static String toServerToken(String payload, String mac) {
+        return BaseMultibaseUtil.encode(("st1." + payload + "." + mac).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.omnione.did.base.aop.IdempotentStepAspects;
+import org.omnione.did.base.db.constant.SubTransactionType;
+import org.omnione.did.base.db.domain.StepResponse;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.db.repository.StepResponseRepository;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.idempotency.IdempotentStep;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.StepReplayService;
+import org.omnione.did.tas.v1.service.TransactionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StepReplayTest {
+    private final Map<String, StepResponse> stored = new ConcurrentHashMap<>();
+    private StepResponseRepository stepResponseRepository;
+    private StepReplayService stepReplayService;
+    private StepTarget target;
+    private StepTarget proxy;
+
+    @BeforeEach
+    public void setUp() {
+        stepResponseRepository = Mockito.mock(StepResponseRepository.class);
+        Mockito.when(stepResponseRepository.findByTxIdAndStep(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(key(invocation.getArgument(0), invocation.getArgument(1)))));
+        Mockito.when(stepResponseRepository.save(ArgumentMatchers.any(StepResponse.class))).thenAnswer(invocation -> {
+            StepResponse stepResponse = invocation.getArgument(0);
+            if (stored.putIfAbsent(key(stepResponse.getTxId(), stepResponse.getStep()), stepResponse) != null) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            return stepResponse;
+        });
+
+        TransactionService transactionService = Mockito.mock(TransactionService.class);
+        Mockito.when(transactionService.findTransactionByTxId(ArgumentMatchers.anyString()))
+                .thenReturn(Transaction.builder().expiredAt(Instant.now().plusSeconds(300)).build());
+
+        stepReplayService = new StepReplayService(new TasProperty(), stepResponseRepository, transactionService, new ObjectMapper());
+
+        target = new StepTarget();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new IdempotentStepAspects(stepReplayService));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    public void sameKeyAndPayloadReplaysStoredResponse() {
+        StepResult first = proxy.run(new StepRequest("tx-1", "nonce-1"));
+        StepResult second = proxy.run(new StepRequest("tx-1", "nonce-1"));
+
+        Assertions.assertEquals(1, target.calls.get());
+        Assertions.assertEquals(first.result, second.result);
+    }
+
+    @Test
+    public void sameKeyWithDifferentPayloadIsRejected() {
+        proxy.run(new StepRequest("tx-1", "nonce-1"));
+
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class,
+                () -> proxy.run(new StepRequest("tx-1", "nonce-2")));
+        Assertions.assertEquals(ErrorCode.STEP_REQUEST_MISMATCH, e.getErrorCode());
+        Assertions.assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    public void failedCallIsNotStored() {
+        target.fail = true;
+        Assertions.assertThrows(IllegalStateException.class, () -> proxy.run(new StepRequest("tx-1", "nonce-1")));
+        Assertions.assertTrue(stored.isEmpty());
+
+        target.fail = false;
+        proxy.run(new StepRequest("tx-1", "nonce-1"));
+        Assertions.assertEquals(2, target.calls.get());
+        Assertions.assertEquals(1, stored.size());
+    }
+
+    @Test
+    public void asyncResponseIsStoredOnCompletion() throws Exception {
+        CompletableFuture<StepResult> pending = new CompletableFuture<>();
+        target.pending = pending;
+
+        CompletableFuture<StepResult> future = proxy.runAsync(new StepRequest("tx-1", "nonce-1"));
+        Assertions.assertTrue(stored.isEmpty());
+
+        pending.complete(new StepResult("async-1"));
+        Assertions.assertEquals("async-1", future.get(1, TimeUnit.SECONDS).result);
+        Assertions.assertEquals(1, stored.size());
+
+        StepResult replayed = proxy.runAsync(new StepRequest("tx-1", "nonce-1")).get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals("async-1", replayed.result);
+        Assertions.assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    public void asyncFailureIsNotStored() {
+        CompletableFuture<StepResult> pending = new CompletableFuture<>();
+        target.pending = pending;
+
+        CompletableFuture<StepResult> future = proxy.runAsync(new StepRequest("tx-1", "nonce-1"));
+        pending.completeExceptionally(new IllegalStateException("step failed"));
+
+        Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(stored.isEmpty());
+
+        target.pending = CompletableFuture.completedFuture(new StepResult("async-2"));
+        Assertions.assertEquals("async-2", proxy.runAsync(new StepRequest("tx-1", "nonce-1")).join().result);
+    }
+
+    @Test
+    public void concurrentFirstCallIsRejectedWhileStepRuns() throws Exception {
+        target.entered = new CountDownLatch(1);
+        target.release = new CountDownLatch(1);
+        CompletableFuture<StepResult> first = CompletableFuture.supplyAsync(() -> proxy.run(new StepRequest("tx-1", "nonce-1")));
+        Assertions.assertTrue(target.entered.await(1, TimeUnit.SECONDS));
+
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class,
+                () -> proxy.run(new StepRequest("tx-1", "nonce-1")));
+        Assertions.assertEquals(ErrorCode.CONCURRENT_REQUEST_IN_PROGRESS, e.getErrorCode());
+
+        target.release.countDown();
+        StepResult result = first.get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals(result.result, proxy.run(new StepRequest("tx-1", "nonce-1")).result);
+        Assertions.assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    public void concurrentSaveFromAnotherNodeKeepsFirstResponse() {
+        stepReplayService.saveResponse("tx-1", SubTransactionType.REQUEST_ECDH, "digest", new StepResult("first"));
+        stepReplayService.saveResponse("tx-1", SubTransactionType.REQUEST_ECDH, "digest", new StepResult("second"));
+
+        StepResult replayed = stepReplayService.findResponse("tx-1", SubTransactionType.REQUEST_ECDH, "digest", StepResult.class);
+        Assertions.assertEquals("first", replayed.result);
+    }
+
+    @Test
+    public void expiredResponseIsNotReplayed() {
+        proxy.run(new StepRequest("tx-1", "nonce-1"));
+        stored.values().forEach(stepResponse -> stepResponse.setExpiredAt(Instant.now().minusSeconds(1)));
+
+        Assertions.assertNull(stepReplayService.findResponse("tx-1", SubTransactionType.REQUEST_ECDH,
+                stepReplayService.digest(new StepRequest("tx-1", "nonce-1")), StepResult.class));
+    }
+
+    private static String key(String txId, SubTransactionType step) {
+        return txId + ':' + step;
+    }
+
+    public static class StepTarget {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean fail;
+        private volatile CompletableFuture<StepResult> pending;
+        private volatile CountDownLatch entered;
+        private volatile CountDownLatch release;
+
+        @IdempotentStep(SubTransactionType.REQUEST_ECDH)
+        public StepResult run(StepRequest request) {
+            int call = calls.incrementAndGet();
+            if (entered != null) {
+                entered.countDown();
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new IllegalStateException("step failed");
+            }
+            return new StepResult("result-" + call);
+        }
+
+        @IdempotentStep(SubTransactionType.REQUEST_ECDH)
+        public CompletableFuture<StepResult> runAsync(StepRequest request) {
+            calls.incrementAndGet();
+            return pending;
+        }
+    }
+
+    public static class StepRequest {
+        private final String txId;
+        private final String nonce;
+
+        public StepRequest(String txId, String nonce) {
+            this.txId = txId;
+            this.nonce = nonce;
+        }
+
+        public String getTxId() {
+            return txId;
+        }
+
+        public String getNonce() {
+            return nonce;
+        }
+    }
+
+    public static class StepResult {
+        public String result;
+
+        public StepResult() {
+        }
+
+        public StepResult(String result) {
+            this.result = result;
+        }
+    }
+}
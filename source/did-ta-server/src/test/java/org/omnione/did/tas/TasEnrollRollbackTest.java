@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.db.constant.LedgerOutboxOperation;
+import org.omnione.did.base.db.constant.TasStatus;
+import org.omnione.did.base.db.constant.TransactionType;
+import org.omnione.did.base.db.domain.Tas;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.db.repository.CertificateVcRepository;
+import org.omnione.did.base.db.repository.TasRepository;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.FileWalletService;
+import org.omnione.did.tas.v1.service.IssueVcService;
+import org.omnione.did.tas.v1.service.LedgerOutboxService;
+import org.omnione.did.tas.v1.service.LedgerWriteFailedEvent;
+import org.omnione.did.tas.v1.service.ReferenceDataCache;
+import org.omnione.did.tas.v1.service.StorageService;
+import org.omnione.did.tas.v1.service.TasServiceImpl;
+import org.omnione.did.tas.v1.service.TransactionService;
+import org.omnione.did.tas.v1.service.query.TasQueryService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+
+public class TasEnrollRollbackTest {
+    private static final String TAS_DID = "did:omn:tas";
+
+    private TasRepository tasRepository;
+    private TransactionService transactionService;
+    private TasServiceImpl tasService;
+    private Tas tas;
+
+    @BeforeEach
+    public void setUp() {
+        tasRepository = Mockito.mock(TasRepository.class);
+        transactionService = Mockito.mock(TransactionService.class);
+        TasProperty tasProperty = new TasProperty();
+        tasProperty.setDid(TAS_DID);
+        tasService = new TasServiceImpl(tasRepository, Mockito.mock(TasQueryService.class), transactionService,
+                Mockito.mock(StorageService.class), Mockito.mock(LedgerOutboxService.class), tasProperty,
+                Mockito.mock(CertificateVcRepository.class), Mockito.mock(IssueVcService.class),
+                Mockito.mock(FileWalletService.class), Mockito.mock(ReferenceDataCache.class));
+
+        tas = new Tas();
+        tas.setDid(TAS_DID);
+        tas.setStatus(TasStatus.COMPLETED);
+        tas.setCertificateUrl("http://tas/certificate-vc");
+        Mockito.when(tasRepository.findByDid(TAS_DID)).thenReturn(Optional.of(tas));
+    }
+
+    @Test
+    public void failedCertificateVcMetaRevertsEnrollment() {
+        givenTransaction(TransactionType.TAS_REGISTRATION);
+
+        tasService.onLedgerWriteFailed(new LedgerWriteFailedEvent(10L, LedgerOutboxOperation.REGISTER_VC_META, "vc-1"));
+
+        Assertions.assertEquals(TasStatus.CERTIFICATE_VC_REQUIRED, tas.getStatus());
+        Assertions.assertNull(tas.getCertificateUrl());
+        Mockito.verify(tasRepository).save(tas);
+    }
+
+    @Test
+    public void otherFailedWritesLeaveTasUnchanged() {
+        givenTransaction(TransactionType.ISSUE_VC);
+
+        tasService.onLedgerWriteFailed(new LedgerWriteFailedEvent(10L, LedgerOutboxOperation.REGISTER_VC_META, "vc-1"));
+        tasService.onLedgerWriteFailed(new LedgerWriteFailedEvent(10L, LedgerOutboxOperation.REGISTER_DID_DOC, TAS_DID));
+
+        Assertions.assertEquals(TasStatus.COMPLETED, tas.getStatus());
+        Mockito.verify(tasRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    private void givenTransaction(TransactionType type) {
+        Mockito.when(transactionService.findTransactionById(10L)).thenReturn(Transaction.builder()
+                .id(10L)
+                .type(type)
+                .build());
+    }
+}
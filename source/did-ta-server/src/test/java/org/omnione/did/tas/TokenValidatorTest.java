@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.datamodel.enums.ServerTokenPurpose;
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.AuthProperty;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.tas.v1.helper.ServerTokenMacHelper;
+import org.omnione.did.tas.v1.service.query.TokenQueryService;
+import org.omnione.did.tas.v1.service.validator.TokenValidator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+public class TokenValidatorTest {
+    private static final String SECRET = "k1-0123456789abcdef0123456789abcdef";
+
+    private AuthProperty authProperty;
+    private ServerTokenMacHelper serverTokenMacHelper;
+    private TokenQueryService tokenQueryService;
+    private TokenValidator tokenValidator;
+    private Transaction transaction;
+
+    @BeforeEach
+    public void setUp() {
+        authProperty = new AuthProperty();
+        authProperty.getServerToken().setCurrentKeyId("k1");
+        authProperty.getServerToken().getSecrets().put("k1", SECRET);
+        serverTokenMacHelper = new ServerTokenMacHelper(authProperty);
+        tokenQueryService = Mockito.mock(TokenQueryService.class);
+        tokenValidator = new TokenValidator(tokenQueryService, serverTokenMacHelper);
+        transaction = Transaction.builder().id(1L).txId("tx-1").build();
+    }
+
+    @Test
+    public void legacyTokenIsComparedWithStoredToken() {
+        String serverToken = legacyToken("legacy-token");
+        storeLegacyToken(serverToken, Instant.now().plusSeconds(300));
+
+        Token token = tokenValidator.validateServerToken(serverToken, transaction, ServerTokenPurpose.ISSUE_VC);
+
+        Assertions.assertEquals(serverToken, token.getToken());
+        Mockito.verify(tokenQueryService).findTokenByTransactionId(1L);
+    }
+
+    @Test
+    public void legacyTokenThatDiffersFromStoredTokenIsRejected() {
+        storeLegacyToken(legacyToken("legacy-token"), Instant.now().plusSeconds(300));
+
+        assertRejected(legacyToken("other-token"), ErrorCode.INVALID_TOKEN);
+    }
+
+    @Test
+    public void legacyTokenIsRejectedOnceLegacyIsNoLongerAccepted() {
+        authProperty.getServerToken().setStateless(true);
+        authProperty.getServerToken().setAcceptLegacy(false);
+        String serverToken = legacyToken("legacy-token");
+        storeLegacyToken(serverToken, Instant.now().plusSeconds(300));
+
+        assertRejected(serverToken, ErrorCode.INVALID_TOKEN);
+        Mockito.verify(tokenQueryService, Mockito.never()).findTokenByTransactionId(Mockito.anyLong());
+    }
+
+    @Test
+    public void macTokenIsVerifiedWithoutDatabase() {
+        authProperty.getServerToken().setStateless(true);
+        String serverToken = serverTokenMacHelper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet-1", "app-1",
+                Instant.now().plusSeconds(300));
+
+        Token token = tokenValidator.validateServerToken(serverToken, transaction, ServerTokenPurpose.ISSUE_VC);
+
+        Assertions.assertEquals("wallet-1", token.getWalletId());
+        Mockito.verifyNoInteractions(tokenQueryService);
+    }
+
+    @Test
+    public void macTokenIsRejectedWhenStatelessIsDisabled() {
+        authProperty.getServerToken().setStateless(true);
+        String serverToken = serverTokenMacHelper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet-1", "app-1",
+                Instant.now().plusSeconds(300));
+        storeLegacyToken(legacyToken("legacy-token"), Instant.now().plusSeconds(300));
+        authProperty.getServerToken().setStateless(false);
+
+        assertRejected(serverToken, ErrorCode.INVALID_TOKEN);
+    }
+
+    @Test
+    public void expiredTokensAreRejected() {
+        authProperty.getServerToken().setStateless(true);
+        String macToken = serverTokenMacHelper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet-1", "app-1",
+                Instant.now().minusSeconds(1));
+        assertRejected(macToken, ErrorCode.TOKEN_EXPIRED);
+
+        String legacyToken = legacyToken("legacy-token");
+        storeLegacyToken(legacyToken, Instant.now().minusSeconds(1));
+        assertRejected(legacyToken, ErrorCode.TOKEN_EXPIRED);
+    }
+
+    @Test
+    public void tokenForAnotherPurposeIsRejected() {
+        authProperty.getServerToken().setStateless(true);
+        String serverToken = serverTokenMacHelper.issue(transaction, ServerTokenPurpose.ISSUE_VC, "wallet-1", "app-1",
+                Instant.now().plusSeconds(300));
+
+        assertRejected(serverToken, ErrorCode.UNSUPPORTED_PURPOSE, ServerTokenPurpose.REVOKE_VC);
+    }
+
+    private void assertRejected(String serverToken, ErrorCode errorCode) {
+        assertRejected(serverToken, errorCode, ServerTokenPurpose.ISSUE_VC);
+    }
+
+    private void assertRejected(String serverToken, ErrorCode errorCode, ServerTokenPurpose purpose) {
+        OpenDidException e = Assertions.assertThrows(OpenDidException.class,
+                () -> tokenValidator.validateServerToken(serverToken, transaction, purpose));
+        Assertions.assertEquals(errorCode, e.getErrorCode());
+    }
+
+    private void storeLegacyToken(String serverToken, Instant expiredAt) {
+        Mockito.when(tokenQueryService.findTokenByTransactionId(1L)).thenReturn(Token.builder()
+                .transactionId(1L)
+                .purpose(ServerTokenPurpose.ISSUE_VC.toString())
+                .token(serverToken)
+                .expiredAt(expiredAt)
+                .build());
+    }
+
+    private static String legacyToken(String value) {
+        return BaseMultibaseUtil.encode(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
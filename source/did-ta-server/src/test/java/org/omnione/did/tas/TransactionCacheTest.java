@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.db.constant.TransactionStatus;
+import org.omnione.did.base.db.domain.SubTransaction;
+import org.omnione.did.base.db.domain.Token;
+import org.omnione.did.base.db.domain.Transaction;
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.TransactionCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+public class TransactionCacheTest {
+    private TasProperty tasProperty;
+    private TransactionCache transactionCache;
+
+    @BeforeEach
+    public void setUp() {
+        tasProperty = new TasProperty();
+        tasProperty.getTransactionCache().setEnable(true);
+        tasProperty.getTransactionCache().setMaxSize(2);
+        transactionCache = new TransactionCache(tasProperty);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        TasProperty defaults = new TasProperty();
+        TransactionCache cache = new TransactionCache(defaults);
+        cache.putTransaction(pending(1L, "tx-1"));
+
+        Assertions.assertNull(cache.getTransaction("tx-1"));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void hitReturnsCachedStateAndMissReturnsNull() {
+        Transaction transaction = pending(1L, "tx-1");
+        transactionCache.putTransaction(transaction);
+        Token token = Token.builder().id(5L).transactionId(1L).token("token").build();
+        transactionCache.putToken(token);
+
+        Assertions.assertSame(transaction, transactionCache.getTransaction("tx-1"));
+        Assertions.assertSame(transaction, transactionCache.getTransaction(1L));
+        Assertions.assertSame(token, transactionCache.getToken(1L));
+        Assertions.assertNull(transactionCache.getTransaction("tx-2"));
+        Assertions.assertNull(transactionCache.getToken(2L));
+    }
+
+    @Test
+    public void earlierStepDoesNotReplaceLaterStep() {
+        transactionCache.putTransaction(pending(1L, "tx-1"));
+        SubTransaction second = SubTransaction.builder().id(11L).transactionId(1L).step(2).build();
+        transactionCache.putLastSubTransaction(second);
+        transactionCache.putLastSubTransaction(SubTransaction.builder().id(10L).transactionId(1L).step(1).build());
+
+        Assertions.assertSame(second, transactionCache.getLastSubTransaction(1L));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        transactionCache.putTransaction(pending(1L, "tx-1"));
+        transactionCache.putTransaction(pending(2L, "tx-2"));
+        transactionCache.getTransaction("tx-1");
+
+        transactionCache.putTransaction(pending(3L, "tx-3"));
+
+        Assertions.assertEquals(2, transactionCache.size());
+        Assertions.assertNotNull(transactionCache.getTransaction("tx-1"));
+        Assertions.assertNull(transactionCache.getTransaction("tx-2"));
+        Assertions.assertNull(transactionCache.getTransaction(2L));
+        Assertions.assertNotNull(transactionCache.getTransaction("tx-3"));
+    }
+
+    @Test
+    public void settledTransactionIsInvalidated() {
+        Transaction transaction = pending(1L, "tx-1");
+        transactionCache.putTransaction(transaction);
+
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transactionCache.putTransaction(transaction);
+
+        Assertions.assertNull(transactionCache.getTransaction("tx-1"));
+        Assertions.assertNull(transactionCache.getTransaction(1L));
+    }
+
+    @Test
+    public void evictRemovesEntry() {
+        transactionCache.putTransaction(pending(1L, "tx-1"));
+
+        transactionCache.evict("tx-1");
+
+        Assertions.assertNull(transactionCache.getTransaction("tx-1"));
+        Assertions.assertEquals(0, transactionCache.size());
+    }
+
+    @Test
+    public void expiredEntryIsNotReturned() {
+        Transaction transaction = pending(1L, "tx-1");
+        transaction.setExpiredAt(Instant.now().minusSeconds(1));
+        transactionCache.putTransaction(transaction);
+
+        Assertions.assertNull(transactionCache.getTransaction("tx-1"));
+    }
+
+    private static Transaction pending(Long id, String txId) {
+        return Transaction.builder()
+                .id(id)
+                .txId(txId)
+                .status(TransactionStatus.PENDING)
+                .expiredAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.datasource.DataSourceRoutingContext;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.VcAsyncProperty;
+import org.omnione.did.tas.v1.helper.VcAsyncHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VcAsyncHelperTest {
+    private PlatformTransactionManager transactionManager;
+    private VcAsyncHelper vcAsyncHelper;
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        VcAsyncProperty property = new VcAsyncProperty();
+        property.setCompletionThreads(2);
+        property.setDefaultTimeoutMs(200);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(transactionManager.getTransaction(ArgumentMatchers.any()))
+                .thenReturn(Mockito.mock(TransactionStatus.class));
+        vcAsyncHelper = new VcAsyncHelper(property, transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        vcAsyncHelper.shutdown();
+    }
+
+    @Test
+    public void stageCommitsItsWrites() {
+        String result = vcAsyncHelper.execute("propose-issue-vc",
+                () -> vcAsyncHelper.completeInTransaction(CompletableFuture.completedFuture("issuer"), this::write)).join();
+
+        Assertions.assertEquals("issuer-written", result);
+        Mockito.verify(transactionManager).commit(ArgumentMatchers.any());
+        Mockito.verify(transactionManager, Mockito.never()).rollback(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void writesAreSkippedWhenIssuerRespondsAfterTimeout() throws Exception {
+        CompletableFuture<String> issuerResponse = new CompletableFuture<>();
+        CompletableFuture<String> future = vcAsyncHelper.execute("propose-issue-vc",
+                () -> vcAsyncHelper.completeInTransaction(issuerResponse, this::write));
+
+        assertTimedOut(future);
+        issuerResponse.complete("issuer");
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        Assertions.assertEquals(0, writes.get());
+        Mockito.verify(transactionManager, Mockito.never()).commit(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void writesAreRolledBackWhenTimeoutOccursMeanwhile() throws Exception {
+        AtomicBoolean stageDone = new AtomicBoolean();
+        CompletableFuture<String> future = vcAsyncHelper.execute("propose-issue-vc",
+                () -> vcAsyncHelper.completeInTransaction(CompletableFuture.completedFuture("issuer"), response -> {
+                    String written = write(response);
+                    sleep(400);
+                    stageDone.set(true);
+                    return written;
+                }));
+
+        assertTimedOut(future);
+        Mockito.verify(transactionManager, Mockito.timeout(1000)).rollback(ArgumentMatchers.any());
+        Assertions.assertTrue(stageDone.get());
+        Mockito.verify(transactionManager, Mockito.never()).commit(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void committingCallIsNotTimedOut() {
+        Mockito.doAnswer(invocation -> {
+            sleep(400);
+            return null;
+        }).when(transactionManager).commit(ArgumentMatchers.any());
+
+        String result = vcAsyncHelper.execute("propose-issue-vc",
+                () -> vcAsyncHelper.completeInTransaction(CompletableFuture.completedFuture("issuer"), this::write)).join();
+
+        Assertions.assertEquals("issuer-written", result);
+    }
+
+    @Test
+    public void onlyThePrimaryPinIsCarriedToTheStage() {
+        Boolean previous = DataSourceRoutingContext.enterPinnedToPrimary();
+        CompletableFuture<Boolean> future;
+        try {
+            future = vcAsyncHelper.execute("propose-issue-vc",
+                    () -> vcAsyncHelper.completeInTransaction(CompletableFuture.completedFuture("issuer"),
+                            response -> DataSourceRoutingContext.isPinnedToPrimary()));
+        } finally {
+            DataSourceRoutingContext.restorePin(previous);
+        }
+
+        Assertions.assertTrue(future.join());
+        Assertions.assertFalse(vcAsyncHelper.execute("propose-issue-vc",
+                () -> vcAsyncHelper.completeInTransaction(CompletableFuture.completedFuture("issuer"),
+                        response -> DataSourceRoutingContext.isPinnedToPrimary())).join());
+    }
+
+    private String write(String response) {
+        writes.incrementAndGet();
+        return response + "-written";
+    }
+
+    private static void assertTimedOut(CompletableFuture<?> future) {
+        CompletionException e = Assertions.assertThrows(CompletionException.class, future::join);
+        Assertions.assertEquals(ErrorCode.ISSUER_RESPONSE_TIMEOUT, ((OpenDidException) e.getCause()).getErrorCode());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
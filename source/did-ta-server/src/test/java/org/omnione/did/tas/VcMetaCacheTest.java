@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas;
+
+import org.omnione.did.base.property.TasProperty;
+import org.omnione.did.tas.v1.service.VcMetaCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.data.model.enums.vc.VcStatus;
+import org.omnione.did.data.model.vc.VcMeta;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VcMetaCacheTest {
+    private TasProperty tasProperty;
+    private VcMetaCache vcMetaCache;
+
+    @BeforeEach
+    public void setUp() {
+        tasProperty = new TasProperty();
+        vcMetaCache = new VcMetaCache(tasProperty);
+    }
+
+    @Test
+    public void repeatedReadIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.ACTIVE));
+        VcMeta vcMeta = vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.ACTIVE));
+
+        Assertions.assertEquals("vc-1", vcMeta.getId());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void activeEntryExpiresBeforeRevokedEntry() {
+        tasProperty.getVcMetaCache().setActiveTtlSeconds(0);
+        AtomicInteger activeLoads = new AtomicInteger();
+        AtomicInteger revokedLoads = new AtomicInteger();
+
+        vcMetaCache.get("vc-1", () -> load(activeLoads, "vc-1", VcStatus.ACTIVE));
+        vcMetaCache.get("vc-1", () -> load(activeLoads, "vc-1", VcStatus.ACTIVE));
+        vcMetaCache.get("vc-2", () -> load(revokedLoads, "vc-2", VcStatus.REVOKED));
+        vcMetaCache.get("vc-2", () -> load(revokedLoads, "vc-2", VcStatus.REVOKED));
+
+        Assertions.assertEquals(2, activeLoads.get());
+        Assertions.assertEquals(1, revokedLoads.get());
+    }
+
+    @Test
+    public void evictedEntryIsReloaded() {
+        AtomicInteger loads = new AtomicInteger();
+        vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.ACTIVE));
+        vcMetaCache.evictAll(List.of("vc-1", "did:omn:user1"));
+        VcMeta vcMeta = vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.REVOKED));
+
+        Assertions.assertEquals(VcStatus.REVOKED.getRawValue(), vcMeta.getStatus());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void loadOverlappingEvictionIsNotStored() {
+        AtomicInteger loads = new AtomicInteger();
+        vcMetaCache.get("vc-1", () -> {
+            vcMetaCache.evict("vc-1");
+            return load(loads, "vc-1", VcStatus.ACTIVE);
+        });
+
+        Assertions.assertEquals(0, vcMetaCache.size());
+    }
+
+    @Test
+    public void cacheIsBoundedByMaxSize() {
+        tasProperty.getVcMetaCache().setMaxSize(2);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            String vcId = "vc-" + i;
+            vcMetaCache.get(vcId, () -> load(loads, vcId, VcStatus.ACTIVE));
+        }
+
+        Assertions.assertEquals(2, vcMetaCache.size());
+    }
+
+    @Test
+    public void leastRecentlyReadEntryIsDroppedFirst() {
+        tasProperty.getVcMetaCache().setMaxSize(2);
+        AtomicInteger loads = new AtomicInteger();
+        vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.ACTIVE));
+        vcMetaCache.get("vc-2", () -> load(loads, "vc-2", VcStatus.ACTIVE));
+        vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.ACTIVE));
+        vcMetaCache.get("vc-3", () -> load(loads, "vc-3", VcStatus.ACTIVE));
+
+        vcMetaCache.get("vc-1", () -> load(loads, "vc-1", VcStatus.ACTIVE));
+        Assertions.assertEquals(3, loads.get());
+        vcMetaCache.get("vc-2", () -> load(loads, "vc-2", VcStatus.ACTIVE));
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    private static VcMeta load(AtomicInteger loads, String vcId, VcStatus status) {
+        loads.incrementAndGet();
+        VcMeta vcMeta = new VcMeta();
+        vcMeta.setId(vcId);
+        vcMeta.setStatus(status.getRawValue());
+        return vcMeta;
+    }
+}
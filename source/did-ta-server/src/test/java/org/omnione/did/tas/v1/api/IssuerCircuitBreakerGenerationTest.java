@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.tas.v1.api;
+
+import org.omnione.did.base.property.IssuerClientProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IssuerCircuitBreakerGenerationTest {
+    private IssuerCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setUp() {
+        IssuerClientProperty.CircuitBreaker config = new IssuerClientProperty.CircuitBreaker();
+        config.setWindowSize(4);
+        config.setMinimumCalls(2);
+        // The breaker goes half-open on the first call after it opened.
+        config.setOpenDurationMs(0);
+        config.setHalfOpenCalls(1);
+        circuitBreaker = new IssuerCircuitBreaker("http://issuer", config);
+    }
+
+    @Test
+    public void lateSuccessFromClosedStateDoesNotCloseTheBreaker() {
+        long stale = circuitBreaker.tryAcquirePermission();
+        open();
+        long trial = circuitBreaker.tryAcquirePermission();
+        Assertions.assertNotEquals(IssuerCircuitBreaker.NOT_PERMITTED, trial);
+
+        circuitBreaker.onResult(stale, 0, false);
+        Assertions.assertEquals(IssuerCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onResult(trial, 0, false);
+        Assertions.assertEquals(IssuerCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void lateFailureFromClosedStateDoesNotReopenTheBreaker() {
+        long stale = circuitBreaker.tryAcquirePermission();
+        open();
+        long trial = circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onResult(stale, 0, true);
+        Assertions.assertEquals(IssuerCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertEquals(IssuerCircuitBreaker.NOT_PERMITTED, circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onResult(trial, 0, false);
+        Assertions.assertEquals(IssuerCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void resetStartsANewGeneration() {
+        long stale = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.reset();
+
+        circuitBreaker.onResult(stale, 0, true);
+        circuitBreaker.onResult(circuitBreaker.tryAcquirePermission(), 0, true);
+
+        Assertions.assertEquals(IssuerCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(1, circuitBreaker.snapshot().getBufferedCalls());
+    }
+
+    private void open() {
+        circuitBreaker.onResult(circuitBreaker.tryAcquirePermission(), 0, true);
+        circuitBreaker.onResult(circuitBreaker.tryAcquirePermission(), 0, true);
+    }
+}